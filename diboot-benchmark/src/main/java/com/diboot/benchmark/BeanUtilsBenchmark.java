@@ -0,0 +1,79 @@
+package com.diboot.benchmark;
+
+import com.diboot.benchmark.entity.Department;
+import com.diboot.benchmark.vo.DepartmentFieldVO;
+import com.diboot.benchmark.vo.DepartmentTreeVO;
+import com.diboot.core.util.BeanUtils;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BeanUtils基准测试：对象转换、树构建、属性收集及属性读写（内存数据，无需数据库）
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/16
+ * Copyright © diboot.com
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BeanUtilsBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int rows;
+
+    private List<Department> departments;
+    private List<DepartmentTreeVO> treeNodes;
+
+    @Setup(Level.Trial)
+    public void prepare(){
+        departments = new ArrayList<>(rows);
+        for(long id = 1; id <= rows; id++){
+            Department department = new Department().setParentId(id / 10).setOrgId(id % 100 + 1).setName("dept" + id);
+            department.setId(id);
+            departments.add(department);
+        }
+        treeNodes = BeanUtils.convertList(departments, DepartmentTreeVO.class);
+    }
+
+    @Benchmark
+    public List<DepartmentFieldVO> convertList(){
+        return BeanUtils.convertList(departments, DepartmentFieldVO.class);
+    }
+
+    @Benchmark
+    public List<DepartmentTreeVO> buildTree(){
+        return BeanUtils.buildTree(treeNodes);
+    }
+
+    @Benchmark
+    public List collectToList(){
+        return BeanUtils.collectToList(departments, Department::getOrgId);
+    }
+
+    @Benchmark
+    public List<Department> propertyBeanWrapper(){
+        for(Department department : departments){
+            BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(department);
+            wrapper.setPropertyValue("name", wrapper.getPropertyValue("name"));
+        }
+        return departments;
+    }
+
+    @Benchmark
+    public List<Department> propertyAccessor(){
+        for(Department department : departments){
+            BeanUtils.setProperty(department, "name", BeanUtils.getProperty(department, "name"));
+        }
+        return departments;
+    }
+
+}
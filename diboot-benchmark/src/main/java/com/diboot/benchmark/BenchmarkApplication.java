@@ -0,0 +1,17 @@
+package com.diboot.benchmark;
+
+import org.mybatis.spring.annotation.MapperScan;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * 基准测试Spring Boot应用（非Web环境，基于内嵌H2数据库）
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/16
+ * Copyright © diboot.com
+ */
+@SpringBootApplication
+@MapperScan({"com.diboot.benchmark.mapper"})
+public class BenchmarkApplication {
+
+}
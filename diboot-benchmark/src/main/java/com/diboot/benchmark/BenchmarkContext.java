@@ -0,0 +1,103 @@
+package com.diboot.benchmark;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.diboot.benchmark.entity.Department;
+import com.diboot.benchmark.entity.User;
+import com.diboot.benchmark.service.DepartmentService;
+import com.diboot.benchmark.service.UserService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * 基准测试上下文：按数据量启动Spring容器并向H2生成测试数据
+ * <p>
+ * 数据规模（rows为参数）：部门/用户各rows条，单位rows/10条，角色10条，每个用户2个角色
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/16
+ * Copyright © diboot.com
+ */
+@Slf4j
+public class BenchmarkContext {
+
+    /**
+     * 启动容器并生成数据
+     * @param rows 部门及用户数据量
+     * @return
+     */
+    public static ConfigurableApplicationContext start(int rows){
+        long startTime = System.currentTimeMillis();
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BenchmarkApplication.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:diboot_bench_" + rows + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.sql.init.mode=always",
+                        "spring.sql.init.schema-locations=classpath:benchmark/schema-h2.sql",
+                        "diboot.core.init-sql=false",
+                        "logging.level.root=WARN"
+                ).run();
+        seed(context.getBean(JdbcTemplate.class), rows);
+        log.warn("基准测试数据初始化完成: rows={}, 耗时={}ms", rows, System.currentTimeMillis() - startTime);
+        return context;
+    }
+
+    /**
+     * 清理数据并关闭容器（内存库在同一JVM中可被复用，需清理）
+     * @param context
+     */
+    public static void stop(ConfigurableApplicationContext context){
+        if(context == null){
+            return;
+        }
+        context.getBean(JdbcTemplate.class).execute("DROP ALL OBJECTS");
+        context.close();
+    }
+
+    /**
+     * 查询前limit条部门
+     * @param context
+     * @param limit
+     * @return
+     */
+    public static List<Department> getDepartments(ConfigurableApplicationContext context, int limit){
+        return context.getBean(DepartmentService.class).getEntityList(new QueryWrapper<Department>().le("id", limit));
+    }
+
+    /**
+     * 查询前limit条用户
+     * @param context
+     * @param limit
+     * @return
+     */
+    public static List<User> getUsers(ConfigurableApplicationContext context, int limit){
+        return context.getBean(UserService.class).getEntityList(new QueryWrapper<User>().le("id", limit));
+    }
+
+    /**
+     * 生成测试数据
+     * @param jdbcTemplate
+     * @param rows
+     */
+    private static void seed(JdbcTemplate jdbcTemplate, int rows){
+        int orgCount = Math.max(rows / 10, 1);
+        jdbcTemplate.execute("INSERT INTO organization (id, parent_id, name) SELECT X, 0, CONCAT('org', X) FROM SYSTEM_RANGE(1, " + orgCount + ")");
+        jdbcTemplate.execute("INSERT INTO department (id, parent_id, org_id, name) SELECT X, X/10, MOD(X, " + orgCount + ")+1, CONCAT('dept', X) FROM SYSTEM_RANGE(1, " + rows + ")");
+        jdbcTemplate.execute("INSERT INTO `user` (id, department_id, username, gender) SELECT X, X, CONCAT('user', X), CASEWHEN(MOD(X, 2)=0, 'M', 'F') FROM SYSTEM_RANGE(1, " + rows + ")");
+        jdbcTemplate.execute("INSERT INTO role (id, name, code) SELECT X, CONCAT('role', X), CONCAT('R', X) FROM SYSTEM_RANGE(1, 10)");
+        jdbcTemplate.execute("INSERT INTO user_role (user_id, role_id) SELECT X, MOD(X, 10)+1 FROM SYSTEM_RANGE(1, " + rows + ")");
+        jdbcTemplate.execute("INSERT INTO user_role (user_id, role_id) SELECT X, MOD(X+5, 10)+1 FROM SYSTEM_RANGE(1, " + rows + ")");
+        jdbcTemplate.execute("INSERT INTO dictionary (id, parent_id, type, item_name, item_value, sort_id) VALUES " +
+                "(1, 0, 'GENDER', '性别', NULL, 1), (2, 1, 'GENDER', '男', 'M', 1), (3, 1, 'GENDER', '女', 'F', 2)");
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.diboot.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * 基准测试入口，参数同JMH命令行；未指定结果文件时输出JSON结果，便于跨提交对比
+ * <pre>
+ * mvn -Pbenchmark package -pl diboot-benchmark -am -DskipTests
+ * java -Ddiboot.benchmark.label=$(git rev-parse --short HEAD) -jar diboot-benchmark/target/benchmarks.jar [BindingBenchmark] [-p rows=10000]
+ * </pre>
+ * 结果写入 jmh-result-{label}.json（label默认为时间戳）
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/16
+ * Copyright © diboot.com
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cmdOptions = new CommandLineOptions(args);
+        // 帮助及列表等命令交由JMH处理
+        if(cmdOptions.shouldHelp() || cmdOptions.shouldList() || cmdOptions.shouldListWithParams()
+                || cmdOptions.shouldListProfilers() || cmdOptions.shouldListResultFormats()){
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(cmdOptions);
+        ResultFormatType resultFormat = cmdOptions.getResultFormat().orElse(ResultFormatType.JSON);
+        builder.resultFormat(resultFormat);
+        if(!cmdOptions.getResult().hasValue()){
+            String label = System.getProperty("diboot.benchmark.label", new SimpleDateFormat("yyyyMMddHHmmss").format(new Date()));
+            builder.result("jmh-result-" + label + "." + resultFormat.name().toLowerCase());
+        }
+        new Runner(builder.build()).run();
+    }
+
+}
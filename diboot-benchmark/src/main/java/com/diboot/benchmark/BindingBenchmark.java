@@ -0,0 +1,73 @@
+package com.diboot.benchmark;
+
+import com.diboot.benchmark.vo.*;
+import com.diboot.core.binding.Binder;
+import com.diboot.core.util.BeanUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 关联绑定基准测试：字段/Entity/EntityList/数据字典/中间表绑定
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/16
+ * Copyright © diboot.com
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BindingBenchmark {
+
+    private List<DepartmentFieldVO> fieldVOList;
+    private List<DepartmentEntityVO> entityVOList;
+    private List<DepartmentChildrenVO> entityListVOList;
+    private List<UserDictVO> dictVOList;
+    private List<UserRoleVO> middleTableVOList;
+
+    @Setup(Level.Trial)
+    public void prepare(DataState data){
+        List departments = BenchmarkContext.getDepartments(data.context, data.batchSize);
+        List users = BenchmarkContext.getUsers(data.context, data.batchSize);
+        fieldVOList = BeanUtils.convertList(departments, DepartmentFieldVO.class);
+        entityVOList = BeanUtils.convertList(departments, DepartmentEntityVO.class);
+        entityListVOList = BeanUtils.convertList(departments, DepartmentChildrenVO.class);
+        dictVOList = BeanUtils.convertList(users, UserDictVO.class);
+        middleTableVOList = BeanUtils.convertList(users, UserRoleVO.class);
+    }
+
+    @Benchmark
+    public List<DepartmentFieldVO> bindField(){
+        Binder.bindRelations(fieldVOList);
+        return fieldVOList;
+    }
+
+    @Benchmark
+    public List<DepartmentEntityVO> bindEntity(){
+        Binder.bindRelations(entityVOList);
+        return entityVOList;
+    }
+
+    @Benchmark
+    public List<DepartmentChildrenVO> bindEntityList(){
+        Binder.bindRelations(entityListVOList);
+        return entityListVOList;
+    }
+
+    @Benchmark
+    public List<UserDictVO> bindDict(){
+        Binder.bindRelations(dictVOList);
+        return dictVOList;
+    }
+
+    @Benchmark
+    public List<UserRoleVO> bindMiddleTable(){
+        Binder.bindRelations(middleTableVOList);
+        return middleTableVOList;
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.diboot.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * 数据库基准测试的共享状态：每个数据量启动一次容器
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/16
+ * Copyright © diboot.com
+ */
+@State(Scope.Benchmark)
+public class DataState {
+
+    /**
+     * 表数据量
+     */
+    @Param({"1000", "10000", "100000"})
+    public int rows;
+
+    /**
+     * 每次绑定/查询的记录数
+     */
+    @Param({"1000"})
+    public int batchSize;
+
+    public ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void setup(){
+        context = BenchmarkContext.start(rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown(){
+        BenchmarkContext.stop(context);
+    }
+
+}
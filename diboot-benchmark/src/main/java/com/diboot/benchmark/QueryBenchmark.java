@@ -0,0 +1,70 @@
+package com.diboot.benchmark;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.diboot.benchmark.dto.DepartmentDTO;
+import com.diboot.benchmark.entity.Department;
+import com.diboot.core.binding.Binder;
+import com.diboot.core.binding.QueryBuilder;
+import com.diboot.core.binding.query.dynamic.DynamicJoinQueryWrapper;
+import com.diboot.core.binding.query.dynamic.DynamicSqlProvider;
+import com.diboot.core.vo.Pagination;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 查询构建基准测试：DTO转QueryWrapper、动态SQL构建及关联查询
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/16
+ * Copyright © diboot.com
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QueryBenchmark {
+
+    private DepartmentDTO simpleDTO;
+    private DepartmentDTO joinDTO;
+    private final DynamicSqlProvider sqlProvider = new DynamicSqlProvider();
+
+    @Setup(Level.Trial)
+    public void prepare(DataState data){
+        List<Long> parentIds = new ArrayList<>(data.batchSize);
+        for(long id = 1; id <= data.batchSize; id++){
+            parentIds.add(id);
+        }
+        simpleDTO = new DepartmentDTO().setName("dept").setParentIds(parentIds);
+        joinDTO = new DepartmentDTO().setName("dept").setOrgName("org1").setParentName("dept1");
+    }
+
+    @Benchmark
+    public QueryWrapper dtoToWrapper(){
+        return QueryBuilder.toQueryWrapper(simpleDTO);
+    }
+
+    @Benchmark
+    public QueryWrapper dtoToJoinWrapper(){
+        return QueryBuilder.toQueryWrapper(joinDTO);
+    }
+
+    @Benchmark
+    public String buildDynamicSql(){
+        DynamicJoinQueryWrapper wrapper = (DynamicJoinQueryWrapper)QueryBuilder.toQueryWrapper(joinDTO);
+        wrapper.setMainEntityClass(Department.class);
+        return sqlProvider.buildSqlForList(wrapper);
+    }
+
+    @Benchmark
+    public List<Department> dynamicJoinQuery(DataState data){
+        Pagination pagination = new Pagination();
+        pagination.setPageSize(Math.min(data.batchSize, 1000));
+        return Binder.joinQueryList(QueryBuilder.toQueryWrapper(joinDTO), Department.class, pagination);
+    }
+
+}
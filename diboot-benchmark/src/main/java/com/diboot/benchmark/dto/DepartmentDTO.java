@@ -0,0 +1,41 @@
+package com.diboot.benchmark.dto;
+
+import com.diboot.benchmark.entity.Department;
+import com.diboot.benchmark.entity.Organization;
+import com.diboot.core.binding.query.BindQuery;
+import com.diboot.core.binding.query.Comparison;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 查询条件DTO
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/16
+ * Copyright © diboot.com
+ */
+@Getter
+@Setter
+@Accessors(chain = true)
+public class DepartmentDTO implements Serializable {
+    private static final long serialVersionUID = 7362019283746571201L;
+
+    @BindQuery(comparison = Comparison.CONTAINS)
+    private String name;
+
+    @BindQuery(field = "parent_id", comparison = Comparison.IN)
+    private List<Long> parentIds;
+
+    // 关联表查询
+    @BindQuery(comparison = Comparison.STARTSWITH, entity = Organization.class, field = "name", condition = "this.org_id=id")
+    private String orgName;
+
+    // 关联表查询
+    @BindQuery(entity = Department.class, field = "name", condition = "this.parent_id=id")
+    private String parentName;
+
+}
@@ -0,0 +1,31 @@
+package com.diboot.benchmark.entity;
+
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.diboot.core.entity.BaseEntity;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+/**
+ * 部门Entity
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/16
+ * Copyright © diboot.com
+ */
+@Getter
+@Setter
+@Accessors(chain = true)
+public class Department extends BaseEntity {
+    private static final long serialVersionUID = 7362019283746571001L;
+
+    @TableField
+    private Long parentId;
+
+    @TableField
+    private Long orgId;
+
+    @TableField
+    private String name;
+
+}
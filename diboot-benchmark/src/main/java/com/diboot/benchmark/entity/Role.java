@@ -0,0 +1,28 @@
+package com.diboot.benchmark.entity;
+
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.diboot.core.entity.BaseEntity;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+/**
+ * 角色Entity
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/16
+ * Copyright © diboot.com
+ */
+@Getter
+@Setter
+@Accessors(chain = true)
+public class Role extends BaseEntity {
+    private static final long serialVersionUID = 7362019283746571004L;
+
+    @TableField
+    private String name;
+
+    @TableField
+    private String code;
+
+}
@@ -0,0 +1,17 @@
+package com.diboot.benchmark.mapper;
+
+import com.diboot.benchmark.entity.Organization;
+import com.diboot.core.mapper.BaseCrudMapper;
+import org.apache.ibatis.annotations.Mapper;
+
+/**
+ * Organization Mapper
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/16
+ * Copyright © diboot.com
+ */
+@Mapper
+public interface OrganizationMapper extends BaseCrudMapper<Organization> {
+
+}
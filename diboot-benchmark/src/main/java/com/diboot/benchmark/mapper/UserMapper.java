@@ -0,0 +1,17 @@
+package com.diboot.benchmark.mapper;
+
+import com.diboot.benchmark.entity.User;
+import com.diboot.core.mapper.BaseCrudMapper;
+import org.apache.ibatis.annotations.Mapper;
+
+/**
+ * User Mapper
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/16
+ * Copyright © diboot.com
+ */
+@Mapper
+public interface UserMapper extends BaseCrudMapper<User> {
+
+}
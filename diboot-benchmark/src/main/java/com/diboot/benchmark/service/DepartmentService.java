@@ -0,0 +1,15 @@
+package com.diboot.benchmark.service;
+
+import com.diboot.benchmark.entity.Department;
+import com.diboot.core.service.BaseService;
+
+/**
+ * Department Service
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/16
+ * Copyright © diboot.com
+ */
+public interface DepartmentService extends BaseService<Department> {
+
+}
@@ -0,0 +1,15 @@
+package com.diboot.benchmark.service;
+
+import com.diboot.benchmark.entity.Role;
+import com.diboot.core.service.BaseService;
+
+/**
+ * Role Service
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/16
+ * Copyright © diboot.com
+ */
+public interface RoleService extends BaseService<Role> {
+
+}
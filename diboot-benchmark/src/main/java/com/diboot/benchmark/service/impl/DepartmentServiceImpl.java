@@ -0,0 +1,19 @@
+package com.diboot.benchmark.service.impl;
+
+import com.diboot.benchmark.entity.Department;
+import com.diboot.benchmark.mapper.DepartmentMapper;
+import com.diboot.benchmark.service.DepartmentService;
+import com.diboot.core.service.impl.BaseServiceImpl;
+import org.springframework.stereotype.Service;
+
+/**
+ * Department Service实现
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/16
+ * Copyright © diboot.com
+ */
+@Service
+public class DepartmentServiceImpl extends BaseServiceImpl<DepartmentMapper, Department> implements DepartmentService {
+
+}
@@ -0,0 +1,19 @@
+package com.diboot.benchmark.service.impl;
+
+import com.diboot.benchmark.entity.Organization;
+import com.diboot.benchmark.mapper.OrganizationMapper;
+import com.diboot.benchmark.service.OrganizationService;
+import com.diboot.core.service.impl.BaseServiceImpl;
+import org.springframework.stereotype.Service;
+
+/**
+ * Organization Service实现
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/16
+ * Copyright © diboot.com
+ */
+@Service
+public class OrganizationServiceImpl extends BaseServiceImpl<OrganizationMapper, Organization> implements OrganizationService {
+
+}
@@ -0,0 +1,19 @@
+package com.diboot.benchmark.service.impl;
+
+import com.diboot.benchmark.entity.Role;
+import com.diboot.benchmark.mapper.RoleMapper;
+import com.diboot.benchmark.service.RoleService;
+import com.diboot.core.service.impl.BaseServiceImpl;
+import org.springframework.stereotype.Service;
+
+/**
+ * Role Service实现
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/16
+ * Copyright © diboot.com
+ */
+@Service
+public class RoleServiceImpl extends BaseServiceImpl<RoleMapper, Role> implements RoleService {
+
+}
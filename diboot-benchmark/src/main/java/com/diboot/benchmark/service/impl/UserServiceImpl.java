@@ -0,0 +1,19 @@
+package com.diboot.benchmark.service.impl;
+
+import com.diboot.benchmark.entity.User;
+import com.diboot.benchmark.mapper.UserMapper;
+import com.diboot.benchmark.service.UserService;
+import com.diboot.core.service.impl.BaseServiceImpl;
+import org.springframework.stereotype.Service;
+
+/**
+ * User Service实现
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/16
+ * Copyright © diboot.com
+ */
+@Service
+public class UserServiceImpl extends BaseServiceImpl<UserMapper, User> implements UserService {
+
+}
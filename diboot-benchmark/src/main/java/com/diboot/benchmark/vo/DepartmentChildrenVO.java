@@ -0,0 +1,31 @@
+package com.diboot.benchmark.vo;
+
+import com.diboot.benchmark.entity.Department;
+import com.diboot.core.binding.annotation.BindEntityList;
+import com.diboot.core.binding.annotation.BindFieldList;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.util.List;
+
+/**
+ * EntityList绑定场景VO
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/16
+ * Copyright © diboot.com
+ */
+@Getter
+@Setter
+@Accessors(chain = true)
+public class DepartmentChildrenVO extends Department {
+    private static final long serialVersionUID = 7362019283746571103L;
+
+    @BindEntityList(entity = Department.class, condition = "this.id=parent_id")
+    private List<Department> children;
+
+    @BindFieldList(entity = Department.class, field = "name", condition = "this.id=parent_id")
+    private List<String> childrenNames;
+
+}
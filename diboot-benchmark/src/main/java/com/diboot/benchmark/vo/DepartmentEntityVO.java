@@ -0,0 +1,26 @@
+package com.diboot.benchmark.vo;
+
+import com.diboot.benchmark.entity.Department;
+import com.diboot.benchmark.entity.Organization;
+import com.diboot.core.binding.annotation.BindEntity;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+/**
+ * Entity绑定场景VO
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/16
+ * Copyright © diboot.com
+ */
+@Getter
+@Setter
+@Accessors(chain = true)
+public class DepartmentEntityVO extends Department {
+    private static final long serialVersionUID = 7362019283746571102L;
+
+    @BindEntity(entity = Organization.class, condition = "this.org_id=id")
+    private Organization organization;
+
+}
@@ -0,0 +1,29 @@
+package com.diboot.benchmark.vo;
+
+import com.diboot.benchmark.entity.Department;
+import com.diboot.benchmark.entity.Organization;
+import com.diboot.core.binding.annotation.BindField;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+/**
+ * 字段绑定场景VO
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/16
+ * Copyright © diboot.com
+ */
+@Getter
+@Setter
+@Accessors(chain = true)
+public class DepartmentFieldVO extends Department {
+    private static final long serialVersionUID = 7362019283746571101L;
+
+    @BindField(entity = Organization.class, field = "name", condition = "this.org_id=id")
+    private String orgName;
+
+    @BindField(entity = Department.class, field = "name", condition = "this.parent_id=id")
+    private String parentName;
+
+}
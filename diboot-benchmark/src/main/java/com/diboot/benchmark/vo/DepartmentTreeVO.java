@@ -0,0 +1,25 @@
+package com.diboot.benchmark.vo;
+
+import com.diboot.benchmark.entity.Department;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.util.List;
+
+/**
+ * 树形结构场景VO
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/16
+ * Copyright © diboot.com
+ */
+@Getter
+@Setter
+@Accessors(chain = true)
+public class DepartmentTreeVO extends Department {
+    private static final long serialVersionUID = 7362019283746571106L;
+
+    private List<DepartmentTreeVO> children;
+
+}
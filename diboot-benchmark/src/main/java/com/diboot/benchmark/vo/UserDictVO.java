@@ -0,0 +1,25 @@
+package com.diboot.benchmark.vo;
+
+import com.diboot.benchmark.entity.User;
+import com.diboot.core.binding.annotation.BindDict;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+/**
+ * 数据字典绑定场景VO
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/16
+ * Copyright © diboot.com
+ */
+@Getter
+@Setter
+@Accessors(chain = true)
+public class UserDictVO extends User {
+    private static final long serialVersionUID = 7362019283746571104L;
+
+    @BindDict(type = "GENDER", field = "gender")
+    private String genderLabel;
+
+}
@@ -0,0 +1,32 @@
+package com.diboot.benchmark.vo;
+
+import com.diboot.benchmark.entity.Role;
+import com.diboot.benchmark.entity.User;
+import com.diboot.core.binding.annotation.BindEntityList;
+import com.diboot.core.binding.annotation.BindFieldList;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.util.List;
+
+/**
+ * 中间表绑定场景VO
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/16
+ * Copyright © diboot.com
+ */
+@Getter
+@Setter
+@Accessors(chain = true)
+public class UserRoleVO extends User {
+    private static final long serialVersionUID = 7362019283746571105L;
+
+    @BindEntityList(entity = Role.class, condition = "this.id=user_role.user_id AND user_role.role_id=id")
+    private List<Role> roleList;
+
+    @BindFieldList(entity = Role.class, field = "code", condition = "this.id=user_role.user_id AND user_role.role_id=id")
+    private List<String> roleCodes;
+
+}
@@ -0,0 +1,65 @@
+-- 基准测试表结构（H2，MySQL兼容模式），数据由BenchmarkContext按规模生成
+create table organization
+(
+    id bigint not null primary key,
+    parent_id bigint default 0 not null,
+    name varchar(100) not null,
+    is_deleted tinyint default 0 not null,
+    create_time timestamp default CURRENT_TIMESTAMP not null
+);
+
+create table department
+(
+    id bigint not null primary key,
+    parent_id bigint default 0 not null,
+    org_id bigint not null,
+    name varchar(50) not null,
+    is_deleted tinyint default 0 not null,
+    create_time timestamp default CURRENT_TIMESTAMP not null
+);
+create index idx_department_parent on department(parent_id);
+
+create table `user`
+(
+    id bigint not null primary key,
+    department_id bigint default 0 not null,
+    username varchar(20) null,
+    gender varchar(20) null,
+    is_deleted tinyint default 0 not null,
+    create_time timestamp default CURRENT_TIMESTAMP not null
+);
+
+create table role
+(
+    id bigint not null primary key,
+    name varchar(20) null,
+    code varchar(20) null,
+    is_deleted tinyint default 0 not null,
+    create_time timestamp default CURRENT_TIMESTAMP not null
+);
+
+create table user_role
+(
+    user_id bigint not null,
+    role_id bigint not null,
+    primary key (user_id, role_id)
+);
+
+create table dictionary
+(
+    id bigint not null primary key,
+    parent_id bigint not null,
+    tenant_id bigint default 0 not null,
+    app_module varchar(50) null,
+    type varchar(50) not null,
+    item_name varchar(100) not null,
+    item_value varchar(100) null,
+    description varchar(100) null,
+    extdata varchar(200) null,
+    sort_id smallint default 99 not null,
+    is_editable tinyint default 1 not null,
+    is_deletable tinyint default 1 not null,
+    is_deleted tinyint default 0 not null,
+    create_time timestamp default CURRENT_TIMESTAMP not null
+);
+create index idx_directory on dictionary(type, item_value);
@@ -0,0 +1,72 @@
+package com.diboot.core.starter;
+
+import com.diboot.core.binding.cache.BindingWarmUp;
+import com.diboot.core.util.S;
+import com.diboot.core.util.V;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackages;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 应用启动完成后预热关联绑定缓存，使首次请求的耗时与稳定状态一致
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/20
+ * Copyright © diboot.com
+ */
+@Slf4j
+public class BindingWarmUpListener implements ApplicationListener<ApplicationReadyEvent> {
+
+    private final CoreProperties coreProperties;
+
+    private volatile BindingWarmUp.Result result;
+
+    public BindingWarmUpListener(CoreProperties coreProperties){
+        this.coreProperties = coreProperties;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if(result != null){
+            return;
+        }
+        result = BindingWarmUp.warmUp(getBasePackages(event.getApplicationContext()), coreProperties.getBindingWarmUpParallelism());
+    }
+
+    /**
+     * 获取最近一次的预热结果，尚未预热时为null
+     * @return
+     */
+    public BindingWarmUp.Result getResult(){
+        return result;
+    }
+
+    /**
+     * 获取扫描的VO/DTO包：未配置时取应用的自动配置包
+     * @param applicationContext
+     * @return
+     */
+    private List<String> getBasePackages(ConfigurableApplicationContext applicationContext){
+        List<String> basePackages = new ArrayList<>();
+        if(V.notEmpty(coreProperties.getBindingWarmUpPackages())){
+            for(String basePackage : S.split(coreProperties.getBindingWarmUpPackages())){
+                if(V.notEmpty(basePackage)){
+                    basePackages.add(basePackage.trim());
+                }
+            }
+        }
+        else if(AutoConfigurationPackages.has(applicationContext.getBeanFactory())){
+            basePackages.addAll(AutoConfigurationPackages.get(applicationContext.getBeanFactory()));
+        }
+        else{
+            log.warn("未配置 diboot.core.binding-warm-up-packages 且无法获取应用包，仅预热Entity缓存");
+        }
+        return basePackages;
+    }
+
+}
@@ -17,6 +17,9 @@ package com.diboot.core.starter;
 
 import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import com.diboot.core.binding.binder.parallel.BindingTaskExecutor;
+import com.diboot.core.binding.cache.BindingCacheEvictInterceptor;
+import com.diboot.core.binding.metrics.MicrometerBindingMetricsListener;
 import com.diboot.core.data.encrypt.ProtectInterceptor;
 import com.diboot.core.util.D;
 import com.diboot.core.util.DateConverter;
@@ -25,10 +28,14 @@ import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.mybatis.spring.annotation.MapperScan;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
@@ -62,6 +69,9 @@ import java.util.TimeZone;
 public class CoreAutoConfig implements WebMvcConfigurer {
     private static final Logger log = LoggerFactory.getLogger(CoreAutoConfig.class);
 
+    @Autowired
+    private CoreProperties coreProperties;
+
     @Value("${spring.jackson.date-format:"+D.FORMAT_DATETIME_Y4MDHMS+"}")
     private String defaultDatePattern;
 
@@ -111,6 +121,39 @@ public class CoreAutoConfig implements WebMvcConfigurer {
         return interceptor;
     }
 
+    /**
+     * 关联绑定结果缓存的失效拦截器
+     * <p>
+     * 默认不注入，diboot.core.binding-cache=true时注册
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "diboot.core", name = "binding-cache", havingValue = "true")
+    @ConditionalOnMissingBean
+    public BindingCacheEvictInterceptor bindingCacheEvictInterceptor() {
+        return new BindingCacheEvictInterceptor();
+    }
+
+    /**
+     * 关联绑定专用线程池
+     */
+    @Bean(name = BindingTaskExecutor.BEAN_NAME)
+    @ConditionalOnMissingBean(name = BindingTaskExecutor.BEAN_NAME)
+    public BindingTaskExecutor bindingTaskExecutor() {
+        return new BindingTaskExecutor(coreProperties.getBindingPoolSize(), coreProperties.getBindingQueueCapacity(),
+                coreProperties.getBindingRejectedPolicy(), coreProperties.isBindingVirtualThreads());
+    }
+
+    /**
+     * 关联绑定缓存的启动预热
+     * <p>
+     * 默认不注入，diboot.core.binding-warm-up=true可开启
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "diboot.core", name = "binding-warm-up", havingValue = "true")
+    public BindingWarmUpListener bindingWarmUpListener() {
+        return new BindingWarmUpListener(coreProperties);
+    }
+
     /**
      * 数据保护拦截器
      * <p>
@@ -132,4 +175,22 @@ public class CoreAutoConfig implements WebMvcConfigurer {
         registry.addConverter(new DateConverter());
     }
 
+    /**
+     * 关联绑定指标的Micrometer桥接
+     * <p>
+     * 默认不注入，引入Micrometer且diboot.core.binding-metrics=true时注册，指标写入容器中的MeterRegistry
+     */
+    @Configuration
+    @ConditionalOnClass(MeterRegistry.class)
+    static class MicrometerMetricsConfig {
+
+        @Bean
+        @ConditionalOnProperty(prefix = "diboot.core", name = "binding-metrics", havingValue = "true")
+        @ConditionalOnMissingBean
+        public MicrometerBindingMetricsListener micrometerBindingMetricsListener(ObjectProvider<MeterRegistry> meterRegistryProvider) {
+            return new MicrometerBindingMetricsListener(meterRegistryProvider::getIfAvailable);
+        }
+
+    }
+
 }
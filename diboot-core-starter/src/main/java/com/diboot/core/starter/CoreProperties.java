@@ -17,6 +17,8 @@ package com.diboot.core.starter;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.Map;
+
 /**
  * diboot-core配置文件类
  * @author mazc@dibo.ltd
@@ -41,6 +43,126 @@ public class CoreProperties {
      * 启用数据保护，默认false关闭
      */
     private boolean enableDataProtect = false;
+    /**
+     * 关联绑定IN条件的每批次值数量，超出时拆分为多个查询，默认1000
+     */
+    private int bindingInChunkSize = 1000;
+    /**
+     * 关联绑定IN条件分批查询的并行数，默认4
+     */
+    private int bindingInParallelism = 4;
+    /**
+     * 关联绑定是否使用数组参数替代IN列表（仅PostgreSQL整数值时生效），默认true
+     */
+    private boolean bindingInArrayParam = true;
+    /**
+     * 是否启用关联绑定结果的跨请求缓存（@BindCacheable / @BindField(cache=true)），启用时注册缓存失效拦截器，默认false
+     */
+    private boolean bindingCache = false;
+    /**
+     * 关联绑定结果缓存的最大条目数，默认10000
+     */
+    private int bindingCacheMaxSize = 10000;
+    /**
+     * 关联绑定结果缓存的过期时间（秒），默认300；缓存仅在当前JVM有效，多实例部署时即为其他实例变更的最大可见延迟
+     */
+    private int bindingCacheTtl = 300;
+    /**
+     * 关联绑定线程池的线程数（虚拟线程模式下为最大并发数），默认8
+     */
+    private int bindingPoolSize = 8;
+    /**
+     * 关联绑定线程池的队列容量，默认1024
+     */
+    private int bindingQueueCapacity = 1024;
+    /**
+     * 关联绑定线程池队列满时的拒绝策略: caller-runs（调用线程执行，默认）, abort（抛出异常）
+     */
+    private String bindingRejectedPolicy = "caller-runs";
+    /**
+     * 关联绑定是否使用虚拟线程（需JDK21+），默认false
+     */
+    private boolean bindingVirtualThreads = false;
+    /**
+     * 深度绑定的最大层数（不含顶层），默认1（与原有的单层深度绑定一致），需多层时显式配置
+     */
+    private int deepBindMaxDepth = 1;
+    /**
+     * 深度绑定的对象总数上限，默认100000
+     */
+    private int deepBindMaxRows = 100000;
+    /**
+     * 关联绑定的分窗口大小，VO数超出时按窗口逐批绑定，小于等于0时不分窗口，默认0
+     */
+    private int bindingWindowSize = 0;
+    /**
+     * 通过中间表的EntityList绑定是否合并为中间表与关联表的单次JOIN查询，默认false
+     */
+    private boolean bindingMiddleTableJoin = false;
+    /**
+     * 跨模块绑定是否按模块合并为一次批量请求（需远程模块提供批量绑定接口），默认false
+     */
+    private boolean remoteBindingBatch = false;
+    /**
+     * 跨模块绑定结果在调用方的缓存过期时间（秒），小于等于0时不缓存，默认0
+     */
+    private int remoteBindingCacheTtl = 0;
+    /**
+     * 跨模块绑定的单次请求超时时间（毫秒），小于等于0时不限时，默认0
+     */
+    private int remoteBindingTimeout = 0;
+    /**
+     * 按模块指定的跨模块绑定请求超时时间（毫秒）：模块名-超时时间
+     */
+    private Map<String, Integer> remoteBindingModuleTimeout;
+    /**
+     * 跨模块绑定熔断的连续失败次数阈值，小于等于0时不熔断，默认5
+     */
+    private int remoteBindingCircuitFailureThreshold = 5;
+    /**
+     * 跨模块绑定熔断后的等待时间（毫秒），之后放行一次探测请求，默认30000
+     */
+    private int remoteBindingCircuitOpenDuration = 30000;
+    /**
+     * 跨模块绑定失败（超时、异常或熔断）时的降级方式: fail-抛出异常（远程调用异常原样抛出）, null-绑定字段留空，默认fail
+     */
+    private String remoteBindingFallback = "fail";
+    /**
+     * 跨模块绑定每个模块的最大并发请求数（模块独立的线程池），默认8
+     */
+    private int remoteBindingMaxConcurrency = 8;
+    /**
+     * 跨模块绑定每个模块等待执行的请求数上限，超出时请求被拒绝，默认100
+     */
+    private int remoteBindingQueueCapacity = 100;
+    /**
+     * 是否启用内置的关联绑定指标统计（各VO注解的查询次数、行数、关联值数及耗时），默认false
+     */
+    private boolean bindingMetrics = false;
+    /**
+     * 是否在应用启动完成后预热关联绑定缓存（Entity信息、VO绑定注解、DTO的BindQuery关联），默认false
+     */
+    private boolean bindingWarmUp = false;
+    /**
+     * 预热扫描的VO/DTO包，多个以逗号分隔，默认为应用的自动配置包
+     */
+    private String bindingWarmUpPackages;
+    /**
+     * 预热的并行线程数，默认4
+     */
+    private int bindingWarmUpParallelism = 4;
+    /**
+     * 动态关联查询SQL模板的缓存数上限，小于等于0时不缓存，默认1024
+     */
+    private int dynamicSqlCacheSize = 1024;
+    /**
+     * 动态关联查询是否将仅用于过滤的对多关联改写为EXISTS半连接（无对多join时不再DISTINCT），默认false
+     */
+    private boolean dynamicQuerySemiJoin = false;
+    /**
+     * 分页count策略为CACHE时count总数的缓存时间（秒），小于等于0时不缓存，默认30
+     */
+    private int paginationCountCacheTtl = 30;
 
     public boolean isInitSql() {
         return initSql;
@@ -73,4 +195,244 @@ public class CoreProperties {
     public void setEnableDataProtect(boolean enableDataProtect) {
         this.enableDataProtect = enableDataProtect;
     }
+
+    public int getBindingInChunkSize() {
+        return bindingInChunkSize;
+    }
+
+    public void setBindingInChunkSize(int bindingInChunkSize) {
+        this.bindingInChunkSize = bindingInChunkSize;
+    }
+
+    public int getBindingInParallelism() {
+        return bindingInParallelism;
+    }
+
+    public void setBindingInParallelism(int bindingInParallelism) {
+        this.bindingInParallelism = bindingInParallelism;
+    }
+
+    public boolean isBindingInArrayParam() {
+        return bindingInArrayParam;
+    }
+
+    public void setBindingInArrayParam(boolean bindingInArrayParam) {
+        this.bindingInArrayParam = bindingInArrayParam;
+    }
+
+    public boolean isBindingCache() {
+        return bindingCache;
+    }
+
+    public void setBindingCache(boolean bindingCache) {
+        this.bindingCache = bindingCache;
+    }
+
+    public int getBindingCacheMaxSize() {
+        return bindingCacheMaxSize;
+    }
+
+    public void setBindingCacheMaxSize(int bindingCacheMaxSize) {
+        this.bindingCacheMaxSize = bindingCacheMaxSize;
+    }
+
+    public int getBindingCacheTtl() {
+        return bindingCacheTtl;
+    }
+
+    public void setBindingCacheTtl(int bindingCacheTtl) {
+        this.bindingCacheTtl = bindingCacheTtl;
+    }
+
+    public int getBindingPoolSize() {
+        return bindingPoolSize;
+    }
+
+    public void setBindingPoolSize(int bindingPoolSize) {
+        this.bindingPoolSize = bindingPoolSize;
+    }
+
+    public int getBindingQueueCapacity() {
+        return bindingQueueCapacity;
+    }
+
+    public void setBindingQueueCapacity(int bindingQueueCapacity) {
+        this.bindingQueueCapacity = bindingQueueCapacity;
+    }
+
+    public String getBindingRejectedPolicy() {
+        return bindingRejectedPolicy;
+    }
+
+    public void setBindingRejectedPolicy(String bindingRejectedPolicy) {
+        this.bindingRejectedPolicy = bindingRejectedPolicy;
+    }
+
+    public boolean isBindingVirtualThreads() {
+        return bindingVirtualThreads;
+    }
+
+    public void setBindingVirtualThreads(boolean bindingVirtualThreads) {
+        this.bindingVirtualThreads = bindingVirtualThreads;
+    }
+
+    public int getDeepBindMaxDepth() {
+        return deepBindMaxDepth;
+    }
+
+    public void setDeepBindMaxDepth(int deepBindMaxDepth) {
+        this.deepBindMaxDepth = deepBindMaxDepth;
+    }
+
+    public int getDeepBindMaxRows() {
+        return deepBindMaxRows;
+    }
+
+    public void setDeepBindMaxRows(int deepBindMaxRows) {
+        this.deepBindMaxRows = deepBindMaxRows;
+    }
+
+    public int getBindingWindowSize() {
+        return bindingWindowSize;
+    }
+
+    public void setBindingWindowSize(int bindingWindowSize) {
+        this.bindingWindowSize = bindingWindowSize;
+    }
+
+    public boolean isBindingMiddleTableJoin() {
+        return bindingMiddleTableJoin;
+    }
+
+    public void setBindingMiddleTableJoin(boolean bindingMiddleTableJoin) {
+        this.bindingMiddleTableJoin = bindingMiddleTableJoin;
+    }
+
+    public boolean isRemoteBindingBatch() {
+        return remoteBindingBatch;
+    }
+
+    public void setRemoteBindingBatch(boolean remoteBindingBatch) {
+        this.remoteBindingBatch = remoteBindingBatch;
+    }
+
+    public int getRemoteBindingCacheTtl() {
+        return remoteBindingCacheTtl;
+    }
+
+    public void setRemoteBindingCacheTtl(int remoteBindingCacheTtl) {
+        this.remoteBindingCacheTtl = remoteBindingCacheTtl;
+    }
+
+    public int getRemoteBindingTimeout() {
+        return remoteBindingTimeout;
+    }
+
+    public void setRemoteBindingTimeout(int remoteBindingTimeout) {
+        this.remoteBindingTimeout = remoteBindingTimeout;
+    }
+
+    public Map<String, Integer> getRemoteBindingModuleTimeout() {
+        return remoteBindingModuleTimeout;
+    }
+
+    public void setRemoteBindingModuleTimeout(Map<String, Integer> remoteBindingModuleTimeout) {
+        this.remoteBindingModuleTimeout = remoteBindingModuleTimeout;
+    }
+
+    public int getRemoteBindingCircuitFailureThreshold() {
+        return remoteBindingCircuitFailureThreshold;
+    }
+
+    public void setRemoteBindingCircuitFailureThreshold(int remoteBindingCircuitFailureThreshold) {
+        this.remoteBindingCircuitFailureThreshold = remoteBindingCircuitFailureThreshold;
+    }
+
+    public int getRemoteBindingCircuitOpenDuration() {
+        return remoteBindingCircuitOpenDuration;
+    }
+
+    public void setRemoteBindingCircuitOpenDuration(int remoteBindingCircuitOpenDuration) {
+        this.remoteBindingCircuitOpenDuration = remoteBindingCircuitOpenDuration;
+    }
+
+    public String getRemoteBindingFallback() {
+        return remoteBindingFallback;
+    }
+
+    public void setRemoteBindingFallback(String remoteBindingFallback) {
+        this.remoteBindingFallback = remoteBindingFallback;
+    }
+
+    public int getRemoteBindingMaxConcurrency() {
+        return remoteBindingMaxConcurrency;
+    }
+
+    public void setRemoteBindingMaxConcurrency(int remoteBindingMaxConcurrency) {
+        this.remoteBindingMaxConcurrency = remoteBindingMaxConcurrency;
+    }
+
+    public int getRemoteBindingQueueCapacity() {
+        return remoteBindingQueueCapacity;
+    }
+
+    public void setRemoteBindingQueueCapacity(int remoteBindingQueueCapacity) {
+        this.remoteBindingQueueCapacity = remoteBindingQueueCapacity;
+    }
+
+    public boolean isBindingMetrics() {
+        return bindingMetrics;
+    }
+
+    public void setBindingMetrics(boolean bindingMetrics) {
+        this.bindingMetrics = bindingMetrics;
+    }
+
+    public boolean isBindingWarmUp() {
+        return bindingWarmUp;
+    }
+
+    public void setBindingWarmUp(boolean bindingWarmUp) {
+        this.bindingWarmUp = bindingWarmUp;
+    }
+
+    public String getBindingWarmUpPackages() {
+        return bindingWarmUpPackages;
+    }
+
+    public void setBindingWarmUpPackages(String bindingWarmUpPackages) {
+        this.bindingWarmUpPackages = bindingWarmUpPackages;
+    }
+
+    public int getBindingWarmUpParallelism() {
+        return bindingWarmUpParallelism;
+    }
+
+    public void setBindingWarmUpParallelism(int bindingWarmUpParallelism) {
+        this.bindingWarmUpParallelism = bindingWarmUpParallelism;
+    }
+
+    public int getDynamicSqlCacheSize() {
+        return dynamicSqlCacheSize;
+    }
+
+    public void setDynamicSqlCacheSize(int dynamicSqlCacheSize) {
+        this.dynamicSqlCacheSize = dynamicSqlCacheSize;
+    }
+
+    public boolean isDynamicQuerySemiJoin() {
+        return dynamicQuerySemiJoin;
+    }
+
+    public void setDynamicQuerySemiJoin(boolean dynamicQuerySemiJoin) {
+        this.dynamicQuerySemiJoin = dynamicQuerySemiJoin;
+    }
+
+    public int getPaginationCountCacheTtl() {
+        return paginationCountCacheTtl;
+    }
+
+    public void setPaginationCountCacheTtl(int paginationCountCacheTtl) {
+        this.paginationCountCacheTtl = paginationCountCacheTtl;
+    }
 }
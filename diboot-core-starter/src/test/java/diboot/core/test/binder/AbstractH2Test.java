@@ -0,0 +1,24 @@
+package diboot.core.test.binder;
+
+import diboot.core.test.StartupApplication;
+import diboot.core.test.config.SpringMvcConfig;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * 基于H2内存库的测试基类（数据源及初始化脚本见application-test-h2.properties）
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/09
+ * Copyright © diboot.com
+ */
+@RunWith(SpringRunner.class)
+@ContextConfiguration(classes = {SpringMvcConfig.class})
+@SpringBootTest(classes = {StartupApplication.class})
+@ActiveProfiles("test-h2")
+public abstract class AbstractH2Test {
+
+}
@@ -0,0 +1,90 @@
+package diboot.core.test.binder;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 统计执行的查询SQL（按FROM后的首个表名计数），仅在开始记录后统计
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/11
+ * Copyright © diboot.com
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "query", args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query", args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class})
+})
+public class SqlCountInterceptor implements Interceptor {
+
+    private static final Pattern FROM_TABLE = Pattern.compile("\\bFROM\\s+(\\w+)", Pattern.CASE_INSENSITIVE);
+
+    private final Map<String, AtomicInteger> table2CountMap = new ConcurrentHashMap<>();
+    private volatile boolean recording = false;
+
+    /**
+     * 获取注册于MyBatis配置中的实例，未注册时注册
+     * @param configuration
+     * @return
+     */
+    public static synchronized SqlCountInterceptor register(Configuration configuration){
+        for(Interceptor interceptor : configuration.getInterceptors()){
+            if(interceptor instanceof SqlCountInterceptor){
+                return (SqlCountInterceptor) interceptor;
+            }
+        }
+        SqlCountInterceptor interceptor = new SqlCountInterceptor();
+        configuration.addInterceptor(interceptor);
+        return interceptor;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        if(recording){
+            Object[] args = invocation.getArgs();
+            BoundSql boundSql = args.length == 6? (BoundSql) args[5] : ((MappedStatement) args[0]).getBoundSql(args[1]);
+            Matcher matcher = FROM_TABLE.matcher(boundSql.getSql());
+            if(matcher.find()){
+                table2CountMap.computeIfAbsent(matcher.group(1).toLowerCase(), k -> new AtomicInteger()).incrementAndGet();
+            }
+        }
+        return invocation.proceed();
+    }
+
+    /**
+     * 清空计数并开始记录
+     */
+    public void start(){
+        table2CountMap.clear();
+        recording = true;
+    }
+
+    public void stop(){
+        recording = false;
+    }
+
+    /**
+     * 获取表的查询次数
+     * @param table
+     * @return
+     */
+    public int getCount(String table){
+        AtomicInteger count = table2CountMap.get(table.toLowerCase());
+        return count != null? count.get() : 0;
+    }
+
+}
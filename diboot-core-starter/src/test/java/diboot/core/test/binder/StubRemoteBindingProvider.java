@@ -0,0 +1,103 @@
+package diboot.core.test.binder;
+
+import com.diboot.core.binding.binder.remote.RemoteBindDTO;
+import com.diboot.core.binding.binder.remote.RemoteBindQueryExecutor;
+import com.diboot.core.binding.binder.remote.RemoteBindingProvider;
+import com.diboot.core.util.JSON;
+import com.diboot.core.vo.JsonResult;
+import com.fasterxml.jackson.core.type.TypeReference;
+import diboot.core.test.binder.entity.Department;
+import diboot.core.test.binder.entity.Organization;
+import diboot.core.test.binder.entity.RemoteDepartment;
+import diboot.core.test.binder.entity.RemoteOrganization;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 进程内模拟的远程模块：在本地执行查询，批量结果经JSON序列化后返回以模拟网络传输，支持注入延迟及异常
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/20
+ * Copyright © diboot.com
+ */
+public class StubRemoteBindingProvider implements RemoteBindingProvider {
+
+    /**
+     * 所有stub正在处理的请求数及其最大值（验证不同模块并发请求）
+     */
+    static final AtomicInteger IN_FLIGHT = new AtomicInteger();
+    static final AtomicInteger MAX_IN_FLIGHT = new AtomicInteger();
+
+    final AtomicInteger singleCount = new AtomicInteger();
+    final AtomicInteger batchCount = new AtomicInteger();
+    volatile boolean batchSupported = true;
+    volatile boolean failing = false;
+    volatile long latencyMillis = 0L;
+
+    @Override
+    public JsonResult<String> loadBindingData(RemoteBindDTO remoteBindDTO) {
+        singleCount.incrementAndGet();
+        simulate();
+        return RemoteBindQueryExecutor.execute(toLocal(remoteBindDTO));
+    }
+
+    @Override
+    public JsonResult<List<List<Map<String, Object>>>> loadBatchBindingData(List<RemoteBindDTO> remoteBindDTOList) {
+        if(!batchSupported){
+            throw new IllegalStateException("404 Not Found");
+        }
+        batchCount.incrementAndGet();
+        simulate();
+        List<RemoteBindDTO> localDTOList = new ArrayList<>(remoteBindDTOList.size());
+        for(RemoteBindDTO remoteBindDTO : remoteBindDTOList){
+            localDTOList.add(toLocal(remoteBindDTO));
+        }
+        JsonResult<List<List>> jsonResult = RemoteBindQueryExecutor.executeBatch(localDTOList);
+        List<List<Map<String, Object>>> rows = JSON.parseObject(JSON.stringify(jsonResult.getData()), new TypeReference<List<List<Map<String, Object>>>>(){});
+        return JsonResult.OK(rows);
+    }
+
+    /**
+     * 模拟网络延迟及远程异常
+     */
+    private void simulate(){
+        int inFlight = IN_FLIGHT.incrementAndGet();
+        MAX_IN_FLIGHT.accumulateAndGet(inFlight, Math::max);
+        try{
+            if(latencyMillis > 0){
+                Thread.sleep(latencyMillis);
+            }
+            if(failing){
+                throw new IllegalStateException("503 Service Unavailable");
+            }
+        }
+        catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted", e);
+        }
+        finally {
+            IN_FLIGHT.decrementAndGet();
+        }
+    }
+
+    /**
+     * 远程模块中的Entity类替换为本地对应的Entity类
+     */
+    private RemoteBindDTO toLocal(RemoteBindDTO remoteBindDTO){
+        String entityClassName = remoteBindDTO.getEntityClassName();
+        if(RemoteOrganization.class.getName().equals(entityClassName)){
+            entityClassName = Organization.class.getName();
+        }
+        else if(RemoteDepartment.class.getName().equals(entityClassName)){
+            entityClassName = Department.class.getName();
+        }
+        return new RemoteBindDTO().setEntityClassName(entityClassName).setSelectColumns(remoteBindDTO.getSelectColumns())
+                .setRefJoinCol(remoteBindDTO.getRefJoinCol()).setInConditionValues(remoteBindDTO.getInConditionValues())
+                .setHasNullValue(remoteBindDTO.isHasNullValue()).setOrderBy(remoteBindDTO.getOrderBy())
+                .setResultType(remoteBindDTO.getResultType());
+    }
+
+}
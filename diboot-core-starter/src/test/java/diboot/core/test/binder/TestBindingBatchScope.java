@@ -0,0 +1,205 @@
+package diboot.core.test.binder;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.diboot.core.binding.Binder;
+import com.diboot.core.binding.BindingBatchScope;
+import com.diboot.core.binding.binder.parallel.BindingTaskExecutor;
+import com.diboot.core.config.BaseConfig;
+import com.diboot.core.util.BeanUtils;
+import diboot.core.test.binder.entity.Department;
+import diboot.core.test.binder.entity.Organization;
+import diboot.core.test.binder.service.DepartmentService;
+import diboot.core.test.binder.service.OrganizationService;
+import diboot.core.test.binder.vo.ChunkBindVO;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 批量绑定作用域测试，基于H2内存库
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/17
+ * Copyright © diboot.com
+ */
+public class TestBindingBatchScope extends AbstractH2Test {
+
+    @Autowired
+    DepartmentService departmentService;
+
+    @Autowired
+    OrganizationService organizationService;
+
+    @Autowired
+    @Qualifier(BindingTaskExecutor.BEAN_NAME)
+    BindingTaskExecutor bindingTaskExecutor;
+
+    @Test
+    public void testDeferredBinding(){
+        List<ChunkBindVO> allVOList = new ArrayList<>();
+        try(BindingBatchScope scope = BindingBatchScope.open()){
+            // 模拟循环中逐次绑定，关联值有重叠
+            for(int i = 0; i < 10; i++){
+                List<ChunkBindVO> voList = getVOList(i * 10 + 1, i * 10 + 20);
+                Binder.bindRelations(voList);
+                allVOList.addAll(voList);
+            }
+            Assert.assertEquals(200, scope.getPendingCount());
+            Assert.assertNull(allVOList.get(0).getOrgName());
+        }
+        Assert.assertNull(BindingBatchScope.current());
+        for(ChunkBindVO vo : allVOList){
+            Assert.assertEquals("org" + vo.getOrgId(), vo.getOrgName());
+            Assert.assertEquals(vo.getOrgName(), vo.getOrganization().getName());
+            Assert.assertEquals("dept" + (vo.getId() + 1), vo.getChildrenNames().get(0));
+        }
+    }
+
+    @Test
+    public void testReuseLoadedRows(){
+        try(BindingBatchScope scope = BindingBatchScope.open()){
+            List<ChunkBindVO> voList = getVOList(1, 50);
+            Binder.bindRelations(voList);
+            scope.flush();
+            Assert.assertEquals(0, scope.getHitCount());
+            Assert.assertEquals("org1", voList.get(0).getOrgName());
+
+            // 已加载的关联值不再查询
+            List<ChunkBindVO> overlapList = getVOList(21, 40);
+            Binder.bindRelations(overlapList);
+            scope.flush();
+            Assert.assertTrue(scope.getHitCount() >= overlapList.size());
+            for(ChunkBindVO vo : overlapList){
+                Assert.assertEquals("org" + vo.getOrgId(), vo.getOrgName());
+                Assert.assertEquals("dept" + (vo.getId() + 1), vo.getChildren().get(0).getName());
+            }
+
+            // 数据更新后作用域内的已加载结果失效
+            Organization organization = organizationService.getEntity(21L);
+            organization.setName("org21-updated");
+            organizationService.updateEntity(organization);
+            try{
+                List<ChunkBindVO> updatedList = getVOList(21, 21);
+                Binder.bindRelations(updatedList);
+                scope.flush();
+                Assert.assertEquals("org21-updated", updatedList.get(0).getOrgName());
+            }
+            finally {
+                organization.setName("org21");
+                organizationService.updateEntity(organization);
+            }
+        }
+    }
+
+    @Test
+    public void testNestedScope(){
+        List<ChunkBindVO> voList = getVOList(1, 10);
+        try(BindingBatchScope outer = BindingBatchScope.open()){
+            try(BindingBatchScope inner = BindingBatchScope.open()){
+                Assert.assertSame(outer, inner);
+                Binder.bindRelations(voList);
+            }
+            // 内层关闭时不执行，由最外层关闭时执行
+            Assert.assertNull(voList.get(0).getOrgName());
+        }
+        Assert.assertEquals("org1", voList.get(0).getOrgName());
+    }
+
+    @Test
+    public void testConcurrentDefer() throws Exception{
+        List<List<ChunkBindVO>> voLists = new ArrayList<>();
+        for(int i = 0; i < 8; i++){
+            voLists.add(getVOList(i * 10 + 1, i * 10 + 10));
+        }
+        try(BindingBatchScope scope = BindingBatchScope.open()){
+            // 作用域随绑定线程池传递至工作线程，并发延迟绑定
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for(List<ChunkBindVO> voList : voLists){
+                futures.add(CompletableFuture.runAsync(() -> Binder.bindRelations(voList), bindingTaskExecutor));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+            Assert.assertEquals(80, scope.getPendingCount());
+        }
+        for(List<ChunkBindVO> voList : voLists){
+            for(ChunkBindVO vo : voList){
+                Assert.assertEquals("org" + vo.getOrgId(), vo.getOrgName());
+            }
+        }
+    }
+
+    @Test
+    public void testDeferWholeWindowedList(){
+        List<ChunkBindVO> voList = getVOList(1, 50);
+        ReflectionTestUtils.setField(BaseConfig.class, "bindingWindowSize", 10);
+        try(BindingBatchScope scope = BindingBatchScope.open()){
+            Binder.bindRelations(voList);
+            // 超出窗口大小时整个列表延迟一次，不按窗口拆分为子列表视图
+            Assert.assertEquals(50, scope.getPendingCount());
+            voList.subList(0, 10).clear();
+            Assert.assertEquals(50, scope.getPendingCount());
+        }
+        finally {
+            ReflectionTestUtils.setField(BaseConfig.class, "bindingWindowSize", null);
+        }
+        Assert.assertEquals("org" + voList.get(0).getOrgId(), voList.get(0).getOrgName());
+    }
+
+    @Test
+    public void testWindowedAndStreamNotDeferred(){
+        List<Department> departments = departmentService.list(new QueryWrapper<Department>().le("id", 50).orderByAsc("id"));
+        try(BindingBatchScope scope = BindingBatchScope.open()){
+            // 显式按窗口绑定时立即绑定
+            List<ChunkBindVO> voList = BeanUtils.convertList(departments, ChunkBindVO.class);
+            Binder.bindRelations(voList, 10);
+            Assert.assertEquals(0, scope.getPendingCount());
+            Assert.assertEquals("org1", voList.get(0).getOrgName());
+            // 流式绑定逐窗口返回已绑定的VO，不累积至作用域
+            try(Stream<ChunkBindVO> stream = Binder.convertAndBindRelations(departments.iterator(), ChunkBindVO.class, 10)){
+                Iterator<ChunkBindVO> iterator = stream.iterator();
+                while(iterator.hasNext()){
+                    ChunkBindVO vo = iterator.next();
+                    Assert.assertEquals("org" + vo.getOrgId(), vo.getOrgName());
+                    Assert.assertEquals(0, scope.getPendingCount());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testLeakedScopeDiscarded(){
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        try{
+            // 未关闭的作用域残留在线程上
+            BindingBatchScope.open();
+            Assert.assertNotNull(BindingBatchScope.current());
+            // 同一线程处理下一个请求时丢弃，绑定立即执行
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+            List<ChunkBindVO> voList = getVOList(1, 10);
+            Binder.bindRelations(voList);
+            Assert.assertEquals("org1", voList.get(0).getOrgName());
+            Assert.assertNull(BindingBatchScope.current());
+        }
+        finally {
+            RequestContextHolder.resetRequestAttributes();
+            BindingBatchScope.attach(null);
+        }
+    }
+
+    private List<ChunkBindVO> getVOList(long fromId, long toId){
+        List<Department> departments = departmentService.list(new QueryWrapper<Department>().between("id", fromId, toId).orderByAsc("id"));
+        return BeanUtils.convertList(departments, ChunkBindVO.class);
+    }
+
+}
@@ -0,0 +1,165 @@
+package diboot.core.test.binder;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.diboot.core.binding.Binder;
+import com.diboot.core.binding.binder.parallel.ParallelBindingManager;
+import com.diboot.core.binding.metrics.BindingMetrics;
+import com.diboot.core.binding.metrics.BindingMetricsEvent;
+import com.diboot.core.binding.metrics.BindingMetricsListener;
+import com.diboot.core.binding.metrics.BindingMetricsSnapshot;
+import com.diboot.core.binding.metrics.InMemoryBindingMetricsListener;
+import com.diboot.core.binding.metrics.MicrometerBindingMetricsListener;
+import com.diboot.core.config.BaseConfig;
+import com.diboot.core.util.BeanUtils;
+import diboot.core.test.binder.entity.Department;
+import diboot.core.test.binder.service.DepartmentService;
+import diboot.core.test.binder.vo.ChunkBindVO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 关联绑定指标测试，基于H2内存库
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/20
+ * Copyright © diboot.com
+ */
+public class TestBindingMetrics extends AbstractH2Test {
+
+    @Autowired
+    DepartmentService departmentService;
+
+    private final InMemoryBindingMetricsListener defaultListener = BindingMetrics.getDefaultListener();
+
+    @Before
+    public void enableMetrics(){
+        ReflectionTestUtils.setField(BaseConfig.class, "bindingMetrics", true);
+        defaultListener.reset();
+    }
+
+    @After
+    public void resetConfig(){
+        ReflectionTestUtils.setField(BaseConfig.class, "bindingMetrics", false);
+        defaultListener.reset();
+    }
+
+    @Test
+    public void testSnapshot(){
+        List<ChunkBindVO> voList = getVOList(1, 20);
+        Binder.bindRelations(voList);
+        Set<Long> orgIds = new HashSet<>();
+        for(ChunkBindVO vo : voList){
+            orgIds.add(vo.getOrgId());
+        }
+        BindingMetricsSnapshot orgNameSnapshot = defaultListener.snapshot(ChunkBindVO.class, "orgName");
+        BindingMetricsSnapshot orgSnapshot = defaultListener.snapshot(ChunkBindVO.class, "organization");
+        BindingMetricsSnapshot childrenSnapshot = defaultListener.snapshot(ChunkBindVO.class, "children");
+        BindingMetricsSnapshot childrenNamesSnapshot = defaultListener.snapshot(ChunkBindVO.class, "childrenNames");
+        Assert.assertEquals("BindField", orgNameSnapshot.getAnnotationType());
+        Assert.assertEquals(1, orgNameSnapshot.getBindCount());
+        // 相同Entity及条件的注解合并为一次查询，查询及关联值计入执行查询的Binder
+        Assert.assertEquals(1, orgNameSnapshot.getQueryCount() + orgSnapshot.getQueryCount());
+        Assert.assertEquals(orgIds.size(), orgNameSnapshot.getJoinKeyCount() + orgSnapshot.getJoinKeyCount());
+        Assert.assertEquals(orgIds.size(), orgNameSnapshot.getRowCount() + orgSnapshot.getRowCount());
+        Assert.assertEquals(1, childrenSnapshot.getQueryCount() + childrenNamesSnapshot.getQueryCount());
+        Assert.assertEquals(20, childrenSnapshot.getJoinKeyCount() + childrenNamesSnapshot.getJoinKeyCount());
+        Assert.assertEquals(20, childrenSnapshot.getRowCount() + childrenNamesSnapshot.getRowCount());
+        Assert.assertTrue(childrenSnapshot.getQueryNanos() + childrenNamesSnapshot.getQueryNanos() > 0);
+        Assert.assertEquals(4, defaultListener.snapshot().size());
+
+        // 累计多次绑定
+        Binder.bindRelations(getVOList(21, 40));
+        Assert.assertEquals(2, defaultListener.snapshot(ChunkBindVO.class, "orgName").getBindCount());
+    }
+
+    @Test
+    public void testCustomListener(){
+        ReflectionTestUtils.setField(BaseConfig.class, "bindingMetrics", false);
+        List<BindingMetricsEvent> events = new CopyOnWriteArrayList<>();
+        BindingMetricsListener listener = events::add;
+        BindingMetrics.addListener(listener);
+        try{
+            Binder.bindRelations(getVOList(1, 10));
+        }
+        finally {
+            BindingMetrics.removeListener(listener);
+        }
+        Assert.assertEquals(4, events.size());
+        long queryCount = 0;
+        for(BindingMetricsEvent event : events){
+            Assert.assertEquals(ChunkBindVO.class, event.getVoClass());
+            Assert.assertTrue(event.getTotalNanos() >= event.getQueryNanos());
+            Assert.assertTrue(event.getWaitNanos() >= 0);
+            queryCount += event.getQueryCount();
+        }
+        Assert.assertEquals(2, queryCount);
+        // 未启用内置统计
+        Assert.assertTrue(defaultListener.snapshot().isEmpty());
+
+        // 移除后不再回调
+        Binder.bindRelations(getVOList(1, 10));
+        Assert.assertEquals(4, events.size());
+    }
+
+    @Test
+    public void testListenersRemovedOnContextClose(){
+        ReflectionTestUtils.setField(BaseConfig.class, "bindingMetrics", false);
+        List<BindingMetricsEvent> events = new CopyOnWriteArrayList<>();
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.registerBean(BindingMetricsListener.class, () -> events::add);
+        context.registerBean(ParallelBindingManager.class);
+        context.refresh();
+        Assert.assertTrue(BindingMetrics.isEnabled());
+        // 容器关闭时注销其监听器
+        context.close();
+        Assert.assertFalse(BindingMetrics.isEnabled());
+    }
+
+    @Test
+    public void testMicrometerListener(){
+        ReflectionTestUtils.setField(BaseConfig.class, "bindingMetrics", false);
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BindingMetricsListener listener = new MicrometerBindingMetricsListener(() -> meterRegistry);
+        BindingMetrics.addListener(listener);
+        try{
+            Binder.bindRelations(getVOList(1, 10));
+            Binder.bindRelations(getVOList(11, 20));
+        }
+        finally {
+            BindingMetrics.removeListener(listener);
+        }
+        double queryCount = 0;
+        for(Counter counter : meterRegistry.find("diboot.binding.queries").tag("vo", "ChunkBindVO").counters()){
+            queryCount += counter.count();
+        }
+        Assert.assertEquals(4, queryCount, 0);
+        Collection<Timer> timers = meterRegistry.find("diboot.binding.query.time").tag("vo", "ChunkBindVO").timers();
+        Assert.assertEquals(4, timers.size());
+        for(Timer timer : timers){
+            Assert.assertEquals(2, timer.count());
+        }
+        // MeterRegistry不可用时忽略
+        new MicrometerBindingMetricsListener(() -> null).onBinding(new BindingMetricsEvent(ChunkBindVO.class, "BindField", "orgName", "FieldBinder", 1, 1, 1, 1, 1, 0));
+    }
+
+    private List<ChunkBindVO> getVOList(long fromId, long toId){
+        List<Department> departments = departmentService.list(new QueryWrapper<Department>().between("id", fromId, toId).orderByAsc("id"));
+        return BeanUtils.convertList(departments, ChunkBindVO.class);
+    }
+
+}
@@ -0,0 +1,108 @@
+package diboot.core.test.binder;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
+import com.diboot.core.binding.Binder;
+import com.diboot.core.binding.cache.BindingResultCache;
+import diboot.core.test.binder.entity.Department;
+import diboot.core.test.binder.entity.Organization;
+import diboot.core.test.binder.mapper.OrganizationMapper;
+import diboot.core.test.binder.service.DepartmentService;
+import diboot.core.test.binder.service.OrganizationService;
+import diboot.core.test.binder.vo.CacheBindVO;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * 关联绑定结果缓存测试，基于H2内存库
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/10
+ * Copyright © diboot.com
+ */
+public class TestBindingResultCache extends AbstractH2Test {
+
+    @Autowired
+    DepartmentService departmentService;
+
+    @Autowired
+    OrganizationService organizationService;
+
+    @Autowired
+    OrganizationMapper organizationMapper;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Test
+    public void testCacheHitAndEvict(){
+        List<Department> departments = departmentService.list(new QueryWrapper<Department>().le("id", 100).orderByAsc("id"));
+        Assert.assertEquals(100, departments.size());
+        BindingResultCache.clear();
+
+        List<CacheBindVO> voList = Binder.convertAndBindRelations(departments, CacheBindVO.class);
+        assertBound(voList, null);
+        long hitCount = BindingResultCache.getHitCount();
+        Assert.assertTrue(BindingResultCache.size() >= 200);
+
+        // 再次绑定全部命中缓存
+        voList = Binder.convertAndBindRelations(departments, CacheBindVO.class);
+        assertBound(voList, null);
+        Assert.assertEquals(hitCount + 200, BindingResultCache.getHitCount());
+
+        // 通过Service更新后缓存失效
+        try{
+            organizationService.updateEntity(new UpdateWrapper<Organization>().set("name", "orgUpdated").eq("id", 1L));
+            voList = Binder.convertAndBindRelations(departments, CacheBindVO.class);
+            assertBound(voList, "orgUpdated");
+        }
+        finally {
+            organizationService.updateEntity(new UpdateWrapper<Organization>().set("name", "org1").eq("id", 1L));
+        }
+        voList = Binder.convertAndBindRelations(departments, CacheBindVO.class);
+        assertBound(voList, null);
+
+        // 绕过Service直接经Mapper更新，由拦截器使缓存失效
+        try{
+            organizationMapper.update(null, new UpdateWrapper<Organization>().set("name", "orgMapperUpdated").eq("id", 1L));
+            voList = Binder.convertAndBindRelations(departments, CacheBindVO.class);
+            assertBound(voList, "orgMapperUpdated");
+        }
+        finally {
+            organizationMapper.update(null, new UpdateWrapper<Organization>().set("name", "org1").eq("id", 1L));
+        }
+        voList = Binder.convertAndBindRelations(departments, CacheBindVO.class);
+        assertBound(voList, null);
+    }
+
+    @Test
+    public void testEvictOncePerTransaction(){
+        BindingResultCache.clear();
+        long version = BindingResultCache.getVersion(Organization.class);
+        transactionTemplate.executeWithoutResult(status -> {
+            int syncCount = TransactionSynchronizationManager.getSynchronizations().size();
+            for(int i=0; i<50; i++){
+                BindingResultCache.evict(Organization.class);
+                BindingResultCache.evict(Department.class);
+            }
+            // 同一事务仅注册一个事务同步
+            Assert.assertEquals(syncCount + 1, TransactionSynchronizationManager.getSynchronizations().size());
+        });
+        // 语句执行时各失效一次，事务结束后再失效一次
+        Assert.assertEquals(version + 51, BindingResultCache.getVersion(Organization.class));
+    }
+
+    private void assertBound(List<CacheBindVO> voList, String org1Name){
+        for(CacheBindVO vo : voList){
+            String expectedName = (org1Name != null && vo.getOrgId() == 1L)? org1Name : "org" + vo.getOrgId();
+            Assert.assertEquals(expectedName, vo.getOrgName());
+            Assert.assertEquals(expectedName, vo.getOrganization().getName());
+        }
+    }
+
+}
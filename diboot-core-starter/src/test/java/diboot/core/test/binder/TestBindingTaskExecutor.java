@@ -0,0 +1,118 @@
+package diboot.core.test.binder;
+
+import com.diboot.core.binding.binder.parallel.BindingTaskExecutor;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 关联绑定线程池测试
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/12
+ * Copyright © diboot.com
+ */
+public class TestBindingTaskExecutor {
+
+    @Test
+    public void testPropagateRequestContext() throws Exception{
+        BindingTaskExecutor executor = new BindingTaskExecutor(2, 16, BindingTaskExecutor.POLICY_CALLER_RUNS, false);
+        RequestAttributes requestAttributes = new ServletRequestAttributes(new MockHttpServletRequest());
+        RequestContextHolder.setRequestAttributes(requestAttributes);
+        try{
+            List<CompletableFuture<RequestAttributes>> futures = new ArrayList<>();
+            for(int i=0; i<10; i++){
+                futures.add(CompletableFuture.supplyAsync(RequestContextHolder::getRequestAttributes, executor));
+            }
+            for(CompletableFuture<RequestAttributes> future : futures){
+                Assert.assertSame(requestAttributes, future.get(5, TimeUnit.SECONDS));
+            }
+            // future在任务体内即完成，完成计数在任务收尾时累加，需等待
+            awaitCompleted(executor, 10);
+            Assert.assertEquals(10, executor.getCompletedCount());
+            Assert.assertEquals(0, executor.getActiveCount());
+            Assert.assertEquals(0, executor.getQueueDepth());
+        }
+        finally {
+            RequestContextHolder.resetRequestAttributes();
+            executor.destroy();
+        }
+    }
+
+    @Test
+    public void testRejectedPolicy() throws Exception{
+        BindingTaskExecutor executor = new BindingTaskExecutor(1, 1, BindingTaskExecutor.POLICY_ABORT, false);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch latch = new CountDownLatch(1);
+        try{
+            executor.execute(() -> {
+                started.countDown();
+                try{
+                    latch.await();
+                }
+                catch (InterruptedException e){
+                    Thread.currentThread().interrupt();
+                }
+            });
+            Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+            executor.execute(() -> {});
+            try{
+                executor.execute(() -> {});
+                Assert.fail("队列已满应拒绝");
+            }
+            catch (RejectedExecutionException e){
+                Assert.assertEquals(1, executor.getRejectedCount());
+            }
+            Assert.assertEquals(1, executor.getActiveCount());
+            Assert.assertEquals(1, executor.getQueueDepth());
+        }
+        finally {
+            latch.countDown();
+            executor.destroy();
+        }
+    }
+
+    @Test
+    public void testLatencyStats() throws Exception{
+        BindingTaskExecutor executor = new BindingTaskExecutor(1, 1, null, true);
+        try{
+            executor.recordLatency("FieldBinder", TimeUnit.MILLISECONDS.toNanos(10));
+            executor.recordLatency("FieldBinder", TimeUnit.MILLISECONDS.toNanos(30));
+            BindingTaskExecutor.LatencyStats stats = executor.getBinderLatencyStats().get("FieldBinder");
+            Assert.assertEquals(2, stats.getCount());
+            Assert.assertEquals(20.0, stats.getAvgMillis(), 0.01);
+            Assert.assertEquals(30, stats.getMaxMillis());
+            // 虚拟线程需JDK21+，低版本回退为线程池
+            boolean virtualThreadSupported = true;
+            try{
+                Thread.class.getMethod("ofVirtual");
+            }
+            catch (NoSuchMethodException e){
+                virtualThreadSupported = false;
+            }
+            Assert.assertEquals(virtualThreadSupported, executor.isVirtualThreads());
+            Assert.assertEquals("ok", CompletableFuture.supplyAsync(() -> "ok", executor).get(5, TimeUnit.SECONDS));
+        }
+        finally {
+            executor.destroy();
+        }
+    }
+
+    private void awaitCompleted(BindingTaskExecutor executor, long expected) throws InterruptedException{
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while(executor.getCompletedCount() < expected && System.nanoTime() < deadline){
+            Thread.sleep(10);
+        }
+    }
+
+}
@@ -0,0 +1,55 @@
+package diboot.core.test.binder;
+
+import com.diboot.core.binding.cache.BindingCacheManager;
+import com.diboot.core.binding.cache.BindingWarmUp;
+import com.diboot.core.starter.BindingWarmUpListener;
+import diboot.core.test.binder.entity.Department;
+import diboot.core.test.binder.vo.ChunkBindVO;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Collections;
+
+/**
+ * 关联绑定缓存启动预热测试，基于H2内存库
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/20
+ * Copyright © diboot.com
+ */
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:diboot_warm_up;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "diboot.core.binding-warm-up=true",
+        "diboot.core.binding-warm-up-packages=diboot.core.test.binder.vo, diboot.core.test.binder.dto"
+})
+public class TestBindingWarmUp extends AbstractH2Test {
+
+    @Autowired
+    BindingWarmUpListener bindingWarmUpListener;
+
+    @Test
+    public void testWarmUpOnReady(){
+        BindingWarmUp.Result result = bindingWarmUpListener.getResult();
+        Assert.assertNotNull(result);
+        Assert.assertTrue(result.getVoCount() >= 20);
+        // VO继承有BindQuery的DTO时同时计为DTO
+        Assert.assertTrue(result.getDtoCount() >= 3);
+        Assert.assertTrue(result.getClassCount() >= result.getVoCount());
+        Assert.assertTrue(result.getEntityCount() > 0);
+        Assert.assertTrue(result.getElapsedMillis() >= 0);
+        Assert.assertEquals(Department.class, BindingCacheManager.getEntityClassBySimpleName("Department"));
+        Assert.assertTrue(BindingCacheManager.getCachedEntityClasses().contains(Department.class));
+    }
+
+    @Test
+    public void testRepeatedWarmUp(){
+        // 缓存已发布，重复预热不重复扫描Entity
+        BindingWarmUp.Result result = BindingWarmUp.warmUp(Collections.singletonList(ChunkBindVO.class.getPackage().getName()), 2);
+        Assert.assertEquals(bindingWarmUpListener.getResult().getEntityCount(), result.getEntityCount());
+        Assert.assertEquals(bindingWarmUpListener.getResult().getVoCount(), result.getVoCount());
+        Assert.assertTrue(result.getDtoCount() < bindingWarmUpListener.getResult().getDtoCount());
+    }
+
+}
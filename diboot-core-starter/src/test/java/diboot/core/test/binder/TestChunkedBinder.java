@@ -0,0 +1,94 @@
+package diboot.core.test.binder;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.diboot.core.binding.Binder;
+import diboot.core.test.binder.entity.Department;
+import diboot.core.test.binder.entity.User;
+import diboot.core.test.binder.service.DepartmentService;
+import diboot.core.test.binder.service.UserService;
+import diboot.core.test.binder.vo.ChunkBindVO;
+import diboot.core.test.binder.vo.EntityListComplexVO;
+import diboot.core.test.binder.vo.MulColChunkBindVO;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+/**
+ * 大批量数据（超出IN条件分批大小）绑定测试，基于H2内存库
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/09
+ * Copyright © diboot.com
+ */
+public class TestChunkedBinder extends AbstractH2Test {
+
+    private static final int ROW_COUNT = 12000;
+
+    @Autowired
+    DepartmentService departmentService;
+
+    @Autowired
+    UserService userService;
+
+    @Autowired
+    SqlSessionFactory sqlSessionFactory;
+
+    @Test
+    public void testBindDirectRelations(){
+        List<Department> departments = departmentService.list(new QueryWrapper<Department>().orderByAsc("id"));
+        Assert.assertEquals(ROW_COUNT, departments.size());
+        List<ChunkBindVO> voList = Binder.convertAndBindRelations(departments, ChunkBindVO.class);
+        for(ChunkBindVO vo : voList){
+            Assert.assertEquals("org" + vo.getOrgId(), vo.getOrgName());
+            Assert.assertNotNull(vo.getOrganization());
+            Assert.assertEquals(vo.getOrgId(), vo.getOrganization().getId());
+            if(vo.getId() < ROW_COUNT){
+                Assert.assertEquals(1, vo.getChildren().size());
+                Assert.assertEquals(Long.valueOf(vo.getId() + 1), vo.getChildren().get(0).getId());
+                Assert.assertEquals("dept" + (vo.getId() + 1), vo.getChildrenNames().get(0));
+            }
+            else{
+                Assert.assertNull(vo.getChildren());
+            }
+        }
+    }
+
+    @Test
+    public void testBindMiddleTableRelations(){
+        List<User> users = userService.getEntityList(null);
+        Assert.assertEquals(ROW_COUNT, users.size());
+        List<EntityListComplexVO> voList = Binder.convertAndBindRelations(users, EntityListComplexVO.class);
+        for(EntityListComplexVO vo : voList){
+            long roleId = vo.getId() % 3 + 1;
+            Assert.assertEquals(1, vo.getRoleCodes().size());
+            Assert.assertEquals("R" + roleId, vo.getRoleCodes().get(0));
+            if(vo.getId() > 1){
+                Assert.assertEquals(Long.valueOf(roleId), vo.getRoleList().get(0).getId());
+            }
+        }
+    }
+
+    @Test
+    public void testBindMultipleChunkedColumns(){
+        // 两列IN条件值均为2500个，按组合拆分为3*3批，每个IN条件不超出分批大小
+        List<Department> departments = departmentService.list(new QueryWrapper<Department>().le("id", 2500).orderByAsc("id"));
+        SqlCountInterceptor sqlCounter = SqlCountInterceptor.register(sqlSessionFactory.getConfiguration());
+        sqlCounter.start();
+        List<MulColChunkBindVO> voList;
+        try{
+            voList = Binder.convertAndBindRelations(departments, MulColChunkBindVO.class);
+        }
+        finally {
+            sqlCounter.stop();
+        }
+        Assert.assertEquals(9, sqlCounter.getCount("user"));
+        Assert.assertEquals(2500, voList.size());
+        for(MulColChunkBindVO vo : voList){
+            Assert.assertEquals("user" + vo.getId(), vo.getUsername());
+        }
+    }
+
+}
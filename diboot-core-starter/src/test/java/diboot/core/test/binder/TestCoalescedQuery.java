@@ -0,0 +1,100 @@
+package diboot.core.test.binder;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.diboot.core.binding.Binder;
+import com.diboot.core.binding.binder.BaseBinder;
+import com.diboot.core.binding.binder.CoalescedQuery;
+import com.diboot.core.binding.binder.EntityBinder;
+import com.diboot.core.binding.binder.FieldBinder;
+import com.diboot.core.binding.parser.ConditionManager;
+import com.diboot.core.util.BeanUtils;
+import diboot.core.test.binder.entity.Department;
+import diboot.core.test.binder.entity.Organization;
+import diboot.core.test.binder.service.DepartmentService;
+import diboot.core.test.binder.vo.ChunkBindVO;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 关联绑定合并查询测试，基于H2内存库
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/11
+ * Copyright © diboot.com
+ */
+public class TestCoalescedQuery extends AbstractH2Test {
+
+    @Autowired
+    DepartmentService departmentService;
+
+    @Autowired
+    SqlSessionFactory sqlSessionFactory;
+
+    private SqlCountInterceptor sqlCounter;
+
+    @Before
+    public void registerSqlCounter(){
+        sqlCounter = SqlCountInterceptor.register(sqlSessionFactory.getConfiguration());
+    }
+
+    @Test
+    public void testCoalesceBinders(){
+        List<ChunkBindVO> voList = BeanUtils.convertList(departmentService.list(new QueryWrapper<Department>().le("id", 50)), ChunkBindVO.class);
+        FieldBinder<Organization> fieldBinder = new FieldBinder<>(Organization.class, voList);
+        fieldBinder.link("name", "orgName");
+        ConditionManager.parseConditions("this.org_id=id", fieldBinder);
+        EntityBinder<Organization> entityBinder = new EntityBinder<>(Organization.class, voList);
+        entityBinder.set("organization", Organization.class);
+        ConditionManager.parseConditions("this.org_id=id", entityBinder);
+        EntityBinder<Department> parentBinder = new EntityBinder<>(Department.class, voList);
+        parentBinder.set("children", Department.class);
+        ConditionManager.parseConditions("this.parent_id=id", parentBinder);
+
+        List<BaseBinder> binders = Arrays.asList(fieldBinder, entityBinder, parentBinder);
+        // 相同Entity及条件的Field/Entity绑定合并为一次查询，关联不同Entity的保持独立查询
+        Assert.assertEquals(2, CoalescedQuery.coalesce(binders));
+        sqlCounter.start();
+        try{
+            fieldBinder.bind();
+            entityBinder.bind();
+        }
+        finally {
+            sqlCounter.stop();
+        }
+        Assert.assertEquals(1, sqlCounter.getCount("organization"));
+        for(ChunkBindVO vo : voList){
+            Assert.assertEquals("org" + vo.getOrgId(), vo.getOrgName());
+            Assert.assertEquals(vo.getOrgId(), vo.getOrganization().getId());
+            Assert.assertEquals(vo.getOrgName(), vo.getOrganization().getName());
+        }
+    }
+
+    @Test
+    public void testBindCoalescedAnnotations(){
+        List<Department> departments = departmentService.list(new QueryWrapper<Department>().le("id", 100).orderByAsc("id"));
+        List<ChunkBindVO> voList;
+        sqlCounter.start();
+        try{
+            voList = Binder.convertAndBindRelations(departments, ChunkBindVO.class);
+        }
+        finally {
+            sqlCounter.stop();
+        }
+        // 每个关联表仅查询一次
+        Assert.assertEquals(1, sqlCounter.getCount("organization"));
+        Assert.assertEquals(1, sqlCounter.getCount("department"));
+        for(ChunkBindVO vo : voList){
+            Assert.assertEquals("org" + vo.getOrgId(), vo.getOrgName());
+            Assert.assertEquals(vo.getOrgName(), vo.getOrganization().getName());
+            Assert.assertEquals(1, vo.getChildren().size());
+            Assert.assertEquals(vo.getChildren().get(0).getName(), vo.getChildrenNames().get(0));
+        }
+    }
+
+}
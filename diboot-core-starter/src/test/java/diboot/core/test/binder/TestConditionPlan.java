@@ -0,0 +1,73 @@
+package diboot.core.test.binder;
+
+import com.diboot.core.binding.annotation.BindField;
+import com.diboot.core.binding.parser.ConditionPlan;
+import com.diboot.core.binding.parser.MiddleTable;
+import com.diboot.core.binding.parser.ParserCache;
+import com.diboot.core.exception.InvalidUsageException;
+import diboot.core.test.binder.entity.Department;
+import diboot.core.test.binder.entity.Organization;
+import lombok.Getter;
+import lombok.Setter;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * 绑定条件预编译执行计划测试
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/20
+ * Copyright © diboot.com
+ */
+public class TestConditionPlan {
+
+    @Test
+    public void testDirectRelationPlan(){
+        String condition = "this.org_id=id AND name LIKE 'org%' AND id BETWEEN 1 AND 10 AND parent_id IS NOT NULL";
+        ConditionPlan plan = ParserCache.getConditionPlan(condition);
+        Assert.assertNull(plan.getMiddleTable());
+        Assert.assertEquals(4, plan.getStepCount());
+        // 编译一次后复用
+        Assert.assertSame(plan, ParserCache.getConditionPlan(condition));
+    }
+
+    @Test
+    public void testMiddleTablePlan(){
+        ConditionPlan plan = ParserCache.getConditionPlan("this.id=user_role.user_id AND user_role.role_id=id AND user_role.user_id>1 AND code IS NOT NULL");
+        MiddleTable middleTable = plan.getMiddleTable();
+        Assert.assertEquals("user_role", middleTable.getTable());
+        Assert.assertEquals("user_id", middleTable.getTrunkObjColMapping().get("id"));
+        Assert.assertEquals("id", middleTable.getBranchObjColMapping().get("role_id"));
+        // 关联列、设置中间表、附加条件
+        Assert.assertEquals(3, plan.getStepCount());
+    }
+
+    @Test
+    public void testInvalidCondition(){
+        try{
+            ParserCache.getConditionPlan("this.org_id=");
+            Assert.fail("无效条件应抛出异常");
+        }
+        catch (InvalidUsageException e){
+            Assert.assertTrue(e.getMessage().contains("this.org_id="));
+        }
+        // 解析VO注解时即校验条件
+        try{
+            ParserCache.getBindAnnotationGroup(InvalidConditionVO.class);
+            Assert.fail("无效条件应抛出异常");
+        }
+        catch (InvalidUsageException e){
+            Assert.assertTrue(e.getMessage().contains("InvalidConditionVO.orgName"));
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class InvalidConditionVO extends Department {
+        private static final long serialVersionUID = -3620413916359093742L;
+
+        @BindField(entity = Organization.class, field = "name", condition = "this.org_id==id")
+        private String orgName;
+    }
+
+}
@@ -0,0 +1,91 @@
+package diboot.core.test.binder;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.diboot.core.binding.Binder;
+import com.diboot.core.config.BaseConfig;
+import diboot.core.test.binder.entity.Department;
+import diboot.core.test.binder.service.DepartmentService;
+import diboot.core.test.binder.vo.DeepChainVO;
+import diboot.core.test.binder.vo.DeepCycleVO;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+/**
+ * 多层深度绑定测试，基于H2内存库
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/13
+ * Copyright © diboot.com
+ */
+public class TestDeepChainBinder extends AbstractH2Test {
+
+    @Autowired
+    DepartmentService departmentService;
+
+    @Test
+    public void testDeepBindToMaxDepth(){
+        List<Department> departments = departmentService.list(new QueryWrapper<Department>().between("id", 101, 200));
+        List<DeepChainVO> voList = Binder.convertAndBindRelations(departments, DeepChainVO.class);
+        int maxDepth = BaseConfig.getDeepBindMaxDepth();
+        // 测试环境配置为多层
+        Assert.assertEquals(3, maxDepth);
+        for(DeepChainVO vo : voList){
+            DeepChainVO current = vo;
+            // 顶层及深度绑定的各层均已绑定
+            for(int level = 0; level <= maxDepth; level++){
+                Assert.assertEquals("org" + current.getOrgId(), current.getOrgName());
+                Assert.assertNotNull(current.getParent());
+                Assert.assertEquals(Long.valueOf(current.getId() - 1), current.getParent().getId());
+                current = current.getParent();
+            }
+            // 超出最大层数的不再绑定
+            Assert.assertNull(current.getOrgName());
+            Assert.assertNull(current.getParent());
+        }
+    }
+
+    @Test
+    public void testMaxRows(){
+        List<Department> departments = departmentService.list(new QueryWrapper<Department>().between("id", 101, 200));
+        // 顶层100 + 第2层100 超出上限，不再深度绑定
+        ReflectionTestUtils.setField(BaseConfig.class, "deepBindMaxRows", 150);
+        try{
+            List<DeepChainVO> voList = Binder.convertAndBindRelations(departments, DeepChainVO.class);
+            for(DeepChainVO vo : voList){
+                Assert.assertNotNull(vo.getParent());
+                Assert.assertNull(vo.getParent().getOrgName());
+                Assert.assertNull(vo.getParent().getParent());
+            }
+        }
+        finally {
+            ReflectionTestUtils.setField(BaseConfig.class, "deepBindMaxRows", null);
+        }
+    }
+
+    @Test
+    public void testCycleNotRebound(){
+        List<Department> departments = departmentService.list(new QueryWrapper<Department>().eq("id", 150));
+        DeepCycleVO vo = Binder.convertAndBindRelations(departments, DeepCycleVO.class).get(0);
+        // 150 -> 上级149 -> 下级150 为循环引用，不再展开
+        DeepCycleVO parent = vo.getParent();
+        Assert.assertEquals(Long.valueOf(149L), parent.getId());
+        Assert.assertEquals("org149", parent.getOrgName());
+        DeepCycleVO cycled = parent.getChildren().get(0);
+        Assert.assertEquals(vo.getId(), cycled.getId());
+        Assert.assertNull(cycled.getOrgName());
+        Assert.assertNull(cycled.getParent());
+        Assert.assertNull(cycled.getChildren());
+        // 非循环的分支继续逐层绑定：150 -> 上级149 -> 上级148 -> 上级147
+        Assert.assertEquals(Long.valueOf(147L), parent.getParent().getParent().getId());
+        Assert.assertEquals("org147", parent.getParent().getParent().getOrgName());
+        // 150 -> 下级151 -> 上级150 为循环引用
+        DeepCycleVO child = vo.getChildren().get(0);
+        Assert.assertEquals("org151", child.getOrgName());
+        Assert.assertNull(child.getParent().getOrgName());
+    }
+
+}
@@ -0,0 +1,117 @@
+package diboot.core.test.binder;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.diboot.core.binding.JoinsBinder;
+import com.diboot.core.binding.QueryBuilder;
+import com.diboot.core.binding.parser.ParserCache;
+import com.diboot.core.binding.query.dynamic.AnnoJoiner;
+import com.diboot.core.binding.query.dynamic.DynamicJoinQueryWrapper;
+import com.diboot.core.binding.query.dynamic.DynamicSqlProvider;
+import com.diboot.core.config.BaseConfig;
+import diboot.core.test.binder.dto.DepartmentDTO;
+import diboot.core.test.binder.entity.Department;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 动态关联查询SQL模板缓存测试，基于H2内存库
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/20
+ * Copyright © diboot.com
+ */
+public class TestDynamicSqlTemplate extends AbstractH2Test {
+
+    private final DynamicSqlProvider sqlProvider = new DynamicSqlProvider();
+
+    @After
+    public void resetConfig(){
+        ReflectionTestUtils.setField(BaseConfig.class, "dynamicSqlCacheSize", null);
+    }
+
+    @Test
+    public void testTemplateMatchesFreshSql(){
+        DepartmentDTO dto = new DepartmentDTO();
+        dto.setOrgName("org1");
+        dto.setName("dept");
+        String cachedSql = buildSql(dto, "id");
+        // 不同参数值复用相同SQL
+        dto.setOrgName("org2");
+        dto.setName("dept2");
+        Assert.assertEquals(cachedSql, buildSql(dto, "id"));
+
+        ReflectionTestUtils.setField(BaseConfig.class, "dynamicSqlCacheSize", 0);
+        Assert.assertEquals(cachedSql, buildSql(dto, "id"));
+        String orderByNameSql = buildSql(dto, "name");
+        Assert.assertNotEquals(cachedSql, orderByNameSql);
+        ReflectionTestUtils.setField(BaseConfig.class, "dynamicSqlCacheSize", null);
+        Assert.assertEquals(orderByNameSql, buildSql(dto, "name"));
+
+        // 不同关联字段的SQL结构不同
+        DepartmentDTO parentDto = new DepartmentDTO();
+        parentDto.setParentName("dept1");
+        String parentSql = buildSql(parentDto, "id");
+        Assert.assertTrue(parentSql.contains("department r"));
+        Assert.assertFalse(parentSql.contains("organization r"));
+        Assert.assertTrue(cachedSql.contains("organization r"));
+    }
+
+    @Test
+    public void testTemplateKeyIndependentOfJoinerInstances(){
+        DepartmentDTO parentDto = new DepartmentDTO();
+        parentDto.setParentName("dept1");
+        DepartmentDTO orgDto = new DepartmentDTO();
+        orgDto.setOrgName("org1");
+        // 模拟并发初始化：查询使用的关联注解实例与DTO注解缓存中的实例不同，不同关联的SQL模板不可混用
+        QueryWrapper<DepartmentDTO> parentWrapper = withDetachedJoiners(buildWrapper(parentDto, "id"));
+        QueryWrapper<DepartmentDTO> orgWrapper = withDetachedJoiners(buildWrapper(orgDto, "id"));
+        Assert.assertTrue(sqlProvider.buildSqlForList(parentWrapper).contains("department r"));
+        String orgSql = sqlProvider.buildSqlForList(orgWrapper);
+        Assert.assertTrue(orgSql.contains("organization r"));
+        Assert.assertFalse(orgSql.contains("department r"));
+    }
+
+    @Test
+    public void testQueryWithTemplate(){
+        DepartmentDTO dto = new DepartmentDTO();
+        dto.setOrgName("org1");
+        List<Department> cachedList = JoinsBinder.queryList(QueryBuilder.toDynamicJoinQueryWrapper(dto), Department.class);
+        List<Department> cachedList2 = JoinsBinder.queryList(QueryBuilder.toDynamicJoinQueryWrapper(dto), Department.class);
+        ReflectionTestUtils.setField(BaseConfig.class, "dynamicSqlCacheSize", 0);
+        List<Department> freshList = JoinsBinder.queryList(QueryBuilder.toDynamicJoinQueryWrapper(dto), Department.class);
+        Assert.assertFalse(freshList.isEmpty());
+        Assert.assertEquals(freshList.size(), cachedList.size());
+        Assert.assertEquals(freshList.size(), cachedList2.size());
+    }
+
+    private String buildSql(DepartmentDTO dto, String orderByColumn){
+        return sqlProvider.buildSqlForList(buildWrapper(dto, orderByColumn));
+    }
+
+    /**
+     * 使wrapper使用DTO注解缓存重新解析前的关联注解实例
+     */
+    private QueryWrapper<DepartmentDTO> withDetachedJoiners(QueryWrapper<DepartmentDTO> wrapper){
+        List<AnnoJoiner> detachedJoiners = ((DynamicJoinQueryWrapper)wrapper).getAnnoJoiners();
+        Map<String, ?> bindQueryCacheMap = (Map<String, ?>)ReflectionTestUtils.getField(ParserCache.class, "dtoClassBindQueryCacheMap");
+        bindQueryCacheMap.remove(DepartmentDTO.class.getName());
+        DynamicJoinQueryWrapper spyWrapper = Mockito.spy((DynamicJoinQueryWrapper)wrapper);
+        Mockito.doReturn(detachedJoiners).when(spyWrapper).getAnnoJoiners();
+        return spyWrapper;
+    }
+
+    private QueryWrapper<DepartmentDTO> buildWrapper(DepartmentDTO dto, String orderByColumn){
+        QueryWrapper<DepartmentDTO> wrapper = QueryBuilder.toDynamicJoinQueryWrapper(dto);
+        Assert.assertTrue(wrapper instanceof DynamicJoinQueryWrapper);
+        ((DynamicJoinQueryWrapper)wrapper).setMainEntityClass(Department.class);
+        wrapper.orderByDesc(orderByColumn);
+        return wrapper;
+    }
+
+}
@@ -0,0 +1,59 @@
+package diboot.core.test.binder;
+
+import com.diboot.core.binding.JoinsBinder;
+import com.diboot.core.binding.parser.EntityMaterializer;
+import com.diboot.core.binding.parser.ParserCache;
+import diboot.core.test.binder.entity.Department;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 查询结果行到Entity的转换器测试
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/20
+ * Copyright © diboot.com
+ */
+public class TestEntityMaterializer {
+
+    @Test
+    public void testMaterialize() throws Exception{
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", 1L);
+        // 需类型转换的列
+        row.put("parent_id", 2);
+        row.put("org_id", "3");
+        row.put("name", "dept1");
+        row.put("character", "C1");
+        row.put("create_time", Timestamp.valueOf("2021-12-20 10:00:00"));
+        // is_前缀的布尔列映射至boolean属性
+        row.put("is_deleted", true);
+        // 无对应属性的列忽略
+        row.put("unknown_col", "x");
+        Department department = JoinsBinder.convertToEntity(row, Department.class);
+        Assert.assertEquals(Long.valueOf(1L), department.getId());
+        Assert.assertEquals(Long.valueOf(2L), department.getParentId());
+        Assert.assertEquals(Long.valueOf(3L), department.getOrgId());
+        Assert.assertEquals("dept1", department.getName());
+        Assert.assertEquals("C1", department.getCharacter());
+        Assert.assertNotNull(department.getCreateTime());
+        Assert.assertTrue(department.isDeleted());
+
+        // null值省略的列不同的行复用同一转换器
+        Map<String, Object> partialRow = new HashMap<>();
+        partialRow.put("id", 5L);
+        partialRow.put("is_deleted", false);
+        Department partial = JoinsBinder.convertToEntity(partialRow, Department.class);
+        Assert.assertEquals(Long.valueOf(5L), partial.getId());
+        Assert.assertNull(partial.getName());
+        Assert.assertFalse(partial.isDeleted());
+
+        EntityMaterializer<Department> materializer = ParserCache.getEntityMaterializer(Department.class);
+        Assert.assertSame(materializer, ParserCache.getEntityMaterializer(Department.class));
+    }
+
+}
@@ -0,0 +1,158 @@
+package diboot.core.test.binder;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.diboot.core.binding.JoinsBinder;
+import com.diboot.core.binding.QueryBuilder;
+import com.diboot.core.binding.helper.KeysetHelper;
+import com.diboot.core.exception.InvalidUsageException;
+import com.diboot.core.vo.Pagination;
+import diboot.core.test.binder.dto.DepartmentDTO;
+import diboot.core.test.binder.entity.Department;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 游标（keyset）分页测试，基于H2内存库比对OFFSET分页结果
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/20
+ * Copyright © diboot.com
+ */
+public class TestKeysetPagination extends AbstractH2Test {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testSingleTableKeyset(){
+        // create_time全部相同，由主键兜底排序
+        Pagination keysetPagination = new Pagination(Department.class);
+        keysetPagination.setKeyset(true);
+        keysetPagination.setOrderBy("createTime:DESC");
+        keysetPagination.setPageSize(1000);
+        Set<Long> allIds = new LinkedHashSet<>();
+        int pages = 0;
+        do {
+            List<Department> keysetList = JoinsBinder.queryList(new QueryWrapper<Department>(), Department.class, keysetPagination);
+            if(pages < 3){
+                Pagination offsetPagination = new Pagination(Department.class);
+                offsetPagination.setOrderBy("createTime:DESC,id:DESC");
+                offsetPagination.setPageSize(1000);
+                offsetPagination.setPageIndex(pages+1);
+                List<Department> offsetList = JoinsBinder.queryList(new QueryWrapper<Department>(), Department.class, offsetPagination);
+                Assert.assertEquals(toIds(offsetList), toIds(keysetList));
+            }
+            allIds.addAll(toIds(keysetList));
+            keysetPagination.setCursor(keysetPagination.getNextCursor());
+            pages++;
+        }
+        while(keysetPagination.getCursor() != null && pages < 20);
+        Assert.assertEquals(13, pages);
+        Assert.assertEquals(12000, allIds.size());
+        Assert.assertEquals(Long.valueOf(12000L), allIds.iterator().next());
+    }
+
+    @Test
+    public void testDynamicJoinKeyset(){
+        DepartmentDTO dto = new DepartmentDTO();
+        dto.setOrgName("org1");
+        List<Long> expectedIds = toIds(JoinsBinder.queryList(QueryBuilder.toDynamicJoinQueryWrapper(dto), Department.class));
+        expectedIds.sort(null);
+
+        Pagination pagination = new Pagination(Department.class);
+        pagination.setKeyset(true);
+        pagination.setOrderBy("id:ASC");
+        pagination.setPageSize(500);
+        List<Long> keysetIds = new ArrayList<>();
+        do {
+            // 游标条件附加至查询条件，每页使用新的queryWrapper
+            List<Department> list = JoinsBinder.queryList(QueryBuilder.toDynamicJoinQueryWrapper(dto), Department.class, pagination);
+            keysetIds.addAll(toIds(list));
+            pagination.setCursor(pagination.getNextCursor());
+        }
+        while(pagination.getCursor() != null);
+        Assert.assertTrue(expectedIds.size() > 1000);
+        Assert.assertEquals(expectedIds, keysetIds);
+    }
+
+    @Test
+    @Transactional
+    public void testNullableSortColumn(){
+        // 1/3的character为null，页边界分别落在null值及非null值中
+        jdbcTemplate.update("UPDATE department SET `character` = CONCAT('e', MOD(id, 7)) WHERE MOD(id, 3) <> 0");
+        for(String direction : new String[]{"ASC", "DESC"}){
+            Pagination keysetPagination = new Pagination(Department.class);
+            keysetPagination.setKeyset(true);
+            keysetPagination.setOrderBy("character:" + direction + ",id:" + direction);
+            keysetPagination.setPageSize(1000);
+            int pages = 0;
+            do {
+                List<Department> keysetList = JoinsBinder.queryList(new QueryWrapper<Department>(), Department.class, keysetPagination);
+                Pagination offsetPagination = new Pagination(Department.class);
+                offsetPagination.setOrderBy(keysetPagination.getOrderBy());
+                offsetPagination.setPageSize(1000);
+                offsetPagination.setPageIndex(pages+1);
+                List<Department> offsetList = JoinsBinder.queryList(new QueryWrapper<Department>(), Department.class, offsetPagination);
+                Assert.assertEquals(toIds(offsetList), toIds(keysetList));
+                keysetPagination.setCursor(keysetPagination.getNextCursor());
+                pages++;
+            }
+            while(keysetPagination.getCursor() != null && pages < 20);
+            Assert.assertEquals(13, pages);
+        }
+        // null值排序位置按实体所在数据源缓存
+        Map<?, ?> nullOrderingCache = (Map<?, ?>)ReflectionTestUtils.getField(KeysetHelper.class, "NULL_ORDERING_CACHE");
+        Assert.assertTrue(nullOrderingCache.containsKey(jdbcTemplate.getDataSource()));
+    }
+
+    @Test
+    public void testInvalidUsage(){
+        Pagination pagination = new Pagination(Department.class);
+        pagination.setKeyset(true);
+        pagination.setOrderBy("name:ASC");
+        pagination.setPageSize(10);
+        JoinsBinder.queryList(new QueryWrapper<Department>(), Department.class, pagination);
+        Assert.assertNotNull(pagination.getNextCursor());
+        // 游标与排序不匹配
+        pagination.setCursor(pagination.getNextCursor());
+        pagination.setOrderBy("id:ASC");
+        try{
+            JoinsBinder.queryList(new QueryWrapper<Department>(), Department.class, pagination);
+            Assert.fail();
+        }
+        catch (InvalidUsageException e){
+            Assert.assertTrue(e.getMessage().contains("排序"));
+        }
+        // 动态join查询不支持按关联表列排序
+        DepartmentDTO dto = new DepartmentDTO();
+        dto.setOrgName("org1");
+        pagination.setCursor(null);
+        pagination.setOrderBy("orgName:ASC");
+        try{
+            JoinsBinder.queryList(QueryBuilder.toDynamicJoinQueryWrapper(dto), Department.class, pagination);
+            Assert.fail();
+        }
+        catch (InvalidUsageException e){
+            Assert.assertTrue(e.getMessage().contains("主表"));
+        }
+    }
+
+    private List<Long> toIds(List<Department> list){
+        List<Long> ids = new ArrayList<>(list.size());
+        for(Department department : list){
+            ids.add(department.getId());
+        }
+        return ids;
+    }
+
+}
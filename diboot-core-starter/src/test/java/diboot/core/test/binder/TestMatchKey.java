@@ -0,0 +1,65 @@
+package diboot.core.test.binder;
+
+import com.diboot.core.binding.helper.MatchKey;
+import com.diboot.core.binding.helper.ResultAssembler;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+
+/**
+ * 绑定匹配Key测试
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/08
+ * Copyright © diboot.com
+ */
+public class TestMatchKey {
+
+    @Test
+    public void testNormalize(){
+        // 数值类型与整数字符串统一
+        Assert.assertEquals(MatchKey.normalize(10L), MatchKey.normalize(10));
+        Assert.assertEquals(MatchKey.normalize(10L), MatchKey.normalize("10"));
+        Assert.assertEquals(MatchKey.normalize(10L), MatchKey.normalize(new BigInteger("10")));
+        Assert.assertEquals(MatchKey.normalize(10L), MatchKey.normalize(new BigDecimal("10")));
+        Assert.assertEquals(MatchKey.normalize(-1L), MatchKey.normalize("-1"));
+        // 前导0、非整数字符串保持原样
+        Assert.assertEquals("001", MatchKey.normalize("001"));
+        Assert.assertEquals("A,B", MatchKey.normalize("A,B"));
+        Assert.assertEquals("99999999999999999999", MatchKey.normalize("99999999999999999999"));
+        Assert.assertNull(MatchKey.normalize(null));
+    }
+
+    @Test
+    public void testCompositeKey(){
+        Map<Object, String> map = new HashMap<>();
+        map.put(MatchKey.of(1L, "A"), "value");
+        MatchKey probe = MatchKey.probe(2);
+        Assert.assertEquals("value", map.get(probe.set(0, "1").set(1, "A").lookupKey()));
+        Assert.assertNull(map.get(probe.set(1, "B").lookupKey()));
+        Assert.assertEquals("value", map.get(probe.set(1, "A").lookupKey()));
+        // 单列直接使用值作为key
+        Assert.assertEquals(1L, MatchKey.of(1));
+    }
+
+    @Test
+    public void testConvertToOneToManyResult(){
+        Map<String, String> trunkMapping = new LinkedHashMap<>();
+        trunkMapping.put("id", "user_id");
+        Map<String, String> branchMapping = Collections.singletonMap("role_id", "id");
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for(int i=0; i<3; i++){
+            Map<String, Object> row = new HashMap<>();
+            // 模拟大写列名的数据库返回
+            row.put("USER_ID", 1);
+            row.put("ROLE_ID", 100L + i);
+            rows.add(row);
+        }
+        Map<Object, List> resultMap = ResultAssembler.convertToOneToManyResult(rows, trunkMapping, branchMapping);
+        Assert.assertEquals(3, resultMap.get(MatchKey.of(1L)).size());
+    }
+
+}
@@ -0,0 +1,65 @@
+package diboot.core.test.binder;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.diboot.core.binding.Binder;
+import com.diboot.core.binding.annotation.BindEntityList;
+import com.diboot.core.binding.binder.EntityListBinder;
+import com.diboot.core.binding.parser.ConditionManager;
+import com.diboot.core.util.BeanUtils;
+import diboot.core.test.binder.entity.Role;
+import diboot.core.test.binder.entity.User;
+import diboot.core.test.binder.service.UserService;
+import diboot.core.test.binder.vo.EntityListComplexVO;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+/**
+ * 中间表JOIN查询绑定测试，基于H2内存库
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/19
+ * Copyright © diboot.com
+ */
+public class TestMiddleTableJoinBinder extends AbstractH2Test {
+
+    @Autowired
+    UserService userService;
+
+    @Test
+    public void testMiddleTableJoin() throws Exception{
+        // 超出分批大小，拆分为多次JOIN查询
+        List<EntityListComplexVO> expectedList = getVOList(1, 2500);
+        Binder.bindRelations(expectedList);
+
+        List<EntityListComplexVO> voList = getVOList(1, 2500);
+        BindEntityList annotation = EntityListComplexVO.class.getDeclaredField("roleList").getAnnotation(BindEntityList.class);
+        EntityListBinder<Role> binder = new EntityListBinder<>(annotation, voList);
+        binder.set("roleList", Role.class);
+        binder.enableMiddleTableJoin();
+        ConditionManager.parseConditions(annotation.condition(), binder);
+        binder.bind();
+
+        // 中间表附加条件 user_role.user_id>1
+        Assert.assertNull(voList.get(0).getRoleList());
+        for(int i = 1; i < voList.size(); i++){
+            EntityListComplexVO vo = voList.get(i);
+            List<Role> expectedRoles = expectedList.get(i).getRoleList();
+            Assert.assertEquals(1, vo.getRoleList().size());
+            Role role = vo.getRoleList().get(0);
+            Assert.assertEquals(Long.valueOf(vo.getId() % 3 + 1), role.getId());
+            Assert.assertEquals(expectedRoles.get(0).getId(), role.getId());
+            Assert.assertEquals(expectedRoles.get(0).getName(), role.getName());
+            Assert.assertEquals(expectedRoles.get(0).getCode(), role.getCode());
+            Assert.assertNotNull(role.getCreateTime());
+        }
+    }
+
+    private List<EntityListComplexVO> getVOList(long fromId, long toId){
+        List<User> users = userService.getEntityList(new QueryWrapper<User>().between("id", fromId, toId).orderByAsc("id"));
+        return BeanUtils.convertList(users, EntityListComplexVO.class);
+    }
+
+}
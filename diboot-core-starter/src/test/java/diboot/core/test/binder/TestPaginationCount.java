@@ -0,0 +1,236 @@
+package diboot.core.test.binder;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.diboot.core.binding.JoinsBinder;
+import com.diboot.core.binding.QueryBuilder;
+import com.diboot.core.binding.helper.PaginationCounter;
+import com.diboot.core.binding.query.CountStrategy;
+import com.diboot.core.binding.query.QueryCount;
+import com.diboot.core.binding.query.dynamic.DynamicJoinQueryWrapper;
+import com.diboot.core.binding.query.dynamic.DynamicSqlProvider;
+import com.diboot.core.data.access.CheckpointType;
+import com.diboot.core.data.access.DataAccessInterface;
+import com.diboot.core.util.ContextHelper;
+import com.diboot.core.vo.Pagination;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import diboot.core.test.binder.dto.DepartmentDTO;
+import diboot.core.test.binder.dto.OrganizationDTO;
+import diboot.core.test.binder.entity.Department;
+import diboot.core.test.binder.entity.Organization;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.beans.MutablePropertyValues;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.validation.DataBinder;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 分页count策略测试，基于H2内存库
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/20
+ * Copyright © diboot.com
+ */
+public class TestPaginationCount extends AbstractH2Test {
+
+    private final DynamicSqlProvider sqlProvider = new DynamicSqlProvider();
+
+    @Test
+    public void testJoinCountSql(){
+        // 对一关联用于过滤，保留join，无需去重
+        DepartmentDTO dto = new DepartmentDTO();
+        dto.setOrgName("org1");
+        String countSql = buildCountSql(dto, Department.class);
+        Assert.assertTrue(countSql.startsWith("SELECT COUNT(*)"));
+        Assert.assertTrue(countSql.contains("LEFT OUTER JOIN organization"));
+        Assert.assertFalse(countSql.contains("ORDER BY"));
+
+        // 对多关联count去重的主键
+        OrganizationDTO orgDto = new OrganizationDTO();
+        orgDto.setDeptName("dept1");
+        countSql = buildCountSql(orgDto, Organization.class);
+        Assert.assertTrue(countSql.startsWith("SELECT COUNT(DISTINCT self.id)"));
+
+        Pagination pagination = new Pagination(Organization.class);
+        pagination.setPageSize(100);
+        List<Organization> page = JoinsBinder.queryList(QueryBuilder.toDynamicJoinQueryWrapper(orgDto), Organization.class, pagination);
+        Assert.assertEquals(100, page.size());
+        Assert.assertEquals(JoinsBinder.queryList(QueryBuilder.toDynamicJoinQueryWrapper(orgDto), Organization.class).size(), pagination.getTotalCount());
+    }
+
+    @Test
+    public void testJoinCountStrategies(){
+        DepartmentDTO dto = new DepartmentDTO();
+        dto.setOrgName("org1");
+        long total = JoinsBinder.queryList(QueryBuilder.toDynamicJoinQueryWrapper(dto), Department.class).size();
+
+        Pagination pagination = buildPagination(null, 2);
+        List<Long> defaultIds = toIds(JoinsBinder.queryList(QueryBuilder.toDynamicJoinQueryWrapper(dto), Department.class, pagination));
+        Assert.assertEquals(total, pagination.getTotalCount());
+        Assert.assertTrue(pagination.getHasNext());
+
+        for(CountStrategy countStrategy : Arrays.asList(CountStrategy.PARALLEL, CountStrategy.CACHE, CountStrategy.CACHE)){
+            pagination = buildPagination(countStrategy, 2);
+            Assert.assertEquals(defaultIds, toIds(JoinsBinder.queryList(QueryBuilder.toDynamicJoinQueryWrapper(dto), Department.class, pagination)));
+            Assert.assertEquals(total, pagination.getTotalCount());
+        }
+
+        pagination = buildPagination(CountStrategy.SKIP, 2);
+        Assert.assertEquals(defaultIds, toIds(JoinsBinder.queryList(QueryBuilder.toDynamicJoinQueryWrapper(dto), Department.class, pagination)));
+        Assert.assertEquals(0, pagination.getTotalCount());
+        Assert.assertTrue(pagination.getHasNext());
+        // 末页
+        pagination = buildPagination(CountStrategy.SKIP, (int)(total / 100) + 1);
+        List<Department> lastPage = JoinsBinder.queryList(QueryBuilder.toDynamicJoinQueryWrapper(dto), Department.class, pagination);
+        Assert.assertEquals(total % 100, lastPage.size());
+        Assert.assertFalse(pagination.getHasNext());
+    }
+
+    @Test
+    public void testSingleTableCountStrategies(){
+        for(CountStrategy countStrategy : CountStrategy.values()){
+            Pagination pagination = buildPagination(countStrategy, 3);
+            List<Department> list = JoinsBinder.queryList(new QueryWrapper<Department>(), Department.class, pagination);
+            Assert.assertEquals(100, list.size());
+            Assert.assertEquals(Long.valueOf(11800L), list.get(0).getId());
+            Assert.assertTrue(pagination.getHasNext());
+            Assert.assertEquals(countStrategy == CountStrategy.SKIP? 0 : 12000, pagination.getTotalCount());
+        }
+        // DTO类注解指定count策略
+        Pagination pagination = buildPagination(null, 1);
+        List<Department> list = JoinsBinder.queryList(QueryBuilder.toQueryWrapper(new SkipCountDepartmentDTO()), Department.class, pagination);
+        Assert.assertEquals(100, list.size());
+        Assert.assertEquals(0, pagination.getTotalCount());
+        Assert.assertTrue(pagination.getHasNext());
+    }
+
+    @Test
+    public void testCountCacheAndDeduce(){
+        PaginationCounter.clearCache();
+        AtomicInteger countTimes = new AtomicInteger();
+        List<Integer> fullPage = new ArrayList<>();
+        for(int i=0; i<100; i++){
+            fullPage.add(i);
+        }
+        for(int i=0; i<2; i++){
+            Pagination pagination = buildPagination(CountStrategy.CACHE, 1);
+            Page<Integer> page = pagination.toPage();
+            PaginationCounter.query(pagination, page, CountStrategy.CACHE, "test", p -> fullPage, () -> (long)countTimes.incrementAndGet() + 500);
+            Assert.assertEquals(501, pagination.getTotalCount());
+        }
+        Assert.assertEquals(1, countTimes.get());
+        // 不足一页时推算总数，无需count
+        Pagination pagination = buildPagination(CountStrategy.DEFAULT, 3);
+        Page<Integer> page = pagination.toPage();
+        PaginationCounter.query(pagination, page, CountStrategy.DEFAULT, null, p -> fullPage.subList(0, 10), () -> (long)countTimes.incrementAndGet());
+        Assert.assertEquals(210, pagination.getTotalCount());
+        Assert.assertFalse(pagination.getHasNext());
+        Assert.assertEquals(1, countTimes.get());
+        // 前端已传递总数时不count
+        pagination = buildPagination(CountStrategy.DEFAULT, 2);
+        pagination.setTotalCount(1000);
+        page = pagination.toPage();
+        PaginationCounter.query(pagination, page, CountStrategy.DEFAULT, null, p -> fullPage, () -> (long)countTimes.incrementAndGet());
+        Assert.assertEquals(1000, pagination.getTotalCount());
+        Assert.assertEquals(1, countTimes.get());
+        PaginationCounter.clearCache();
+    }
+
+    @Test
+    public void testParallelCountPropagatesRequest(){
+        RequestAttributes requestAttributes = new ServletRequestAttributes(new MockHttpServletRequest());
+        RequestContextHolder.setRequestAttributes(requestAttributes);
+        try{
+            AtomicReference<RequestAttributes> countAttributes = new AtomicReference<>();
+            AtomicReference<Thread> countThread = new AtomicReference<>();
+            List<Integer> fullPage = new ArrayList<>();
+            for(int i=0; i<100; i++){
+                fullPage.add(i);
+            }
+            Pagination pagination = buildPagination(CountStrategy.PARALLEL, 1);
+            Page<Integer> page = pagination.toPage();
+            PaginationCounter.query(pagination, page, CountStrategy.PARALLEL, null, p -> fullPage, () -> {
+                countAttributes.set(RequestContextHolder.getRequestAttributes());
+                countThread.set(Thread.currentThread());
+                return 500L;
+            });
+            Assert.assertEquals(500, pagination.getTotalCount());
+            Assert.assertSame(requestAttributes, countAttributes.get());
+            Assert.assertNotSame(Thread.currentThread(), countThread.get());
+        }
+        finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    @Test
+    public void testCountStrategyNotBindable() throws Exception{
+        // 请求参数绑定
+        Pagination pagination = new Pagination(Department.class);
+        MutablePropertyValues propertyValues = new MutablePropertyValues();
+        propertyValues.add("pageSize", 20);
+        propertyValues.add("countStrategy", "PARALLEL");
+        new DataBinder(pagination).bind(propertyValues);
+        Assert.assertEquals(20, pagination.getPageSize());
+        Assert.assertNull(pagination.getCountStrategy());
+        // JSON请求体绑定
+        pagination = new ObjectMapper().readValue("{\"pageSize\":20,\"countStrategy\":\"CACHE\"}", Pagination.class);
+        Assert.assertEquals(20, pagination.getPageSize());
+        Assert.assertNull(pagination.getCountStrategy());
+    }
+
+    @Test
+    public void testCacheKeyDataAccessDigest(){
+        // 测试数据权限实现中ORG类型可访问id为100001，其他类型为空
+        Assert.assertNotNull(ContextHelper.getBean(DataAccessInterface.class));
+        // 无检查点的实体不附加可访问id
+        String cacheKey = PaginationCounter.buildCacheKey(Department.class, new QueryWrapper<Department>().eq("org_id", 1));
+        for(CheckpointType type : CheckpointType.values()){
+            Assert.assertFalse(cacheKey.contains("|" + type.name() + "="));
+        }
+        // 仅附加实体所含检查点类型，可访问id以摘要附加
+        cacheKey = PaginationCounter.buildCacheKey(DepartmentDTO.class, new QueryWrapper<DepartmentDTO>().eq("org_id", 1));
+        Assert.assertTrue(cacheKey.contains("|ORG=1:"));
+        Assert.assertFalse(cacheKey.contains("|USER="));
+        Assert.assertFalse(cacheKey.contains("100001"));
+    }
+
+    private Pagination buildPagination(CountStrategy countStrategy, int pageIndex){
+        Pagination pagination = new Pagination(Department.class);
+        pagination.setPageSize(100);
+        pagination.setPageIndex(pageIndex);
+        pagination.useCountStrategy(countStrategy);
+        return pagination;
+    }
+
+    private <DTO> String buildCountSql(DTO dto, Class<?> entityClass){
+        QueryWrapper<DTO> wrapper = QueryBuilder.toDynamicJoinQueryWrapper(dto);
+        Assert.assertTrue(wrapper instanceof DynamicJoinQueryWrapper);
+        ((DynamicJoinQueryWrapper)wrapper).setMainEntityClass(entityClass);
+        wrapper.orderByDesc("self.id");
+        return sqlProvider.buildSqlForCount(wrapper);
+    }
+
+    private List<Long> toIds(List<Department> list){
+        List<Long> ids = new ArrayList<>(list.size());
+        for(Department department : list){
+            ids.add(department.getId());
+        }
+        return ids;
+    }
+
+    @QueryCount(strategy = CountStrategy.SKIP)
+    public static class SkipCountDepartmentDTO extends DepartmentDTO {
+        private static final long serialVersionUID = 2925417430873713504L;
+    }
+
+}
@@ -0,0 +1,56 @@
+package diboot.core.test.binder;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.diboot.core.binding.Binder;
+import com.diboot.core.binding.parser.ParserCache;
+import com.diboot.core.util.BeanUtils;
+import diboot.core.test.binder.entity.Department;
+import diboot.core.test.binder.service.DepartmentService;
+import diboot.core.test.binder.vo.ChunkBindVO;
+import diboot.core.test.binder.vo.DepartmentNameVO;
+import diboot.core.test.binder.vo.ProjectionBindVO;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * EntityBinder/EntityListBinder select列投影测试，基于H2内存库
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/19
+ * Copyright © diboot.com
+ */
+public class TestProjectionBinder extends AbstractH2Test {
+
+    @Autowired
+    DepartmentService departmentService;
+
+    @Test
+    public void testProjectionColumns(){
+        Map<String, String> columns = ParserCache.getProjectionColumns(Department.class, DepartmentNameVO.class);
+        Assert.assertEquals(Arrays.asList("id", "name"), Arrays.asList(columns.keySet().toArray()));
+        Assert.assertSame(columns, ParserCache.getProjectionColumns(Department.class, DepartmentNameVO.class));
+        // VO包含entity全部列时不做投影
+        Assert.assertTrue(ParserCache.getProjectionColumns(Department.class, ChunkBindVO.class).isEmpty());
+    }
+
+    @Test
+    public void testBindWithProjection(){
+        List<Department> departments = departmentService.list(new QueryWrapper<Department>().between("id", 1, 2000).orderByAsc("id"));
+        List<ProjectionBindVO> voList = BeanUtils.convertList(departments, ProjectionBindVO.class);
+        Binder.bindRelations(voList);
+        for(ProjectionBindVO vo : voList){
+            String childName = "dept" + (vo.getId() + 1);
+            Assert.assertEquals(childName, vo.getFirstChild().getName());
+            Assert.assertEquals(1, vo.getChildren().size());
+            Assert.assertEquals(childName, vo.getChildren().get(0).getName());
+            Assert.assertEquals(Long.valueOf(vo.getId() + 1), vo.getChildren().get(0).getId());
+            Assert.assertEquals(childName, vo.getFullChildren().get(0).getName());
+        }
+    }
+
+}
@@ -0,0 +1,134 @@
+package diboot.core.test.binder;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.diboot.core.binding.Binder;
+import com.diboot.core.binding.binder.remote.RemoteBindingCache;
+import com.diboot.core.binding.binder.remote.RemoteBindingExecutor;
+import com.diboot.core.binding.binder.remote.RemoteBindingManager;
+import com.diboot.core.config.BaseConfig;
+import com.diboot.core.util.BeanUtils;
+import diboot.core.test.binder.entity.Department;
+import diboot.core.test.binder.entity.RemoteDepartment;
+import diboot.core.test.binder.entity.RemoteOrganization;
+import diboot.core.test.binder.service.DepartmentService;
+import diboot.core.test.binder.vo.RemoteBindVO;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+/**
+ * 跨模块批量绑定及调用方缓存测试，远程模块由进程内的stub模拟，基于H2内存库
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/20
+ * Copyright © diboot.com
+ */
+public class TestRemoteBinding extends AbstractH2Test {
+
+    private static final String ORG_MODULE = "diboot-remote-org";
+    private static final String DEPT_MODULE = "diboot-remote-dept";
+
+    @Autowired
+    DepartmentService departmentService;
+
+    private final StubRemoteBindingProvider orgProvider = new StubRemoteBindingProvider();
+    private final StubRemoteBindingProvider deptProvider = new StubRemoteBindingProvider();
+
+    @Before
+    public void registerProviders(){
+        RemoteBindingManager.registerProvider(ORG_MODULE, orgProvider);
+        RemoteBindingManager.registerProvider(DEPT_MODULE, deptProvider);
+        RemoteBindingExecutor.reset(ORG_MODULE);
+        RemoteBindingExecutor.reset(DEPT_MODULE);
+        RemoteBindingCache.clear();
+    }
+
+    @After
+    public void resetConfig(){
+        ReflectionTestUtils.setField(BaseConfig.class, "remoteBindingBatch", false);
+        ReflectionTestUtils.setField(BaseConfig.class, "remoteBindingCacheTtl", 0);
+        RemoteBindingCache.clear();
+    }
+
+    @Test
+    public void testSingleRequests(){
+        ReflectionTestUtils.setField(BaseConfig.class, "remoteBindingBatch", false);
+        List<RemoteBindVO> voList = getVOList(1, 50);
+        Binder.bindRelations(voList);
+        verifyBinding(voList);
+        // 每个Binder单独请求
+        Assert.assertEquals(2, orgProvider.singleCount.get());
+        Assert.assertEquals(2, deptProvider.singleCount.get());
+        Assert.assertEquals(0, orgProvider.batchCount.get() + deptProvider.batchCount.get());
+    }
+
+    @Test
+    public void testBatchPerModule(){
+        ReflectionTestUtils.setField(BaseConfig.class, "remoteBindingBatch", true);
+        List<RemoteBindVO> voList = getVOList(1, 50);
+        Binder.bindRelations(voList);
+        verifyBinding(voList);
+        // 每个模块一次批量请求，无单独请求
+        Assert.assertEquals(1, orgProvider.batchCount.get());
+        Assert.assertEquals(1, deptProvider.batchCount.get());
+        Assert.assertEquals(0, orgProvider.singleCount.get() + deptProvider.singleCount.get());
+    }
+
+    @Test
+    public void testBatchFallback(){
+        ReflectionTestUtils.setField(BaseConfig.class, "remoteBindingBatch", true);
+        // 远程模块未提供批量接口时回退为逐个请求
+        orgProvider.batchSupported = false;
+        List<RemoteBindVO> voList = getVOList(1, 20);
+        Binder.bindRelations(voList);
+        verifyBinding(voList);
+        Assert.assertEquals(2, orgProvider.singleCount.get());
+        Assert.assertEquals(1, deptProvider.batchCount.get());
+    }
+
+    @Test
+    public void testCallerCache(){
+        ReflectionTestUtils.setField(BaseConfig.class, "remoteBindingBatch", true);
+        ReflectionTestUtils.setField(BaseConfig.class, "remoteBindingCacheTtl", 60);
+        List<RemoteBindVO> voList = getVOList(1, 30);
+        Binder.bindRelations(voList);
+        verifyBinding(voList);
+        Assert.assertEquals(1, orgProvider.batchCount.get());
+        Assert.assertTrue(RemoteBindingCache.size() >= 4);
+
+        // 相同关联值再次绑定时不再请求远程模块
+        List<RemoteBindVO> cachedList = getVOList(1, 30);
+        Binder.bindRelations(cachedList);
+        verifyBinding(cachedList);
+        Assert.assertEquals(1, orgProvider.batchCount.get());
+        Assert.assertEquals(1, deptProvider.batchCount.get());
+        Assert.assertEquals(0, orgProvider.singleCount.get() + deptProvider.singleCount.get());
+
+        // 关联值不同时重新请求
+        Binder.bindRelations(getVOList(31, 40));
+        Assert.assertEquals(2, orgProvider.batchCount.get());
+    }
+
+    private void verifyBinding(List<RemoteBindVO> voList){
+        for(RemoteBindVO vo : voList){
+            Assert.assertEquals("org" + vo.getOrgId(), vo.getOrgName());
+            Assert.assertEquals(vo.getOrgName(), vo.getOrganization().getName());
+            Assert.assertEquals(RemoteOrganization.class, vo.getOrganization().getClass());
+            Assert.assertEquals(1, vo.getChildren().size());
+            Assert.assertEquals(RemoteDepartment.class, vo.getChildren().get(0).getClass());
+            Assert.assertEquals(Long.valueOf(vo.getId() + 1), vo.getChildren().get(0).getId());
+            Assert.assertEquals("dept" + (vo.getId() + 1), vo.getChildrenNames().get(0));
+        }
+    }
+
+    private List<RemoteBindVO> getVOList(long fromId, long toId){
+        List<Department> departments = departmentService.list(new QueryWrapper<Department>().between("id", fromId, toId).orderByAsc("id"));
+        return BeanUtils.convertList(departments, RemoteBindVO.class);
+    }
+
+}
@@ -0,0 +1,249 @@
+package diboot.core.test.binder;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.diboot.core.binding.Binder;
+import com.diboot.core.binding.binder.remote.RemoteBindingCircuitBreaker;
+import com.diboot.core.binding.binder.remote.RemoteBindingException;
+import com.diboot.core.binding.binder.remote.RemoteBindingExecutor;
+import com.diboot.core.binding.binder.remote.RemoteBindingManager;
+import com.diboot.core.binding.binder.remote.RemoteModuleMetrics;
+import com.diboot.core.config.BaseConfig;
+import com.diboot.core.exception.BusinessException;
+import com.diboot.core.util.BeanUtils;
+import diboot.core.test.binder.entity.Department;
+import diboot.core.test.binder.service.DepartmentService;
+import diboot.core.test.binder.vo.RemoteBindVO;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * 跨模块绑定的超时、并发请求、熔断及降级测试，远程模块由注入延迟/异常的进程内stub模拟，基于H2内存库
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/20
+ * Copyright © diboot.com
+ */
+public class TestRemoteBindingResilience extends AbstractH2Test {
+
+    private static final String ORG_MODULE = "diboot-remote-org";
+    private static final String DEPT_MODULE = "diboot-remote-dept";
+
+    @Autowired
+    DepartmentService departmentService;
+
+    private final StubRemoteBindingProvider orgProvider = new StubRemoteBindingProvider();
+    private final StubRemoteBindingProvider deptProvider = new StubRemoteBindingProvider();
+
+    @Before
+    public void registerProviders(){
+        RemoteBindingManager.registerProvider(ORG_MODULE, orgProvider);
+        RemoteBindingManager.registerProvider(DEPT_MODULE, deptProvider);
+        RemoteBindingExecutor.reset(ORG_MODULE);
+        RemoteBindingExecutor.reset(DEPT_MODULE);
+        StubRemoteBindingProvider.MAX_IN_FLIGHT.set(0);
+        ReflectionTestUtils.setField(BaseConfig.class, "remoteBindingFallback", "null");
+    }
+
+    @After
+    public void resetConfig(){
+        ReflectionTestUtils.setField(BaseConfig.class, "remoteBindingBatch", false);
+        ReflectionTestUtils.setField(BaseConfig.class, "remoteBindingFallback", "fail");
+        ReflectionTestUtils.setField(BaseConfig.class, "remoteBindingCircuitFailureThreshold", 5);
+        ReflectionTestUtils.setField(BaseConfig.class, "remoteBindingCircuitOpenDuration", 30000);
+        ReflectionTestUtils.setField(BaseConfig.class, "remoteBindingMaxConcurrency", 8);
+        ReflectionTestUtils.setField(BaseConfig.class, "remoteBindingQueueCapacity", 100);
+        RemoteBindingExecutor.reset(ORG_MODULE);
+        RemoteBindingExecutor.reset(DEPT_MODULE);
+    }
+
+    @Test
+    public void testTimeoutDegradesToNull(){
+        // 慢模块超时后取消请求，绑定字段留空，其他模块正常绑定
+        orgProvider.latencyMillis = 2000;
+        RemoteBindingExecutor.setTimeout(ORG_MODULE, 200);
+        List<RemoteBindVO> voList = getVOList(1, 20);
+        long startTime = System.currentTimeMillis();
+        Binder.bindRelations(voList);
+        long elapsed = System.currentTimeMillis() - startTime;
+        Assert.assertTrue("elapsed " + elapsed + "ms", elapsed < 1500);
+        for(RemoteBindVO vo : voList){
+            Assert.assertNull(vo.getOrgName());
+            Assert.assertNull(vo.getOrganization());
+            Assert.assertEquals("dept" + (vo.getId() + 1), vo.getChildrenNames().get(0));
+        }
+        RemoteModuleMetrics orgMetrics = RemoteBindingExecutor.getMetrics(ORG_MODULE);
+        Assert.assertEquals(2, orgMetrics.getTimeoutCount());
+        Assert.assertEquals(2, orgMetrics.getFailureCount());
+        RemoteModuleMetrics deptMetrics = RemoteBindingExecutor.getMetrics(DEPT_MODULE);
+        Assert.assertEquals(2, deptMetrics.getSuccessCount());
+        Assert.assertEquals(0, deptMetrics.getFailureCount());
+        Assert.assertTrue(RemoteBindingExecutor.getModuleMetrics().containsKey(DEPT_MODULE));
+    }
+
+    @Test
+    public void testParallelFanOut(){
+        // 不同模块的批量请求并发执行
+        ReflectionTestUtils.setField(BaseConfig.class, "remoteBindingBatch", true);
+        orgProvider.latencyMillis = 300;
+        deptProvider.latencyMillis = 300;
+        List<RemoteBindVO> voList = getVOList(1, 20);
+        Binder.bindRelations(voList);
+        Assert.assertEquals(1, orgProvider.batchCount.get());
+        Assert.assertEquals(1, deptProvider.batchCount.get());
+        Assert.assertEquals(2, StubRemoteBindingProvider.MAX_IN_FLIGHT.get());
+        Assert.assertEquals("org" + voList.get(0).getOrgId(), voList.get(0).getOrgName());
+        Assert.assertEquals("dept2", voList.get(0).getChildrenNames().get(0));
+    }
+
+    @Test
+    public void testBatchTimeoutNotRetried(){
+        // 批量请求超时后不再逐个请求
+        ReflectionTestUtils.setField(BaseConfig.class, "remoteBindingBatch", true);
+        orgProvider.latencyMillis = 2000;
+        RemoteBindingExecutor.setTimeout(ORG_MODULE, 200);
+        List<RemoteBindVO> voList = getVOList(1, 20);
+        Binder.bindRelations(voList);
+        Assert.assertNull(voList.get(0).getOrgName());
+        Assert.assertEquals(0, orgProvider.singleCount.get());
+        Assert.assertEquals(1, RemoteBindingExecutor.getMetrics(ORG_MODULE).getTimeoutCount());
+        Assert.assertEquals("dept2", voList.get(0).getChildrenNames().get(0));
+    }
+
+    @Test
+    public void testCircuitBreaker() throws Exception {
+        ReflectionTestUtils.setField(BaseConfig.class, "remoteBindingCircuitFailureThreshold", 2);
+        ReflectionTestUtils.setField(BaseConfig.class, "remoteBindingCircuitOpenDuration", 300);
+        orgProvider.failing = true;
+        // 两次失败后熔断
+        Binder.bindRelations(getVOList(1, 10));
+        RemoteBindingCircuitBreaker circuitBreaker = RemoteBindingExecutor.getCircuitBreaker(ORG_MODULE);
+        Assert.assertEquals(RemoteBindingCircuitBreaker.State.OPEN, circuitBreaker.getState());
+        Assert.assertEquals(2, orgProvider.singleCount.get());
+
+        // 熔断期间不再请求
+        List<RemoteBindVO> voList = getVOList(1, 10);
+        Binder.bindRelations(voList);
+        Assert.assertNull(voList.get(0).getOrgName());
+        Assert.assertEquals(2, orgProvider.singleCount.get());
+        Assert.assertEquals(2, RemoteBindingExecutor.getMetrics(ORG_MODULE).getRejectedCount());
+
+        // 等待时间过后放行探测请求，失败则重新熔断
+        Thread.sleep(350);
+        Binder.bindRelations(getVOList(1, 10));
+        Assert.assertEquals(3, orgProvider.singleCount.get());
+        Assert.assertEquals(RemoteBindingCircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        // 远程恢复后探测成功，恢复请求
+        orgProvider.failing = false;
+        Thread.sleep(350);
+        Binder.bindRelations(getVOList(1, 10));
+        Assert.assertEquals(RemoteBindingCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        voList = getVOList(1, 10);
+        Binder.bindRelations(voList);
+        Assert.assertEquals("org" + voList.get(0).getOrgId(), voList.get(0).getOrgName());
+        Assert.assertEquals("org" + voList.get(0).getOrgId(), voList.get(0).getOrganization().getName());
+    }
+
+    @Test
+    public void testBatchEndpointMissingNotCounted(){
+        // 远程模块未提供批量接口时回退为逐个请求，批量请求的异常不计入熔断
+        ReflectionTestUtils.setField(BaseConfig.class, "remoteBindingBatch", true);
+        ReflectionTestUtils.setField(BaseConfig.class, "remoteBindingCircuitFailureThreshold", 1);
+        orgProvider.batchSupported = false;
+        List<RemoteBindVO> voList = getVOList(1, 10);
+        Binder.bindRelations(voList);
+        Assert.assertEquals(RemoteBindingCircuitBreaker.State.CLOSED, RemoteBindingExecutor.getCircuitBreaker(ORG_MODULE).getState());
+        Assert.assertEquals(2, orgProvider.singleCount.get());
+        Assert.assertEquals("org" + voList.get(0).getOrgId(), voList.get(0).getOrgName());
+    }
+
+    @Test
+    public void testHungProbeReleased() throws Exception {
+        // 探测请求挂起（未设置超时）超过等待时间后放行新的探测请求
+        ReflectionTestUtils.setField(BaseConfig.class, "remoteBindingCircuitFailureThreshold", 1);
+        ReflectionTestUtils.setField(BaseConfig.class, "remoteBindingCircuitOpenDuration", 200);
+        RemoteBindingCircuitBreaker circuitBreaker = RemoteBindingExecutor.getCircuitBreaker(ORG_MODULE);
+        circuitBreaker.onFailure();
+        Assert.assertFalse(circuitBreaker.allowRequest());
+        Thread.sleep(250);
+        Assert.assertTrue(circuitBreaker.allowRequest());
+        Assert.assertEquals(RemoteBindingCircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        Assert.assertFalse(circuitBreaker.allowRequest());
+        Thread.sleep(250);
+        Assert.assertTrue(circuitBreaker.allowRequest());
+    }
+
+    @Test
+    public void testModuleBulkhead(){
+        // 模块线程池已满时拒绝请求，不计入熔断
+        ReflectionTestUtils.setField(BaseConfig.class, "remoteBindingMaxConcurrency", 1);
+        ReflectionTestUtils.setField(BaseConfig.class, "remoteBindingQueueCapacity", 0);
+        ReflectionTestUtils.setField(BaseConfig.class, "remoteBindingCircuitFailureThreshold", 1);
+        CompletableFuture<String> first = RemoteBindingExecutor.submit(ORG_MODULE, () -> {
+            Thread.sleep(300);
+            return "ok";
+        });
+        CompletableFuture<String> second = RemoteBindingExecutor.submit(ORG_MODULE, () -> "ok");
+        try{
+            second.join();
+            Assert.fail("模块线程池已满时应拒绝请求");
+        }
+        catch (CompletionException e){
+            Assert.assertTrue(RemoteBindingExecutor.isType(e, RemoteBindingException.Type.REJECTED));
+        }
+        Assert.assertEquals("ok", first.join());
+        Assert.assertEquals(1, RemoteBindingExecutor.getMetrics(ORG_MODULE).getRejectedCount());
+        Assert.assertEquals(RemoteBindingCircuitBreaker.State.CLOSED, RemoteBindingExecutor.getCircuitBreaker(ORG_MODULE).getState());
+    }
+
+    @Test
+    public void testFailFallback(){
+        // 默认不限时，远程调用异常原样抛出
+        ReflectionTestUtils.setField(BaseConfig.class, "remoteBindingFallback", "fail");
+        orgProvider.failing = true;
+        try{
+            Binder.bindRelations(getVOList(1, 10));
+            Assert.fail("跨模块绑定失败时应抛出异常");
+        }
+        catch (Exception e){
+            Throwable cause = e;
+            while(cause != null && !(cause instanceof IllegalStateException)){
+                cause = cause.getCause();
+            }
+            Assert.assertNotNull(cause);
+            Assert.assertEquals("503 Service Unavailable", cause.getMessage());
+        }
+    }
+
+    @Test
+    public void testFailFallbackOnTimeout(){
+        ReflectionTestUtils.setField(BaseConfig.class, "remoteBindingFallback", "fail");
+        orgProvider.latencyMillis = 1000;
+        RemoteBindingExecutor.setTimeout(ORG_MODULE, 100);
+        try{
+            Binder.bindRelations(getVOList(1, 10));
+            Assert.fail("跨模块绑定超时时应抛出异常");
+        }
+        catch (Exception e){
+            Throwable cause = e;
+            while(cause != null && !(cause instanceof BusinessException)){
+                cause = cause.getCause();
+            }
+            Assert.assertNotNull(cause);
+        }
+    }
+
+    private List<RemoteBindVO> getVOList(long fromId, long toId){
+        List<Department> departments = departmentService.list(new QueryWrapper<Department>().between("id", fromId, toId).orderByAsc("id"));
+        return BeanUtils.convertList(departments, RemoteBindVO.class);
+    }
+
+}
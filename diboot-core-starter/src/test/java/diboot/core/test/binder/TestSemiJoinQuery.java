@@ -0,0 +1,150 @@
+package diboot.core.test.binder;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.diboot.core.binding.JoinsBinder;
+import com.diboot.core.binding.QueryBuilder;
+import com.diboot.core.binding.query.dynamic.DynamicJoinQueryWrapper;
+import com.diboot.core.binding.query.dynamic.DynamicSqlProvider;
+import com.diboot.core.config.BaseConfig;
+import com.diboot.core.entity.BaseEntity;
+import diboot.core.test.binder.dto.OrganizationDTO;
+import diboot.core.test.binder.dto.UserDTO;
+import diboot.core.test.binder.entity.Organization;
+import diboot.core.test.binder.entity.User;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 动态关联查询EXISTS半连接改写测试，基于H2内存库比对改写前后结果
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/20
+ * Copyright © diboot.com
+ */
+public class TestSemiJoinQuery extends AbstractH2Test {
+
+    private final DynamicSqlProvider sqlProvider = new DynamicSqlProvider();
+
+    @After
+    public void resetConfig(){
+        ReflectionTestUtils.setField(BaseConfig.class, "dynamicQuerySemiJoin", null);
+    }
+
+    @Test
+    public void testToManyFilter(){
+        OrganizationDTO dto = new OrganizationDTO();
+        dto.setDeptName("dept1");
+        String sql = buildSql(dto, Organization.class, true);
+        Assert.assertTrue(sql.contains("EXISTS (SELECT 1 FROM department r1 WHERE self.id = r1.org_id AND r1.is_deleted = 0 AND (r1.name LIKE"));
+        Assert.assertFalse(sql.contains("DISTINCT"));
+        Assert.assertFalse(sql.contains("LEFT OUTER JOIN"));
+        List<Long> ids = assertEquivalent(dto, Organization.class);
+        Assert.assertTrue(ids.size() > 1000);
+    }
+
+    @Test
+    public void testSharedToManyJoinKept(){
+        // 同一关联被多个字段引用时保留join及DISTINCT
+        OrganizationDTO dto = new OrganizationDTO();
+        dto.setDeptName("dept1").setDeptIdFrom(100L);
+        String sql = buildSql(dto, Organization.class, true);
+        Assert.assertFalse(sql.contains("EXISTS"));
+        Assert.assertTrue(sql.contains("DISTINCT"));
+        Assert.assertTrue(sql.contains("LEFT OUTER JOIN department r1"));
+        Assert.assertFalse(assertEquivalent(dto, Organization.class).isEmpty());
+    }
+
+    @Test
+    public void testToOneJoinAndOrGroup(){
+        OrganizationDTO dto = new OrganizationDTO();
+        dto.setSearch("1");
+        String sql = buildSql(dto, Organization.class, true);
+        Assert.assertTrue(sql.contains("EXISTS"));
+        Assert.assertFalse(sql.contains("DISTINCT"));
+        Assert.assertFalse(assertEquivalent(dto, Organization.class).isEmpty());
+
+        // 对一关联保留LEFT JOIN，不影响去掉DISTINCT
+        dto = new OrganizationDTO();
+        dto.setParentName("org").setDeptName("dept2");
+        sql = buildSql(dto, Organization.class, true);
+        Assert.assertTrue(sql.contains("LEFT OUTER JOIN organization"));
+        Assert.assertTrue(sql.contains("EXISTS"));
+        Assert.assertFalse(sql.contains("DISTINCT"));
+        assertEquivalent(dto, Organization.class);
+    }
+
+    @Test
+    public void testMiddleTableFilter(){
+        UserDTO dto = new UserDTO();
+        dto.setRoleCodes(Arrays.asList("R1", "R2"));
+        String sql = buildSql(dto, User.class, true);
+        Assert.assertTrue(sql.contains("EXISTS (SELECT 1 FROM user_role"));
+        Assert.assertFalse(sql.contains("DISTINCT"));
+        List<Long> ids = assertEquivalent(dto, User.class);
+        Assert.assertEquals(8000, ids.size());
+
+        dto.setOrgName("1");
+        Assert.assertFalse(assertEquivalent(dto, User.class).isEmpty());
+    }
+
+    @Test
+    public void testCustomSelectKeepsDistinct(){
+        // 指定select列时投影结果可能重复，改写后仍保留DISTINCT
+        OrganizationDTO dto = new OrganizationDTO();
+        dto.setDeptName("dept1");
+        ReflectionTestUtils.setField(BaseConfig.class, "dynamicQuerySemiJoin", true);
+        QueryWrapper<OrganizationDTO> wrapper = QueryBuilder.toDynamicJoinQueryWrapper(dto);
+        wrapper.select("parent_id");
+        ((DynamicJoinQueryWrapper)wrapper).setMainEntityClass(Organization.class);
+        String sql = sqlProvider.buildSqlForList(wrapper);
+        Assert.assertTrue(sql.contains("EXISTS"));
+        Assert.assertTrue(sql.contains("DISTINCT"));
+        List<Organization> semiJoinList = JoinsBinder.queryList(wrapper, Organization.class);
+
+        ReflectionTestUtils.setField(BaseConfig.class, "dynamicQuerySemiJoin", false);
+        wrapper = QueryBuilder.toDynamicJoinQueryWrapper(dto);
+        wrapper.select("parent_id");
+        List<Organization> joinList = JoinsBinder.queryList(wrapper, Organization.class);
+        Assert.assertEquals(joinList.size(), semiJoinList.size());
+        Assert.assertTrue(semiJoinList.size() < 1000);
+    }
+
+    /**
+     * 比对改写前后的查询结果
+     */
+    private <DTO, E extends BaseEntity> List<Long> assertEquivalent(DTO dto, Class<E> entityClass){
+        ReflectionTestUtils.setField(BaseConfig.class, "dynamicQuerySemiJoin", false);
+        List<Long> joinIds = queryIds(dto, entityClass);
+        ReflectionTestUtils.setField(BaseConfig.class, "dynamicQuerySemiJoin", true);
+        List<Long> semiJoinIds = queryIds(dto, entityClass);
+        Assert.assertEquals(joinIds, semiJoinIds);
+        return semiJoinIds;
+    }
+
+    private <DTO, E extends BaseEntity> List<Long> queryIds(DTO dto, Class<E> entityClass){
+        QueryWrapper<DTO> wrapper = QueryBuilder.toDynamicJoinQueryWrapper(dto);
+        List<E> entities = JoinsBinder.queryList(wrapper, entityClass);
+        List<Long> ids = new ArrayList<>(entities.size());
+        for(E entity : entities){
+            ids.add((Long)entity.getId());
+        }
+        Collections.sort(ids);
+        return ids;
+    }
+
+    private <DTO> String buildSql(DTO dto, Class<?> entityClass, boolean semiJoin){
+        ReflectionTestUtils.setField(BaseConfig.class, "dynamicQuerySemiJoin", semiJoin);
+        QueryWrapper<DTO> wrapper = QueryBuilder.toDynamicJoinQueryWrapper(dto);
+        Assert.assertTrue(wrapper instanceof DynamicJoinQueryWrapper);
+        ((DynamicJoinQueryWrapper)wrapper).setMainEntityClass(entityClass);
+        return sqlProvider.buildSqlForList(wrapper);
+    }
+
+}
@@ -0,0 +1,100 @@
+package diboot.core.test.binder;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.diboot.core.binding.Binder;
+import com.diboot.core.util.BeanUtils;
+import diboot.core.test.binder.entity.Department;
+import diboot.core.test.binder.service.DepartmentService;
+import diboot.core.test.binder.vo.ChunkBindVO;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 分窗口绑定测试，基于H2内存库
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/18
+ * Copyright © diboot.com
+ */
+public class TestWindowedBinder extends AbstractH2Test {
+
+    @Autowired
+    DepartmentService departmentService;
+
+    @Test
+    public void testBindInWindows(){
+        List<Department> departments = departmentService.list(new QueryWrapper<Department>().le("id", 2500).orderByAsc("id"));
+        List<ChunkBindVO> voList = BeanUtils.convertList(departments, ChunkBindVO.class);
+        Binder.bindRelations(voList, 1000);
+        for(ChunkBindVO vo : voList){
+            Assert.assertEquals("org" + vo.getOrgId(), vo.getOrgName());
+            Assert.assertEquals(vo.getOrgName(), vo.getOrganization().getName());
+            Assert.assertEquals("dept" + (vo.getId() + 1), vo.getChildrenNames().get(0));
+        }
+    }
+
+    @Test
+    public void testBindStream(){
+        List<Department> departments = departmentService.list(new QueryWrapper<Department>().le("id", 2500).orderByAsc("id"));
+        AtomicInteger readCount = new AtomicInteger();
+        Iterator<Department> source = departments.stream().peek(d -> readCount.incrementAndGet()).iterator();
+        Iterator<ChunkBindVO> iterator = Binder.convertAndBindRelations(source, ChunkBindVO.class, 500).iterator();
+        // 仅读取并绑定首个窗口
+        ChunkBindVO first = iterator.next();
+        Assert.assertEquals(500, readCount.get());
+        Assert.assertEquals("org1", first.getOrgName());
+
+        List<ChunkBindVO> voList = Binder.convertAndBindRelations(departments.iterator(), ChunkBindVO.class, 500).collect(Collectors.toList());
+        Assert.assertEquals(departments.size(), voList.size());
+        for(ChunkBindVO vo : voList){
+            Assert.assertEquals("org" + vo.getOrgId(), vo.getOrgName());
+            Assert.assertEquals(1, vo.getChildren().size());
+        }
+    }
+
+    @Test
+    public void testStreamClosesSource(){
+        List<Department> departments = departmentService.list(new QueryWrapper<Department>().le("id", 100).orderByAsc("id"));
+        AtomicInteger closeCount = new AtomicInteger();
+        CloseableSource<Department> source = new CloseableSource<>(departments, closeCount);
+        // 提前结束消费，关闭Stream时关闭数据来源
+        try(Stream<ChunkBindVO> stream = Binder.convertAndBindRelations(source, ChunkBindVO.class, 10)){
+            ChunkBindVO first = stream.findFirst().orElse(null);
+            Assert.assertNotNull(first);
+            Assert.assertEquals("org1", first.getOrgName());
+            Assert.assertEquals(0, closeCount.get());
+        }
+        Assert.assertEquals(1, closeCount.get());
+    }
+
+    /**
+     * 模拟MyBatis Cursor的可关闭数据来源
+     */
+    private static class CloseableSource<E> implements Iterable<E>, AutoCloseable {
+        private final List<E> list;
+        private final AtomicInteger closeCount;
+
+        CloseableSource(List<E> list, AtomicInteger closeCount){
+            this.list = list;
+            this.closeCount = closeCount;
+        }
+
+        @Override
+        public Iterator<E> iterator(){
+            return list.iterator();
+        }
+
+        @Override
+        public void close(){
+            closeCount.incrementAndGet();
+        }
+    }
+
+}
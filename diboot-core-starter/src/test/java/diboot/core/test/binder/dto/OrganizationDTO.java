@@ -0,0 +1,41 @@
+package diboot.core.test.binder.dto;
+
+import com.diboot.core.binding.query.BindQuery;
+import com.diboot.core.binding.query.Comparison;
+import diboot.core.test.binder.entity.Department;
+import diboot.core.test.binder.entity.Organization;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+/**
+ * Organization DTO
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/20
+ * Copyright © diboot.com
+ */
+@Getter
+@Setter
+@Accessors(chain = true)
+public class OrganizationDTO extends Organization {
+    private static final long serialVersionUID = 3521447563063327823L;
+
+    // 对多关联过滤
+    @BindQuery(comparison = Comparison.STARTSWITH, entity = Department.class, field = "name", condition = "this.id=org_id")
+    private String deptName;
+
+    // 与deptName共用同一关联
+    @BindQuery(comparison = Comparison.GE, entity = Department.class, field = "id", condition = "this.id=org_id")
+    private Long deptIdFrom;
+
+    // 对一关联
+    @BindQuery(comparison = Comparison.STARTSWITH, entity = Organization.class, field = "name", condition = "this.parent_id=id")
+    private String parentName;
+
+    // 多个关联条件OR连接
+    @BindQuery(comparison = Comparison.STARTSWITH, field = "name")
+    @BindQuery(comparison = Comparison.ENDSWITH, entity = Department.class, field = "name", condition = "this.id=org_id AND parent_id>0")
+    private String search;
+
+}
@@ -0,0 +1,24 @@
+package diboot.core.test.binder.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.diboot.core.binding.annotation.Module;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+/**
+ * 其他模块的部门Entity（跨模块绑定测试）
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/20
+ * Copyright © diboot.com
+ */
+@Getter
+@Setter
+@Accessors(chain = true)
+@Module("diboot-remote-dept")
+@TableName("department")
+public class RemoteDepartment extends Department {
+    private static final long serialVersionUID = -2875960131428536714L;
+
+}
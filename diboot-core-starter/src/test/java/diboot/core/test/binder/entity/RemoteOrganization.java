@@ -0,0 +1,24 @@
+package diboot.core.test.binder.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import com.diboot.core.binding.annotation.Module;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+/**
+ * 其他模块的单位Entity（跨模块绑定测试）
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/20
+ * Copyright © diboot.com
+ */
+@Getter
+@Setter
+@Accessors(chain = true)
+@Module("diboot-remote-org")
+@TableName("organization")
+public class RemoteOrganization extends Organization {
+    private static final long serialVersionUID = 7391562283507714128L;
+
+}
@@ -0,0 +1,30 @@
+package diboot.core.test.binder.vo;
+
+import com.diboot.core.binding.annotation.BindEntity;
+import com.diboot.core.binding.annotation.BindField;
+import diboot.core.test.binder.entity.Department;
+import diboot.core.test.binder.entity.Organization;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+/**
+ * 绑定结果缓存测试VO
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/10
+ * Copyright © diboot.com
+ */
+@Getter
+@Setter
+@Accessors(chain = true)
+public class CacheBindVO extends Department {
+    private static final long serialVersionUID = 8061546734952035162L;
+
+    @BindField(entity = Organization.class, field = "name", condition = "this.org_id=id", cache = true)
+    private String orgName;
+
+    @BindEntity(entity = Organization.class, condition = "this.org_id=id", cache = true)
+    private Organization organization;
+
+}
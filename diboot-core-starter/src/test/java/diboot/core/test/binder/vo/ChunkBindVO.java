@@ -0,0 +1,40 @@
+package diboot.core.test.binder.vo;
+
+import com.diboot.core.binding.annotation.BindEntity;
+import com.diboot.core.binding.annotation.BindEntityList;
+import com.diboot.core.binding.annotation.BindField;
+import com.diboot.core.binding.annotation.BindFieldList;
+import diboot.core.test.binder.entity.Department;
+import diboot.core.test.binder.entity.Organization;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.util.List;
+
+/**
+ * 大批量数据分批绑定测试VO
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/09
+ * Copyright © diboot.com
+ */
+@Getter
+@Setter
+@Accessors(chain = true)
+public class ChunkBindVO extends Department {
+    private static final long serialVersionUID = 2658711023045811370L;
+
+    @BindField(entity = Organization.class, field = "name", condition = "this.org_id=id")
+    private String orgName;
+
+    @BindEntity(entity = Organization.class, condition = "this.org_id=id")
+    private Organization organization;
+
+    @BindEntityList(entity = Department.class, condition = "this.id=parent_id")
+    private List<Department> children;
+
+    @BindFieldList(entity = Department.class, field = "name", condition = "this.id=parent_id")
+    private List<String> childrenNames;
+
+}
@@ -0,0 +1,30 @@
+package diboot.core.test.binder.vo;
+
+import com.diboot.core.binding.annotation.BindEntity;
+import com.diboot.core.binding.annotation.BindField;
+import diboot.core.test.binder.entity.Department;
+import diboot.core.test.binder.entity.Organization;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+/**
+ * 多层深度绑定测试VO（逐级关联上级部门）
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/13
+ * Copyright © diboot.com
+ */
+@Getter
+@Setter
+@Accessors(chain = true)
+public class DeepChainVO extends Department {
+    private static final long serialVersionUID = -3375093465611025087L;
+
+    @BindField(entity = Organization.class, field = "name", condition = "this.org_id=id")
+    private String orgName;
+
+    @BindEntity(entity = Department.class, condition = "this.parent_id=id", deepBind = true)
+    private DeepChainVO parent;
+
+}
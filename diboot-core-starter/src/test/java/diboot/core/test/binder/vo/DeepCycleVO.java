@@ -0,0 +1,36 @@
+package diboot.core.test.binder.vo;
+
+import com.diboot.core.binding.annotation.BindEntity;
+import com.diboot.core.binding.annotation.BindEntityList;
+import com.diboot.core.binding.annotation.BindField;
+import diboot.core.test.binder.entity.Department;
+import diboot.core.test.binder.entity.Organization;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.util.List;
+
+/**
+ * 循环引用的深度绑定测试VO（上级部门的下级部门包含自身）
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/13
+ * Copyright © diboot.com
+ */
+@Getter
+@Setter
+@Accessors(chain = true)
+public class DeepCycleVO extends Department {
+    private static final long serialVersionUID = 4420965716384911127L;
+
+    @BindField(entity = Organization.class, field = "name", condition = "this.org_id=id")
+    private String orgName;
+
+    @BindEntity(entity = Department.class, condition = "this.parent_id=id", deepBind = true)
+    private DeepCycleVO parent;
+
+    @BindEntityList(entity = Department.class, condition = "this.id=parent_id", deepBind = true)
+    private List<DeepCycleVO> children;
+
+}
@@ -0,0 +1,26 @@
+package diboot.core.test.binder.vo;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.io.Serializable;
+
+/**
+ * 仅包含部门名称的VO（select列投影测试）
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/19
+ * Copyright © diboot.com
+ */
+@Getter
+@Setter
+@Accessors(chain = true)
+public class DepartmentNameVO implements Serializable {
+    private static final long serialVersionUID = -1530392768861504382L;
+
+    private Long id;
+
+    private String name;
+
+}
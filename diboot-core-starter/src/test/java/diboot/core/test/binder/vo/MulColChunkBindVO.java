@@ -0,0 +1,26 @@
+package diboot.core.test.binder.vo;
+
+import com.diboot.core.binding.annotation.BindField;
+import diboot.core.test.binder.entity.Department;
+import diboot.core.test.binder.entity.User;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+/**
+ * 多列关联且各列IN条件值均超出分批大小的绑定测试VO
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/09
+ * Copyright © diboot.com
+ */
+@Getter
+@Setter
+@Accessors(chain = true)
+public class MulColChunkBindVO extends Department {
+    private static final long serialVersionUID = 2658711023045811371L;
+
+    @BindField(entity = User.class, field = "username", condition = "this.id=department_id AND this.org_id=id")
+    private String username;
+
+}
@@ -0,0 +1,35 @@
+package diboot.core.test.binder.vo;
+
+import com.diboot.core.binding.annotation.BindEntity;
+import com.diboot.core.binding.annotation.BindEntityList;
+import diboot.core.test.binder.entity.Department;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.util.List;
+
+/**
+ * select列投影绑定测试VO
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/19
+ * Copyright © diboot.com
+ */
+@Getter
+@Setter
+@Accessors(chain = true)
+public class ProjectionBindVO extends Department {
+    private static final long serialVersionUID = 4406519283520318927L;
+
+    // 关联列parent_id不在VO属性中
+    @BindEntity(entity = Department.class, condition = "this.id=parent_id")
+    private DepartmentNameVO firstChild;
+
+    @BindEntityList(entity = Department.class, condition = "this.id=parent_id")
+    private List<DepartmentNameVO> children;
+
+    @BindEntityList(entity = Department.class, condition = "this.id=parent_id", projection = false)
+    private List<DepartmentNameVO> fullChildren;
+
+}
@@ -0,0 +1,41 @@
+package diboot.core.test.binder.vo;
+
+import com.diboot.core.binding.annotation.BindEntity;
+import com.diboot.core.binding.annotation.BindEntityList;
+import com.diboot.core.binding.annotation.BindField;
+import com.diboot.core.binding.annotation.BindFieldList;
+import diboot.core.test.binder.entity.Department;
+import diboot.core.test.binder.entity.RemoteDepartment;
+import diboot.core.test.binder.entity.RemoteOrganization;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.util.List;
+
+/**
+ * 跨模块绑定测试VO
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/20
+ * Copyright © diboot.com
+ */
+@Getter
+@Setter
+@Accessors(chain = true)
+public class RemoteBindVO extends Department {
+    private static final long serialVersionUID = -6120385547321870591L;
+
+    @BindField(entity = RemoteOrganization.class, field = "name", condition = "this.org_id=id")
+    private String orgName;
+
+    @BindEntity(entity = RemoteOrganization.class, condition = "this.org_id=id")
+    private RemoteOrganization organization;
+
+    @BindEntityList(entity = RemoteDepartment.class, condition = "this.id=parent_id")
+    private List<RemoteDepartment> children;
+
+    @BindFieldList(entity = RemoteDepartment.class, field = "name", condition = "this.id=parent_id")
+    private List<String> childrenNames;
+
+}
@@ -0,0 +1,87 @@
+package diboot.core.test.util;
+
+import com.diboot.core.data.copy.Accept;
+import com.diboot.core.util.BeanUtils;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 预编译属性拷贝测试
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/15
+ * Copyright © diboot.com
+ */
+public class BeanPropertyCopierTest {
+
+    @Test
+    public void testConvert(){
+        Source source = new Source().setId(1L).setName("diboot").setOrgId(10L).setTagIds(Arrays.asList(1L, 2L)).setAge(18);
+        Target target = BeanUtils.convert(source, Target.class);
+        Assert.assertEquals(Long.valueOf(1L), target.getId());
+        Assert.assertEquals("diboot", target.getName());
+        // 泛型不匹配的属性不拷贝
+        Assert.assertNull(target.getTagIds());
+        // 类型不匹配的属性不拷贝
+        Assert.assertNull(target.getAge());
+        // Accept非同名属性，类型转换
+        Assert.assertEquals("10", target.getOrgIdStr());
+        Assert.assertEquals("diboot", target.getTitle());
+
+        // 未设置override时不覆盖已有值
+        target.setTitle("exists");
+        BeanUtils.copyProperties(source, target);
+        Assert.assertEquals("exists", target.getTitle());
+        Assert.assertEquals("10", target.getOrgIdStr());
+    }
+
+    @Test
+    public void testConvertListAndClone(){
+        List<Source> sourceList = new ArrayList<>();
+        for(long i=0; i<1000; i++){
+            sourceList.add(new Source().setId(i).setName("name"+i).setOrgId(i));
+        }
+        List<Target> targetList = BeanUtils.convertList(sourceList, Target.class);
+        Assert.assertEquals(1000, targetList.size());
+        Assert.assertEquals("name999", targetList.get(999).getName());
+        Assert.assertEquals("999", targetList.get(999).getOrgIdStr());
+
+        Source cloned = BeanUtils.cloneBean(sourceList.get(1));
+        Assert.assertNotSame(sourceList.get(1), cloned);
+        Assert.assertEquals(Long.valueOf(1L), cloned.getId());
+        Assert.assertEquals("name1", cloned.getName());
+    }
+
+    @Getter
+    @Setter
+    @Accessors(chain = true)
+    public static class Source {
+        private Long id;
+        private String name;
+        private Long orgId;
+        private List<Long> tagIds;
+        private Integer age;
+    }
+
+    @Getter
+    @Setter
+    @Accessors(chain = true)
+    public static class Target {
+        private Long id;
+        private String name;
+        private List<String> tagIds;
+        private String age;
+        @Accept(name = "orgId", override = true)
+        private String orgIdStr;
+        @Accept(name = "name")
+        private String title;
+    }
+
+}
@@ -30,6 +30,8 @@ import diboot.core.test.config.SpringMvcConfig;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ContextConfiguration;
@@ -129,6 +131,39 @@ public class BeanUtilsTest {
         Assert.assertTrue(BeanUtils.getStringProperty(dictionary1, "id").equals("1001"));
     }
 
+    @Test
+    public void testPropertyAccessor(){
+        List<Dictionary> wrapperList = new ArrayList<>();
+        List<Dictionary> accessorList = new ArrayList<>();
+        for(long id=1; id<=100; id++){
+            for(List<Dictionary> list : Arrays.asList(wrapperList, accessorList)){
+                Dictionary dictionary = new Dictionary();
+                dictionary.setId(id);
+                dictionary.setItemName("item" + id);
+                list.add(dictionary);
+            }
+        }
+        for(Dictionary dictionary : wrapperList){
+            BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(dictionary);
+            wrapper.setPropertyValue("itemValue", wrapper.getPropertyValue("itemName"));
+        }
+        for(Dictionary dictionary : accessorList){
+            BeanUtils.setProperty(dictionary, "itemValue", BeanUtils.getProperty(dictionary, "itemName"));
+        }
+        // 编译的访问器与BeanWrapper结果一致（性能对比见diboot-benchmark的BeanUtilsBenchmark）
+        for(int i=0; i<wrapperList.size(); i++){
+            Assert.assertEquals(wrapperList.get(i).getItemValue(), accessorList.get(i).getItemValue());
+            Assert.assertEquals(PropertyAccessorFactory.forBeanPropertyAccess(wrapperList.get(i)).getPropertyValue("id"),
+                    BeanUtils.getProperty(accessorList.get(i), "id"));
+        }
+        Assert.assertEquals("item100", accessorList.get(99).getItemValue());
+
+        // 需要类型转换时仍由BeanWrapper兜底
+        Dictionary dictionary = new Dictionary();
+        BeanUtils.setProperty(dictionary, "parentId", "10");
+        Assert.assertEquals(Long.valueOf(10L), dictionary.getParentId());
+    }
+
     @Test
     public void testCollect(){
         List<Dictionary> dictionaryList = new ArrayList<>();
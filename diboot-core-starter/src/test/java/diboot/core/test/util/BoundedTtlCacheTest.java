@@ -0,0 +1,48 @@
+package diboot.core.test.util;
+
+import com.diboot.core.binding.cache.BoundedTtlCache;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * 有界过期缓存测试
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/10
+ * Copyright © diboot.com
+ */
+public class BoundedTtlCacheTest {
+
+    @Test
+    public void testEvictLeastRecentlyUsed(){
+        BoundedTtlCache<Integer, String> cache = new BoundedTtlCache<>(() -> 100);
+        for(int i=0; i<100; i++){
+            cache.put(i, "v" + i, 60000L);
+        }
+        // 访问前10个，使其成为最近访问的条目
+        for(int i=0; i<10; i++){
+            Assert.assertEquals("v" + i, cache.get(i));
+        }
+        cache.put(100, "v100", 60000L);
+        Assert.assertEquals(90, cache.size());
+        Assert.assertEquals(11, cache.getEvictionCount());
+        for(int i=0; i<10; i++){
+            Assert.assertEquals("v" + i, cache.get(i));
+        }
+        Assert.assertEquals("v100", cache.get(100));
+        Assert.assertNull(cache.get(10));
+    }
+
+    @Test
+    public void testExpire(){
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(() -> 100);
+        cache.put("expired", "v", -1L);
+        cache.put("valid", "v", 60000L);
+        Assert.assertNull(cache.get("expired"));
+        Assert.assertEquals("v", cache.get("valid"));
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(1, cache.getMissCount());
+        Assert.assertEquals(1, cache.size());
+    }
+
+}
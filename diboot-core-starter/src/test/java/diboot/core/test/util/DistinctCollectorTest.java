@@ -0,0 +1,74 @@
+package diboot.core.test.util;
+
+import com.diboot.core.binding.helper.ResultAssembler;
+import com.diboot.core.util.BeanUtils;
+import com.diboot.core.util.DistinctCollector;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 去重收集测试
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/20
+ * Copyright © diboot.com
+ */
+public class DistinctCollectorTest {
+
+    @Test
+    public void testCollectIds(){
+        List<Item> itemList = new ArrayList<>();
+        for(long i = 0; i < 100000; i++){
+            itemList.add(new Item().setId(i % 1000).setName("name" + (i % 10)));
+        }
+        itemList.add(new Item());
+        boolean[] hasNullFlags = new boolean[1];
+        List idList = BeanUtils.collectToList(itemList, "id", hasNullFlags);
+        Assert.assertEquals(1000, idList.size());
+        Assert.assertTrue(hasNullFlags[0]);
+        // 保持首次出现的顺序
+        for(int i = 0; i < 1000; i++){
+            Assert.assertEquals(Long.valueOf(i), idList.get(i));
+        }
+        List nameList = BeanUtils.collectToList(itemList, Item::getName);
+        Assert.assertEquals(Arrays.asList("name0", "name1", "name2", "name3", "name4", "name5", "name6", "name7", "name8", "name9"), nameList);
+    }
+
+    @Test
+    public void testMixedTypes(){
+        // Long与Integer不相等，与List.contains语义一致
+        List values = DistinctCollector.distinct(Arrays.asList(1L, 2L, 1L, 1, 2, "1", null, 2L, 0L, -1L, Long.MIN_VALUE, 0L));
+        Assert.assertEquals(Arrays.asList(1L, 2L, 1, 2, "1", 0L, -1L, Long.MIN_VALUE), values);
+
+        List intValues = DistinctCollector.distinct(Arrays.asList(3, 3, 0, 0, -3));
+        Assert.assertEquals(Arrays.asList(3, 0, -3), intValues);
+    }
+
+    @Test
+    public void testSplit(){
+        List values = ResultAssembler.unpackValueList(Arrays.asList("1,2,3", "2", null, "3,4", 5), ",");
+        Assert.assertEquals(Arrays.asList("1", "2", "3", "4", "5"), values);
+
+        List<Item> itemList = Arrays.asList(new Item().setName("a,b"), new Item().setName("b,c"), new Item());
+        boolean[] hasNullFlags = new boolean[1];
+        List names = BeanUtils.collectToList(itemList, "name", ",", hasNullFlags);
+        Assert.assertEquals(Arrays.asList("a", "b", "c"), names);
+        Assert.assertTrue(hasNullFlags[0]);
+    }
+
+    @Getter
+    @Setter
+    @Accessors(chain = true)
+    public static class Item {
+        private Long id;
+        private String name;
+    }
+
+}
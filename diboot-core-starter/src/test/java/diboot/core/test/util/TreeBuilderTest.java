@@ -0,0 +1,88 @@
+package diboot.core.test.util;
+
+import com.diboot.core.entity.Dictionary;
+import com.diboot.core.util.BeanUtils;
+import com.diboot.core.util.TreeBuilder;
+import com.diboot.core.vo.DictionaryVO;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * TreeBuilder测试
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/14
+ * Copyright © diboot.com
+ */
+public class TreeBuilderTest {
+
+    @Test
+    public void testBuildWithSortAndRootId(){
+        List<DictionaryVO> list = new ArrayList<>();
+        list.add(buildNode(1L, 100L, 1));
+        list.add(buildNode(11L, 1L, 3));
+        list.add(buildNode(12L, 1L, 1));
+        list.add(buildNode(13L, 1L, 2));
+        list.add(buildNode(121L, 12L, 1));
+        TreeBuilder<DictionaryVO> treeBuilder = new TreeBuilder<DictionaryVO>().rootId("100").sortBy(Comparator.comparing(Dictionary::getSortId));
+        List<DictionaryVO> tree = treeBuilder.build(list);
+        Assert.assertEquals(1, tree.size());
+        List<Dictionary> children = tree.get(0).getChildren();
+        Assert.assertEquals(3, children.size());
+        Assert.assertEquals(Long.valueOf(12L), children.get(0).getId());
+        Assert.assertEquals(Long.valueOf(13L), children.get(1).getId());
+        Assert.assertEquals(Long.valueOf(11L), children.get(2).getId());
+        Assert.assertEquals(1, ((DictionaryVO)children.get(0)).getChildren().size());
+        // 叶子节点的children为null
+        Assert.assertNull(((DictionaryVO)children.get(2)).getChildren());
+        Assert.assertTrue(treeBuilder.getOrphanNodes().isEmpty());
+        Assert.assertTrue(treeBuilder.getCycleNodes().isEmpty());
+    }
+
+    @Test
+    public void testOrphanAndCycleNodes(){
+        List<DictionaryVO> list = new ArrayList<>();
+        list.add(buildNode(1L, 0L, 1));
+        list.add(buildNode(2L, 1L, 1));
+        // 上级不存在
+        list.add(buildNode(3L, 99L, 1));
+        list.add(buildNode(4L, 3L, 1));
+        // 循环引用
+        list.add(buildNode(5L, 6L, 1));
+        list.add(buildNode(6L, 5L, 1));
+        TreeBuilder<DictionaryVO> treeBuilder = new TreeBuilder<>();
+        List<DictionaryVO> tree = treeBuilder.build(list);
+        Assert.assertEquals(1, tree.size());
+        Assert.assertEquals(1, tree.get(0).getChildren().size());
+        Assert.assertEquals(1, treeBuilder.getOrphanNodes().size());
+        Assert.assertEquals(Long.valueOf(3L), treeBuilder.getOrphanNodes().get(0).getId());
+        Assert.assertEquals(2, treeBuilder.getCycleNodes().size());
+    }
+
+    @Test
+    public void testBuildLargeTree(){
+        int nodeCount = 100000;
+        List<DictionaryVO> list = new ArrayList<>(nodeCount);
+        for(long id = 1; id <= nodeCount; id++){
+            // 每个节点10个子节点
+            list.add(buildNode(id, (id - 1) / 10, (int)(id % 10)));
+        }
+        List<DictionaryVO> tree = BeanUtils.buildTree(list);
+        Assert.assertEquals(10, tree.size());
+        Assert.assertEquals(10, tree.get(0).getChildren().size());
+        Assert.assertNull(list.get(nodeCount - 1).getChildren());
+    }
+
+    private DictionaryVO buildNode(Long id, Long parentId, int sortId){
+        DictionaryVO node = new DictionaryVO();
+        node.setId(id);
+        node.setParentId(parentId);
+        node.setSortId(sortId);
+        return node;
+    }
+
+}
@@ -0,0 +1,66 @@
+-- 关联绑定大批量数据测试（H2，MySQL兼容模式）
+create table department
+(
+    id bigint not null primary key,
+    parent_id bigint default 0 not null,
+    org_id bigint not null,
+    name varchar(50) not null,
+    extdata varchar(100) null,
+    `character` varchar(100) null,
+    is_deleted tinyint default 0 not null,
+    create_time timestamp default CURRENT_TIMESTAMP not null
+);
+
+create table organization
+(
+    id bigint not null primary key,
+    parent_id bigint default 0 not null,
+    name varchar(100) not null,
+    telphone varchar(20) null,
+    manager_id bigint not null,
+    is_deleted tinyint default 0 not null,
+    create_time timestamp default CURRENT_TIMESTAMP not null
+);
+
+create table role
+(
+    id bigint not null primary key,
+    name varchar(20) null,
+    code varchar(20) null,
+    is_deleted tinyint default 0 null,
+    create_time timestamp default CURRENT_TIMESTAMP null
+);
+
+create table `user`
+(
+    id bigint not null primary key,
+    department_id bigint default 0 not null,
+    username varchar(20) null,
+    gender varchar(20) null,
+    birthdate date null,
+    `character` varchar(100) null,
+    is_deleted tinyint default 0 null,
+    create_time timestamp default CURRENT_TIMESTAMP null,
+    local_datetime timestamp null
+);
+
+create table user_role
+(
+    user_type varchar(20) not null,
+    user_id bigint not null,
+    role_id bigint not null,
+    primary key (user_id, role_id)
+);
+
+-- 关联列索引，避免大批量数据下关联及EXISTS子查询全表扫描
+create index idx_department_org_id on department (org_id);
+create index idx_department_parent_id on department (parent_id);
+create index idx_organization_parent_id on organization (parent_id);
+create index idx_user_department_id on `user` (department_id);
+create index idx_user_role_role_id on user_role (role_id);
+
+INSERT INTO organization (id, parent_id, name, manager_id) SELECT X, 0, CONCAT('org', X), 1 FROM SYSTEM_RANGE(1, 12000);
+INSERT INTO department (id, parent_id, org_id, name) SELECT X, X-1, X, CONCAT('dept', X) FROM SYSTEM_RANGE(1, 12000);
+INSERT INTO role (id, name, code) SELECT X, CONCAT('role', X), CONCAT('R', X) FROM SYSTEM_RANGE(1, 3);
+INSERT INTO `user` (id, department_id, username) SELECT X, X, CONCAT('user', X) FROM SYSTEM_RANGE(1, 12000);
+INSERT INTO user_role (user_type, user_id, role_id) SELECT 'OrgUser', X, MOD(X, 3) + 1 FROM SYSTEM_RANGE(1, 12000);
@@ -18,7 +18,9 @@ package com.diboot.core.binding;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.diboot.core.vo.Pagination;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * 绑定器统一调用入口类
@@ -105,4 +107,39 @@ public class Binder {
         RelationsBinder.bind(voList);
     }
 
+    /**
+     * 按窗口逐批绑定多个VO集合的关联对象（适用于大批量数据）
+     * @param voList 需要注解绑定的对象集合
+     * @param windowSize 窗口大小
+     */
+    public static <VO> void bindRelations(List<VO> voList, int windowSize){
+        RelationsBinder.bindInWindows(voList, windowSize);
+    }
+
+    /**
+     * 按窗口逐批转换及绑定，返回流式结果（适用于大批量数据导出，需以try-with-resources使用）
+     * @param entityIterator 数据来源
+     * @param voClass VO class
+     * @param windowSize 窗口大小
+     * @param <E>
+     * @param <VO>
+     * @return
+     */
+    public static <E, VO> Stream<VO> convertAndBindRelations(Iterator<E> entityIterator, Class<VO> voClass, int windowSize){
+        return RelationsBinder.convertAndBindStream(entityIterator, voClass, windowSize);
+    }
+
+    /**
+     * 按窗口逐批转换及绑定，返回流式结果（适用于大批量数据导出，需以try-with-resources使用，关闭时关闭数据来源）
+     * @param source 数据来源（如MyBatis Cursor）
+     * @param voClass VO class
+     * @param windowSize 窗口大小
+     * @param <E>
+     * @param <VO>
+     * @return
+     */
+    public static <E, VO> Stream<VO> convertAndBindRelations(Iterable<E> source, Class<VO> voClass, int windowSize){
+        return RelationsBinder.convertAndBindStream(source, voClass, windowSize);
+    }
+
 }
@@ -0,0 +1,293 @@
+package com.diboot.core.binding;
+
+import com.diboot.core.binding.parser.ParserCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 批量绑定作用域：作用域内多次调用的关联绑定延迟到flush/close时合并执行
+ * <p>
+ * 同一VO类的多次绑定合并为一次绑定（关联值去重后每个关联Entity+关联列一次查询），
+ * 已加载的关联结果在作用域内按关联值缓存，后续绑定仅查询未加载的值，以消除循环中逐次绑定的N+1查询。
+ * 数据经BaseServiceImpl写入后，作用域内该Entity的已加载结果随之失效。
+ * <pre>
+ * try(BindingBatchScope scope = BindingBatchScope.open()){
+ *     for(Department dept : deptList){
+ *         Binder.bindRelations(getUserVOList(dept));
+ *     }
+ * } // 关闭时执行绑定，读取绑定结果前也可调用 scope.flush()
+ * </pre>
+ * 注：作用域内绑定的VO在flush之前不包含绑定结果（按窗口绑定及流式绑定不延迟，立即绑定）；作用域与当前线程绑定，嵌套open共用同一作用域，经绑定线程池传递至工作线程时可并发延迟绑定。
+ * 作用域必须以try-with-resources使用，未关闭的作用域会残留在线程池线程上；在请求中开启的作用域被其他请求读取时视为未关闭，丢弃并告警
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/17
+ * Copyright © diboot.com
+ */
+@Slf4j
+public class BindingBatchScope implements AutoCloseable {
+
+    private static final ThreadLocal<BindingBatchScope> CURRENT_SCOPE = new ThreadLocal<>();
+
+    /**
+     * 待绑定的VO：VO类及是否深度绑定-VO列表（作用域会随绑定线程池传递，需支持并发延迟绑定）
+     */
+    private final Map<PendingKey, List<Object>> pendingMap = new ConcurrentHashMap<>();
+    /**
+     * 已加载的关联结果：Entity类-查询签名-关联值-结果
+     */
+    private final Map<Class<?>, Map<String, Map<Object, List>>> loadedRowsMap = new ConcurrentHashMap<>();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    /**
+     * 嵌套层数
+     */
+    private final AtomicInteger depth = new AtomicInteger();
+    /**
+     * 是否正在执行绑定（执行期间的绑定调用直接执行，如深度绑定）
+     */
+    private final AtomicBoolean flushing = new AtomicBoolean(false);
+    private volatile boolean closed = false;
+    /**
+     * 开启作用域时的请求上下文，用于识别未关闭而残留至后续请求的作用域
+     */
+    private final RequestAttributes requestAttributes;
+
+    private BindingBatchScope(){
+        this.requestAttributes = RequestContextHolder.getRequestAttributes();
+    }
+
+    /**
+     * 开启（或加入当前线程已开启的）批量绑定作用域，仅可用于try-with-resources
+     * @return
+     */
+    public static BindingBatchScope open(){
+        BindingBatchScope scope = current();
+        if(scope == null){
+            scope = new BindingBatchScope();
+            CURRENT_SCOPE.set(scope);
+        }
+        scope.depth.incrementAndGet();
+        return scope;
+    }
+
+    /**
+     * 获取当前线程的批量绑定作用域，未开启返回null
+     * @return
+     */
+    public static BindingBatchScope current(){
+        BindingBatchScope scope = CURRENT_SCOPE.get();
+        if(scope != null && scope.requestAttributes != null && scope.requestAttributes != RequestContextHolder.getRequestAttributes()){
+            log.warn("丢弃未关闭的批量绑定作用域（请以try-with-resources使用BindingBatchScope.open()），未绑定的对象数: {}", scope.getPendingCount());
+            CURRENT_SCOPE.remove();
+            return null;
+        }
+        return scope;
+    }
+
+    /**
+     * 在当前线程加入指定作用域（供绑定线程池传递作用域），返回之前的作用域
+     * @param scope
+     * @return
+     */
+    public static BindingBatchScope attach(BindingBatchScope scope){
+        BindingBatchScope previous = CURRENT_SCOPE.get();
+        if(scope == null){
+            CURRENT_SCOPE.remove();
+        }
+        else{
+            CURRENT_SCOPE.set(scope);
+        }
+        return previous;
+    }
+
+    /**
+     * 延迟绑定，作用域未开启、正在执行绑定或VO无绑定注解时返回false（需直接绑定）
+     * @param voList
+     * @param enableDeepBind
+     * @return
+     */
+    static boolean defer(List<?> voList, boolean enableDeepBind){
+        BindingBatchScope scope = current();
+        if(scope == null || scope.flushing.get() || scope.closed){
+            return false;
+        }
+        Class<?> voClass = voList.get(0).getClass();
+        if(ParserCache.getBindAnnotationGroup(voClass).isEmpty()){
+            return false;
+        }
+        // compute对同一key与flush中的remove互斥，避免追加到已取出的列表
+        scope.pendingMap.compute(new PendingKey(voClass, enableDeepBind), (key, pendingList) -> {
+            if(pendingList == null){
+                pendingList = new ArrayList<>(voList.size());
+            }
+            pendingList.addAll(voList);
+            return pendingList;
+        });
+        return true;
+    }
+
+    /**
+     * 执行作用域内待绑定VO的关联绑定
+     */
+    public void flush(){
+        if(pendingMap.isEmpty() || !flushing.compareAndSet(false, true)){
+            return;
+        }
+        try{
+            while(!pendingMap.isEmpty()){
+                for(PendingKey pendingKey : new ArrayList<>(pendingMap.keySet())){
+                    List<Object> pendingList = pendingMap.remove(pendingKey);
+                    if(pendingList == null){
+                        continue;
+                    }
+                    List<Object> voList = distinct(pendingList);
+                    log.debug("批量绑定作用域执行 {} 的绑定: {} 个对象", pendingKey.voClass.getSimpleName(), voList.size());
+                    RelationsBinder.bind(voList, pendingKey.enableDeepBind);
+                }
+            }
+        }
+        finally {
+            flushing.set(false);
+        }
+    }
+
+    /**
+     * 退出作用域，最外层退出时执行绑定并清理
+     */
+    @Override
+    public void close(){
+        if(closed){
+            return;
+        }
+        if(depth.decrementAndGet() > 0){
+            return;
+        }
+        try{
+            flush();
+        }
+        finally {
+            closed = true;
+            pendingMap.clear();
+            loadedRowsMap.clear();
+            if(CURRENT_SCOPE.get() == this){
+                CURRENT_SCOPE.remove();
+            }
+        }
+    }
+
+    /**
+     * 获取已加载的关联结果，未加载返回null
+     * @param entityClass 关联Entity类
+     * @param signature 查询签名
+     * @param matchKey 关联值
+     * @return
+     */
+    public List getLoadedRows(Class<?> entityClass, String signature, Object matchKey){
+        Map<String, Map<Object, List>> signature2RowsMap = loadedRowsMap.get(entityClass);
+        Map<Object, List> matchKey2RowsMap = signature2RowsMap != null? signature2RowsMap.get(signature) : null;
+        List rows = matchKey2RowsMap != null? matchKey2RowsMap.get(matchKey) : null;
+        if(rows == null){
+            missCount.increment();
+        }
+        else{
+            hitCount.increment();
+        }
+        return rows;
+    }
+
+    /**
+     * 记录已加载的关联结果
+     * @param entityClass 关联Entity类
+     * @param signature 查询签名
+     * @param matchKey 关联值
+     * @param rows 关联结果
+     */
+    public void putLoadedRows(Class<?> entityClass, String signature, Object matchKey, List rows){
+        if(closed){
+            return;
+        }
+        loadedRowsMap.computeIfAbsent(entityClass, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(signature, k -> new ConcurrentHashMap<>())
+                .put(matchKey, Collections.unmodifiableList(rows));
+    }
+
+    /**
+     * 清除Entity类的已加载结果
+     * @param entityClass
+     */
+    public void evict(Class<?> entityClass){
+        loadedRowsMap.remove(entityClass);
+    }
+
+    /**
+     * 待绑定的VO数
+     * @return
+     */
+    public int getPendingCount(){
+        int count = 0;
+        for(List<Object> voList : pendingMap.values()){
+            count += voList.size();
+        }
+        return count;
+    }
+
+    public long getHitCount(){
+        return hitCount.sum();
+    }
+
+    public long getMissCount(){
+        return missCount.sum();
+    }
+
+    /**
+     * 按对象实例去重（同一VO多次提交时仅绑定一次）
+     * @param voList
+     * @return
+     */
+    private static List<Object> distinct(List<Object> voList){
+        Set<Object> voSet = Collections.newSetFromMap(new IdentityHashMap<>(voList.size() * 4 / 3 + 1));
+        List<Object> distinctList = new ArrayList<>(voList.size());
+        for(Object vo : voList){
+            if(voSet.add(vo)){
+                distinctList.add(vo);
+            }
+        }
+        return distinctList;
+    }
+
+    /**
+     * 待绑定分组key
+     */
+    private static final class PendingKey {
+        private final Class<?> voClass;
+        private final boolean enableDeepBind;
+
+        PendingKey(Class<?> voClass, boolean enableDeepBind){
+            this.voClass = voClass;
+            this.enableDeepBind = enableDeepBind;
+        }
+
+        @Override
+        public int hashCode(){
+            return voClass.hashCode() * 31 + (enableDeepBind? 1 : 0);
+        }
+
+        @Override
+        public boolean equals(Object obj){
+            if(!(obj instanceof PendingKey)){
+                return false;
+            }
+            PendingKey other = (PendingKey)obj;
+            return voClass == other.voClass && enableDeepBind == other.enableDeepBind;
+        }
+    }
+
+}
@@ -17,10 +17,18 @@ package com.diboot.core.binding;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.core.metadata.OrderItem;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.IService;
+import com.diboot.core.binding.cache.BindingCacheManager;
+import com.diboot.core.binding.helper.KeysetHelper;
+import com.diboot.core.binding.helper.PaginationCounter;
 import com.diboot.core.binding.helper.ServiceAdaptor;
+import com.diboot.core.binding.metrics.BindingMetrics;
+import com.diboot.core.binding.metrics.BindingMetricsEvent;
 import com.diboot.core.binding.parser.ParserCache;
+import com.diboot.core.binding.query.BindQuery;
+import com.diboot.core.binding.query.CountStrategy;
 import com.diboot.core.binding.query.dynamic.AnnoJoiner;
 import com.diboot.core.binding.query.dynamic.DynamicJoinQueryWrapper;
 import com.diboot.core.config.BaseConfig;
@@ -31,8 +39,8 @@ import com.diboot.core.util.*;
 import com.diboot.core.vo.Pagination;
 import lombok.extern.slf4j.Slf4j;
 
-import java.lang.reflect.Field;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 /**
  * join连接查询绑定器
@@ -102,7 +110,7 @@ public class JoinsBinder {
                 throw new InvalidUsageException("单表查询对象无BaseService/IService实现: "+entityClazz.getSimpleName());
             }
         }
-        long begin = System.currentTimeMillis();
+        long beginNanos = System.nanoTime();
         // 转换为queryWrapper
         DynamicJoinQueryWrapper dynamicJoinWrapper = (DynamicJoinQueryWrapper)queryWrapper;
         dynamicJoinWrapper.setMainEntityClass(entityClazz);
@@ -121,15 +129,25 @@ public class JoinsBinder {
         else{
             // 格式化orderBy
             formatOrderBy(dynamicJoinWrapper, entityClazz, pagination);
-            IPage<Map<String, Object>> pageResult = getDynamicQueryMapper().queryForListWithPage(pagination.toPage(), dynamicJoinWrapper);
-            pagination.setTotalCount(pageResult.getTotal());
-            mapList = pageResult.getRecords();
+            if(pagination.isKeyset()){
+                mapList = queryByKeyset(dynamicJoinWrapper, entityClazz, pagination);
+            }
+            else{
+                // 按count策略查询，count使用去除排序及非过滤join的语句
+                CountStrategy countStrategy = PaginationCounter.getCountStrategy(pagination, dynamicJoinWrapper);
+                String cacheKey = countStrategy == CountStrategy.CACHE? PaginationCounter.buildCacheKey(entityClazz, dynamicJoinWrapper) : null;
+                mapList = PaginationCounter.query(pagination, pagination.toPage(), countStrategy, cacheKey,
+                        page -> getDynamicQueryMapper().queryForListWithPage(page, dynamicJoinWrapper).getRecords(),
+                        () -> getDynamicQueryMapper().countForList(dynamicJoinWrapper));
+            }
         }
-        long ms = (System.currentTimeMillis() - begin);
+        long queryNanos = System.nanoTime() - beginNanos;
+        long ms = TimeUnit.NANOSECONDS.toMillis(queryNanos);
         if(ms > 5000){
             log.warn("{} 动态Join查询执行耗时 {} ms，建议优化", dynamicJoinWrapper.getDtoClass().getSimpleName(), ms);
         }
         if(V.isEmpty(mapList)){
+            publishMetrics(dynamicJoinWrapper, 0, queryNanos, beginNanos);
             return Collections.emptyList();
         }
         if(mapList.size() > BaseConfig.getBatchSize()){
@@ -138,44 +156,42 @@ public class JoinsBinder {
         // 转换查询结果
         List<E> entityList = new ArrayList<>();
         for(Map<String, Object> colValueMap : mapList){
-            Map<String, Object> fieldValueMap = new HashMap<>();
-            // 格式化map
-            for(Map.Entry<String, Object> entry : colValueMap.entrySet()){
-                String fieldName = S.toLowerCaseCamel(entry.getKey());
-                // 如果是布尔类型，检查entity中的定义是Boolean/boolean
-                if(entry.getValue() instanceof Boolean && S.startsWithIgnoreCase(entry.getKey(),"is_")){
-                    // 检查有is前缀的Boolean类型
-                    Field boolType = BeanUtils.extractField(entityClazz, fieldName);
-                    if(boolType == null){
-                        // 检查无is前缀的boolean类型
-                        String tempFieldName = S.toLowerCaseCamel(S.substringAfter(entry.getKey(), "_"));
-                        boolType = BeanUtils.extractField(entityClazz, tempFieldName);
-                        if(boolType != null){
-                            fieldName = tempFieldName;
-                        }
-                    }
-                }
-                fieldValueMap.put(fieldName, entry.getValue());
-            }
-            // 绑定map到entity
             try{
-                E entityInst = entityClazz.newInstance();
-                BeanUtils.bindProperties(entityInst, fieldValueMap);
-                if (ENABLE_DATA_PROTECT) {
-                    ParserCache.getFieldEncryptorMap(entityClazz).forEach((k, v) -> {
-                        String value = BeanUtils.getStringProperty(entityInst, k);
-                        BeanUtils.setProperty(entityInst, k, value == null ? null : v.decrypt(value));
-                    });
-                }
-                entityList.add(entityInst);
+                entityList.add(convertToEntity(colValueMap, entityClazz));
             }
             catch (Exception e){
                 log.warn("new实例并绑定属性值异常", e);
             }
         }
+        publishMetrics(dynamicJoinWrapper, mapList.size(), queryNanos, beginNanos);
         return entityList;
     }
 
+    /**
+     * 发布动态Join查询的指标（查询1次，组装耗时为结果转换耗时）
+     * @param dynamicJoinWrapper
+     * @param rowCount 查询返回的行数
+     * @param queryNanos 查询耗时
+     * @param beginNanos 开始时间
+     */
+    private static void publishMetrics(DynamicJoinQueryWrapper dynamicJoinWrapper, int rowCount, long queryNanos, long beginNanos){
+        if(BindingMetrics.isEnabled()){
+            BindingMetrics.publish(new BindingMetricsEvent(dynamicJoinWrapper.getDtoClass(), BindQuery.class.getSimpleName(),
+                    "", JoinsBinder.class.getSimpleName(), 1, rowCount, 0, queryNanos, System.nanoTime() - beginNanos, 0));
+        }
+    }
+
+    /**
+     * 转换查询结果（列名-值）为entity/vo实例
+     * @param colValueMap 查询结果行
+     * @param entityClazz 返回结果entity/vo类
+     * @return
+     * @throws Exception
+     */
+    public static <E> E convertToEntity(Map<String, Object> colValueMap, Class<E> entityClazz) throws Exception{
+        return ParserCache.getEntityMaterializer(entityClazz).materialize(colValueMap, ENABLE_DATA_PROTECT);
+    }
+
     /**
      * 格式化orderBy
      * @param queryWrapper
@@ -202,6 +218,11 @@ public class JoinsBinder {
                     fieldName = fieldAndOrder[0];
                     orderType = fieldAndOrder[1];
                 }
+                // 已格式化的别名.列名（如复用pagination），保持不变
+                if(fieldName.contains(".")){
+                    orderByList.add(field);
+                    continue;
+                }
                 // 获取列定义的AnnoJoiner 得到别名
                 List<AnnoJoiner> joinerList = ParserCache.getAnnoJoiners(queryWrapper.getDtoClass(), Collections.singletonList(fieldName));
                 if (joinerList.isEmpty()) {
@@ -222,6 +243,45 @@ public class JoinsBinder {
         }
     }
 
+    /**
+     * 游标（keyset）分页查询，仅支持按主表列排序，不执行count统计
+     * @param dynamicJoinWrapper
+     * @param entityClazz
+     * @param pagination
+     * @return
+     */
+    private static <E> List<Map<String, Object>> queryByKeyset(DynamicJoinQueryWrapper dynamicJoinWrapper, Class<E> entityClazz, Pagination pagination){
+        String idColumn = BindingCacheManager.getPropInfoByClass(entityClazz).getIdColumn();
+        List<OrderItem> orderItems = KeysetHelper.buildOrderItems(pagination, "self." + idColumn);
+        for(OrderItem orderItem : orderItems){
+            if(!orderItem.getColumn().startsWith("self.")){
+                throw new InvalidUsageException("游标分页仅支持按主表列排序: " + orderItem.getColumn());
+            }
+        }
+        Page<Map<String, Object>> page = KeysetHelper.toPage(pagination, dynamicJoinWrapper, orderItems, entityClazz);
+        List<Map<String, Object>> mapList = getDynamicQueryMapper().queryForListWithPage(page, dynamicJoinWrapper).getRecords();
+        KeysetHelper.updateNextCursor(pagination, orderItems, mapList, (row, column) -> getColumnValue(row, S.substringAfter(column, ".")));
+        return mapList;
+    }
+
+    /**
+     * 获取查询结果行中的列值（兼容列名大小写）
+     * @param row
+     * @param column
+     * @return
+     */
+    private static Object getColumnValue(Map<String, Object> row, String column){
+        if(row.containsKey(column)){
+            return row.get(column);
+        }
+        for(Map.Entry<String, Object> entry : row.entrySet()){
+            if(entry.getKey().equalsIgnoreCase(column)){
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
     /**
      * 获取mapper实例
      * @return
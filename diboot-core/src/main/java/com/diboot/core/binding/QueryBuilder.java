@@ -25,10 +25,13 @@ import com.diboot.core.binding.parser.ParserCache;
 import com.diboot.core.binding.query.BindQuery;
 import com.diboot.core.binding.query.BindQueryGroup;
 import com.diboot.core.binding.query.Comparison;
+import com.diboot.core.binding.query.QueryCount;
 import com.diboot.core.binding.query.Strategy;
 import com.diboot.core.binding.query.dynamic.AnnoJoiner;
 import com.diboot.core.binding.query.dynamic.DynamicJoinQueryWrapper;
 import com.diboot.core.binding.query.dynamic.ExtQueryWrapper;
+import com.diboot.core.binding.query.dynamic.JoinConditionManager;
+import com.diboot.core.config.BaseConfig;
 import com.diboot.core.config.Cons;
 import com.diboot.core.data.encrypt.IEncryptStrategy;
 import com.diboot.core.util.BeanUtils;
@@ -45,6 +48,8 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.*;
 import java.util.function.BiFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * QueryWrapper构建器
@@ -55,6 +60,10 @@ import java.util.function.BiFunction;
 public class QueryBuilder {
     private static Logger log = LoggerFactory.getLogger(QueryBuilder.class);
     private static final boolean ENABLE_DATA_PROTECT = PropertiesUtils.getBoolean("diboot.core.enable-data-protect");
+    /**
+     * 条件包装器生成的参数占位符，如 #{ew.paramNameValuePairs.MPGENVAL1}
+     */
+    private static final Pattern PARAM_PLACEHOLDER_PATTERN = Pattern.compile("#\\{\\w+\\.paramNameValuePairs\\.(\\w+)}");
 
     /**
      * Entity或者DTO对象转换为QueryWrapper
@@ -131,8 +140,14 @@ public class QueryBuilder {
         QueryWrapper<?> wrapper;
         // 转换
         LinkedHashMap<String, Object> fieldValuesMap = extractNotNullValues(dto, fields);
+        // DTO类指定的分页count策略
+        QueryCount queryCount = dto.getClass().getAnnotation(QueryCount.class);
         if (V.isEmpty(fieldValuesMap)) {
-            return new QueryWrapper<>();
+            ExtQueryWrapper<?, ?> emptyWrapper = new ExtQueryWrapper<>();
+            if (queryCount != null) {
+                emptyWrapper.setCountStrategy(queryCount.strategy());
+            }
+            return emptyWrapper;
         }
         // 只解析有值的
         fields = fieldValuesMap.keySet();
@@ -143,6 +158,14 @@ public class QueryBuilder {
         } else {
             wrapper = new ExtQueryWrapper<>();
         }
+        if (queryCount != null) {
+            ((ExtQueryWrapper<?, ?>) wrapper).setCountStrategy(queryCount.strategy());
+        }
+        // 仅用于过滤的对多关联改写为EXISTS半连接
+        Set<String> semiJoinAliases = hasJoinTable && BaseConfig.isDynamicQuerySemiJoin() ? extractSemiJoinAliases(dto.getClass(), fields) : null;
+        if (semiJoinAliases != null) {
+            ((DynamicJoinQueryWrapper<?, ?>) wrapper).setSemiJoinAliases(semiJoinAliases);
+        }
         // 构建 ColumnName
         List<AnnoJoiner> annoJoinerList = ParserCache.getBindQueryAnnos(dto.getClass());
         BiFunction<BindQuery, Field, String> buildColumnName = (bindQuery, field) -> {
@@ -200,7 +223,13 @@ public class QueryBuilder {
                         IEncryptStrategy encryptor = findEncryptStrategy.apply(bindQuery, entry.getKey());
                         Comparison comparison = encryptor == null ? bindQuery.comparison() : Comparison.EQ;
                         String columnName = buildColumnName.apply(bindQuery, field);
-                        buildQuery(queryWrapper.or(), comparison, columnName, encryptor == null ? value : encryptor.encrypt(value.toString()));
+                        AnnoJoiner semiJoiner = findSemiJoiner(annoJoinerList, semiJoinAliases, bindQuery, field);
+                        Object queryValue = encryptor == null ? value : encryptor.encrypt(value.toString());
+                        if (semiJoiner != null) {
+                            buildSemiJoinQuery(queryWrapper.or(), comparison, semiJoiner, columnName, queryValue);
+                        } else {
+                            buildQuery(queryWrapper.or(), comparison, columnName, queryValue);
+                        }
                     }
                 });
             } else {
@@ -210,7 +239,13 @@ public class QueryBuilder {
                 IEncryptStrategy encryptor = findEncryptStrategy.apply(query, entry.getKey());
                 Comparison comparison = query != null && encryptor == null ? query.comparison() : Comparison.EQ;
                 String columnName = buildColumnName.apply(query, field);
-                buildQuery(wrapper, comparison, columnName, encryptor == null ? value : encryptor.encrypt(value.toString()));
+                AnnoJoiner semiJoiner = findSemiJoiner(annoJoinerList, semiJoinAliases, query, field);
+                Object queryValue = encryptor == null ? value : encryptor.encrypt(value.toString());
+                if (semiJoiner != null) {
+                    buildSemiJoinQuery(wrapper, comparison, semiJoiner, columnName, queryValue);
+                } else {
+                    buildQuery(wrapper, comparison, columnName, queryValue);
+                }
             }
         }
         return wrapper;
@@ -306,6 +341,83 @@ public class QueryBuilder {
         }
     }
 
+    /**
+     * 提取可改写为EXISTS半连接的关联别名：对多关联（非主键关联或经中间表）且仅被一个查询字段引用。
+     * 被多个字段引用的关联需同一关联记录同时满足各条件，保留LEFT JOIN
+     * @param dtoClass
+     * @param fields
+     * @return
+     */
+    private static Set<String> extractSemiJoinAliases(Class<?> dtoClass, Collection<String> fields) {
+        Map<String, Set<String>> alias2Fields = new HashMap<>();
+        Set<String> joinedAliases = new HashSet<>();
+        for (AnnoJoiner joiner : ParserCache.getAnnoJoiners(dtoClass, fields)) {
+            if (V.isEmpty(joiner.getJoin()) || V.isEmpty(joiner.getOnSegment())) {
+                continue;
+            }
+            alias2Fields.computeIfAbsent(joiner.getAlias(), k -> new HashSet<>()).add(joiner.getFieldName());
+            if (joiner.isToOne()) {
+                joinedAliases.add(joiner.getAlias());
+            }
+        }
+        Set<String> semiJoinAliases = new HashSet<>();
+        for (Map.Entry<String, Set<String>> entry : alias2Fields.entrySet()) {
+            if (entry.getValue().size() == 1 && !joinedAliases.contains(entry.getKey())) {
+                semiJoinAliases.add(entry.getKey());
+            }
+        }
+        return semiJoinAliases;
+    }
+
+    /**
+     * 查找字段条件对应的半连接AnnoJoiner，非半连接时返回null
+     * @param annoJoinerList
+     * @param semiJoinAliases
+     * @param bindQuery
+     * @param field
+     * @return
+     */
+    private static AnnoJoiner findSemiJoiner(List<AnnoJoiner> annoJoinerList, Set<String> semiJoinAliases, BindQuery bindQuery, Field field) {
+        if (V.isEmpty(semiJoinAliases) || bindQuery == null) {
+            return null;
+        }
+        String key = field.getName() + bindQuery;
+        for (AnnoJoiner annoJoiner : annoJoinerList) {
+            if (key.equals(annoJoiner.getKey())) {
+                return annoJoiner.getAlias() != null && semiJoinAliases.contains(annoJoiner.getAlias()) ? annoJoiner : null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 建立EXISTS半连接条件：由buildQuery在独立的条件包装器上构建关联表列的条件，参数转为apply占位符后置于EXISTS子查询中
+     *
+     * @param wrapper    条件包装器
+     * @param comparison 比较类型
+     * @param joiner     关联
+     * @param columnName 关联表列名
+     * @param value      值
+     */
+    private static void buildSemiJoinQuery(QueryWrapper<?> wrapper, Comparison comparison, AnnoJoiner joiner, String columnName, Object value) {
+        QueryWrapper<?> predicateWrapper = new QueryWrapper<>();
+        buildQuery(predicateWrapper, comparison, columnName, value);
+        String predicateSql = predicateWrapper.getSqlSegment();
+        if (V.isEmpty(predicateSql)) {
+            return;
+        }
+        Map<String, Object> paramNameValuePairs = predicateWrapper.getParamNameValuePairs();
+        List<Object> params = new ArrayList<>(paramNameValuePairs.size());
+        Matcher matcher = PARAM_PLACEHOLDER_PATTERN.matcher(predicateSql);
+        StringBuffer predicate = new StringBuffer(predicateSql.length());
+        while (matcher.find()) {
+            params.add(paramNameValuePairs.get(matcher.group(1)));
+            matcher.appendReplacement(predicate, "{" + (params.size() - 1) + "}");
+        }
+        matcher.appendTail(predicate);
+        wrapper.apply(JoinConditionManager.buildExistsSegment(joiner, predicate.toString()), params.toArray());
+    }
+
     /**
      * 提取非空字段及值
      * @param dto
@@ -16,22 +16,35 @@
 package com.diboot.core.binding;
 
 import com.diboot.core.binding.annotation.BindEntity;
+import com.diboot.core.binding.annotation.BindEntityList;
+import com.diboot.core.binding.annotation.BindField;
+import com.diboot.core.binding.annotation.BindFieldList;
+import com.diboot.core.binding.annotation.Module;
 import com.diboot.core.binding.binder.parallel.ParallelBindingManager;
+import com.diboot.core.binding.binder.remote.RemoteBindingBatch;
 import com.diboot.core.binding.helper.DeepRelationsBinder;
+import com.diboot.core.binding.helper.WindowedBindIterator;
 import com.diboot.core.binding.parser.BindAnnotationGroup;
 import com.diboot.core.binding.parser.FieldAnnotation;
 import com.diboot.core.binding.parser.ParserCache;
+import com.diboot.core.config.BaseConfig;
+import com.diboot.core.config.Cons;
+import com.diboot.core.exception.BusinessException;
 import com.diboot.core.util.BeanUtils;
 import com.diboot.core.util.ContextHelper;
+import com.diboot.core.util.PropertiesUtils;
 import com.diboot.core.util.V;
+import com.diboot.core.vo.Status;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.core.annotation.AnnotationUtils;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
+import java.lang.annotation.Annotation;
+import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * 关联关系绑定管理器
@@ -41,6 +54,14 @@ import java.util.concurrent.CompletableFuture;
  */
 public class RelationsBinder {
     private static final Logger log = LoggerFactory.getLogger(RelationsBinder.class);
+    /**
+     * VO类-合并查询规划的缓存
+     */
+    private static final Map<Class<?>, Map<String, List<List<FieldAnnotation>>>> COALESCED_QUERY_PLAN_CACHE = new ConcurrentHashMap<>();
+    /**
+     * VO类-远程绑定注解分组的缓存
+     */
+    private static final Map<Class<?>, List<List<FieldAnnotation>>> REMOTE_ANNOTATION_GROUPS_CACHE = new ConcurrentHashMap<>();
 
     /**
      * 自动转换和绑定单个VO中的注解关联（禁止循环调用，多个对象请调用convertAndBind(voList, voClass)）
@@ -106,21 +127,154 @@ public class RelationsBinder {
         if(V.isEmpty(voList)){
             return;
         }
+        // 批量绑定作用域内延迟至作用域关闭时合并绑定（整个列表延迟，flush时再按窗口拆分）
+        if(BindingBatchScope.defer(voList, enableDeepBind)){
+            return;
+        }
+        int windowSize = BaseConfig.getBindingWindowSize();
+        if(windowSize > 0 && voList.size() > windowSize){
+            bindInWindows(voList, windowSize, enableDeepBind);
+            return;
+        }
+        doBind(voList, enableDeepBind);
+    }
+
+    /**
+     * 按窗口逐批绑定VO集合的关联对象，每个窗口内保持批量查询，窗口间释放中间结果（不受批量绑定作用域延迟，返回时已绑定）
+     * @param voList 需要注解绑定的对象集合
+     * @param windowSize 窗口大小
+     */
+    public static <VO> void bindInWindows(List<VO> voList, int windowSize){
+        bindInWindows(voList, windowSize, true);
+    }
+
+    /**
+     * 转换并按窗口逐批绑定，返回流式结果：每消费完一个窗口再读取、转换及绑定下一窗口，适用于大批量数据导出。
+     * 返回的Stream需以try-with-resources使用，关闭时关闭数据来源（如MyBatis Cursor），提前结束消费时避免游标泄漏
+     * @param source 数据来源（如MyBatis Cursor）
+     * @param voClass VO class
+     * @param windowSize 窗口大小
+     * @param <E>
+     * @param <VO>
+     * @return
+     */
+    public static <E, VO> Stream<VO> convertAndBindStream(Iterable<E> source, Class<VO> voClass, int windowSize){
+        return convertAndBindStream(source.iterator(), voClass, windowSize).onClose(() -> closeSource(source));
+    }
+
+    /**
+     * 转换并按窗口逐批绑定，返回流式结果：每消费完一个窗口再读取、转换及绑定下一窗口，适用于大批量数据导出。
+     * 返回的Stream需以try-with-resources使用，关闭时关闭实现了AutoCloseable的迭代器
+     * @param entityIterator 数据来源的迭代器
+     * @param voClass VO class
+     * @param windowSize 窗口大小
+     * @param <E>
+     * @param <VO>
+     * @return
+     */
+    public static <E, VO> Stream<VO> convertAndBindStream(Iterator<E> entityIterator, Class<VO> voClass, int windowSize){
+        WindowedBindIterator<E, VO> iterator = new WindowedBindIterator<>(entityIterator, voClass, windowSize);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> closeSource(entityIterator));
+    }
+
+    /**
+     * 关闭流式绑定的数据来源（未实现AutoCloseable时忽略）
+     * @param source
+     */
+    private static void closeSource(Object source){
+        if(!(source instanceof AutoCloseable)){
+            return;
+        }
+        try{
+            ((AutoCloseable)source).close();
+        }
+        catch (Exception e){
+            throw new BusinessException(Status.FAIL_OPERATION, "关闭流式绑定的数据来源失败", e);
+        }
+    }
+
+    /**
+     * 按窗口逐批绑定
+     * @param voList
+     * @param windowSize
+     * @param enableDeepBind
+     */
+    private static <VO> void bindInWindows(List<VO> voList, int windowSize, boolean enableDeepBind){
+        if(V.isEmpty(voList)){
+            return;
+        }
+        windowSize = Math.max(windowSize, 1);
+        for(int fromIndex = 0; fromIndex < voList.size(); fromIndex += windowSize){
+            doBind(voList.subList(fromIndex, Math.min(fromIndex + windowSize, voList.size())), enableDeepBind);
+        }
+    }
+
+    /**
+     * 预先解析VO类的绑定注解、条件执行计划及合并查询规划并缓存（供启动预热调用）
+     * @param voClass
+     * @return VO类是否有绑定注解
+     */
+    public static boolean prepare(Class<?> voClass){
+        BindAnnotationGroup bindAnnotationGroup = ParserCache.getBindAnnotationGroup(voClass);
+        if(bindAnnotationGroup.isEmpty()){
+            return false;
+        }
+        COALESCED_QUERY_PLAN_CACHE.computeIfAbsent(voClass, k -> planCoalescedQueries(bindAnnotationGroup));
+        REMOTE_ANNOTATION_GROUPS_CACHE.computeIfAbsent(voClass, k -> planRemoteAnnotationGroups(bindAnnotationGroup));
+        return true;
+    }
+
+    /**
+     * 绑定VO集合的关联对象
+     * @param voList
+     * @param enableDeepBind
+     */
+    private static <VO> void doBind(List<VO> voList, boolean enableDeepBind){
         // 获取VO类
         Class voClass = voList.get(0).getClass();
         BindAnnotationGroup bindAnnotationGroup = ParserCache.getBindAnnotationGroup(voClass);
         if(bindAnnotationGroup.isEmpty()){
             return;
         }
-        RequestContextHolder.setRequestAttributes(RequestContextHolder.getRequestAttributes(), true);
         ParallelBindingManager parallelBindingManager = ContextHelper.getBean(ParallelBindingManager.class);
+        // 跨模块批量绑定：同一模块的远程绑定查询合并为一次请求
+        RemoteBindingBatch remoteBindingBatch = prefetchRemoteBindings(parallelBindingManager, voList, voClass, bindAnnotationGroup);
+        if(remoteBindingBatch == null){
+            doBind(parallelBindingManager, voList, voClass, bindAnnotationGroup, enableDeepBind);
+            return;
+        }
+        RemoteBindingBatch previousBatch = RemoteBindingBatch.attach(remoteBindingBatch);
+        try{
+            doBind(parallelBindingManager, voList, voClass, bindAnnotationGroup, enableDeepBind);
+        }
+        finally {
+            RemoteBindingBatch.attach(previousBatch);
+        }
+    }
+
+    /**
+     * 分派各绑定注解的Binder并等待执行完成
+     * @param parallelBindingManager
+     * @param voList
+     * @param voClass
+     * @param bindAnnotationGroup
+     * @param enableDeepBind
+     */
+    private static <VO> void doBind(ParallelBindingManager parallelBindingManager, List<VO> voList, Class voClass,
+                                    BindAnnotationGroup bindAnnotationGroup, boolean enableDeepBind){
         List<CompletableFuture<Boolean>> binderFutures = new ArrayList<>();
+        // 规划合并查询：关联相同Entity、相同条件的绑定共用一次查询
+        Map<String, List<List<FieldAnnotation>>> queryKey2GroupsMap = COALESCED_QUERY_PLAN_CACHE.computeIfAbsent(voClass, k -> planCoalescedQueries(bindAnnotationGroup));
+        Set<String> dispatchedQueryKeys = new HashSet<>();
         // 绑定Field字段名
         Map<String, List<FieldAnnotation>> bindFieldGroupMap = bindAnnotationGroup.getBindFieldGroupMap();
         if(bindFieldGroupMap != null){
             for(Map.Entry<String, List<FieldAnnotation>> entry : bindFieldGroupMap.entrySet()){
-                CompletableFuture<Boolean> bindFieldFuture = parallelBindingManager.doBindingField(voList, entry.getValue());
-                binderFutures.add(bindFieldFuture);
+                if(!dispatchCoalesced(parallelBindingManager, voList, entry.getValue(), queryKey2GroupsMap, dispatchedQueryKeys, binderFutures)){
+                    CompletableFuture<Boolean> bindFieldFuture = parallelBindingManager.doBindingField(voList, entry.getValue());
+                    binderFutures.add(bindFieldFuture);
+                }
             }
         }
         // 绑定数据字典
@@ -139,7 +293,9 @@ public class RelationsBinder {
 
         if(entityAnnoList != null){
             for(FieldAnnotation anno : entityAnnoList){
-                BindEntity annotation = (BindEntity) anno.getAnnotation();
+                if(dispatchCoalesced(parallelBindingManager, voList, Collections.singletonList(anno), queryKey2GroupsMap, dispatchedQueryKeys, binderFutures)){
+                    continue;
+                }
                 // 绑定关联对象entity
                 CompletableFuture<Boolean> bindEntFuture = parallelBindingManager.doBindingEntity(voList, anno);
                 binderFutures.add(bindEntFuture);
@@ -149,6 +305,9 @@ public class RelationsBinder {
         List<FieldAnnotation> entitiesAnnoList = bindAnnotationGroup.getBindEntityListAnnotations();
         if(entitiesAnnoList != null){
             for(FieldAnnotation anno : entitiesAnnoList){
+                if(dispatchCoalesced(parallelBindingManager, voList, Collections.singletonList(anno), queryKey2GroupsMap, dispatchedQueryKeys, binderFutures)){
+                    continue;
+                }
                 // 绑定关联对象entity
                 CompletableFuture<Boolean> bindEntFuture = parallelBindingManager.doBindingEntityList(voList, anno);
                 binderFutures.add(bindEntFuture);
@@ -159,8 +318,10 @@ public class RelationsBinder {
         if(bindFieldListGroupMap != null){
             // 解析条件并且执行绑定
             for(Map.Entry<String, List<FieldAnnotation>> entry : bindFieldListGroupMap.entrySet()){
-                CompletableFuture<Boolean> bindFieldFuture = parallelBindingManager.doBindingFieldList(voList, entry.getValue());
-                binderFutures.add(bindFieldFuture);
+                if(!dispatchCoalesced(parallelBindingManager, voList, entry.getValue(), queryKey2GroupsMap, dispatchedQueryKeys, binderFutures)){
+                    CompletableFuture<Boolean> bindFieldFuture = parallelBindingManager.doBindingFieldList(voList, entry.getValue());
+                    binderFutures.add(bindFieldFuture);
+                }
             }
         }
         // 执行绑定
@@ -175,4 +336,156 @@ public class RelationsBinder {
         }
     }
 
+    /**
+     * 规划合并查询：按 关联Entity+条件(+拆分符+排序) 对绑定注解分组，返回可合并（多组共用查询）的分组
+     * @param bindAnnotationGroup
+     * @return 查询key-注解分组列表
+     */
+    private static Map<String, List<List<FieldAnnotation>>> planCoalescedQueries(BindAnnotationGroup bindAnnotationGroup){
+        Map<String, List<List<FieldAnnotation>>> queryKey2GroupsMap = new HashMap<>();
+        List<List<FieldAnnotation>> annotationGroups = getQueryAnnotationGroups(bindAnnotationGroup);
+        if(annotationGroups.size() < 2){
+            return Collections.emptyMap();
+        }
+        for(List<FieldAnnotation> group : annotationGroups){
+            String queryKey = buildQueryKey(group.get(0).getAnnotation());
+            if(queryKey != null){
+                queryKey2GroupsMap.computeIfAbsent(queryKey, k -> new ArrayList<>()).add(group);
+            }
+        }
+        queryKey2GroupsMap.values().removeIf(groups -> groups.size() < 2);
+        return queryKey2GroupsMap;
+    }
+
+    /**
+     * 构建远程绑定的Binder并登记其查询，每个模块发起一次批量请求；未启用或无远程绑定时返回null
+     * @return 已执行批量请求的RemoteBindingBatch
+     */
+    private static RemoteBindingBatch prefetchRemoteBindings(ParallelBindingManager parallelBindingManager, List voList, Class voClass,
+                                                             BindAnnotationGroup bindAnnotationGroup){
+        if(!BaseConfig.isRemoteBindingBatch()){
+            return null;
+        }
+        List<List<FieldAnnotation>> remoteAnnotationGroups = REMOTE_ANNOTATION_GROUPS_CACHE.computeIfAbsent(voClass, k -> planRemoteAnnotationGroups(bindAnnotationGroup));
+        if(remoteAnnotationGroups.isEmpty()){
+            return null;
+        }
+        RemoteBindingBatch batch = new RemoteBindingBatch();
+        parallelBindingManager.prepareRemoteBindings(batch, voList, remoteAnnotationGroups);
+        batch.execute();
+        return batch;
+    }
+
+    /**
+     * 筛选远程绑定的注解分组
+     * @param bindAnnotationGroup
+     * @return
+     */
+    private static List<List<FieldAnnotation>> planRemoteAnnotationGroups(BindAnnotationGroup bindAnnotationGroup){
+        List<List<FieldAnnotation>> groups = new ArrayList<>();
+        for(List<FieldAnnotation> group : getQueryAnnotationGroups(bindAnnotationGroup)){
+            if(isRemoteBinding(group.get(0).getAnnotation())){
+                groups.add(group);
+            }
+        }
+        return groups;
+    }
+
+    /**
+     * 获取需查询关联Entity的注解分组（BindField/BindFieldList为同组的多个注解，BindEntity/BindEntityList为单个注解）
+     * @param bindAnnotationGroup
+     * @return
+     */
+    private static List<List<FieldAnnotation>> getQueryAnnotationGroups(BindAnnotationGroup bindAnnotationGroup){
+        List<List<FieldAnnotation>> annotationGroups = new ArrayList<>();
+        if(bindAnnotationGroup.getBindFieldGroupMap() != null){
+            annotationGroups.addAll(bindAnnotationGroup.getBindFieldGroupMap().values());
+        }
+        if(bindAnnotationGroup.getBindEntityAnnotations() != null){
+            for(FieldAnnotation anno : bindAnnotationGroup.getBindEntityAnnotations()){
+                annotationGroups.add(Collections.singletonList(anno));
+            }
+        }
+        if(bindAnnotationGroup.getBindEntityListAnnotations() != null){
+            for(FieldAnnotation anno : bindAnnotationGroup.getBindEntityListAnnotations()){
+                annotationGroups.add(Collections.singletonList(anno));
+            }
+        }
+        if(bindAnnotationGroup.getBindFieldListGroupMap() != null){
+            annotationGroups.addAll(bindAnnotationGroup.getBindFieldListGroupMap().values());
+        }
+        return annotationGroups;
+    }
+
+    /**
+     * 注解关联的Entity是否属于其他模块（需远程绑定）
+     * @param annotation
+     * @return
+     */
+    private static boolean isRemoteBinding(Annotation annotation){
+        Class<?> entityClass = null;
+        if(annotation instanceof BindField){
+            entityClass = ((BindField) annotation).entity();
+        }
+        else if(annotation instanceof BindEntity){
+            entityClass = ((BindEntity) annotation).entity();
+        }
+        else if(annotation instanceof BindEntityList){
+            entityClass = ((BindEntityList) annotation).entity();
+        }
+        else if(annotation instanceof BindFieldList){
+            entityClass = ((BindFieldList) annotation).entity();
+        }
+        Module moduleAnno = entityClass == null? null : AnnotationUtils.findAnnotation(entityClass, Module.class);
+        return moduleAnno != null && V.notEquals(moduleAnno.value(), PropertiesUtils.get("spring.application.name"));
+    }
+
+    /**
+     * 执行合并查询的绑定，同一查询的多组注解仅提交一次
+     * @return 是否已作为合并查询处理
+     */
+    private static boolean dispatchCoalesced(ParallelBindingManager parallelBindingManager, List voList, List<FieldAnnotation> annotationGroup,
+                                             Map<String, List<List<FieldAnnotation>>> queryKey2GroupsMap, Set<String> dispatchedQueryKeys,
+                                             List<CompletableFuture<Boolean>> binderFutures){
+        if(queryKey2GroupsMap.isEmpty()){
+            return false;
+        }
+        String queryKey = buildQueryKey(annotationGroup.get(0).getAnnotation());
+        List<List<FieldAnnotation>> annotationGroups = queryKey == null? null : queryKey2GroupsMap.get(queryKey);
+        if(annotationGroups == null){
+            return false;
+        }
+        if(dispatchedQueryKeys.add(queryKey)){
+            binderFutures.add(parallelBindingManager.doBindingCoalesced(voList, annotationGroups));
+        }
+        return true;
+    }
+
+    /**
+     * 构建注解的查询key，启用缓存的注解不参与合并返回null
+     * @param annotation
+     * @return
+     */
+    private static String buildQueryKey(Annotation annotation){
+        if(annotation instanceof BindField){
+            BindField bindField = (BindField) annotation;
+            return bindField.cache()? null : bindField.entity().getName() + Cons.SEPARATOR_COMMA + bindField.condition();
+        }
+        else if(annotation instanceof BindEntity){
+            BindEntity bindEntity = (BindEntity) annotation;
+            return bindEntity.cache()? null : bindEntity.entity().getName() + Cons.SEPARATOR_COMMA + bindEntity.condition();
+        }
+        else if(annotation instanceof BindEntityList){
+            BindEntityList bindEntityList = (BindEntityList) annotation;
+            return bindEntityList.cache()? null : bindEntityList.entity().getName() + Cons.SEPARATOR_COMMA + bindEntityList.condition()
+                    + Cons.SEPARATOR_COMMA + bindEntityList.splitBy() + Cons.SEPARATOR_COMMA + bindEntityList.orderBy();
+        }
+        else if(annotation instanceof BindFieldList){
+            BindFieldList bindFieldList = (BindFieldList) annotation;
+            return bindFieldList.cache()? null : bindFieldList.entity().getName() + Cons.SEPARATOR_COMMA + bindFieldList.condition()
+                    + Cons.SEPARATOR_COMMA + bindFieldList.splitBy() + Cons.SEPARATOR_COMMA + bindFieldList.orderBy();
+        }
+        return null;
+    }
+
 }
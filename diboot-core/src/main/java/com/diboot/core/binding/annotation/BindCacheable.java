@@ -0,0 +1,18 @@
+package com.diboot.core.binding.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 关联绑定结果缓存注解：标注于Entity类，关联绑定该Entity时均启用跨请求缓存（经MyBatis的数据变更时自动失效）。
+ * 需开启diboot.core.binding-cache=true；缓存仅在当前JVM有效，多实例部署时其他实例的变更在过期时间（diboot.core.binding-cache-ttl，默认300秒）后可见
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/10
+ * Copyright © diboot.com
+ */
+@Target({ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+@Documented
+public @interface BindCacheable {
+}
@@ -45,4 +45,16 @@ public @interface BindEntity {
      * @return
      */
     boolean deepBind() default false;
-}
\ No newline at end of file
+
+    /**
+     * 是否启用跨请求的绑定结果缓存（经MyBatis的数据变更自动失效；缓存仅在当前JVM有效，其他实例的变更在diboot.core.binding-cache-ttl过期后可见），适用于变更较少的关联数据
+     * @return
+     */
+    boolean cache() default false;
+
+    /**
+     * 是否仅select目标VO所需的列（VO属性对应列及关联列），VO与entity类型一致时查询全部列
+     * @return
+     */
+    boolean projection() default true;
+}
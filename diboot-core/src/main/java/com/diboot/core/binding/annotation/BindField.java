@@ -45,4 +45,10 @@ public @interface BindField {
      * @return
      */
     String condition();
-}
\ No newline at end of file
+
+    /**
+     * 是否启用跨请求的绑定结果缓存（需diboot.core.binding-cache=true；经MyBatis的数据变更自动失效；缓存仅在当前JVM有效，其他实例的变更在diboot.core.binding-cache-ttl过期后可见），适用于变更较少的关联数据
+     * @return
+     */
+    boolean cache() default false;
+}
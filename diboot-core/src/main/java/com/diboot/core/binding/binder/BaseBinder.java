@@ -18,10 +18,16 @@ package com.diboot.core.binding.binder;
 import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.service.IService;
+import com.diboot.core.binding.BindingBatchScope;
 import com.diboot.core.binding.annotation.Module;
 import com.diboot.core.binding.binder.remote.RemoteBindDTO;
 import com.diboot.core.binding.cache.BindingCacheManager;
+import com.diboot.core.binding.cache.BindingResultCache;
+import com.diboot.core.binding.helper.ChunkedQueryExecutor;
+import com.diboot.core.binding.helper.MatchKey;
 import com.diboot.core.binding.helper.ResultAssembler;
+import com.diboot.core.binding.helper.ResultColumn;
+import com.diboot.core.binding.metrics.BindingMetricsRecorder;
 import com.diboot.core.binding.parser.MiddleTable;
 import com.diboot.core.binding.parser.PropInfo;
 import com.diboot.core.config.BaseConfig;
@@ -34,6 +40,8 @@ import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.Field;
 import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * 关系绑定Binder父类
@@ -94,6 +102,22 @@ public abstract class BaseBinder<T> {
      * 模块/服务 名
      */
     protected String module;
+    /**
+     * 是否启用跨请求的绑定结果缓存
+     */
+    protected boolean cacheable;
+    /**
+     * 与其他Binder共用的合并查询
+     */
+    protected CoalescedQuery<T> coalescedQuery;
+    /**
+     * 指标记录器，未采集指标时为null
+     */
+    protected BindingMetricsRecorder metricsRecorder;
+    /**
+     * 直接关联的跨模块绑定查询（首次获取时构建）
+     */
+    private RemoteBindDTO remoteBindDTO;
 
     /***
      * 构造方法
@@ -110,6 +134,7 @@ public abstract class BaseBinder<T> {
         this.refObjPropInfo = BindingCacheManager.getPropInfoByClass(this.referencedEntityClass);
         Module moduleAnno = AnnotationUtils.findAnnotation(this.referencedEntityClass, Module.class);
         this.referencedService = getService(entityClass, moduleAnno);
+        this.cacheable = BaseConfig.isBindingCache() && BindingResultCache.isCacheable(entityClass);
         if(moduleAnno != null){
             String applicationName = PropertiesUtils.get("spring.application.name");
             if(V.notEquals(moduleAnno.value(), applicationName)){
@@ -241,6 +266,70 @@ public abstract class BaseBinder<T> {
         return middleTable;
     }
 
+    /**
+     * 返回远程绑定的模块名，本地绑定为null
+     * @return
+     */
+    public String getModule(){
+        return module;
+    }
+
+    /**
+     * 启用跨请求的绑定结果缓存（需diboot.core.binding-cache=true）
+     * @return
+     */
+    public BaseBinder<T> enableCache(){
+        this.cacheable = BaseConfig.isBindingCache();
+        return this;
+    }
+
+    /**
+     * 设置指标记录器，记录本Binder的查询次数、行数、关联值数及查询耗时
+     * @param metricsRecorder
+     * @return
+     */
+    public BaseBinder<T> setMetricsRecorder(BindingMetricsRecorder metricsRecorder){
+        this.metricsRecorder = metricsRecorder;
+        return this;
+    }
+
+    /**
+     * 获取直接关联的跨模块绑定查询（首次获取时构建，跨模块批量绑定在绑定前收集，绑定时复用）
+     * @return 非远程绑定、通过中间表关联或无关联条件时返回null
+     */
+    public RemoteBindDTO getRemoteBindDTO(){
+        if(V.isEmpty(this.module) || middleTable != null || V.isEmpty(annoObjectList) || V.isEmpty(refObjJoinCols)){
+            return null;
+        }
+        if(remoteBindDTO == null){
+            RemoteBindDTO bindDTO = new RemoteBindDTO(referencedEntityClass);
+            buildRemoteBindDTO(bindDTO);
+            bindDTO.setResultType(getRemoteResultClass() == null? "Map" : "Entity");
+            remoteBindDTO = bindDTO;
+        }
+        return remoteBindDTO;
+    }
+
+    /**
+     * 远程绑定结果的Entity类，以Map返回时为null
+     * @return
+     */
+    public Class<?> getRemoteResultClass(){
+        return referencedEntityClass;
+    }
+
+    /**
+     * 构建直接关联的跨模块绑定查询：select列及join on条件
+     * @param remoteBindDTO
+     */
+    protected void buildRemoteBindDTO(RemoteBindDTO remoteBindDTO){
+        this.simplifySelectColumns(remoteBindDTO);
+        this.buildQueryWrapperJoinOn(remoteBindDTO);
+    }
+
+    public List getAnnoObjectList(){
+        return this.annoObjectList;
+    }
     public List<String> getAnnoObjJoinCols(){
         return this.annoObjJoinCols;
     }
@@ -257,33 +346,248 @@ public abstract class BaseBinder<T> {
      * 构建join on
      */
     protected void buildQueryWrapperJoinOn(RemoteBindDTO remoteBindDTO){
-        for(int i = 0; i< annoObjJoinCols.size(); i++){
-            String annoObjJoinOnCol = annoObjJoinCols.get(i);
-            boolean[] hasNullFlags = new boolean[1];
-            List annoObjectJoinOnList = BeanUtils.collectToList(annoObjectList, toAnnoObjField(annoObjJoinOnCol), hasNullFlags);
-            // 构建查询条件
-            String refObjJoinOnCol = refObjJoinCols.get(i);
-            if(V.isEmpty(annoObjectJoinOnList)){
-                queryWrapper.isNull(refObjJoinOnCol);
+        Set<String> nullableCols = new HashSet<>();
+        Map<String, List> col2ValuesMap = collectJoinOnValues(nullableCols);
+        for(Map.Entry<String, List> entry : col2ValuesMap.entrySet()){
+            String refObjJoinOnCol = entry.getKey();
+            appendInCondition(queryWrapper, refObjJoinOnCol, entry.getValue(), nullableCols.contains(refObjJoinOnCol));
+            if(remoteBindDTO != null && V.notEmpty(entry.getValue())){
+                if(nullableCols.contains(refObjJoinOnCol)){
+                    remoteBindDTO.setHasNullValue(true);
+                }
+                remoteBindDTO.setRefJoinCol(refObjJoinOnCol).setInConditionValues(entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * 构建join on条件并执行本地查询，join值超出分批大小时拆分为多个查询并行执行后合并结果
+     * @param queryFunc 查询方法，如 this::getEntityList
+     * @param <R>
+     * @return
+     */
+    protected <R> List<R> executeJoinOnQuery(Function<Wrapper, List<R>> queryFunc){
+        if(coalescedQuery != null){
+            return coalescedQuery.fetch(this);
+        }
+        return executeJoinOnQueryDirectly(queryFunc);
+    }
+
+    /**
+     * 构建join on条件并执行本地查询（不经合并查询）
+     * @param queryFunc 查询方法
+     * @param <R>
+     * @return
+     */
+    <R> List<R> executeJoinOnQueryDirectly(Function<Wrapper, List<R>> queryFunc){
+        Set<String> nullableCols = new HashSet<>();
+        Map<String, List> col2ValuesMap = collectJoinOnValues(nullableCols);
+        return executeInQuery(col2ValuesMap, nullableCols, queryFunc);
+    }
+
+    /**
+     * 附加IN条件并执行本地查询，值超出分批大小时拆分为多个查询并行执行后合并结果
+     * @param refObjJoinOnCol 关联列
+     * @param values IN条件值
+     * @param queryFunc 查询方法，如 this::getEntityList
+     * @param <R>
+     * @return
+     */
+    protected <R> List<R> executeInQuery(String refObjJoinOnCol, Collection values, Function<Wrapper, List<R>> queryFunc){
+        List valueList = values instanceof List? (List)values : new ArrayList(values);
+        return executeInQuery(Collections.singletonMap(refObjJoinOnCol, valueList), Collections.emptySet(), queryFunc);
+    }
+
+    /**
+     * 附加IN条件并执行本地查询
+     * @param col2ValuesMap 列名-IN条件值
+     * @param nullableCols 需匹配null值的列
+     * @param queryFunc 查询方法
+     * @param <R>
+     * @return
+     */
+    private <R> List<R> executeInQuery(Map<String, List> col2ValuesMap, Set<String> nullableCols, Function<Wrapper, List<R>> queryFunc){
+        // 本地单列关联且无null值时可使用缓存
+        if(this.module == null && col2ValuesMap.size() == 1 && nullableCols.isEmpty()){
+            Map.Entry<String, List> entry = col2ValuesMap.entrySet().iterator().next();
+            if(V.notEmpty(entry.getValue())){
+                // 启用缓存时使用跨请求缓存，否则在批量绑定作用域内复用已加载的结果
+                BindingBatchScope batchScope = cacheable? null : BindingBatchScope.current();
+                if(cacheable || batchScope != null){
+                    return executeCachedInQuery(batchScope, entry.getKey(), entry.getValue(), queryFunc);
+                }
+            }
+        }
+        return doExecuteInQuery(col2ValuesMap, nullableCols, queryFunc);
+    }
+
+    /**
+     * 优先从缓存中获取各关联值的结果，仅查询未命中的值并写入缓存
+     * @param batchScope 批量绑定作用域，为null时使用跨请求缓存
+     * @param refObjJoinOnCol 关联列
+     * @param values IN条件值
+     * @param queryFunc 查询方法
+     * @param <R>
+     * @return
+     */
+    private <R> List<R> executeCachedInQuery(BindingBatchScope batchScope, String refObjJoinOnCol, List values, Function<Wrapper, List<R>> queryFunc){
+        // 版本号需在查询前获取，查询期间数据变更时不写入缓存
+        long version = batchScope == null? BindingResultCache.getVersion(referencedEntityClass) : 0L;
+        String signature = buildCacheSignature(refObjJoinOnCol);
+        List<R> resultList = new ArrayList<>();
+        Set<Object> matchKeys = new HashSet<>(values.size());
+        List missedValues = new ArrayList();
+        List<Object> missedKeys = new ArrayList<>();
+        for(Object value : values){
+            Object matchKey = MatchKey.normalize(value);
+            if(!matchKeys.add(matchKey)){
+                continue;
+            }
+            List<R> cachedRows = batchScope == null? BindingResultCache.get(referencedEntityClass, version, signature, matchKey)
+                    : batchScope.getLoadedRows(referencedEntityClass, signature, matchKey);
+            if(cachedRows != null){
+                resultList.addAll(cachedRows);
             }
             else{
-                List unpackAnnoObjectJoinOnList = V.notEmpty(this.splitBy)? ResultAssembler.unpackValueList(annoObjectJoinOnList, this.splitBy)
-                        : annoObjectJoinOnList;
-                // 有null值
-                if(hasNullFlags[0]){
-                    if(remoteBindDTO != null){
-                        remoteBindDTO.setHasNullValue(true);
-                    }
-                    queryWrapper.and(qw -> qw.isNull(refObjJoinOnCol).or(w -> w.in(refObjJoinOnCol, unpackAnnoObjectJoinOnList)));
+                missedValues.add(value);
+                missedKeys.add(matchKey);
+            }
+        }
+        if(missedValues.isEmpty()){
+            return resultList;
+        }
+        List<R> fetchedRows = doExecuteInQuery(Collections.singletonMap(refObjJoinOnCol, missedValues), Collections.emptySet(), queryFunc);
+        // 按关联值分组写入缓存，无结果的值缓存为空列表
+        Map<Object, List<R>> matchKey2RowsMap = groupByJoinValue(fetchedRows, refObjJoinOnCol);
+        if(matchKey2RowsMap != null){
+            for(Object matchKey : missedKeys){
+                List<R> rows = matchKey2RowsMap.get(matchKey);
+                if(batchScope == null){
+                    BindingResultCache.put(referencedEntityClass, version, signature, matchKey, rows != null? rows : Collections.emptyList());
                 }
                 else{
-                    queryWrapper.in(refObjJoinOnCol, unpackAnnoObjectJoinOnList);
-                }
-                if(remoteBindDTO != null){
-                    remoteBindDTO.setRefJoinCol(refObjJoinOnCol).setInConditionValues(unpackAnnoObjectJoinOnList);
+                    batchScope.putLoadedRows(referencedEntityClass, signature, matchKey, rows != null? rows : Collections.emptyList());
                 }
             }
         }
+        resultList.addAll(fetchedRows);
+        return resultList;
+    }
+
+    /**
+     * 查询结果按关联值分组，结果中无法取得关联值时返回null（不缓存）
+     * @param rows
+     * @param refObjJoinOnCol
+     * @param <R>
+     * @return
+     */
+    private <R> Map<Object, List<R>> groupByJoinValue(List<R> rows, String refObjJoinOnCol){
+        Map<Object, List<R>> matchKey2RowsMap = new HashMap<>();
+        ResultColumn resultColumn = new ResultColumn(refObjJoinOnCol);
+        String refObjJoinOnField = toRefObjField(refObjJoinOnCol);
+        for(R row : rows){
+            Object joinValue = (row instanceof Map)? resultColumn.getValue((Map<String, ?>)row) : BeanUtils.getProperty(row, refObjJoinOnField);
+            if(joinValue == null){
+                return null;
+            }
+            matchKey2RowsMap.computeIfAbsent(MatchKey.normalize(joinValue), k -> new ArrayList<>()).add(row);
+        }
+        return matchKey2RowsMap;
+    }
+
+    /**
+     * 构建缓存的查询签名：Binder类型(合并查询时含结果类型)+select列+附加条件及参数+关联列
+     * @param refObjJoinOnCol
+     * @return
+     */
+    private String buildCacheSignature(String refObjJoinOnCol){
+        String binderType = coalescedQuery == null? getClass().getName() : getClass().getName() + (coalescedQuery.isEntityResult()? "#entity" : "#map");
+        return binderType + Cons.SEPARATOR_COMMA + queryWrapper.getSqlSelect()
+                + Cons.SEPARATOR_COMMA + queryWrapper.getCustomSqlSegment()
+                + Cons.SEPARATOR_COMMA + new TreeMap<>(queryWrapper.getParamNameValuePairs())
+                + Cons.SEPARATOR_COMMA + refObjJoinOnCol;
+    }
+
+    /**
+     * 附加IN条件并执行本地查询，值超出分批大小时拆分执行
+     * @param col2ValuesMap 列名-IN条件值
+     * @param nullableCols 需匹配null值的列
+     * @param queryFunc 查询方法
+     * @param <R>
+     * @return
+     */
+    private <R> List<R> doExecuteInQuery(Map<String, List> col2ValuesMap, Set<String> nullableCols, Function<Wrapper, List<R>> queryFunc){
+        Map<String, List<List>> col2ChunksMap = ChunkedQueryExecutor.partition(col2ValuesMap);
+        if(col2ChunksMap.isEmpty()){
+            for(Map.Entry<String, List> entry : col2ValuesMap.entrySet()){
+                appendInCondition(queryWrapper, entry.getKey(), entry.getValue(), nullableCols.contains(entry.getKey()));
+            }
+            return queryFunc.apply(queryWrapper);
+        }
+        List<Map<String, List>> batches = ChunkedQueryExecutor.combine(col2ValuesMap, col2ChunksMap);
+        List<Supplier<List<R>>> tasks = new ArrayList<>(batches.size());
+        for(Map<String, List> chunkCol2ValuesMap : batches){
+            QueryWrapper<T> chunkQueryWrapper = queryWrapper.clone();
+            for(Map.Entry<String, List> entry : chunkCol2ValuesMap.entrySet()){
+                String column = entry.getKey();
+                List<List> chunks = col2ChunksMap.get(column);
+                // 拆分列的null值条件仅附加到该列首批，避免结果重复
+                boolean hasNull = nullableCols.contains(column) && (chunks == null || chunks.get(0) == entry.getValue());
+                appendInCondition(chunkQueryWrapper, column, entry.getValue(), hasNull);
+            }
+            tasks.add(() -> queryFunc.apply(chunkQueryWrapper));
+        }
+        if(log.isDebugEnabled()){
+            log.debug("{} 关联查询IN条件列 {} 值数量超出分批大小，拆分为 {} 批执行", referencedEntityClass.getSimpleName(), col2ChunksMap.keySet(), batches.size());
+        }
+        return ChunkedQueryExecutor.execute(tasks);
+    }
+
+    /**
+     * 收集join on各列的IN条件值
+     * @param nullableCols 存在null值的列
+     * @return 关联对象列名-值列表
+     */
+    private Map<String, List> collectJoinOnValues(Set<String> nullableCols){
+        Map<String, List> col2ValuesMap = new LinkedHashMap<>(annoObjJoinCols.size());
+        for(int i = 0; i< annoObjJoinCols.size(); i++){
+            String annoObjJoinOnCol = annoObjJoinCols.get(i);
+            boolean[] hasNullFlags = new boolean[1];
+            // 拆分多值字段的值（splitBy）与提取合并为一次遍历
+            List annoObjectJoinOnList = BeanUtils.collectToList(annoObjectList, toAnnoObjField(annoObjJoinOnCol), this.splitBy, hasNullFlags);
+            String refObjJoinOnCol = refObjJoinCols.get(i);
+            // 有null值
+            if(hasNullFlags[0]){
+                nullableCols.add(refObjJoinOnCol);
+            }
+            col2ValuesMap.put(refObjJoinOnCol, annoObjectJoinOnList);
+            if(metricsRecorder != null){
+                metricsRecorder.addJoinKeys(annoObjectJoinOnList.size());
+            }
+        }
+        return col2ValuesMap;
+    }
+
+    /**
+     * 附加IN条件：无值时为IS NULL，有null值时为 (IS NULL OR IN)
+     * @param wrapper
+     * @param refObjJoinOnCol
+     * @param values
+     * @param hasNull
+     */
+    private void appendInCondition(QueryWrapper<T> wrapper, String refObjJoinOnCol, List values, boolean hasNull){
+        if(V.isEmpty(values)){
+            wrapper.isNull(refObjJoinOnCol);
+        }
+        else if(hasNull){
+            wrapper.and(qw -> appendInCondition(qw.isNull(refObjJoinOnCol).or(), refObjJoinOnCol, values, false));
+        }
+        else if(ChunkedQueryExecutor.isArrayParamApplicable(values)){
+            wrapper.apply(ChunkedQueryExecutor.buildArrayParamCondition(refObjJoinOnCol, "{0}"), ChunkedQueryExecutor.toArrayParamValue(values));
+        }
+        else{
+            wrapper.in(refObjJoinOnCol, values);
+        }
     }
 
     /**
@@ -291,12 +595,29 @@ public abstract class BaseBinder<T> {
      */
     protected abstract void simplifySelectColumns(RemoteBindDTO remoteBindDTO);
 
+    /**
+     * 执行查询（远程请求、中间表查询等），采集指标时记录查询次数、行数及耗时
+     * @param query
+     * @param <R>
+     * @return
+     */
+    protected <R> R recordQuery(Supplier<R> query){
+        return metricsRecorder != null? metricsRecorder.recordQuery(query) : query.get();
+    }
+
     /**
      * 获取EntityList
      * @param queryWrapper
      * @return
      */
     protected List<T> getEntityList(Wrapper queryWrapper) {
+        if(metricsRecorder != null){
+            return metricsRecorder.recordQuery(() -> doGetEntityList(queryWrapper));
+        }
+        return doGetEntityList(queryWrapper);
+    }
+
+    private List<T> doGetEntityList(Wrapper queryWrapper) {
         if(referencedService instanceof BaseService){
             return ((BaseService)referencedService).getEntityList(queryWrapper);
         }
@@ -312,6 +633,13 @@ public abstract class BaseBinder<T> {
      * @return
      */
     protected List<Map<String, Object>> getMapList(Wrapper queryWrapper) {
+        if(metricsRecorder != null){
+            return metricsRecorder.recordQuery(() -> doGetMapList(queryWrapper));
+        }
+        return doGetMapList(queryWrapper);
+    }
+
+    private List<Map<String, Object>> doGetMapList(Wrapper queryWrapper) {
         if(referencedService instanceof BaseService){
             return ((BaseService)referencedService).getMapList(queryWrapper);
         }
@@ -332,6 +660,9 @@ public abstract class BaseBinder<T> {
             String annoObjFld = toAnnoObjField(entry.getKey());
             List valueList = BeanUtils.collectToList(annoObjectList, annoObjFld);
             trunkObjCol2ValuesMap.put(entry.getValue(), valueList);
+            if(metricsRecorder != null){
+                metricsRecorder.addJoinKeys(valueList.size());
+            }
         }
         return trunkObjCol2ValuesMap;
     }
@@ -351,19 +682,17 @@ public abstract class BaseBinder<T> {
      * @param middleTableResultMap
      * @return
      */
-    protected List extractIdValueFromMap(Map<String, List> middleTableResultMap) {
-        List entityIdList = new ArrayList();
-        for(Map.Entry<String, List> entry : middleTableResultMap.entrySet()){
+    protected List extractIdValueFromMap(Map<Object, List> middleTableResultMap) {
+        DistinctCollector entityIds = new DistinctCollector(middleTableResultMap.size());
+        for(Map.Entry<Object, List> entry : middleTableResultMap.entrySet()){
             if(V.isEmpty(entry.getValue())){
                 continue;
             }
             for(Object id : entry.getValue()){
-                if(!entityIdList.contains(id)){
-                    entityIdList.add(id);
-                }
+                entityIds.add(id);
             }
         }
-        return entityIdList;
+        return entityIds.toList();
     }
 
     /**
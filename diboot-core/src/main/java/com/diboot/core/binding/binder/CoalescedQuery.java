@@ -0,0 +1,174 @@
+package com.diboot.core.binding.binder;
+
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.diboot.core.binding.cache.BindingCacheManager;
+import com.diboot.core.config.Cons;
+import com.diboot.core.util.BeanUtils;
+import com.diboot.core.util.S;
+import com.diboot.core.util.V;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+
+/**
+ * 合并查询：同一次绑定中关联相同Entity、相同关联列及条件的多个Binder共用一次查询
+ * <p>
+ * select各Binder所需列的并集，由首个执行的Binder查询，结果分发给各Binder各自组装
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/11
+ * Copyright © diboot.com
+ */
+@Slf4j
+public class CoalescedQuery<T> {
+
+    private final Class<T> entityClass;
+    /**
+     * 是否需查询Entity结果（仅有FieldBinder时查询Map结果）
+     */
+    private final boolean entityResult;
+    /**
+     * 合并后的select列
+     */
+    private final String selectColumns;
+
+    private boolean executed = false;
+    private List<T> entityList;
+    private List<Map<String, Object>> mapList;
+
+    private CoalescedQuery(List<BaseBinder<T>> binders){
+        this.entityClass = binders.get(0).referencedEntityClass;
+        boolean entityResult = false;
+        Set<String> columns = new LinkedHashSet<>();
+        boolean selectAll = false;
+        for(BaseBinder<T> binder : binders){
+            if(!isMapResult(binder)){
+                entityResult = true;
+            }
+            binder.simplifySelectColumns(null);
+            String sqlSelect = binder.queryWrapper.getSqlSelect();
+            if(V.isEmpty(sqlSelect)){
+                selectAll = true;
+            }
+            else{
+                for(String column : S.split(sqlSelect, Cons.SEPARATOR_COMMA)){
+                    columns.add(column.trim());
+                }
+            }
+            binder.coalescedQuery = this;
+        }
+        this.entityResult = entityResult;
+        this.selectColumns = selectAll? TableInfoHelper.getTableInfo(entityClass).getAllSqlSelect() : S.join(columns, Cons.SEPARATOR_COMMA);
+    }
+
+    /**
+     * 合并可共用查询的Binder（需已解析条件），不可合并的Binder保持独立查询
+     * @param binders
+     * @return 合并后的查询次数
+     */
+    public static int coalesce(List<? extends BaseBinder> binders){
+        Map<String, List<BaseBinder>> queryKey2BindersMap = new LinkedHashMap<>();
+        int queryCount = 0;
+        for(BaseBinder binder : binders){
+            if(!isCoalescible(binder)){
+                queryCount++;
+                continue;
+            }
+            queryKey2BindersMap.computeIfAbsent(buildQueryKey(binder), k -> new ArrayList<>()).add(binder);
+        }
+        for(List<BaseBinder> group : queryKey2BindersMap.values()){
+            queryCount++;
+            if(group.size() > 1){
+                new CoalescedQuery(group);
+                log.debug("{} 的 {} 个关联绑定合并为一次查询", group.get(0).referencedEntityClass.getSimpleName(), group.size());
+            }
+        }
+        return queryCount;
+    }
+
+    /**
+     * 合并查询结果是否为Entity（否则为Map）
+     * @return
+     */
+    boolean isEntityResult(){
+        return entityResult;
+    }
+
+    /**
+     * 获取Binder的查询结果，首次调用时执行合并查询
+     * @param binder
+     * @param <R>
+     * @return
+     */
+    synchronized <R> List<R> fetch(BaseBinder<T> binder){
+        if(!executed){
+            executed = true;
+            binder.queryWrapper.select(selectColumns);
+            if(entityResult){
+                entityList = binder.executeJoinOnQueryDirectly(binder::getEntityList);
+            }
+            else{
+                mapList = binder.executeJoinOnQueryDirectly(binder::getMapList);
+            }
+        }
+        if(isMapResult(binder)){
+            if(mapList == null){
+                mapList = toMapList(entityList);
+            }
+            return (List<R>)mapList;
+        }
+        return (List<R>)entityList;
+    }
+
+    /**
+     * Entity结果转换为 列名-值 Map结果
+     * @param entityList
+     * @return
+     */
+    private List<Map<String, Object>> toMapList(List<T> entityList){
+        if(V.isEmpty(entityList)){
+            return Collections.emptyList();
+        }
+        Map<String, String> columnToFieldMap = BindingCacheManager.getPropInfoByClass(entityClass).getColumnToFieldMap();
+        List<Map<String, Object>> resultList = new ArrayList<>(entityList.size());
+        for(T entity : entityList){
+            Map<String, Object> row = new HashMap<>(columnToFieldMap.size() * 4 / 3 + 1);
+            for(Map.Entry<String, String> entry : columnToFieldMap.entrySet()){
+                row.put(entry.getKey(), BeanUtils.getProperty(entity, entry.getValue()));
+            }
+            resultList.add(row);
+        }
+        return resultList;
+    }
+
+    /**
+     * 是否可合并：本地直接关联且未启用缓存
+     * @param binder
+     * @return
+     */
+    private static boolean isCoalescible(BaseBinder binder){
+        return binder.middleTable == null && V.isEmpty(binder.module) && !binder.cacheable && V.notEmpty(binder.refObjJoinCols);
+    }
+
+    /**
+     * FieldBinder基于Map结果组装，其他Binder基于Entity结果组装
+     * @param binder
+     * @return
+     */
+    private static boolean isMapResult(BaseBinder binder){
+        return binder instanceof FieldBinder && !(binder instanceof FieldListBinder);
+    }
+
+    /**
+     * 构建查询key：Entity+关联列+拆分符+排序+附加条件及参数
+     * @param binder
+     * @return
+     */
+    private static String buildQueryKey(BaseBinder binder){
+        return binder.referencedEntityClass.getName() + Cons.SEPARATOR_COMMA + binder.annoObjJoinCols
+                + Cons.SEPARATOR_COMMA + binder.refObjJoinCols + Cons.SEPARATOR_COMMA + binder.splitBy
+                + Cons.SEPARATOR_COMMA + binder.orderBy + Cons.SEPARATOR_COMMA + binder.queryWrapper.getCustomSqlSegment()
+                + Cons.SEPARATOR_COMMA + new TreeMap<>(binder.queryWrapper.getParamNameValuePairs());
+    }
+
+}
@@ -15,20 +15,21 @@
  */
 package com.diboot.core.binding.binder;
 
-import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.diboot.core.binding.annotation.BindEntity;
 import com.diboot.core.binding.binder.remote.RemoteBindDTO;
 import com.diboot.core.binding.binder.remote.RemoteBindingManager;
+import com.diboot.core.binding.helper.MatchKey;
 import com.diboot.core.binding.helper.ResultAssembler;
-import com.diboot.core.binding.helper.ServiceAdaptor;
-import com.diboot.core.config.Cons;
+import com.diboot.core.binding.parser.ParserCache;
 import com.diboot.core.exception.InvalidUsageException;
 import com.diboot.core.util.BeanUtils;
 import com.diboot.core.util.ISetter;
+import com.diboot.core.util.S;
 import com.diboot.core.util.V;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -52,6 +53,10 @@ public class EntityBinder<T> extends BaseBinder<T> {
      * 给待绑定list中VO对象赋值的setter属性class类型
      */
     protected Class<?> annoObjectFieldClass;
+    /**
+     * 是否仅select目标VO所需列
+     */
+    protected boolean projection = true;
 
     /***
      * 构造方法
@@ -69,6 +74,10 @@ public class EntityBinder<T> extends BaseBinder<T> {
      */
     public EntityBinder(BindEntity annotation, List voList){
         super(annotation.entity(), voList);
+        if(annotation.cache()){
+            enableCache();
+        }
+        this.projection = annotation.projection();
     }
 
     /***
@@ -93,6 +102,15 @@ public class EntityBinder<T> extends BaseBinder<T> {
         return this;
     }
 
+    /**
+     * 关闭select列投影，查询Entity全部列
+     * @return
+     */
+    public BaseBinder<T> disableProjection(){
+        this.projection = false;
+        return this;
+    }
+
     @Override
     public void bind() {
         if(V.isEmpty(annoObjectList)){
@@ -101,26 +119,24 @@ public class EntityBinder<T> extends BaseBinder<T> {
         if(V.isEmpty(refObjJoinCols)){
             throw new InvalidUsageException("调用错误：无法从condition中解析出字段关联.");
         }
-        // 构建跨模块绑定DTO
-        RemoteBindDTO remoteBindDTO = V.isEmpty(this.module)? null : new RemoteBindDTO(referencedEntityClass);
         // 直接关联Entity
         if(middleTable == null){
-            this.simplifySelectColumns(remoteBindDTO);
             // @BindEntity(entity = Department.class, condition="this.department_id=id AND this.type=type")
             // Department department;
-            super.buildQueryWrapperJoinOn(remoteBindDTO);
             List<T> entityList = null;
             // 查询entity列表: List<T>
             if(V.isEmpty(this.module)){
+                this.simplifySelectColumns(null);
                 // 本地查询获取匹配结果的entityList
-                entityList = getEntityList(queryWrapper);
+                entityList = executeJoinOnQuery(this::getEntityList);
             }
             else{
                 // 远程调用获取
-                entityList = RemoteBindingManager.fetchEntityList(module, remoteBindDTO, referencedEntityClass);
+                RemoteBindDTO remoteBindDTO = super.getRemoteBindDTO();
+                entityList = recordQuery(() -> RemoteBindingManager.fetchEntityList(module, remoteBindDTO, referencedEntityClass));
             }
             if(V.notEmpty(entityList)){
-                Map<String, Object> valueEntityMap = this.buildMatchKey2EntityMap(entityList);
+                Map<Object, Object> valueEntityMap = this.buildMatchKey2EntityMap(entityList);
                 ResultAssembler.bindPropValue(annoObjectField, annoObjectList, getAnnoObjJoinFlds(), valueEntityMap, null);
             }
         }
@@ -129,11 +145,13 @@ public class EntityBinder<T> extends BaseBinder<T> {
             if(refObjJoinCols.size() > 1){
                 throw new InvalidUsageException(NOT_SUPPORT_MSG);
             }
+            // 构建跨模块绑定DTO
+            RemoteBindDTO remoteBindDTO = V.isEmpty(this.module)? null : new RemoteBindDTO(referencedEntityClass);
             // 提取注解条件中指定的对应的列表
             Map<String, List> trunkObjCol2ValuesMap = super.buildTrunkObjCol2ValuesMap();
             // 结果转换Map
-            Map<String, Object> valueEntityMap = new HashMap<>();
-            Map<String, Object> middleTableResultMap = middleTable.executeOneToOneQuery(trunkObjCol2ValuesMap);
+            Map<Object, Object> valueEntityMap = new HashMap<>();
+            Map<Object, Object> middleTableResultMap = recordQuery(() -> middleTable.executeOneToOneQuery(trunkObjCol2ValuesMap));
             if(V.isEmpty(middleTableResultMap)){
                 return;
             }
@@ -146,32 +164,30 @@ public class EntityBinder<T> extends BaseBinder<T> {
             List<T> entityList = null;
             // 查询entity列表: List<T>
             if(V.isEmpty(this.module)){
-                queryWrapper.in(refObjJoinOnCol, refObjValues);
                 // 本地查询获取匹配结果的entityList
-                entityList = getEntityList(queryWrapper);
+                entityList = executeInQuery(refObjJoinOnCol, refObjValues, this::getEntityList);
             }
             else{
                 // 远程调用获取
                 remoteBindDTO.setRefJoinCol(refObjJoinOnCol).setInConditionValues(refObjValues);
-                entityList = RemoteBindingManager.fetchEntityList(module, remoteBindDTO, referencedEntityClass);
+                entityList = recordQuery(() -> RemoteBindingManager.fetchEntityList(module, remoteBindDTO, referencedEntityClass));
             }
             if(V.isEmpty(entityList)){
                 return;
             }
             String refObjJoinOnField = toRefObjField(refObjJoinOnCol);
             // 转换entity列表为Map<ID, Entity>
-            Map<String, T> listMap = BeanUtils.convertToStringKeyObjectMap(entityList, refObjJoinOnField);
-            if(V.notEmpty(listMap)){
-                //List<String> joinOnValues = new ArrayList<>(refObjJoinFlds.size());
-                for(Map.Entry<String, Object> entry : middleTableResultMap.entrySet()){
-                    Object fetchValueId = entry.getValue();
-                    if(fetchValueId == null){
-                        continue;
-                    }
-                    String key = entry.getKey();
-                    T entity = listMap.get(String.valueOf(fetchValueId));
-                    valueEntityMap.put(key, cloneOrConvertBean(entity));
+            Map<Object, T> listMap = new HashMap<>(entityList.size());
+            for(T entity : entityList){
+                listMap.put(MatchKey.normalize(BeanUtils.getProperty(entity, refObjJoinOnField)), entity);
+            }
+            for(Map.Entry<Object, Object> entry : middleTableResultMap.entrySet()){
+                Object fetchValueId = entry.getValue();
+                if(fetchValueId == null){
+                    continue;
                 }
+                T entity = listMap.get(MatchKey.normalize(fetchValueId));
+                valueEntityMap.put(entry.getKey(), cloneOrConvertBean(entity));
             }
             // 绑定结果
             ResultAssembler.bindEntityPropValue(annoObjectField, annoObjectList, middleTable.getTrunkObjColMapping(), valueEntityMap, getAnnoObjColumnToFieldMap());
@@ -183,28 +199,23 @@ public class EntityBinder<T> extends BaseBinder<T> {
      * @param list
      * @return
      */
-    private Map<String, Object> buildMatchKey2EntityMap(List<T> list){
-        Map<String, Object> key2TargetMap = new HashMap<>(list.size());
-        StringBuilder sb = new StringBuilder();
+    private Map<Object, Object> buildMatchKey2EntityMap(List<T> list){
+        Map<Object, Object> key2TargetMap = new HashMap<>(list.size());
+        String[] refObjJoinFields = new String[refObjJoinCols.size()];
+        for(int i=0; i<refObjJoinFields.length; i++){
+            refObjJoinFields[i] = toRefObjField(refObjJoinCols.get(i));
+        }
+        MatchKey probe = MatchKey.probe(refObjJoinFields.length);
         for(T entity : list){
-            sb.setLength(0);
-            for(int i=0; i<refObjJoinCols.size(); i++){
-                String refObjJoinOnCol = refObjJoinCols.get(i);
-                String pkValue = BeanUtils.getStringProperty(entity, toRefObjField(refObjJoinOnCol));
-                if(i > 0){
-                    sb.append(Cons.SEPARATOR_COMMA);
-                }
-                sb.append(pkValue);
+            for(int i=0; i<refObjJoinFields.length; i++){
+                probe.set(i, BeanUtils.getProperty(entity, refObjJoinFields[i]));
             }
-            // 查找匹配Key
-            String matchKey = sb.toString();
             Object target = entity;
             if(target instanceof Map == false){
                 target = cloneOrConvertBean(entity);
             }
-            key2TargetMap.put(matchKey, target);
+            key2TargetMap.put(probe.copy(), target);
         }
-        sb.setLength(0);
         return key2TargetMap;
     }
 
@@ -225,13 +236,30 @@ public class EntityBinder<T> extends BaseBinder<T> {
     }
 
     /**
-     * 简化select列，仅select必需列
+     * 简化select列，仅select目标VO所需列及关联列
      */
     @Override
     protected void simplifySelectColumns(RemoteBindDTO remoteBindDTO){
-        if(!referencedEntityClass.getName().equals(annoObjectFieldClass.getName())){
-            queryWrapper = (QueryWrapper<T>) ServiceAdaptor.optimizeSelect(queryWrapper, referencedEntityClass, annoObjectFieldClass);
+        if(!projection || annoObjectFieldClass == null || referencedEntityClass.getName().equals(annoObjectFieldClass.getName())
+                || queryWrapper.getSqlSelect() != null){
+            return;
+        }
+        Map<String, String> projectionColumns = ParserCache.getProjectionColumns(referencedEntityClass, annoObjectFieldClass);
+        if(V.isEmpty(projectionColumns)){
+            return;
+        }
+        List<String> selectColumns = new ArrayList<>(projectionColumns.values());
+        // 关联列需用于结果匹配
+        for(String refObjJoinCol : refObjJoinCols){
+            if(!projectionColumns.containsKey(refObjJoinCol)){
+                selectColumns.add(refObjJoinCol);
+            }
+        }
+        String[] selectColsArray = S.toStringArray(selectColumns);
+        if(remoteBindDTO != null){
+            remoteBindDTO.setSelectColumns(selectColsArray);
         }
+        this.queryWrapper.select(selectColsArray);
     }
 
 }
@@ -15,11 +15,15 @@
  */
 package com.diboot.core.binding.binder;
 
+import com.diboot.core.binding.BindingBatchScope;
+import com.diboot.core.binding.JoinsBinder;
 import com.diboot.core.binding.annotation.BindEntityList;
 import com.diboot.core.binding.binder.remote.RemoteBindDTO;
 import com.diboot.core.binding.binder.remote.RemoteBindingManager;
+import com.diboot.core.binding.helper.MatchKey;
 import com.diboot.core.binding.helper.ResultAssembler;
-import com.diboot.core.config.Cons;
+import com.diboot.core.binding.parser.ParserCache;
+import com.diboot.core.config.BaseConfig;
 import com.diboot.core.exception.InvalidUsageException;
 import com.diboot.core.util.BeanUtils;
 import com.diboot.core.util.V;
@@ -40,6 +44,11 @@ import java.util.Map;
 public class EntityListBinder<T> extends EntityBinder<T> {
     private static final Logger log = LoggerFactory.getLogger(EntityListBinder.class);
 
+    /**
+     * 通过中间表关联时是否合并为中间表与关联表的单次JOIN查询
+     */
+    protected boolean middleTableJoin = BaseConfig.isBindingMiddleTableJoin();
+
     /***
      * 构造方法
      * @param annotation
@@ -47,6 +56,10 @@ public class EntityListBinder<T> extends EntityBinder<T> {
      */
     public EntityListBinder(BindEntityList annotation, List voList){
         super(annotation.entity(), voList);
+        if(annotation.cache()){
+            enableCache();
+        }
+        this.projection = annotation.projection();
         if(V.notEmpty(annotation.splitBy())){
             this.splitBy = annotation.splitBy();
         }
@@ -55,6 +68,14 @@ public class EntityListBinder<T> extends EntityBinder<T> {
         }
     }
 
+    @Override
+    protected void buildRemoteBindDTO(RemoteBindDTO remoteBindDTO){
+        super.simplifySelectColumns(remoteBindDTO);
+        //处理orderBy，附加排序
+        this.appendOrderBy(remoteBindDTO);
+        super.buildQueryWrapperJoinOn(remoteBindDTO);
+    }
+
     @Override
     public void bind() {
         if(V.isEmpty(annoObjectList)){
@@ -63,23 +84,21 @@ public class EntityListBinder<T> extends EntityBinder<T> {
         if(V.isEmpty(refObjJoinCols)){
             throw new InvalidUsageException("调用错误：无法从condition中解析出字段关联.");
         }
-        // 构建跨模块绑定DTO
-        RemoteBindDTO remoteBindDTO = V.isEmpty(this.module)? null : new RemoteBindDTO(referencedEntityClass);
-        Map<String, List> valueEntityListMap = new HashMap<>();
+        Map<Object, List> valueEntityListMap = new HashMap<>();
         if(middleTable == null){
-            super.simplifySelectColumns(remoteBindDTO);
-            super.buildQueryWrapperJoinOn(remoteBindDTO);
-            //处理orderBy，附加排序
-            this.appendOrderBy(remoteBindDTO);
             List<T> entityList = null;
             // 查询entity列表: List<Role>
             if(V.isEmpty(this.module)){
+                super.simplifySelectColumns(null);
+                //处理orderBy，附加排序
+                this.appendOrderBy(null);
                 // 本地查询获取匹配结果的entityList
-                entityList = getEntityList(queryWrapper);
+                entityList = executeJoinOnQuery(this::getEntityList);
             }
             else{
                 // 远程调用获取
-                entityList = RemoteBindingManager.fetchEntityList(module, remoteBindDTO, referencedEntityClass);
+                RemoteBindDTO remoteBindDTO = super.getRemoteBindDTO();
+                entityList = recordQuery(() -> RemoteBindingManager.fetchEntityList(module, remoteBindDTO, referencedEntityClass));
             }
             if(V.notEmpty(entityList)){
                 valueEntityListMap = this.buildMatchKey2EntityListMap(entityList);
@@ -90,9 +109,15 @@ public class EntityListBinder<T> extends EntityBinder<T> {
             if(refObjJoinCols.size() > 1){
                 throw new InvalidUsageException(NOT_SUPPORT_MSG);
             }
+            // 构建跨模块绑定DTO
+            RemoteBindDTO remoteBindDTO = V.isEmpty(this.module)? null : new RemoteBindDTO(referencedEntityClass);
             // 提取注解条件中指定的对应的列表
             Map<String, List> trunkObjCol2ValuesMap = super.buildTrunkObjCol2ValuesMap();
-            Map<String, List> middleTableResultMap = middleTable.executeOneToManyQuery(trunkObjCol2ValuesMap);
+            if(isMiddleTableJoinApplicable()){
+                bindByMiddleTableJoin(trunkObjCol2ValuesMap);
+                return;
+            }
+            Map<Object, List> middleTableResultMap = recordQuery(() -> middleTable.executeOneToManyQuery(trunkObjCol2ValuesMap));
             if(V.isEmpty(middleTableResultMap)){
                 return;
             }
@@ -110,21 +135,23 @@ public class EntityListBinder<T> extends EntityBinder<T> {
             // 查询entity列表: List<Role>
             if(V.isEmpty(this.module)){
                 // 本地查询获取匹配结果的entityList
-                queryWrapper.in(refObjJoinOnCol, entityIdList);
-                entityList = getEntityList(queryWrapper);
+                entityList = executeInQuery(refObjJoinOnCol, entityIdList, this::getEntityList);
             }
             else{
                 // 远程调用获取
                 remoteBindDTO.setRefJoinCol(refObjJoinOnCol).setInConditionValues(entityIdList);
-                entityList = RemoteBindingManager.fetchEntityList(module, remoteBindDTO, referencedEntityClass);
+                entityList = recordQuery(() -> RemoteBindingManager.fetchEntityList(module, remoteBindDTO, referencedEntityClass));
             }
             if(V.isEmpty(entityList)){
                 return;
             }
             String refObjJoinOnField = toRefObjField(refObjJoinOnCol);
             // 转换entity列表为Map<ID, Entity>
-            Map<String, T> entityMap = BeanUtils.convertToStringKeyObjectMap(entityList, refObjJoinOnField);
-            for(Map.Entry<String, List> entry : middleTableResultMap.entrySet()){
+            Map<Object, T> entityMap = new HashMap<>(entityList.size());
+            for(T entity : entityList){
+                entityMap.put(MatchKey.normalize(BeanUtils.getProperty(entity, refObjJoinOnField)), entity);
+            }
+            for(Map.Entry<Object, List> entry : middleTableResultMap.entrySet()){
                 // List<roleId>
                 List annoObjFKList = entry.getValue();
                 if(V.isEmpty(annoObjFKList)){
@@ -135,14 +162,14 @@ public class EntityListBinder<T> extends EntityBinder<T> {
                     if(obj == null){
                         continue;
                     }
-                    String valStr = String.valueOf(obj);
-                    T ent = entityMap.get(valStr);
+                    Object fkValue = MatchKey.normalize(obj);
+                    T ent = entityMap.get(fkValue);
                     if(ent != null){
                         valueList.add(cloneOrConvertBean(ent));
                     }
-                    else if(V.notEmpty(splitBy) && valStr.contains(splitBy)){
-                        for(String key : valStr.split(splitBy)){
-                            ent = entityMap.get(key);
+                    else if(V.notEmpty(splitBy) && fkValue instanceof String && ((String)fkValue).contains(splitBy)){
+                        for(String key : ((String)fkValue).split(splitBy)){
+                            ent = entityMap.get(MatchKey.normalize(key));
                             if(ent != null){
                                 valueList.add(cloneOrConvertBean(ent));
                             }
@@ -156,31 +183,74 @@ public class EntityListBinder<T> extends EntityBinder<T> {
         }
     }
 
+    /**
+     * 启用中间表JOIN查询：中间表与关联表合并为单次JOIN查询
+     * @return
+     */
+    public BaseBinder<T> enableMiddleTableJoin(){
+        this.middleTableJoin = true;
+        return this;
+    }
+
+    /**
+     * 是否可合并为中间表JOIN查询（跨模块、拆分值及启用缓存的绑定仍分两步查询）
+     * @return
+     */
+    protected boolean isMiddleTableJoinApplicable(){
+        return middleTableJoin && V.isEmpty(this.module) && V.isEmpty(this.splitBy) && !cacheable
+                && BindingBatchScope.current() == null && ParserCache.getEntityTableName(referencedEntityClass) != null;
+    }
+
+    /**
+     * 通过中间表与关联表的单次JOIN查询绑定
+     * @param trunkObjCol2ValuesMap
+     */
+    private void bindByMiddleTableJoin(Map<String, List> trunkObjCol2ValuesMap){
+        super.simplifySelectColumns(null);
+        this.appendOrderBy(null);
+        Map<Object, List<Map<String, Object>>> matchKey2RowsMap = recordQuery(() -> middleTable.executeOneToManyJoinQuery(trunkObjCol2ValuesMap, queryWrapper, referencedEntityClass));
+        if(V.isEmpty(matchKey2RowsMap)){
+            return;
+        }
+        Map<Object, List> valueEntityListMap = new HashMap<>(matchKey2RowsMap.size());
+        for(Map.Entry<Object, List<Map<String, Object>>> entry : matchKey2RowsMap.entrySet()){
+            List valueList = new ArrayList(entry.getValue().size());
+            for(Map<String, Object> row : entry.getValue()){
+                try{
+                    T entity = JoinsBinder.convertToEntity(row, referencedEntityClass);
+                    valueList.add(annoObjectFieldClass.isInstance(entity)? entity : BeanUtils.convert(entity, annoObjectFieldClass));
+                }
+                catch (Exception e){
+                    log.warn("new实例并绑定属性值异常", e);
+                }
+            }
+            valueEntityListMap.put(entry.getKey(), valueList);
+        }
+        // 绑定结果
+        ResultAssembler.bindEntityPropValue(annoObjectField, annoObjectList, middleTable.getTrunkObjColMapping(), valueEntityListMap, getAnnoObjColumnToFieldMap());
+    }
+
     /**
      * 构建匹配key-entity目标的map
      * @param list
      * @return
      */
-    private Map<String, List> buildMatchKey2EntityListMap(List<T> list){
-        Map<String, List> key2TargetListMap = new HashMap<>(list.size());
-        StringBuilder sb = new StringBuilder();
+    private Map<Object, List> buildMatchKey2EntityListMap(List<T> list){
+        Map<Object, List> key2TargetListMap = new HashMap<>(list.size());
+        String[] refObjJoinFields = new String[refObjJoinCols.size()];
+        for(int i=0; i<refObjJoinFields.length; i++){
+            refObjJoinFields[i] = toRefObjField(refObjJoinCols.get(i));
+        }
+        MatchKey probe = MatchKey.probe(refObjJoinFields.length);
         for(T entity : list){
-            sb.setLength(0);
-            for(int i=0; i<refObjJoinCols.size(); i++){
-                String refObjJoinOnCol = refObjJoinCols.get(i);
-                String pkValue = BeanUtils.getStringProperty(entity, toRefObjField(refObjJoinOnCol));
-                if(i > 0){
-                    sb.append(Cons.SEPARATOR_COMMA);
-                }
-                sb.append(pkValue);
+            for(int i=0; i<refObjJoinFields.length; i++){
+                probe.set(i, BeanUtils.getProperty(entity, refObjJoinFields[i]));
             }
-            // 查找匹配Key
-            String matchKey = sb.toString();
             // 获取list
-            List entityList = key2TargetListMap.get(matchKey);
+            List entityList = key2TargetListMap.get(probe.lookupKey());
             if(entityList == null){
                 entityList = new ArrayList<>();
-                key2TargetListMap.put(matchKey, entityList);
+                key2TargetListMap.put(probe.copy(), entityList);
             }
             Object target = entity;
             if(target instanceof Map == false){
@@ -188,7 +258,6 @@ public class EntityListBinder<T> extends EntityBinder<T> {
             }
             entityList.add(target);
         }
-        sb.setLength(0);
         return key2TargetListMap;
     }
 
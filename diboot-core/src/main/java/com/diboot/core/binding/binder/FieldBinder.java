@@ -18,7 +18,9 @@ package com.diboot.core.binding.binder;
 import com.diboot.core.binding.annotation.BindField;
 import com.diboot.core.binding.binder.remote.RemoteBindDTO;
 import com.diboot.core.binding.binder.remote.RemoteBindingManager;
-import com.diboot.core.config.Cons;
+import com.diboot.core.binding.helper.MatchKey;
+import com.diboot.core.binding.helper.ResultAssembler;
+import com.diboot.core.binding.helper.ResultColumn;
 import com.diboot.core.exception.InvalidUsageException;
 import com.diboot.core.util.*;
 import org.slf4j.Logger;
@@ -61,6 +63,9 @@ public class FieldBinder<T> extends BaseBinder<T> {
      */
     public FieldBinder(BindField annotation, List voList){
         super(annotation.entity(), voList);
+        if(annotation.cache()){
+            enableCache();
+        }
     }
 
     /***
@@ -92,6 +97,12 @@ public class FieldBinder<T> extends BaseBinder<T> {
         return this;
     }
 
+    @Override
+    public Class<?> getRemoteResultClass(){
+        // 字段绑定以Map返回
+        return null;
+    }
+
     @Override
     public void bind() {
         if(V.isEmpty(annoObjectList)){
@@ -103,40 +114,45 @@ public class FieldBinder<T> extends BaseBinder<T> {
         if(referencedGetterFieldNameList == null){
             throw new InvalidUsageException("调用错误：字段绑定必须指定字段field");
         }
-        // 构建跨模块绑定DTO
-        RemoteBindDTO remoteBindDTO = V.isEmpty(this.module)? null : new RemoteBindDTO(referencedEntityClass);
         // 直接关联
         if(middleTable == null){
             List<Map<String, Object>> mapList = null;
-            this.simplifySelectColumns(remoteBindDTO);
-            super.buildQueryWrapperJoinOn(remoteBindDTO);
             if(V.isEmpty(this.module)){
+                this.simplifySelectColumns(null);
                 // 本地查询获取匹配结果的mapList
-                mapList = getMapList(queryWrapper);
+                mapList = executeJoinOnQuery(this::getMapList);
             }
             else{
                 // 远程调用获取
-                mapList = RemoteBindingManager.fetchMapList(module, remoteBindDTO);
+                RemoteBindDTO remoteBindDTO = super.getRemoteBindDTO();
+                mapList = recordQuery(() -> RemoteBindingManager.fetchMapList(module, remoteBindDTO));
             }
             if(V.isEmpty(mapList)){
                 return;
             }
             // 将结果list转换成map
-            Map<String, Map<String, Object>> key2DataMap = this.buildMatchKey2ResultMap(mapList);
+            Map<Object, Map<String, Object>> key2DataMap = this.buildMatchKey2ResultMap(mapList);
+            ResultColumn[] valueColumns = buildValueColumns();
+            String[] annoObjFields = toAnnoObjFields(annoObjJoinCols);
+            MatchKey probe = MatchKey.probe(annoObjFields.length);
             // 遍历list并赋值
             for(Object annoObject : annoObjectList){
-                String matchKey = buildMatchKey(annoObject);
-                setFieldValueToTrunkObj(key2DataMap, annoObject, matchKey);
+                for(int i=0; i<annoObjFields.length; i++){
+                    probe.set(i, BeanUtils.getProperty(annoObject, annoObjFields[i]));
+                }
+                setFieldValueToTrunkObj(key2DataMap, valueColumns, annoObject, probe.lookupKey());
             }
         }
         else{
             if(refObjJoinCols.size() > 1){
                 throw new InvalidUsageException(NOT_SUPPORT_MSG);
             }
+            // 构建跨模块绑定DTO
+            RemoteBindDTO remoteBindDTO = V.isEmpty(this.module)? null : new RemoteBindDTO(referencedEntityClass);
             // 提取注解条件中指定的对应的列表
             Map<String, List> trunkObjCol2ValuesMap = super.buildTrunkObjCol2ValuesMap();
             // 中间表查询结果map
-            Map<String, Object> middleTableResultMap = middleTable.executeOneToOneQuery(trunkObjCol2ValuesMap);
+            Map<Object, Object> middleTableResultMap = recordQuery(() -> middleTable.executeOneToOneQuery(trunkObjCol2ValuesMap));
             if(V.isEmpty(middleTableResultMap)){
                 return;
             }
@@ -149,23 +165,29 @@ public class FieldBinder<T> extends BaseBinder<T> {
             List<Map<String, Object>> mapList = null;
             if(V.isEmpty(this.module)){
                 // 本地查询获取匹配结果的mapList
-                queryWrapper.in(refObjJoinOnCol, refObjValues);
-                mapList = getMapList(queryWrapper);
+                mapList = executeInQuery(refObjJoinOnCol, refObjValues, this::getMapList);
             }
             else{
                 // 远程调用获取
                 remoteBindDTO.setRefJoinCol(refObjJoinOnCol).setInConditionValues(refObjValues);
-                mapList = RemoteBindingManager.fetchMapList(module, remoteBindDTO);
+                mapList = recordQuery(() -> RemoteBindingManager.fetchMapList(module, remoteBindDTO));
             }
             if(V.isEmpty(mapList)){
                 return;
             }
             // 将结果list转换成map
-            Map<String, Map<String, Object>> key2DataMap = this.buildMatchKey2ResultMap(mapList);
+            Map<Object, Map<String, Object>> key2DataMap = this.buildMatchKey2ResultMap(mapList);
+            ResultColumn[] valueColumns = buildValueColumns();
+            String[] annoObjFields = toAnnoObjFields(middleTable.getTrunkObjColMapping().keySet());
+            MatchKey probe = MatchKey.probe(annoObjFields.length);
             // 遍历list并赋值
             for(Object annoObject : annoObjectList){
-                String matchKey = buildMatchKey(annoObject, middleTableResultMap);
-                setFieldValueToTrunkObj(key2DataMap, annoObject, matchKey);
+                for(int i=0; i<annoObjFields.length; i++){
+                    probe.set(i, BeanUtils.getProperty(annoObject, annoObjFields[i]));
+                }
+                // 通过中间结果Map转换得到关联对象的匹配key
+                Object matchKey = MatchKey.normalize(middleTableResultMap.get(probe.lookupKey()));
+                setFieldValueToTrunkObj(key2DataMap, valueColumns, annoObject, matchKey);
             }
         }
 
@@ -174,14 +196,15 @@ public class FieldBinder<T> extends BaseBinder<T> {
     /**
      * 设置字段值
      * @param key2DataMap
+     * @param valueColumns
      * @param annoObject
      * @param matchKey
      */
-    private void setFieldValueToTrunkObj(Map<String, Map<String, Object>> key2DataMap, Object annoObject, String matchKey) {
+    private void setFieldValueToTrunkObj(Map<Object, Map<String, Object>> key2DataMap, ResultColumn[] valueColumns, Object annoObject, Object matchKey) {
         Map<String, Object> relationMap = key2DataMap.get(matchKey);
         if (relationMap != null) {
             for (int i = 0; i < annoObjectSetterPropNameList.size(); i++) {
-                Object valObj = getValueIgnoreKeyCase(relationMap, toRefObjColumn(referencedGetterFieldNameList.get(i)));
+                Object valObj = valueColumns[i].getValue(relationMap);
                 BeanUtils.setProperty(annoObject, annoObjectSetterPropNameList.get(i), valObj);
             }
         }
@@ -192,68 +215,34 @@ public class FieldBinder<T> extends BaseBinder<T> {
      * @param mapList
      * @return
      */
-    protected Map<String, Map<String, Object>> buildMatchKey2ResultMap(List<Map<String, Object>> mapList){
-        Map<String, Map<String, Object>> key2TargetMap = new HashMap<>(mapList.size());
-        for(Map<String, Object> map : mapList){
-            List<String> joinOnValues = new ArrayList<>(refObjJoinCols.size());
-            for(String refObjJoinOnCol : refObjJoinCols){
-                Object valObj = getValueIgnoreKeyCase(map, refObjJoinOnCol);
-                joinOnValues.add(S.valueOf(valObj));
-            }
-            String matchKey = S.join(joinOnValues);
-            if(matchKey != null){
-                key2TargetMap.put(matchKey, map);
-            }
-        }
-        return key2TargetMap;
+    protected Map<Object, Map<String, Object>> buildMatchKey2ResultMap(List<Map<String, Object>> mapList){
+        return ResultAssembler.buildMatchKey2ResultMap(mapList, refObjJoinCols);
     }
 
     /**
-     * 构建匹配Key
-     * @param annoObject
+     * 预解析取值列（避免逐行转换列名）
      * @return
      */
-    private String buildMatchKey(Object annoObject){
-        StringBuilder sb = new StringBuilder();
-        for(int i=0; i<annoObjJoinCols.size(); i++){
-            String col = annoObjJoinCols.get(i);
-            // 将数子类型转换成字符串，以便解决类型不一致的问题
-            String val = BeanUtils.getStringProperty(annoObject, toAnnoObjField(col));
-            if(i > 0){
-                sb.append(Cons.SEPARATOR_COMMA);
-            }
-            sb.append(val);
+    private ResultColumn[] buildValueColumns(){
+        ResultColumn[] valueColumns = new ResultColumn[referencedGetterFieldNameList.size()];
+        for(int i=0; i<valueColumns.length; i++){
+            valueColumns[i] = new ResultColumn(toRefObjColumn(referencedGetterFieldNameList.get(i)));
         }
-        return sb.toString();
+        return valueColumns;
     }
 
     /**
-     * 构建匹配Key
-     * @param annoObject
-     * @param middleTableResultMap
+     * 转换注解对象的列为字段名
+     * @param annoObjCols
      * @return
      */
-    private String buildMatchKey(Object annoObject, Map<String, Object> middleTableResultMap){
-        StringBuilder sb = new StringBuilder();
-        boolean appendComma = false;
-        for(Map.Entry<String, String> entry : middleTable.getTrunkObjColMapping().entrySet()){
-            String getterField = toAnnoObjField(entry.getKey());
-            String fieldValue = BeanUtils.getStringProperty(annoObject, getterField);
-            // 通过中间结果Map转换得到OrgId
-            if(V.notEmpty(middleTableResultMap)){
-                Object value = middleTableResultMap.get(fieldValue);
-                fieldValue = String.valueOf(value);
-            }
-            if(appendComma){
-                sb.append(Cons.SEPARATOR_COMMA);
-            }
-            sb.append(fieldValue);
-            if(appendComma == false){
-                appendComma = true;
-            }
+    private String[] toAnnoObjFields(Collection<String> annoObjCols){
+        String[] annoObjFields = new String[annoObjCols.size()];
+        int i = 0;
+        for(String col : annoObjCols){
+            annoObjFields[i++] = toAnnoObjField(col);
         }
-        // 查找匹配Key
-        return sb.toString();
+        return annoObjFields;
     }
 
     @Override
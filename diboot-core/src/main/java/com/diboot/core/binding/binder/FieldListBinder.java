@@ -18,8 +18,8 @@ package com.diboot.core.binding.binder;
 import com.diboot.core.binding.annotation.BindFieldList;
 import com.diboot.core.binding.binder.remote.RemoteBindDTO;
 import com.diboot.core.binding.binder.remote.RemoteBindingManager;
+import com.diboot.core.binding.helper.MatchKey;
 import com.diboot.core.binding.helper.ResultAssembler;
-import com.diboot.core.config.Cons;
 import com.diboot.core.exception.InvalidUsageException;
 import com.diboot.core.util.BeanUtils;
 import com.diboot.core.util.V;
@@ -47,6 +47,9 @@ public class FieldListBinder<T> extends FieldBinder<T> {
      */
     public FieldListBinder(BindFieldList annotation, List voList) {
         super(annotation.entity(), voList);
+        if(annotation.cache()){
+            enableCache();
+        }
         if(V.notEmpty(annotation.splitBy())){
             this.splitBy = annotation.splitBy();
         }
@@ -55,6 +58,19 @@ public class FieldListBinder<T> extends FieldBinder<T> {
         }
     }
 
+    @Override
+    protected void buildRemoteBindDTO(RemoteBindDTO remoteBindDTO){
+        super.simplifySelectColumns(remoteBindDTO);
+        //处理orderBy，附加排序
+        this.appendOrderBy(remoteBindDTO);
+        super.buildQueryWrapperJoinOn(remoteBindDTO);
+    }
+
+    @Override
+    public Class<?> getRemoteResultClass(){
+        return referencedEntityClass;
+    }
+
     @Override
     public void bind() {
         if(V.isEmpty(annoObjectList)){
@@ -66,24 +82,22 @@ public class FieldListBinder<T> extends FieldBinder<T> {
         if(referencedGetterFieldNameList == null){
             throw new InvalidUsageException("调用错误：字段绑定必须指定字段field.");
         }
-        Map<String, List> valueEntityListMap = new HashMap<>();
-        // 构建跨模块绑定DTO
-        RemoteBindDTO remoteBindDTO = V.isEmpty(this.module)? null : new RemoteBindDTO(referencedEntityClass);
+        Map<Object, List> valueEntityListMap = new HashMap<>();
         // 直接关联
         if(middleTable == null){
-            super.simplifySelectColumns(remoteBindDTO);
-            super.buildQueryWrapperJoinOn(remoteBindDTO);
-            //处理orderBy，附加排序
-            this.appendOrderBy(remoteBindDTO);
             List<T> entityList = null;
             // 查询entity列表: List<Role>
             if(V.isEmpty(this.module)){
+                super.simplifySelectColumns(null);
+                //处理orderBy，附加排序
+                this.appendOrderBy(null);
                 // 本地查询获取匹配结果的entityList
-                entityList = getEntityList(queryWrapper);
+                entityList = executeJoinOnQuery(this::getEntityList);
             }
             else{
                 // 远程调用获取
-                entityList = RemoteBindingManager.fetchEntityList(module, remoteBindDTO, referencedEntityClass);
+                RemoteBindDTO remoteBindDTO = super.getRemoteBindDTO();
+                entityList = recordQuery(() -> RemoteBindingManager.fetchEntityList(module, remoteBindDTO, referencedEntityClass));
             }
             if(V.notEmpty(entityList)){
                 valueEntityListMap = this.buildMatchKey2FieldListMap(entityList);
@@ -97,10 +111,12 @@ public class FieldListBinder<T> extends FieldBinder<T> {
             if(refObjJoinCols.size() > 1){
                 throw new InvalidUsageException(NOT_SUPPORT_MSG);
             }
+            // 构建跨模块绑定DTO
+            RemoteBindDTO remoteBindDTO = V.isEmpty(this.module)? null : new RemoteBindDTO(referencedEntityClass);
             // 提取注解条件中指定的对应的列表
             Map<String, List> trunkObjCol2ValuesMap = super.buildTrunkObjCol2ValuesMap();
             // 处理中间表, 将结果转换成map
-            Map<String, List> middleTableResultMap = middleTable.executeOneToManyQuery(trunkObjCol2ValuesMap);
+            Map<Object, List> middleTableResultMap = recordQuery(() -> middleTable.executeOneToManyQuery(trunkObjCol2ValuesMap));
             if(V.isEmpty(middleTableResultMap)){
                 return;
             }
@@ -118,21 +134,23 @@ public class FieldListBinder<T> extends FieldBinder<T> {
             // 查询entity列表: List<Role>
             if(V.isEmpty(this.module)){
                 // 本地查询获取匹配结果的entityList
-                queryWrapper.in(refObjJoinOnCol, entityIdList);
-                entityList = getEntityList(queryWrapper);
+                entityList = executeInQuery(refObjJoinOnCol, entityIdList, this::getEntityList);
             }
             else{
                 // 远程调用获取
                 remoteBindDTO.setRefJoinCol(refObjJoinOnCol).setInConditionValues(entityIdList);
-                entityList = RemoteBindingManager.fetchEntityList(module, remoteBindDTO, referencedEntityClass);
+                entityList = recordQuery(() -> RemoteBindingManager.fetchEntityList(module, remoteBindDTO, referencedEntityClass));
             }
             if(V.isEmpty(entityList)){
                 return;
             }
             String refObjJoinOnField = toRefObjField(refObjJoinOnCol);
             // 转换entity列表为Map<ID, Entity>
-            Map<String, T> entityMap = BeanUtils.convertToStringKeyObjectMap(entityList, refObjJoinOnField);
-            for(Map.Entry<String, List> entry : middleTableResultMap.entrySet()){
+            Map<Object, T> entityMap = new HashMap<>(entityList.size());
+            for(T entity : entityList){
+                entityMap.put(MatchKey.normalize(BeanUtils.getProperty(entity, refObjJoinOnField)), entity);
+            }
+            for(Map.Entry<Object, List> entry : middleTableResultMap.entrySet()){
                 // List<roleId>
                 List annoObjFKList = entry.getValue();
                 if(V.isEmpty(annoObjFKList)){
@@ -140,14 +158,14 @@ public class FieldListBinder<T> extends FieldBinder<T> {
                 }
                 List valueList = new ArrayList();
                 for(Object obj : annoObjFKList){
-                    String valStr = String.valueOf(obj);
-                    T ent = entityMap.get(valStr);
+                    Object fkValue = MatchKey.normalize(obj);
+                    T ent = entityMap.get(fkValue);
                     if(ent != null){
                         valueList.add(ent);
                     }
-                    else if(V.notEmpty(splitBy) && valStr.contains(splitBy)){
-                        for(String key : valStr.split(splitBy)){
-                            ent = entityMap.get(key);
+                    else if(V.notEmpty(splitBy) && fkValue instanceof String && ((String)fkValue).contains(splitBy)){
+                        for(String key : ((String)fkValue).split(splitBy)){
+                            ent = entityMap.get(MatchKey.normalize(key));
                             if(ent != null){
                                 valueList.add(ent);
                             }
@@ -168,28 +186,23 @@ public class FieldListBinder<T> extends FieldBinder<T> {
      * @param valueMatchMap
      * @param <E>
      */
-    private <E> void bindPropValue(List<E> fromList, Map<String, String> trunkObjColMapping, Map<String, List> valueMatchMap){
+    private <E> void bindPropValue(List<E> fromList, Map<String, String> trunkObjColMapping, Map<Object, List> valueMatchMap){
         if(V.isEmpty(fromList) || V.isEmpty(valueMatchMap)){
             return;
         }
-        StringBuilder sb = new StringBuilder();
+        String[] getterFields = new String[trunkObjColMapping.size()];
+        int index = 0;
+        for(String column : trunkObjColMapping.keySet()){
+            getterFields[index++] = toAnnoObjField(column);
+        }
+        MatchKey probe = MatchKey.probe(getterFields.length);
         try{
             for(E object : fromList){
-                boolean appendComma = false;
-                sb.setLength(0);
-                for(Map.Entry<String, String> entry :trunkObjColMapping.entrySet()){
-                    String getterField = toAnnoObjField(entry.getKey());
-                    String fieldValue = BeanUtils.getStringProperty(object, getterField);
-                    if(appendComma){
-                        sb.append(Cons.SEPARATOR_COMMA);
-                    }
-                    sb.append(fieldValue);
-                    if(appendComma == false){
-                        appendComma = true;
-                    }
+                for(int i=0; i<getterFields.length; i++){
+                    probe.set(i, BeanUtils.getProperty(object, getterFields[i]));
                 }
                 // 查找匹配Key
-                List entityList = valueMatchMap.get(sb.toString());
+                List entityList = valueMatchMap.get(probe.lookupKey());
                 if(entityList != null){
                     // 赋值
                     for(int i = 0; i< annoObjectSetterPropNameList.size(); i++){
@@ -209,29 +222,25 @@ public class FieldListBinder<T> extends FieldBinder<T> {
      * @param list
      * @return
      */
-    private Map<String, List> buildMatchKey2FieldListMap(List<T> list){
-        Map<String, List> key2TargetListMap = new HashMap<>(list.size());
-        StringBuilder sb = new StringBuilder();
+    private Map<Object, List> buildMatchKey2FieldListMap(List<T> list){
+        Map<Object, List> key2TargetListMap = new HashMap<>(list.size());
+        String[] refObjJoinFields = new String[refObjJoinCols.size()];
+        for(int i=0; i<refObjJoinFields.length; i++){
+            refObjJoinFields[i] = toRefObjField(refObjJoinCols.get(i));
+        }
+        MatchKey probe = MatchKey.probe(refObjJoinFields.length);
         for(T entity : list){
-            sb.setLength(0);
-            for(int i=0; i<refObjJoinCols.size(); i++){
-                String refObjJoinOnCol = refObjJoinCols.get(i);
-                String fldValue = BeanUtils.getStringProperty(entity, toRefObjField(refObjJoinOnCol));
-                if(i > 0){
-                    sb.append(Cons.SEPARATOR_COMMA);
-                }
-                sb.append(fldValue);
+            for(int i=0; i<refObjJoinFields.length; i++){
+                probe.set(i, BeanUtils.getProperty(entity, refObjJoinFields[i]));
             }
-            String matchKey = sb.toString();
             // 获取list
-            List entityList = key2TargetListMap.get(matchKey);
+            List entityList = key2TargetListMap.get(probe.lookupKey());
             if(entityList == null){
                 entityList = new ArrayList<>();
-                key2TargetListMap.put(matchKey, entityList);
+                key2TargetListMap.put(probe.copy(), entityList);
             }
             entityList.add(entity);
         }
-        sb.setLength(0);
         return key2TargetListMap;
     }
 
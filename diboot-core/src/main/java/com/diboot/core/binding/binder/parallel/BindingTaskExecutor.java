@@ -0,0 +1,320 @@
+package com.diboot.core.binding.binder.parallel;
+
+import com.diboot.core.binding.BindingBatchScope;
+import com.diboot.core.binding.binder.remote.RemoteBindingBatch;
+import com.diboot.core.exception.InvalidUsageException;
+import com.diboot.core.util.V;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 关联绑定专用线程池（与应用的applicationTaskExecutor隔离，避免日志/消息等异步任务与绑定相互抢占）
+ * <p>
+ * 支持配置线程数、队列容量、拒绝策略，JDK21+可启用虚拟线程；提交任务时传递当前请求上下文、批量绑定作用域及跨模块批量绑定结果，并统计队列深度、活跃数、任务等待耗时及各Binder耗时
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/12
+ * Copyright © diboot.com
+ */
+@Slf4j
+public class BindingTaskExecutor implements AsyncTaskExecutor, DisposableBean {
+
+    /**
+     * 绑定线程池bean名称
+     */
+    public static final String BEAN_NAME = "bindingTaskExecutor";
+    /**
+     * 拒绝策略：由调用线程执行
+     */
+    public static final String POLICY_CALLER_RUNS = "caller-runs";
+    /**
+     * 拒绝策略：抛出异常
+     */
+    public static final String POLICY_ABORT = "abort";
+
+    /**
+     * 当前任务在线程池中的等待耗时（纳秒）
+     */
+    private static final ThreadLocal<Long> CURRENT_WAIT_NANOS = new ThreadLocal<>();
+
+    private final ExecutorService executor;
+    /**
+     * 虚拟线程模式下的并发数限制
+     */
+    private final Semaphore concurrencyLimit;
+    private final boolean virtualThreads;
+
+    private final AtomicInteger activeCount = new AtomicInteger();
+    private final AtomicInteger waitingCount = new AtomicInteger();
+    private final LongAdder completedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    /**
+     * Binder类型-耗时统计
+     */
+    private final Map<String, LatencyStats> binderLatencyMap = new ConcurrentHashMap<>();
+
+    /**
+     * 构造方法
+     * @param poolSize 线程数（虚拟线程模式下为最大并发数）
+     * @param queueCapacity 队列容量
+     * @param rejectedPolicy 拒绝策略: caller-runs/abort
+     * @param virtualThreads 是否使用虚拟线程（需JDK21+，低版本自动回退为线程池）
+     */
+    public BindingTaskExecutor(int poolSize, int queueCapacity, String rejectedPolicy, boolean virtualThreads){
+        poolSize = Math.max(poolSize, 1);
+        ThreadFactory virtualThreadFactory = virtualThreads? createVirtualThreadFactory() : null;
+        this.virtualThreads = virtualThreadFactory != null;
+        if(this.virtualThreads){
+            this.executor = Executors.newCachedThreadPool(virtualThreadFactory);
+            this.concurrencyLimit = new Semaphore(poolSize);
+        }
+        else{
+            AtomicInteger threadIndex = new AtomicInteger();
+            ThreadPoolExecutor threadPool = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(Math.max(queueCapacity, 1)), runnable -> {
+                        Thread thread = new Thread(runnable, "diboot-binding-" + threadIndex.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }, buildRejectedHandler(rejectedPolicy));
+            threadPool.allowCoreThreadTimeOut(true);
+            this.executor = threadPool;
+            this.concurrencyLimit = null;
+        }
+        log.info("初始化关联绑定线程池: poolSize={}, queueCapacity={}, rejectedPolicy={}, virtualThreads={}",
+                poolSize, queueCapacity, rejectedPolicy, this.virtualThreads);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        executor.execute(decorate(task));
+    }
+
+    @Override
+    public void execute(Runnable task, long startTimeout) {
+        execute(task);
+    }
+
+    @Override
+    public Future<?> submit(Runnable task) {
+        return executor.submit(decorate(task));
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> task) {
+        FutureTask<T> futureTask = new FutureTask<>(task);
+        execute(futureTask);
+        return futureTask;
+    }
+
+    /**
+     * 包装任务：传递请求上下文及批量绑定作用域、限制并发并统计
+     * @param task
+     * @return
+     */
+    private Runnable decorate(Runnable task){
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        BindingBatchScope batchScope = BindingBatchScope.current();
+        RemoteBindingBatch remoteBindingBatch = RemoteBindingBatch.current();
+        waitingCount.incrementAndGet();
+        long submitTime = System.nanoTime();
+        return () -> {
+            boolean acquired = false;
+            if(concurrencyLimit != null){
+                try{
+                    concurrencyLimit.acquire();
+                    acquired = true;
+                }
+                catch (InterruptedException e){
+                    // 被中断时仍执行任务，避免调用方一直等待
+                    Thread.currentThread().interrupt();
+                }
+            }
+            waitingCount.decrementAndGet();
+            activeCount.incrementAndGet();
+            Long previousWaitNanos = CURRENT_WAIT_NANOS.get();
+            CURRENT_WAIT_NANOS.set(System.nanoTime() - submitTime);
+            RequestAttributes previousAttributes = RequestContextHolder.getRequestAttributes();
+            RequestContextHolder.setRequestAttributes(requestAttributes);
+            BindingBatchScope previousBatchScope = BindingBatchScope.attach(batchScope);
+            RemoteBindingBatch previousRemoteBindingBatch = RemoteBindingBatch.attach(remoteBindingBatch);
+            try{
+                task.run();
+            }
+            finally {
+                RemoteBindingBatch.attach(previousRemoteBindingBatch);
+                BindingBatchScope.attach(previousBatchScope);
+                RequestContextHolder.setRequestAttributes(previousAttributes);
+                if(previousWaitNanos == null){
+                    CURRENT_WAIT_NANOS.remove();
+                }
+                else{
+                    CURRENT_WAIT_NANOS.set(previousWaitNanos);
+                }
+                activeCount.decrementAndGet();
+                completedCount.increment();
+                if(acquired){
+                    concurrencyLimit.release();
+                }
+            }
+        };
+    }
+
+    /**
+     * 当前线程执行的绑定任务在线程池中的等待耗时（纳秒，含虚拟线程模式下等待并发许可的时间），非绑定任务返回0
+     * @return
+     */
+    public static long getCurrentWaitNanos(){
+        Long waitNanos = CURRENT_WAIT_NANOS.get();
+        return waitNanos != null? waitNanos : 0L;
+    }
+
+    /**
+     * 记录Binder的绑定耗时
+     * @param binderType Binder类型
+     * @param elapsedNanos 耗时（纳秒）
+     */
+    public void recordLatency(String binderType, long elapsedNanos){
+        binderLatencyMap.computeIfAbsent(binderType, k -> new LatencyStats()).record(elapsedNanos);
+    }
+
+    /**
+     * 队列中等待执行的任务数
+     * @return
+     */
+    public int getQueueDepth(){
+        return waitingCount.get();
+    }
+
+    /**
+     * 正在执行的任务数
+     * @return
+     */
+    public int getActiveCount(){
+        return activeCount.get();
+    }
+
+    /**
+     * 已执行完成的任务数（任务收尾时累加，可能晚于任务内部完成的Future）
+     * @return
+     */
+    public long getCompletedCount(){
+        return completedCount.sum();
+    }
+
+    public long getRejectedCount(){
+        return rejectedCount.sum();
+    }
+
+    public boolean isVirtualThreads(){
+        return virtualThreads;
+    }
+
+    /**
+     * 获取各Binder类型的耗时统计
+     * @return
+     */
+    public Map<String, LatencyStats> getBinderLatencyStats(){
+        return Collections.unmodifiableMap(new LinkedHashMap<>(binderLatencyMap));
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    /**
+     * 构建拒绝策略（不支持丢弃策略，丢弃的绑定任务将导致调用方一直等待）
+     * @param rejectedPolicy
+     * @return
+     */
+    private RejectedExecutionHandler buildRejectedHandler(String rejectedPolicy){
+        RejectedExecutionHandler handler;
+        if(V.isEmpty(rejectedPolicy) || POLICY_CALLER_RUNS.equalsIgnoreCase(rejectedPolicy)){
+            handler = new ThreadPoolExecutor.CallerRunsPolicy();
+        }
+        else if(POLICY_ABORT.equalsIgnoreCase(rejectedPolicy)){
+            handler = new ThreadPoolExecutor.AbortPolicy();
+        }
+        else{
+            throw new InvalidUsageException("不支持的绑定线程池拒绝策略: " + rejectedPolicy + "，可选值: caller-runs, abort");
+        }
+        return (runnable, threadPool) -> {
+            rejectedCount.increment();
+            try{
+                handler.rejectedExecution(runnable, threadPool);
+            }
+            catch (RejectedExecutionException e){
+                waitingCount.decrementAndGet();
+                throw e;
+            }
+        };
+    }
+
+    /**
+     * 通过反射创建虚拟线程工厂（JDK21+），不支持时返回null
+     * @return
+     */
+    private static ThreadFactory createVirtualThreadFactory(){
+        try{
+            Method ofVirtual = Thread.class.getMethod("ofVirtual");
+            Object builder = ofVirtual.invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, "diboot-binding-v-", 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        }
+        catch (Exception e){
+            log.warn("当前JDK不支持虚拟线程，关联绑定将使用平台线程池");
+            return null;
+        }
+    }
+
+    /**
+     * 耗时统计
+     */
+    public static class LatencyStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0L);
+
+        void record(long elapsedNanos){
+            count.increment();
+            totalNanos.add(elapsedNanos);
+            maxNanos.accumulate(elapsedNanos);
+        }
+
+        public long getCount(){
+            return count.sum();
+        }
+
+        public long getTotalMillis(){
+            return TimeUnit.NANOSECONDS.toMillis(totalNanos.sum());
+        }
+
+        public double getAvgMillis(){
+            long cnt = count.sum();
+            return cnt == 0? 0 : totalNanos.sum() / 1000000.0 / cnt;
+        }
+
+        public long getMaxMillis(){
+            return TimeUnit.NANOSECONDS.toMillis(maxNanos.get());
+        }
+
+        @Override
+        public String toString(){
+            return "count=" + getCount() + ", avg=" + String.format("%.2f", getAvgMillis()) + "ms, max=" + getMaxMillis() + "ms";
+        }
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.diboot.core.binding.binder.parallel;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionBuilder;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * 关联绑定线程池的兜底注册
+ * <p>
+ * 未引入diboot-core-starter（或未自定义bindingTaskExecutor）时注册默认的绑定线程池，保证@Async(bindingTaskExecutor)可用。
+ * 执行时所有配置类（含自动配置）均已解析，已存在同名bean时不做处理
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/12
+ * Copyright © diboot.com
+ */
+@Slf4j
+@Component
+public class BindingTaskExecutorRegistrar implements BeanDefinitionRegistryPostProcessor, EnvironmentAware {
+
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) throws BeansException {
+        if(registry.containsBeanDefinition(BindingTaskExecutor.BEAN_NAME)){
+            return;
+        }
+        registry.registerBeanDefinition(BindingTaskExecutor.BEAN_NAME, BeanDefinitionBuilder
+                .genericBeanDefinition(BindingTaskExecutor.class)
+                .addConstructorArgValue(environment.getProperty("diboot.core.binding-pool-size", Integer.class, 8))
+                .addConstructorArgValue(environment.getProperty("diboot.core.binding-queue-capacity", Integer.class, 1024))
+                .addConstructorArgValue(environment.getProperty("diboot.core.binding-rejected-policy", BindingTaskExecutor.POLICY_CALLER_RUNS))
+                .addConstructorArgValue(environment.getProperty("diboot.core.binding-virtual-threads", Boolean.class, false))
+                .getBeanDefinition());
+        log.debug("未定义{}，注册默认的关联绑定线程池", BindingTaskExecutor.BEAN_NAME);
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+    }
+
+}
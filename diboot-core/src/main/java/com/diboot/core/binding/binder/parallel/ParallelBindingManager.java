@@ -17,6 +17,10 @@ package com.diboot.core.binding.binder.parallel;
 
 import com.diboot.core.binding.annotation.*;
 import com.diboot.core.binding.binder.*;
+import com.diboot.core.binding.binder.remote.RemoteBindingBatch;
+import com.diboot.core.binding.metrics.BindingMetrics;
+import com.diboot.core.binding.metrics.BindingMetricsListener;
+import com.diboot.core.binding.metrics.BindingMetricsRecorder;
 import com.diboot.core.binding.parser.ConditionManager;
 import com.diboot.core.binding.parser.FieldAnnotation;
 import com.diboot.core.exception.InvalidUsageException;
@@ -24,12 +28,18 @@ import com.diboot.core.service.DictionaryServiceExtProvider;
 import com.diboot.core.util.S;
 import com.diboot.core.util.V;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 /**
  * 并行绑定Manager
@@ -40,19 +50,44 @@ import java.util.concurrent.CompletableFuture;
  */
 @Slf4j
 @Component
-public class ParallelBindingManager {
+public class ParallelBindingManager implements DisposableBean {
 
     @Autowired(required = false)
     private DictionaryServiceExtProvider dictionaryServiceExtProvider;
 
+    @Autowired(required = false)
+    @Qualifier(BindingTaskExecutor.BEAN_NAME)
+    private BindingTaskExecutor bindingTaskExecutor;
+
+    /**
+     * 已注册的Spring容器中的关联绑定指标监听器
+     */
+    private List<BindingMetricsListener> metricsListeners = Collections.emptyList();
+
+    /**
+     * 注册Spring容器中的关联绑定指标监听器（容器关闭时注销）
+     * @param metricsListeners
+     */
+    @Autowired(required = false)
+    public void setMetricsListeners(List<BindingMetricsListener> metricsListeners){
+        this.metricsListeners = new ArrayList<>(metricsListeners);
+        this.metricsListeners.forEach(BindingMetrics::addListener);
+    }
+
+    @Override
+    public void destroy() {
+        metricsListeners.forEach(BindingMetrics::removeListener);
+    }
+
     /**
      * 绑定字典
      * @param voList
      * @param fieldAnno
      * @return
      */
-    @Async("applicationTaskExecutor")
+    @Async(BindingTaskExecutor.BEAN_NAME)
     public CompletableFuture<Boolean> doBindingDict(List voList, FieldAnnotation fieldAnno){
+        long startTime = System.nanoTime();
         if(dictionaryServiceExtProvider != null){
             BindDict annotation = (BindDict) fieldAnno.getAnnotation();
             String dictValueField = annotation.field();
@@ -66,6 +101,11 @@ public class ParallelBindingManager {
         else{
             throw new InvalidUsageException("BindDictService未实现，无法使用BindDict注解！");
         }
+        recordLatency("DictBinder", startTime);
+        if(BindingMetrics.isEnabled()){
+            // 字典绑定由扩展实现执行，仅记录耗时
+            publishMetrics(new BindingMetricsRecorder(), voList, Collections.singletonList(fieldAnno), "DictBinder", startTime);
+        }
         return CompletableFuture.completedFuture(true);
     }
 
@@ -74,16 +114,10 @@ public class ParallelBindingManager {
      * @param voList
      * @param fieldAnnotations
      */
-    @Async("applicationTaskExecutor")
+    @Async(BindingTaskExecutor.BEAN_NAME)
     public CompletableFuture<Boolean> doBindingField(List voList, List<FieldAnnotation> fieldAnnotations){
-        BindField bindAnnotation = (BindField) fieldAnnotations.get(0).getAnnotation();
-        FieldBinder binder = new FieldBinder(bindAnnotation, voList);
-        for(FieldAnnotation anno : fieldAnnotations){
-            BindField bindField = (BindField) anno.getAnnotation();
-            binder.link(bindField.field(), anno.getFieldName());
-        }
         // 解析条件并且执行绑定
-        return doBinding(binder, bindAnnotation.condition());
+        return doBinding(voList, obtainBinder(voList, fieldAnnotations), fieldAnnotations);
     }
 
     /***
@@ -91,16 +125,10 @@ public class ParallelBindingManager {
      * @param voList
      * @param fieldAnnotations
      */
-    @Async("applicationTaskExecutor")
+    @Async(BindingTaskExecutor.BEAN_NAME)
     public CompletableFuture<Boolean> doBindingFieldList(List voList, List<FieldAnnotation> fieldAnnotations){
-        BindFieldList bindAnnotation = (BindFieldList) fieldAnnotations.get(0).getAnnotation();
-        FieldListBinder binder = new FieldListBinder(bindAnnotation, voList);
-        for(FieldAnnotation anno : fieldAnnotations){
-            BindFieldList bindField = (BindFieldList) anno.getAnnotation();
-            binder.link(bindField.field(), anno.getFieldName());
-        }
         // 解析条件并且执行绑定
-        return doBinding(binder, bindAnnotation.condition());
+        return doBinding(voList, obtainBinder(voList, fieldAnnotations), fieldAnnotations);
     }
 
     /***
@@ -108,15 +136,11 @@ public class ParallelBindingManager {
      * @param voList
      * @param fieldAnnotation
      */
-    @Async("applicationTaskExecutor")
+    @Async(BindingTaskExecutor.BEAN_NAME)
     public CompletableFuture<Boolean> doBindingEntity(List voList, FieldAnnotation fieldAnnotation) {
-        BindEntity annotation = (BindEntity) fieldAnnotation.getAnnotation();
-        // 绑定关联对象entity
-        EntityBinder binder = new EntityBinder(annotation, voList);
-        // 构建binder
-        binder.set(fieldAnnotation.getFieldName(), fieldAnnotation.getFieldClass());
-        // 解析条件并且执行绑定
-        return doBinding(binder, annotation.condition());
+        List<FieldAnnotation> fieldAnnotations = Collections.singletonList(fieldAnnotation);
+        // 绑定关联对象entity，解析条件并且执行绑定
+        return doBinding(voList, obtainBinder(voList, fieldAnnotations), fieldAnnotations);
     }
 
     /***
@@ -124,25 +148,222 @@ public class ParallelBindingManager {
      * @param voList
      * @param fieldAnnotation
      */
-    @Async("applicationTaskExecutor")
+    @Async(BindingTaskExecutor.BEAN_NAME)
     public CompletableFuture<Boolean> doBindingEntityList(List voList, FieldAnnotation fieldAnnotation) {
-        BindEntityList annotation = (BindEntityList) fieldAnnotation.getAnnotation();
-        // 构建binder
-        EntityListBinder binder = new EntityListBinder(annotation, voList);
-        binder.set(fieldAnnotation.getFieldName(), fieldAnnotation.getFieldClass());
+        List<FieldAnnotation> fieldAnnotations = Collections.singletonList(fieldAnnotation);
         // 解析条件并且执行绑定
-        return doBinding(binder, annotation.condition());
+        return doBinding(voList, obtainBinder(voList, fieldAnnotations), fieldAnnotations);
+    }
+
+    /***
+     * 合并查询绑定：关联相同Entity且条件相同的多组注解，解析条件后合并为一次查询，再由各Binder分别组装结果
+     * @param voList
+     * @param annotationGroups 注解分组，BindField/BindFieldList为同组的多个注解，BindEntity/BindEntityList为单个注解
+     */
+    @Async(BindingTaskExecutor.BEAN_NAME)
+    public CompletableFuture<Boolean> doBindingCoalesced(List voList, List<List<FieldAnnotation>> annotationGroups) {
+        List<BaseBinder> binders = new ArrayList<>(annotationGroups.size());
+        List<BindingMetricsRecorder> recorders = new ArrayList<>(annotationGroups.size());
+        for(List<FieldAnnotation> fieldAnnotations : annotationGroups){
+            BaseBinder binder = obtainBinder(voList, fieldAnnotations);
+            BindingMetricsRecorder recorder = BindingMetrics.newRecorder();
+            binder.setMetricsRecorder(recorder);
+            binders.add(binder);
+            recorders.add(recorder);
+        }
+        CoalescedQuery.coalesce(binders);
+        for(int i = 0; i < binders.size(); i++){
+            BaseBinder binder = binders.get(i);
+            long startTime = System.nanoTime();
+            binder.bind();
+            recordLatency(binder.getClass().getSimpleName(), startTime);
+            // 合并查询计入执行查询的Binder
+            publishMetrics(recorders.get(i), voList, annotationGroups.get(i), binder.getClass().getSimpleName(), startTime);
+        }
+        return CompletableFuture.completedFuture(true);
+    }
+
+    /***
+     * 跨模块批量绑定的准备阶段：由解析后的远程绑定注解构建Binder并登记其查询至RemoteBindingBatch（不发起请求），
+     * 绑定阶段复用已构建的Binder；通过中间表关联的远程绑定需先查询中间表，仅登记Binder
+     * @param batch
+     * @param voList
+     * @param annotationGroups 远程绑定的注解分组
+     */
+    public void prepareRemoteBindings(RemoteBindingBatch batch, List voList, List<List<FieldAnnotation>> annotationGroups) {
+        for(List<FieldAnnotation> fieldAnnotations : annotationGroups){
+            BaseBinder binder = buildBinder(voList, fieldAnnotations);
+            if(V.isEmpty(binder.getModule())){
+                continue;
+            }
+            ConditionManager.parseConditions(getCondition(fieldAnnotations.get(0).getAnnotation()), binder);
+            batch.register(fieldAnnotations.get(0), binder);
+        }
+    }
+
+    /**
+     * 获取已解析条件的Binder：优先取跨模块批量绑定已构建的Binder，否则按注解构建并解析条件
+     * @param voList
+     * @param fieldAnnotations 注解分组，BindField/BindFieldList为同组的多个注解，BindEntity/BindEntityList为单个注解
+     * @return
+     */
+    private BaseBinder obtainBinder(List voList, List<FieldAnnotation> fieldAnnotations){
+        RemoteBindingBatch batch = RemoteBindingBatch.current();
+        BaseBinder binder = batch != null? batch.takeBinder(fieldAnnotations.get(0), voList) : null;
+        if(binder == null){
+            binder = buildBinder(voList, fieldAnnotations);
+            ConditionManager.parseConditions(getCondition(fieldAnnotations.get(0).getAnnotation()), binder);
+        }
+        return binder;
+    }
+
+    /**
+     * 按注解类型构建Binder
+     * @param voList
+     * @param fieldAnnotations 注解分组，BindField/BindFieldList为同组的多个注解，BindEntity/BindEntityList为单个注解
+     * @return
+     */
+    private BaseBinder buildBinder(List voList, List<FieldAnnotation> fieldAnnotations){
+        Annotation annotation = fieldAnnotations.get(0).getAnnotation();
+        if(annotation instanceof BindField){
+            return buildFieldBinder(voList, fieldAnnotations);
+        }
+        else if(annotation instanceof BindFieldList){
+            return buildFieldListBinder(voList, fieldAnnotations);
+        }
+        else if(annotation instanceof BindEntity){
+            return buildEntityBinder(voList, fieldAnnotations.get(0));
+        }
+        else if(annotation instanceof BindEntityList){
+            return buildEntityListBinder(voList, fieldAnnotations.get(0));
+        }
+        throw new InvalidUsageException("不支持的绑定注解: " + annotation.annotationType().getSimpleName());
+    }
+
+    /**
+     * 获取绑定注解的条件
+     * @param annotation
+     * @return
+     */
+    private String getCondition(Annotation annotation){
+        if(annotation instanceof BindField){
+            return ((BindField) annotation).condition();
+        }
+        else if(annotation instanceof BindFieldList){
+            return ((BindFieldList) annotation).condition();
+        }
+        else if(annotation instanceof BindEntity){
+            return ((BindEntity) annotation).condition();
+        }
+        else if(annotation instanceof BindEntityList){
+            return ((BindEntityList) annotation).condition();
+        }
+        throw new InvalidUsageException("不支持的绑定注解: " + annotation.annotationType().getSimpleName());
+    }
+
+    /**
+     * 构建FieldBinder
+     * @param voList
+     * @param fieldAnnotations
+     * @return
+     */
+    private FieldBinder buildFieldBinder(List voList, List<FieldAnnotation> fieldAnnotations){
+        FieldBinder binder = new FieldBinder((BindField) fieldAnnotations.get(0).getAnnotation(), voList);
+        for(FieldAnnotation anno : fieldAnnotations){
+            BindField bindField = (BindField) anno.getAnnotation();
+            binder.link(bindField.field(), anno.getFieldName());
+            if(bindField.cache()){
+                binder.enableCache();
+            }
+        }
+        return binder;
+    }
+
+    /**
+     * 构建FieldListBinder
+     * @param voList
+     * @param fieldAnnotations
+     * @return
+     */
+    private FieldListBinder buildFieldListBinder(List voList, List<FieldAnnotation> fieldAnnotations){
+        FieldListBinder binder = new FieldListBinder((BindFieldList) fieldAnnotations.get(0).getAnnotation(), voList);
+        for(FieldAnnotation anno : fieldAnnotations){
+            BindFieldList bindField = (BindFieldList) anno.getAnnotation();
+            binder.link(bindField.field(), anno.getFieldName());
+            if(bindField.cache()){
+                binder.enableCache();
+            }
+        }
+        return binder;
+    }
+
+    /**
+     * 构建EntityBinder
+     * @param voList
+     * @param fieldAnnotation
+     * @return
+     */
+    private EntityBinder buildEntityBinder(List voList, FieldAnnotation fieldAnnotation){
+        EntityBinder binder = new EntityBinder((BindEntity) fieldAnnotation.getAnnotation(), voList);
+        binder.set(fieldAnnotation.getFieldName(), fieldAnnotation.getFieldClass());
+        return binder;
+    }
+
+    /**
+     * 构建EntityListBinder
+     * @param voList
+     * @param fieldAnnotation
+     * @return
+     */
+    private EntityListBinder buildEntityListBinder(List voList, FieldAnnotation fieldAnnotation){
+        EntityListBinder binder = new EntityListBinder((BindEntityList) fieldAnnotation.getAnnotation(), voList);
+        binder.set(fieldAnnotation.getFieldName(), fieldAnnotation.getFieldClass());
+        return binder;
     }
 
     /**
      * 绑定表关联数据
-     * @param binder
-     * @param condition
+     * @param voList
+     * @param binder 已解析条件的Binder
+     * @param fieldAnnotations 绑定注解分组
      * @return
      */
-    private CompletableFuture<Boolean> doBinding(BaseBinder binder, String condition){
-        ConditionManager.parseConditions(condition, binder);
+    private CompletableFuture<Boolean> doBinding(List voList, BaseBinder binder, List<FieldAnnotation> fieldAnnotations){
+        long startTime = System.nanoTime();
+        BindingMetricsRecorder recorder = BindingMetrics.newRecorder();
+        binder.setMetricsRecorder(recorder);
         binder.bind();
+        recordLatency(binder.getClass().getSimpleName(), startTime);
+        publishMetrics(recorder, voList, fieldAnnotations, binder.getClass().getSimpleName(), startTime);
         return CompletableFuture.completedFuture(true);
     }
+
+    /**
+     * 发布绑定指标
+     * @param recorder 指标记录器，为null时不发布
+     * @param voList
+     * @param fieldAnnotations 绑定注解分组
+     * @param binderType
+     * @param startTime
+     */
+    private void publishMetrics(BindingMetricsRecorder recorder, List voList, List<FieldAnnotation> fieldAnnotations, String binderType, long startTime){
+        if(recorder == null || V.isEmpty(voList)){
+            return;
+        }
+        String annotationType = fieldAnnotations.get(0).getAnnotation().annotationType().getSimpleName();
+        String fieldNames = fieldAnnotations.stream().map(FieldAnnotation::getFieldName).collect(Collectors.joining(","));
+        BindingMetrics.publish(recorder.toEvent(voList.get(0).getClass(), annotationType, fieldNames, binderType,
+                System.nanoTime() - startTime, BindingTaskExecutor.getCurrentWaitNanos()));
+    }
+
+    /**
+     * 记录绑定耗时
+     * @param binderType
+     * @param startTime
+     */
+    private void recordLatency(String binderType, long startTime){
+        if(bindingTaskExecutor != null){
+            bindingTaskExecutor.recordLatency(binderType, System.nanoTime() - startTime);
+        }
+    }
 }
\ No newline at end of file
@@ -28,6 +28,7 @@ import com.diboot.core.util.V;
 import com.diboot.core.vo.JsonResult;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -50,18 +51,78 @@ public class RemoteBindQueryExecutor {
      * @throws Exception
      */
     public static JsonResult execute(RemoteBindDTO remoteBindDTO){
-        Class entityClass = null;
+        Class entityClass = getEntityClass(remoteBindDTO);
+        if(entityClass == null){
+            return JsonResult.FAIL_INVALID_PARAM("模块下无Entity类: "+remoteBindDTO.getEntityClassName());
+        }
+        if(remoteBindDTO.getInConditionValues() == null){
+            return JsonResult.OK();
+        }
+        // 执行查询返回结果List
+        try{
+            List resultList = executeQuery(entityClass, remoteBindDTO);
+            return JsonResult.OK(resultList != null? JSON.stringify(resultList) : null);
+        }
+        catch (Exception e){
+            log.error("绑定查询执行异常", e);
+            return JsonResult.FAIL_EXCEPTION("绑定查询执行异常: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 批量执行查询，按请求顺序返回各查询的结果行（结果直接作为JSON数组返回，无需调用方二次解析）
+     * @param remoteBindDTOList
+     * @return
+     */
+    public static JsonResult<List<List>> executeBatch(List<RemoteBindDTO> remoteBindDTOList){
+        if(V.isEmpty(remoteBindDTOList)){
+            return JsonResult.OK(Collections.emptyList());
+        }
+        List<List> resultLists = new ArrayList<>(remoteBindDTOList.size());
+        for(RemoteBindDTO remoteBindDTO : remoteBindDTOList){
+            Class entityClass = getEntityClass(remoteBindDTO);
+            if(entityClass == null){
+                return JsonResult.FAIL_INVALID_PARAM("模块下无Entity类: "+remoteBindDTO.getEntityClassName());
+            }
+            if(remoteBindDTO.getInConditionValues() == null){
+                resultLists.add(Collections.emptyList());
+                continue;
+            }
+            try{
+                List resultList = executeQuery(entityClass, remoteBindDTO);
+                resultLists.add(resultList != null? resultList : Collections.emptyList());
+            }
+            catch (Exception e){
+                log.error("绑定查询执行异常", e);
+                return JsonResult.FAIL_EXCEPTION("绑定查询执行异常: " + e.getMessage());
+            }
+        }
+        return JsonResult.OK(resultLists);
+    }
+
+    /**
+     * 获取查询的Entity类
+     * @param remoteBindDTO
+     * @return
+     */
+    private static Class getEntityClass(RemoteBindDTO remoteBindDTO){
         try{
-            entityClass = Class.forName(remoteBindDTO.getEntityClassName());
+            return Class.forName(remoteBindDTO.getEntityClassName());
         }
         catch (Exception e){
             log.error("无法找到Entity类: {}", remoteBindDTO.getEntityClassName(), e);
-            return JsonResult.FAIL_INVALID_PARAM("模块下无Entity类: "+remoteBindDTO.getEntityClassName());
+            return null;
         }
+    }
+
+    /**
+     * 构建查询条件并执行查询
+     * @param entityClass
+     * @param remoteBindDTO
+     * @return
+     */
+    private static List executeQuery(Class entityClass, RemoteBindDTO remoteBindDTO){
         Collection inConditionValues = remoteBindDTO.getInConditionValues();
-        if(inConditionValues == null){
-            return JsonResult.OK();
-        }
         // 构建queryWrpper
         QueryWrapper queryWrapper = new QueryWrapper();
         queryWrapper.setEntityClass(entityClass);
@@ -99,23 +160,13 @@ public class RemoteBindQueryExecutor {
                 }
             }
         }
-        // 执行查询返回结果List
-        try{
-            String jsonStr = null;
-            if("Map".equals(remoteBindDTO.getResultType())){
-                List<Map<String, Object>> resultMap = getMapList(entityClass, queryWrapper);
-                jsonStr = JSON.stringify(resultMap);
-            }
-            else if("Entity".equals(remoteBindDTO.getResultType())){
-                List resultList = getEntityList(entityClass, queryWrapper);
-                jsonStr = JSON.stringify(resultList);
-            }
-            return JsonResult.OK(jsonStr);
+        if("Map".equals(remoteBindDTO.getResultType())){
+            return getMapList(entityClass, queryWrapper);
         }
-        catch (Exception e){
-            log.error("绑定查询执行异常", e);
-            return JsonResult.FAIL_EXCEPTION("绑定查询执行异常: " + e.getMessage());
+        else if("Entity".equals(remoteBindDTO.getResultType())){
+            return getEntityList(entityClass, queryWrapper);
         }
+        return null;
     }
 
     /**
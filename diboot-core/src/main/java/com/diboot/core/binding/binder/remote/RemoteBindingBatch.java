@@ -0,0 +1,196 @@
+package com.diboot.core.binding.binder.remote;
+
+import com.diboot.core.binding.binder.BaseBinder;
+import com.diboot.core.binding.parser.FieldAnnotation;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 跨模块批量绑定：一次绑定中同一模块的多个远程绑定查询合并为一次批量请求
+ * <p>
+ * 分两步执行：绑定前由解析后的远程绑定注解构建Binder及其查询（不发起请求）并按模块登记，
+ * 随后每个模块发起一次批量请求，结果按查询签名暂存；绑定阶段复用已构建的Binder，直接读取暂存结果。
+ * 不同模块的批量请求并发执行；批量请求超时或被熔断时该模块的绑定直接降级，其他失败（如远程模块未提供批量接口）时各Binder回退为逐个请求
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/20
+ * Copyright © diboot.com
+ */
+@Slf4j
+public class RemoteBindingBatch {
+
+    private static final ThreadLocal<RemoteBindingBatch> CURRENT_BATCH = new ThreadLocal<>();
+
+    /**
+     * 登记的查询：模块-查询签名-查询
+     */
+    private final Map<String, Map<String, CollectedQuery>> module2QueriesMap = new LinkedHashMap<>();
+    /**
+     * 批量请求的结果：模块-查询签名-结果
+     */
+    private final Map<String, Map<String, List>> module2ResultsMap = new ConcurrentHashMap<>();
+    /**
+     * 批量请求超时或被熔断的模块
+     */
+    private final Set<String> failedModules = ConcurrentHashMap.newKeySet();
+    /**
+     * 已构建的远程Binder：绑定注解-Binder
+     */
+    private final Map<FieldAnnotation, PreparedBinder> annotation2BinderMap = new ConcurrentHashMap<>();
+
+    /**
+     * 获取当前线程的跨模块批量绑定，未开启返回null
+     * @return
+     */
+    public static RemoteBindingBatch current(){
+        return CURRENT_BATCH.get();
+    }
+
+    /**
+     * 在当前线程加入指定批量绑定（供绑定线程池传递），返回之前的批量绑定
+     * @param batch
+     * @return
+     */
+    public static RemoteBindingBatch attach(RemoteBindingBatch batch){
+        RemoteBindingBatch previous = CURRENT_BATCH.get();
+        if(batch == null){
+            CURRENT_BATCH.remove();
+        }
+        else{
+            CURRENT_BATCH.set(batch);
+        }
+        return previous;
+    }
+
+    /**
+     * 登记远程Binder的查询（调用方缓存已命中的查询直接暂存结果，不再请求），Binder留待绑定阶段复用
+     * @param fieldAnnotation Binder对应的绑定注解（同组多个注解时为第一个）
+     * @param binder 已解析条件的远程Binder
+     */
+    public void register(FieldAnnotation fieldAnnotation, BaseBinder binder){
+        annotation2BinderMap.put(fieldAnnotation, new PreparedBinder(binder));
+        RemoteBindDTO remoteBindDTO = binder.getRemoteBindDTO();
+        if(remoteBindDTO == null){
+            return;
+        }
+        String module = binder.getModule();
+        String signature = RemoteBindingManager.buildSignature(remoteBindDTO);
+        List cachedRows = RemoteBindingCache.get(module, signature);
+        if(cachedRows != null){
+            module2ResultsMap.computeIfAbsent(module, k -> new ConcurrentHashMap<>()).put(signature, cachedRows);
+            return;
+        }
+        module2QueriesMap.computeIfAbsent(module, k -> new LinkedHashMap<>())
+                .putIfAbsent(signature, new CollectedQuery(remoteBindDTO, binder.getRemoteResultClass()));
+    }
+
+    /**
+     * 取出绑定注解对应的已构建Binder（仅取一次）
+     * @param fieldAnnotation 绑定注解（同组多个注解时为第一个）
+     * @param voList 需绑定的VO集合，与构建时不同时返回null
+     * @return
+     */
+    public BaseBinder takeBinder(FieldAnnotation fieldAnnotation, List voList){
+        PreparedBinder preparedBinder = annotation2BinderMap.get(fieldAnnotation);
+        if(preparedBinder == null || preparedBinder.voList != voList || !annotation2BinderMap.remove(fieldAnnotation, preparedBinder)){
+            return null;
+        }
+        return preparedBinder.binder;
+    }
+
+    /**
+     * 每个模块发起一次批量请求（不同模块并发请求）
+     */
+    public void execute(){
+        Map<String, CompletableFuture<List<List>>> module2FutureMap = new LinkedHashMap<>();
+        for(Map.Entry<String, Map<String, CollectedQuery>> entry : module2QueriesMap.entrySet()){
+            List<RemoteBindDTO> remoteBindDTOList = new ArrayList<>(entry.getValue().size());
+            for(CollectedQuery query : entry.getValue().values()){
+                remoteBindDTOList.add(query.remoteBindDTO);
+            }
+            module2FutureMap.put(entry.getKey(), RemoteBindingManager.fetchBatch(entry.getKey(), remoteBindDTOList));
+        }
+        for(Map.Entry<String, CompletableFuture<List<List>>> entry : module2FutureMap.entrySet()){
+            String module = entry.getKey();
+            List<List> resultLists;
+            try{
+                resultLists = entry.getValue().join();
+            }
+            catch (CompletionException e){
+                // 超时或熔断时该模块的绑定直接降级，其他异常（如远程模块未提供批量接口）回退为逐个请求
+                if(RemoteBindingExecutor.isType(e, RemoteBindingException.Type.TIMEOUT)
+                        || RemoteBindingExecutor.isType(e, RemoteBindingException.Type.REJECTED)){
+                    failedModules.add(module);
+                    RemoteBindingExecutor.fallback(module, e);
+                }
+                else{
+                    log.warn("模块 {} 批量获取绑定数据失败，将逐个请求: {}", module, e.getCause() != null? e.getCause().getMessage() : e.getMessage());
+                }
+                continue;
+            }
+            Map<String, CollectedQuery> signature2QueryMap = module2QueriesMap.get(module);
+            if(resultLists == null || resultLists.size() != signature2QueryMap.size()){
+                continue;
+            }
+            Map<String, List> signature2ResultMap = module2ResultsMap.computeIfAbsent(module, k -> new ConcurrentHashMap<>());
+            int index = 0;
+            for(Map.Entry<String, CollectedQuery> queryEntry : signature2QueryMap.entrySet()){
+                List rows = RemoteBindingManager.convertRows(resultLists.get(index++), queryEntry.getValue().entityClass);
+                signature2ResultMap.put(queryEntry.getKey(), rows);
+                RemoteBindingCache.put(module, queryEntry.getKey(), rows);
+            }
+        }
+        module2QueriesMap.clear();
+    }
+
+    /**
+     * 模块的批量请求是否已超时或被熔断
+     * @param module
+     * @return
+     */
+    boolean isFailed(String module){
+        return failedModules.contains(module);
+    }
+
+    /**
+     * 获取批量请求的结果，无结果返回null
+     * @param module 模块
+     * @param signature 查询签名
+     * @return
+     */
+    List getResult(String module, String signature){
+        Map<String, List> signature2ResultMap = module2ResultsMap.get(module);
+        return signature2ResultMap != null? signature2ResultMap.get(signature) : null;
+    }
+
+    /**
+     * 登记的查询
+     */
+    private static final class CollectedQuery {
+        private final RemoteBindDTO remoteBindDTO;
+        private final Class<?> entityClass;
+
+        CollectedQuery(RemoteBindDTO remoteBindDTO, Class<?> entityClass){
+            this.remoteBindDTO = remoteBindDTO;
+            this.entityClass = entityClass;
+        }
+    }
+
+    /**
+     * 已构建的Binder
+     */
+    private static final class PreparedBinder {
+        private final BaseBinder binder;
+        private final List voList;
+
+        PreparedBinder(BaseBinder binder){
+            this.binder = binder;
+            this.voList = binder.getAnnoObjectList();
+        }
+    }
+
+}
@@ -0,0 +1,121 @@
+package com.diboot.core.binding.binder.remote;
+
+import com.diboot.core.binding.cache.BoundedTtlCache;
+import com.diboot.core.config.BaseConfig;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 跨模块绑定结果在调用方的缓存
+ * <p>
+ * 按 (模块, 查询签名) 缓存远程绑定结果，查询签名包含关联Entity、查询列、关联列及关联值；
+ * 与关联绑定结果缓存共用BoundedTtlCache实现，容量有界（近似LRU淘汰），过期时间由 diboot.core.remote-binding-cache-ttl 指定，小于等于0时不缓存。
+ * 远程数据变更无法通知调用方，过期时间内可能读取到旧数据，适用于变更不频繁的跨模块数据
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/20
+ * Copyright © diboot.com
+ */
+public class RemoteBindingCache {
+
+    /**
+     * 缓存数据
+     */
+    private static final BoundedTtlCache<CacheKey, List> CACHE = new BoundedTtlCache<>(BaseConfig::getBindingCacheMaxSize);
+
+    /**
+     * 是否启用缓存
+     * @return
+     */
+    public static boolean isEnabled(){
+        return BaseConfig.getRemoteBindingCacheTtl() > 0;
+    }
+
+    /**
+     * 获取缓存的远程绑定结果，未启用、未命中或已过期返回null
+     * @param module 模块
+     * @param signature 查询签名
+     * @return
+     */
+    public static List get(String module, String signature){
+        if(!isEnabled()){
+            return null;
+        }
+        return CACHE.get(new CacheKey(module, signature));
+    }
+
+    /**
+     * 缓存远程绑定结果
+     * @param module 模块
+     * @param signature 查询签名
+     * @param rows 绑定结果
+     */
+    public static void put(String module, String signature, List rows){
+        if(!isEnabled() || rows == null){
+            return;
+        }
+        CACHE.put(new CacheKey(module, signature), Collections.unmodifiableList(rows), BaseConfig.getRemoteBindingCacheTtl() * 1000L);
+    }
+
+    /**
+     * 清空缓存
+     */
+    public static void clear(){
+        CACHE.clear();
+    }
+
+    /**
+     * 当前缓存条目数
+     * @return
+     */
+    public static int size(){
+        return CACHE.size();
+    }
+
+    public static long getHitCount(){
+        return CACHE.getHitCount();
+    }
+
+    public static long getMissCount(){
+        return CACHE.getMissCount();
+    }
+
+    public static long getEvictionCount(){
+        return CACHE.getEvictionCount();
+    }
+
+    /**
+     * 缓存key
+     */
+    private static final class CacheKey {
+        private final String module;
+        private final String signature;
+        private final int hash;
+
+        CacheKey(String module, String signature){
+            this.module = module;
+            this.signature = signature;
+            this.hash = Objects.hash(module, signature);
+        }
+
+        @Override
+        public int hashCode(){
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj){
+            if(this == obj){
+                return true;
+            }
+            if(!(obj instanceof CacheKey)){
+                return false;
+            }
+            CacheKey other = (CacheKey)obj;
+            return hash == other.hash && module.equals(other.module) && signature.equals(other.signature);
+        }
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.diboot.core.binding.binder.remote;
+
+import com.diboot.core.config.BaseConfig;
+
+/**
+ * 跨模块绑定的模块级熔断器
+ * <p>
+ * 连续失败次数达到阈值后熔断（OPEN），熔断期间的请求直接降级；等待时间过后放行一次探测请求（HALF_OPEN），
+ * 探测成功则恢复（CLOSED），失败则重新熔断；探测请求超过等待时间仍未结束（如未设置超时时请求挂起）时放行新的探测请求
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/20
+ * Copyright © diboot.com
+ */
+public class RemoteBindingCircuitBreaker {
+
+    /**
+     * 熔断器状态
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private State state = State.CLOSED;
+    /**
+     * 连续失败次数
+     */
+    private int consecutiveFailures = 0;
+    /**
+     * 熔断开始时间
+     */
+    private long openedAt = 0L;
+    /**
+     * 探测请求开始时间
+     */
+    private long probeStartedAt = 0L;
+
+    /**
+     * 是否放行请求，熔断等待时间已过时转为HALF_OPEN并放行一次探测请求
+     * @return
+     */
+    public synchronized boolean allowRequest(){
+        if(state == State.CLOSED){
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        int openDuration = BaseConfig.getRemoteBindingCircuitOpenDuration();
+        if(state == State.OPEN && now - openedAt >= openDuration){
+            state = State.HALF_OPEN;
+            probeStartedAt = now;
+            return true;
+        }
+        // 探测请求未结束且已超过等待时间，放行新的探测请求
+        if(state == State.HALF_OPEN && now - probeStartedAt >= openDuration){
+            probeStartedAt = now;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 请求结束但不计入成功或失败（如被模块线程池拒绝、批量接口不可用），探测请求时释放探测机会，下一个请求重新探测
+     */
+    public synchronized void onIgnored(){
+        if(state == State.HALF_OPEN){
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis() - BaseConfig.getRemoteBindingCircuitOpenDuration();
+        }
+    }
+
+    /**
+     * 请求成功
+     */
+    public synchronized void onSuccess(){
+        consecutiveFailures = 0;
+        state = State.CLOSED;
+    }
+
+    /**
+     * 请求失败
+     */
+    public synchronized void onFailure(){
+        if(state == State.HALF_OPEN){
+            open();
+            return;
+        }
+        consecutiveFailures++;
+        int threshold = BaseConfig.getRemoteBindingCircuitFailureThreshold();
+        if(state == State.CLOSED && threshold > 0 && consecutiveFailures >= threshold){
+            open();
+        }
+    }
+
+    public synchronized State getState(){
+        return state;
+    }
+
+    public synchronized int getConsecutiveFailures(){
+        return consecutiveFailures;
+    }
+
+    private void open(){
+        state = State.OPEN;
+        openedAt = System.currentTimeMillis();
+    }
+
+}
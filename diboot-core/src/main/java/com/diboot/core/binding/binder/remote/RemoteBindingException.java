@@ -0,0 +1,48 @@
+package com.diboot.core.binding.binder.remote;
+
+/**
+ * 跨模块绑定请求失败（超时、熔断拒绝或远程调用异常）
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/20
+ * Copyright © diboot.com
+ */
+public class RemoteBindingException extends RuntimeException {
+    private static final long serialVersionUID = -1752439061218503287L;
+
+    /**
+     * 失败类型
+     */
+    public enum Type {
+        /**
+         * 请求超时
+         */
+        TIMEOUT,
+        /**
+         * 熔断期间被拒绝
+         */
+        REJECTED,
+        /**
+         * 远程调用异常
+         */
+        ERROR
+    }
+
+    private final String module;
+    private final Type type;
+
+    public RemoteBindingException(String module, Type type, String msg, Throwable ex){
+        super(msg, ex);
+        this.module = module;
+        this.type = type;
+    }
+
+    public String getModule(){
+        return module;
+    }
+
+    public Type getType(){
+        return type;
+    }
+
+}
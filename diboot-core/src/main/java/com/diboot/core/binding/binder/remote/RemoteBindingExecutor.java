@@ -0,0 +1,338 @@
+package com.diboot.core.binding.binder.remote;
+
+import com.diboot.core.config.BaseConfig;
+import com.diboot.core.exception.BusinessException;
+import com.diboot.core.exception.InvalidUsageException;
+import com.diboot.core.util.PropertiesUtils;
+import com.diboot.core.vo.Status;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 跨模块绑定请求的执行器
+ * <p>
+ * 设置了超时时间的请求在模块独立的有界线程池上执行（传递请求上下文），调用方按模块的超时时间等待，超时后取消请求；
+ * 未设置超时时间（默认）的单个请求在调用方线程执行。各模块独立熔断及统计，单个慢模块最多占用其线程池的线程，
+ * 线程及等待队列已满时请求被拒绝。请求失败时按 diboot.core.remote-binding-fallback 降级：fail-抛出异常（默认），null-绑定字段留空
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/20
+ * Copyright © diboot.com
+ */
+@Slf4j
+public class RemoteBindingExecutor {
+
+    /**
+     * 降级方式：绑定字段留空
+     */
+    public static final String FALLBACK_NULL = "null";
+    /**
+     * 降级方式：抛出异常
+     */
+    public static final String FALLBACK_FAIL = "fail";
+
+    /**
+     * 模块-远程请求线程池（舱壁隔离，线程数及等待队列有界）
+     */
+    private static final Map<String, ThreadPoolExecutor> MODULE_EXECUTOR_MAP = new ConcurrentHashMap<>();
+    /**
+     * 超时调度
+     */
+    private static final ScheduledThreadPoolExecutor TIMEOUT_SCHEDULER = new ScheduledThreadPoolExecutor(1, runnable -> {
+        Thread thread = new Thread(runnable, "diboot-remote-binding-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    static {
+        TIMEOUT_SCHEDULER.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * 模块-熔断器
+     */
+    private static final Map<String, RemoteBindingCircuitBreaker> MODULE_CIRCUIT_BREAKER_MAP = new ConcurrentHashMap<>();
+    /**
+     * 模块-统计
+     */
+    private static final Map<String, RemoteModuleMetrics> MODULE_METRICS_MAP = new ConcurrentHashMap<>();
+    /**
+     * 模块-超时时间
+     */
+    private static final Map<String, Integer> MODULE_TIMEOUT_MAP = new ConcurrentHashMap<>();
+
+    /**
+     * 异步执行模块的远程请求，超时、熔断拒绝或异常时以RemoteBindingException结束
+     * @param module 模块
+     * @param request 远程请求
+     * @param <R>
+     * @return
+     */
+    public static <R> CompletableFuture<R> submit(String module, Callable<R> request){
+        return submit(module, request, true);
+    }
+
+    /**
+     * 异步执行模块的远程请求，超时、熔断拒绝或异常时以RemoteBindingException结束
+     * @param module 模块
+     * @param request 远程请求
+     * @param countError 远程调用异常是否计入熔断（批量请求的异常可能为远程模块未提供批量接口，不计入）
+     * @param <R>
+     * @return
+     */
+    static <R> CompletableFuture<R> submit(String module, Callable<R> request, boolean countError){
+        CompletableFuture<R> result = new CompletableFuture<>();
+        RemoteBindingCircuitBreaker circuitBreaker = getCircuitBreaker(module);
+        RemoteModuleMetrics metrics = getMetrics(module);
+        if(!circuitBreaker.allowRequest()){
+            metrics.recordRejected();
+            result.completeExceptionally(new RemoteBindingException(module, RemoteBindingException.Type.REJECTED,
+                    "模块 " + module + " 已熔断", null));
+            return result;
+        }
+        long startTime = System.nanoTime();
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        Future<?> task;
+        try{
+            task = getExecutor(module).submit(() -> {
+                RequestAttributes previousAttributes = RequestContextHolder.getRequestAttributes();
+                RequestContextHolder.setRequestAttributes(requestAttributes);
+                try{
+                    result.complete(request.call());
+                }
+                catch (Throwable e){
+                    result.completeExceptionally(new RemoteBindingException(module, RemoteBindingException.Type.ERROR,
+                            "模块 " + module + " 绑定请求异常: " + e.getMessage(), e));
+                }
+                finally {
+                    RequestContextHolder.setRequestAttributes(previousAttributes);
+                }
+            });
+        }
+        catch (RejectedExecutionException e){
+            circuitBreaker.onIgnored();
+            metrics.recordRejected();
+            result.completeExceptionally(new RemoteBindingException(module, RemoteBindingException.Type.REJECTED,
+                    "模块 " + module + " 并发请求已满", e));
+            return result;
+        }
+        int timeout = getTimeout(module);
+        ScheduledFuture<?> timeoutFuture = timeout <= 0? null : TIMEOUT_SCHEDULER.schedule(() -> {
+            if(result.completeExceptionally(new RemoteBindingException(module, RemoteBindingException.Type.TIMEOUT,
+                    "模块 " + module + " 绑定请求超时(" + timeout + "ms)", null))){
+                task.cancel(true);
+            }
+        }, timeout, TimeUnit.MILLISECONDS);
+        result.whenComplete((value, ex) -> {
+            if(timeoutFuture != null){
+                timeoutFuture.cancel(false);
+            }
+            record(circuitBreaker, metrics, startTime, ex, countError || !isType(ex, RemoteBindingException.Type.ERROR));
+        });
+        return result;
+    }
+
+    /**
+     * 执行模块的远程请求，失败时按配置降级：null模式返回null，fail模式抛出异常。
+     * 未设置超时时间时在调用方线程执行
+     * @param module 模块
+     * @param request 远程请求
+     * @param <R>
+     * @return
+     */
+    public static <R> R execute(String module, Callable<R> request){
+        if(getTimeout(module) > 0){
+            try{
+                return submit(module, request).join();
+            }
+            catch (CompletionException e){
+                fallback(module, e.getCause());
+                return null;
+            }
+        }
+        RemoteBindingCircuitBreaker circuitBreaker = getCircuitBreaker(module);
+        RemoteModuleMetrics metrics = getMetrics(module);
+        if(!circuitBreaker.allowRequest()){
+            metrics.recordRejected();
+            fallback(module, new RemoteBindingException(module, RemoteBindingException.Type.REJECTED,
+                    "模块 " + module + " 已熔断", null));
+            return null;
+        }
+        long startTime = System.nanoTime();
+        R value;
+        try{
+            value = request.call();
+        }
+        catch (Throwable e){
+            record(circuitBreaker, metrics, startTime, e, true);
+            fallback(module, new RemoteBindingException(module, RemoteBindingException.Type.ERROR,
+                    "模块 " + module + " 绑定请求异常: " + e.getMessage(), e));
+            return null;
+        }
+        record(circuitBreaker, metrics, startTime, null, true);
+        return value;
+    }
+
+    /**
+     * 请求失败的降级处理：fail模式抛出异常（远程调用异常原样抛出，超时及熔断抛出BusinessException），null模式记录日志
+     * @param module
+     * @param ex
+     */
+    public static void fallback(String module, Throwable ex){
+        if(ex instanceof CompletionException && ex.getCause() != null){
+            ex = ex.getCause();
+        }
+        if(isFailFast()){
+            Throwable cause = isType(ex, RemoteBindingException.Type.ERROR)? ex.getCause() : null;
+            if(cause instanceof RuntimeException){
+                throw (RuntimeException) cause;
+            }
+            if(cause instanceof Error){
+                throw (Error) cause;
+            }
+            throw new BusinessException(Status.FAIL_SERVICE_UNAVAILABLE, "跨模块绑定失败: " + ex.getMessage(), ex);
+        }
+        log.warn("跨模块绑定失败，绑定字段将为空: module={}, {}", module, ex.getMessage());
+    }
+
+    /**
+     * 是否为指定类型的请求失败
+     * @param ex
+     * @param type
+     * @return
+     */
+    public static boolean isType(Throwable ex, RemoteBindingException.Type type){
+        if(ex instanceof CompletionException && ex.getCause() != null){
+            ex = ex.getCause();
+        }
+        return ex instanceof RemoteBindingException && ((RemoteBindingException) ex).getType() == type;
+    }
+
+    /**
+     * 设置模块的请求超时时间（毫秒），优先于配置项
+     * @param module
+     * @param timeout
+     */
+    public static void setTimeout(String module, int timeout){
+        MODULE_TIMEOUT_MAP.put(module, timeout);
+    }
+
+    /**
+     * 获取模块的请求超时时间（毫秒）
+     * @param module
+     * @return
+     */
+    public static int getTimeout(String module){
+        return MODULE_TIMEOUT_MAP.computeIfAbsent(module, key -> {
+            Integer timeout = PropertiesUtils.getInteger("diboot.core.remote-binding-module-timeout." + key);
+            return timeout != null? timeout : BaseConfig.getRemoteBindingTimeout();
+        });
+    }
+
+    /**
+     * 获取模块的远程请求线程池
+     * @param module
+     * @return
+     */
+    private static ThreadPoolExecutor getExecutor(String module){
+        return MODULE_EXECUTOR_MAP.computeIfAbsent(module, key -> {
+            int maxConcurrency = Math.max(1, BaseConfig.getRemoteBindingMaxConcurrency());
+            int queueCapacity = BaseConfig.getRemoteBindingQueueCapacity();
+            BlockingQueue<Runnable> queue = queueCapacity > 0? new LinkedBlockingQueue<>(queueCapacity) : new SynchronousQueue<>();
+            AtomicInteger threadIndex = new AtomicInteger();
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 60L, TimeUnit.SECONDS, queue, runnable -> {
+                Thread thread = new Thread(runnable, "diboot-remote-binding-" + key + "-" + threadIndex.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        });
+    }
+
+    /**
+     * 记录请求结果
+     * @param circuitBreaker
+     * @param metrics
+     * @param startTime
+     * @param ex 请求异常，成功时为null
+     * @param countFailure 失败是否计入熔断
+     */
+    private static void record(RemoteBindingCircuitBreaker circuitBreaker, RemoteModuleMetrics metrics, long startTime, Throwable ex, boolean countFailure){
+        long elapsedNanos = System.nanoTime() - startTime;
+        if(ex == null){
+            circuitBreaker.onSuccess();
+            metrics.recordSuccess(elapsedNanos);
+            return;
+        }
+        if(countFailure){
+            circuitBreaker.onFailure();
+        }
+        else{
+            circuitBreaker.onIgnored();
+        }
+        metrics.recordFailure(elapsedNanos, isType(ex, RemoteBindingException.Type.TIMEOUT));
+    }
+
+    /**
+     * 获取模块的熔断器
+     * @param module
+     * @return
+     */
+    public static RemoteBindingCircuitBreaker getCircuitBreaker(String module){
+        return MODULE_CIRCUIT_BREAKER_MAP.computeIfAbsent(module, key -> new RemoteBindingCircuitBreaker());
+    }
+
+    /**
+     * 获取模块的统计
+     * @param module
+     * @return
+     */
+    public static RemoteModuleMetrics getMetrics(String module){
+        return MODULE_METRICS_MAP.computeIfAbsent(module, key -> new RemoteModuleMetrics(getCircuitBreaker(key)));
+    }
+
+    /**
+     * 获取各模块的统计
+     * @return
+     */
+    public static Map<String, RemoteModuleMetrics> getModuleMetrics(){
+        return Collections.unmodifiableMap(new LinkedHashMap<>(MODULE_METRICS_MAP));
+    }
+
+    /**
+     * 重置模块的熔断状态、统计、超时设置及线程池（已提交的请求继续执行）
+     * @param module
+     */
+    public static void reset(String module){
+        MODULE_CIRCUIT_BREAKER_MAP.remove(module);
+        MODULE_METRICS_MAP.remove(module);
+        MODULE_TIMEOUT_MAP.remove(module);
+        ThreadPoolExecutor executor = MODULE_EXECUTOR_MAP.remove(module);
+        if(executor != null){
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * 失败时是否抛出异常
+     * @return
+     */
+    private static boolean isFailFast(){
+        String fallback = BaseConfig.getRemoteBindingFallback();
+        if(FALLBACK_FAIL.equalsIgnoreCase(fallback)){
+            return true;
+        }
+        else if(FALLBACK_NULL.equalsIgnoreCase(fallback)){
+            return false;
+        }
+        throw new InvalidUsageException("不支持的跨模块绑定降级方式: " + fallback + "，可选值: null, fail");
+    }
+
+}
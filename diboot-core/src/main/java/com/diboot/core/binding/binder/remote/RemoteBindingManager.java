@@ -21,13 +21,15 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.openfeign.FeignClientBuilder;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * 远程绑定manager
+ * 远程绑定manager（远程请求由RemoteBindingExecutor执行，受超时、熔断及降级控制）
  * @author JerryMa
  * @version v2.4.0
  * @date 2021/11/1
@@ -39,7 +41,7 @@ public class RemoteBindingManager {
     /**
      * restTemplate 实例缓存
      */
-    private static Map<String, RemoteBindingProvider> MODULE_PROVIDER_MAP;
+    private static volatile Map<String, RemoteBindingProvider> MODULE_PROVIDER_MAP;
     /**
      * feignClientBuilder 实例
      */
@@ -53,17 +55,7 @@ public class RemoteBindingManager {
      */
     public static List<Map<String, Object>> fetchMapList(String module, RemoteBindDTO remoteBindDTO){
         remoteBindDTO.setResultType("Map");
-        RemoteBindingProvider bindingProvider = getRemoteBindingProvider(module);
-        JsonResult<String> jsonResult = bindingProvider.loadBindingData(remoteBindDTO);
-        if(jsonResult.isOK()){
-            log.debug("获取到绑定数据: {}", jsonResult.getData());
-            List<Map<String, Object>> mapList = JSON.parseObject(jsonResult.getData(), new TypeReference<List<Map<String, Object>>>(){});
-            return mapList;
-        }
-        else{
-            log.warn("获取绑定数据失败: {}", jsonResult.getMsg());
-            return Collections.EMPTY_LIST;
-        }
+        return fetchRows(module, remoteBindDTO, null);
     }
 
     /**
@@ -76,12 +68,84 @@ public class RemoteBindingManager {
      */
     public static <T> List<T> fetchEntityList(String module, RemoteBindDTO remoteBindDTO, Class<T> entityClass) {
         remoteBindDTO.setResultType("Entity");
+        return fetchRows(module, remoteBindDTO, entityClass);
+    }
+
+    /**
+     * 异步批量抓取同一模块的多个查询结果（由RemoteBindingExecutor执行，受超时及熔断控制），按请求顺序返回各查询的结果行
+     * @param module
+     * @param remoteBindDTOList
+     * @return 远程返回失败结果时为null，超时、熔断或异常时以RemoteBindingException结束
+     */
+    public static CompletableFuture<List<List>> fetchBatch(String module, List<RemoteBindDTO> remoteBindDTOList){
         RemoteBindingProvider bindingProvider = getRemoteBindingProvider(module);
-        JsonResult<String> jsonResult = bindingProvider.loadBindingData(remoteBindDTO);
+        // 批量请求的调用异常可能为远程模块未提供批量接口（将回退为逐个请求），不计入熔断
+        return RemoteBindingExecutor.submit(module, () -> {
+            JsonResult<List<List<Map<String, Object>>>> jsonResult = bindingProvider.loadBatchBindingData(remoteBindDTOList);
+            if(jsonResult.isOK()){
+                log.debug("批量获取到 {} 个查询的绑定数据", remoteBindDTOList.size());
+                return (List)jsonResult.getData();
+            }
+            else{
+                log.warn("批量获取绑定数据失败: {}", jsonResult.getMsg());
+                return null;
+            }
+        }, false);
+    }
+
+    /**
+     * 注册模块的远程绑定数据提供者（如自定义的传输实现），未注册的模块默认通过Feign调用
+     * @param module
+     * @param bindingProvider
+     */
+    public static void registerProvider(String module, RemoteBindingProvider bindingProvider){
+        getModuleProviderMap().put(module, bindingProvider);
+    }
+
+    /**
+     * 获取查询结果：依次读取跨模块批量结果、调用方缓存，均未命中时单独请求
+     * @param module
+     * @param remoteBindDTO
+     * @param entityClass Entity类，Map结果为null
+     * @return
+     */
+    private static <T> List<T> fetchRows(String module, RemoteBindDTO remoteBindDTO, Class<?> entityClass){
+        RemoteBindingBatch batch = RemoteBindingBatch.current();
+        String signature = (batch != null || RemoteBindingCache.isEnabled())? buildSignature(remoteBindDTO) : null;
+        List rows;
+        if(batch != null){
+            rows = batch.getResult(module, signature);
+            if(rows != null){
+                return rows;
+            }
+        }
+        if(signature != null){
+            rows = RemoteBindingCache.get(module, signature);
+            if(rows != null){
+                return rows;
+            }
+        }
+        // 批量请求已超时或被熔断，不再逐个请求
+        if(batch != null && batch.isFailed(module)){
+            return Collections.EMPTY_LIST;
+        }
+        RemoteBindingProvider bindingProvider = getRemoteBindingProvider(module);
+        JsonResult<String> jsonResult = RemoteBindingExecutor.execute(module, () -> bindingProvider.loadBindingData(remoteBindDTO));
+        if(jsonResult == null){
+            return Collections.EMPTY_LIST;
+        }
         if(jsonResult.isOK()){
             log.debug("获取到绑定数据: {}", jsonResult.getData());
-            List<T> entityList = JSON.parseArray(jsonResult.getData(), entityClass);
-            return entityList;
+            if(entityClass == null){
+                rows = JSON.parseObject(jsonResult.getData(), new TypeReference<List<Map<String, Object>>>(){});
+            }
+            else{
+                rows = JSON.parseArray(jsonResult.getData(), entityClass);
+            }
+            if(signature != null){
+                RemoteBindingCache.put(module, signature, rows);
+            }
+            return rows != null? rows : Collections.EMPTY_LIST;
         }
         else{
             log.warn("获取绑定数据失败: {}", jsonResult.getMsg());
@@ -90,14 +154,51 @@ public class RemoteBindingManager {
     }
 
     /**
-     * 获取实例
+     * 将批量请求返回的结果行转换为Entity
+     * @param rows
+     * @param entityClass Entity类，Map结果为null
      * @return
      */
-    private static RemoteBindingProvider getRemoteBindingProvider(String module){
+    static List convertRows(List rows, Class<?> entityClass){
+        if(rows == null){
+            return Collections.EMPTY_LIST;
+        }
+        if(entityClass == null){
+            return rows;
+        }
+        List entityList = new ArrayList<>(rows.size());
+        for(Object row : rows){
+            entityList.add(entityClass.isInstance(row)? row : JSON.convertValue(row, entityClass));
+        }
+        return entityList;
+    }
+
+    /**
+     * 构建查询签名（包含Entity、查询列、关联列、关联值、排序及结果类型）
+     * @param remoteBindDTO
+     * @return
+     */
+    static String buildSignature(RemoteBindDTO remoteBindDTO){
+        return JSON.stringify(remoteBindDTO);
+    }
+
+    private static Map<String, RemoteBindingProvider> getModuleProviderMap(){
         if(MODULE_PROVIDER_MAP == null){
-            MODULE_PROVIDER_MAP = new ConcurrentHashMap<>();
+            synchronized (RemoteBindingManager.class){
+                if(MODULE_PROVIDER_MAP == null){
+                    MODULE_PROVIDER_MAP = new ConcurrentHashMap<>();
+                }
+            }
         }
-        return MODULE_PROVIDER_MAP.computeIfAbsent(module, key -> {
+        return MODULE_PROVIDER_MAP;
+    }
+
+    /**
+     * 获取实例
+     * @return
+     */
+    private static RemoteBindingProvider getRemoteBindingProvider(String module){
+        return getModuleProviderMap().computeIfAbsent(module, key -> {
             if(feignClientBuilder == null){
                 feignClientBuilder = new FeignClientBuilder(ContextHelper.getApplicationContext());
             }
@@ -18,6 +18,9 @@ package com.diboot.core.binding.binder.remote;
 import com.diboot.core.vo.JsonResult;
 import org.springframework.web.bind.annotation.PostMapping;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * 远程绑定Provider接口
  * @author JerryMa
@@ -35,4 +38,13 @@ public interface RemoteBindingProvider {
     @PostMapping("/common/remoteBinding")
     JsonResult<String> loadBindingData(RemoteBindDTO remoteBindDTO);
 
+    /**
+     * 批量加载请求数据：同一模块的多个绑定查询合并为一次请求，按请求顺序返回各查询的结果行
+     * （服务端调用 RemoteBindQueryExecutor.executeBatch 实现）
+     * @param remoteBindDTOList
+     * @return
+     */
+    @PostMapping("/common/remoteBinding/batch")
+    JsonResult<List<List<Map<String, Object>>>> loadBatchBindingData(List<RemoteBindDTO> remoteBindDTOList);
+
 }
@@ -0,0 +1,105 @@
+package com.diboot.core.binding.binder.remote;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 跨模块绑定的模块级统计：请求数、成功/失败/超时/熔断拒绝数、耗时及熔断状态
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/20
+ * Copyright © diboot.com
+ */
+public class RemoteModuleMetrics {
+
+    private final RemoteBindingCircuitBreaker circuitBreaker;
+    private final LongAdder requestCount = new LongAdder();
+    private final LongAdder successCount = new LongAdder();
+    private final LongAdder failureCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0L);
+
+    RemoteModuleMetrics(RemoteBindingCircuitBreaker circuitBreaker){
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    void recordSuccess(long elapsedNanos){
+        requestCount.increment();
+        successCount.increment();
+        recordLatency(elapsedNanos);
+    }
+
+    void recordFailure(long elapsedNanos, boolean timeout){
+        requestCount.increment();
+        failureCount.increment();
+        if(timeout){
+            timeoutCount.increment();
+        }
+        recordLatency(elapsedNanos);
+    }
+
+    void recordRejected(){
+        rejectedCount.increment();
+    }
+
+    private void recordLatency(long elapsedNanos){
+        totalNanos.add(elapsedNanos);
+        maxNanos.accumulate(elapsedNanos);
+    }
+
+    /**
+     * 已发起的请求数（不含熔断拒绝的请求）
+     * @return
+     */
+    public long getRequestCount(){
+        return requestCount.sum();
+    }
+
+    public long getSuccessCount(){
+        return successCount.sum();
+    }
+
+    /**
+     * 失败请求数（含超时）
+     * @return
+     */
+    public long getFailureCount(){
+        return failureCount.sum();
+    }
+
+    public long getTimeoutCount(){
+        return timeoutCount.sum();
+    }
+
+    /**
+     * 熔断期间被拒绝的请求数
+     * @return
+     */
+    public long getRejectedCount(){
+        return rejectedCount.sum();
+    }
+
+    public double getAvgMillis(){
+        long cnt = requestCount.sum();
+        return cnt == 0? 0 : totalNanos.sum() / 1000000.0 / cnt;
+    }
+
+    public long getMaxMillis(){
+        return TimeUnit.NANOSECONDS.toMillis(maxNanos.get());
+    }
+
+    public RemoteBindingCircuitBreaker.State getCircuitState(){
+        return circuitBreaker.getState();
+    }
+
+    @Override
+    public String toString(){
+        return "requests=" + getRequestCount() + ", success=" + getSuccessCount() + ", failure=" + getFailureCount()
+                + ", timeout=" + getTimeoutCount() + ", rejected=" + getRejectedCount()
+                + ", avg=" + String.format("%.2f", getAvgMillis()) + "ms, max=" + getMaxMillis() + "ms, circuit=" + getCircuitState();
+    }
+
+}
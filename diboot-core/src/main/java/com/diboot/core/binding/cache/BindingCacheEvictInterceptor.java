@@ -0,0 +1,87 @@
+package com.diboot.core.binding.cache;
+
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.diboot.core.util.S;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 关联绑定结果缓存的失效拦截器
+ * <p>
+ * 拦截经MyBatis执行的新建/更新/删除（含ServiceImpl继承的update/remove、lambdaUpdate及Mapper自定义SQL），
+ * 按Mapper对应的Entity使其缓存失效；无法确定Entity的Mapper（非BaseMapper的自定义Mapper）使全部缓存失效
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/10
+ * Copyright © diboot.com
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class})
+})
+public class BindingCacheEvictInterceptor implements Interceptor {
+
+    /**
+     * 是否已创建拦截器（已创建时BaseServiceImpl无需再使缓存失效）
+     */
+    private static volatile boolean registered = false;
+
+    /**
+     * Mapper命名空间-Entity类，无对应Entity时为Void.class
+     */
+    private final Map<String, Class<?>> namespace2EntityMap = new ConcurrentHashMap<>();
+
+    public BindingCacheEvictInterceptor(){
+        registered = true;
+    }
+
+    /**
+     * 是否已注册缓存失效拦截器
+     * @return
+     */
+    public static boolean isRegistered(){
+        return registered;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        MappedStatement mappedStatement = (MappedStatement) invocation.getArgs()[0];
+        Class<?> entityClass = getEntityClass(S.substringBeforeLast(mappedStatement.getId(), "."));
+        if(entityClass == Void.class){
+            BindingResultCache.evictAll();
+        }
+        else{
+            BindingResultCache.evict(entityClass);
+        }
+        return result;
+    }
+
+    /**
+     * 获取Mapper命名空间对应的Entity类
+     * @param namespace
+     * @return
+     */
+    private Class<?> getEntityClass(String namespace){
+        Class<?> entityClass = namespace2EntityMap.get(namespace);
+        if(entityClass == null){
+            entityClass = Void.class;
+            for(TableInfo tableInfo : TableInfoHelper.getTableInfos()){
+                if(namespace.equals(tableInfo.getCurrentNamespace())){
+                    entityClass = tableInfo.getEntityType();
+                    break;
+                }
+            }
+            namespace2EntityMap.put(namespace, entityClass);
+        }
+        return entityClass;
+    }
+
+}
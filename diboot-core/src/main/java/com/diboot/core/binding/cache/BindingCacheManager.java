@@ -18,6 +18,7 @@ package com.diboot.core.binding.cache;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.extension.service.IService;
+import com.diboot.core.binding.parser.BeanAccessor;
 import com.diboot.core.binding.parser.EntityInfoCache;
 import com.diboot.core.binding.parser.PropInfo;
 import com.diboot.core.cache.StaticMemoryCacheManager;
@@ -43,10 +44,6 @@ import java.util.*;
  */
 @Slf4j
 public class BindingCacheManager {
-    /**
-     * 实体相关定义缓存管理器
-     */
-    private static StaticMemoryCacheManager cacheManager;
     /**
      * 类-EntityInfo缓存key
      */
@@ -71,17 +68,32 @@ public class BindingCacheManager {
      * 类- name-field Map缓存
      */
     private static final String CACHE_NAME_CLASS_NAME2FLDMAP = "CLASS_NAME2FLDMAP";
+    /**
+     * 类-属性访问器缓存
+     */
+    private static final String CACHE_NAME_CLASS_ACCESSOR = "CLASS_ACCESSOR";
+    /**
+     * 实体相关定义缓存管理器
+     */
+    private static final StaticMemoryCacheManager cacheManager = new StaticMemoryCacheManager(
+            CACHE_NAME_CLASS_ENTITY,
+            CACHE_NAME_TABLE_ENTITY,
+            CACHE_NAME_CLASS_PROP,
+            CACHE_NAME_ENTITYNAME_CLASS,
+            CACHE_NAME_CLASS_FIELDS,
+            CACHE_NAME_CLASS_NAME2FLDMAP,
+            CACHE_NAME_CLASS_ACCESSOR);
+    /**
+     * Entity缓存是否已完整初始化（初始化完成后才置为true，保证其他线程读到的是完整缓存）
+     */
+    private static volatile boolean entityInfoInitialized = false;
+    /**
+     * Entity缓存初始化中（同一线程重入时直接返回）
+     */
+    private static boolean entityInfoInitializing = false;
+    private static final Object ENTITY_INFO_INIT_LOCK = new Object();
 
     private static StaticMemoryCacheManager getCacheManager(){
-        if(cacheManager == null){
-            cacheManager = new StaticMemoryCacheManager(
-                    CACHE_NAME_CLASS_ENTITY,
-                    CACHE_NAME_TABLE_ENTITY,
-                    CACHE_NAME_CLASS_PROP,
-                    CACHE_NAME_ENTITYNAME_CLASS,
-                    CACHE_NAME_CLASS_FIELDS,
-                    CACHE_NAME_CLASS_NAME2FLDMAP);
-        }
         return cacheManager;
     }
 
@@ -223,13 +235,59 @@ public class BindingCacheManager {
     }
 
     /**
-     * 初始化
+     * 获取class的属性访问器
+     * @param beanClazz
+     * @return
      */
-    private static void initEntityInfoCache(){
-        StaticMemoryCacheManager cacheManager = getCacheManager();
-        if(cacheManager.isUninitializedCache(CACHE_NAME_CLASS_ENTITY) == false){
+    public static BeanAccessor getBeanAccessor(Class<?> beanClazz){
+        BeanAccessor accessor = getCacheManager().getCacheObj(CACHE_NAME_CLASS_ACCESSOR, beanClazz, BeanAccessor.class);
+        if(accessor == null){
+            accessor = new BeanAccessor(beanClazz);
+            getCacheManager().putCacheObj(CACHE_NAME_CLASS_ACCESSOR, beanClazz, accessor);
+        }
+        return accessor;
+    }
+
+    /**
+     * 初始化Entity缓存（扫描IService及Mapper），并发调用时仅执行一次，其他线程等待初始化完成
+     */
+    public static void initEntityInfoCache(){
+        if(entityInfoInitialized){
             return;
         }
+        synchronized (ENTITY_INFO_INIT_LOCK){
+            if(entityInfoInitialized || entityInfoInitializing){
+                return;
+            }
+            entityInfoInitializing = true;
+            try{
+                doInitEntityInfoCache();
+                entityInfoInitialized = true;
+            }
+            finally {
+                entityInfoInitializing = false;
+            }
+        }
+    }
+
+    /**
+     * 获取已缓存的Entity类
+     * @return
+     */
+    public static List<Class<?>> getCachedEntityClasses(){
+        initEntityInfoCache();
+        List<Class<?>> entityClassList = new ArrayList<>();
+        for(Class entityClass : getCacheManager().getCacheObjects(CACHE_NAME_ENTITYNAME_CLASS, Class.class)){
+            entityClassList.add(entityClass);
+        }
+        return entityClassList;
+    }
+
+    /**
+     * 扫描IService及Mapper初始化Entity缓存
+     */
+    private static void doInitEntityInfoCache(){
+        StaticMemoryCacheManager cacheManager = getCacheManager();
         // 初始化有service的entity缓存
         Map<String, IService> serviceMap = ContextHelper.getApplicationContext().getBeansOfType(IService.class);
         Set<String> uniqueEntitySet = new HashSet<>();
@@ -0,0 +1,224 @@
+package com.diboot.core.binding.cache;
+
+import com.diboot.core.binding.BindingBatchScope;
+import com.diboot.core.binding.annotation.BindCacheable;
+import com.diboot.core.config.BaseConfig;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 关联绑定结果的跨请求缓存
+ * <p>
+ * diboot.core.binding-cache=true时启用，按 (关联Entity类, 查询签名, 关联值) 缓存关联查询结果，容量有界（近似LRU淘汰）且有过期时间（diboot.core.binding-cache-ttl，默认300秒）；
+ * 经Mapper执行的新建/更新/删除（含ServiceImpl继承的方法）由BindingCacheEvictInterceptor拦截，通过递增该Entity类的版本号使其缓存整体失效。
+ * 缓存仅在当前JVM内有效：多实例部署时其他实例的变更、以及绕过MyBatis的直接JDBC写入，均在过期后才可见，仅适用于变更较少的数据
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/10
+ * Copyright © diboot.com
+ */
+public class BindingResultCache {
+
+    /**
+     * Entity类-数据版本号
+     */
+    private static final Map<Class<?>, AtomicLong> ENTITY_VERSIONS = new ConcurrentHashMap<>();
+    /**
+     * Entity类-是否标注了缓存注解
+     */
+    private static final Map<Class<?>, Boolean> CACHEABLE_ENTITIES = new ConcurrentHashMap<>();
+    /**
+     * 当前事务中已失效的Entity类集合的事务资源key
+     */
+    private static final Object TX_EVICTED_KEY = new Object();
+    /**
+     * 缓存数据
+     */
+    private static final BoundedTtlCache<CacheKey, List> CACHE = new BoundedTtlCache<>(BaseConfig::getBindingCacheMaxSize);
+
+    /**
+     * Entity类是否标注了@BindCacheable
+     * @param entityClass
+     * @return
+     */
+    public static boolean isCacheable(Class<?> entityClass){
+        return CACHEABLE_ENTITIES.computeIfAbsent(entityClass, clazz -> AnnotationUtils.findAnnotation(clazz, BindCacheable.class) != null);
+    }
+
+    /**
+     * 获取Entity类的当前数据版本号（查询前获取，用于读取及写入缓存，避免查询期间的变更被缓存）
+     * @param entityClass
+     * @return
+     */
+    public static long getVersion(Class<?> entityClass){
+        return getVersionCounter(entityClass).get();
+    }
+
+    /**
+     * 获取缓存的关联结果，未命中或已过期返回null
+     * @param entityClass 关联Entity类
+     * @param version 数据版本号
+     * @param signature 查询签名
+     * @param joinValue 关联值
+     * @return
+     */
+    public static List get(Class<?> entityClass, long version, String signature, Object joinValue){
+        return CACHE.get(new CacheKey(entityClass, version, signature, joinValue));
+    }
+
+    /**
+     * 缓存关联结果
+     * @param entityClass 关联Entity类
+     * @param version 查询前获取的数据版本号
+     * @param signature 查询签名
+     * @param joinValue 关联值
+     * @param rows 关联结果
+     */
+    public static void put(Class<?> entityClass, long version, String signature, Object joinValue, List rows){
+        // 查询期间数据已变更，不再缓存
+        if(version != getVersion(entityClass)){
+            return;
+        }
+        CACHE.put(new CacheKey(entityClass, version, signature, joinValue), Collections.unmodifiableList(rows),
+                BaseConfig.getBindingCacheTtl() * 1000L);
+    }
+
+    /**
+     * 使Entity类的缓存失效（存在事务时，事务结束后再次失效，以免提交前读取的旧数据被缓存），当前批量绑定作用域中的已加载结果同时失效。
+     * 同一事务内失效的Entity类记录于事务资源中，每个事务仅注册一个事务同步
+     * @param entityClass
+     */
+    public static void evict(Class<?> entityClass){
+        if(entityClass == null){
+            return;
+        }
+        BindingBatchScope batchScope = BindingBatchScope.current();
+        if(batchScope != null){
+            batchScope.evict(entityClass);
+        }
+        if(!BaseConfig.isBindingCache()){
+            return;
+        }
+        getVersionCounter(entityClass).incrementAndGet();
+        if(TransactionSynchronizationManager.isSynchronizationActive()){
+            getTxEvictedClasses().add(entityClass);
+        }
+    }
+
+    /**
+     * 使全部Entity类的缓存失效（无法确定变更的Entity时调用，如自定义Mapper的SQL）
+     */
+    public static void evictAll(){
+        for(Class<?> entityClass : new ArrayList<>(ENTITY_VERSIONS.keySet())){
+            evict(entityClass);
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public static void clear(){
+        CACHE.clear();
+    }
+
+    /**
+     * 当前缓存条目数
+     * @return
+     */
+    public static int size(){
+        return CACHE.size();
+    }
+
+    public static long getHitCount(){
+        return CACHE.getHitCount();
+    }
+
+    public static long getMissCount(){
+        return CACHE.getMissCount();
+    }
+
+    public static long getEvictionCount(){
+        return CACHE.getEvictionCount();
+    }
+
+    /**
+     * 获取当前事务中已失效的Entity类集合，首次获取时绑定至事务并注册事务同步
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    private static Set<Class<?>> getTxEvictedClasses(){
+        Set<Class<?>> evictedClasses = (Set<Class<?>>)TransactionSynchronizationManager.getResource(TX_EVICTED_KEY);
+        if(evictedClasses != null){
+            return evictedClasses;
+        }
+        Set<Class<?>> newEvictedClasses = new HashSet<>();
+        TransactionSynchronizationManager.bindResource(TX_EVICTED_KEY, newEvictedClasses);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void suspend() {
+                TransactionSynchronizationManager.unbindResource(TX_EVICTED_KEY);
+            }
+
+            @Override
+            public void resume() {
+                TransactionSynchronizationManager.bindResource(TX_EVICTED_KEY, newEvictedClasses);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TX_EVICTED_KEY);
+                for(Class<?> entityClass : newEvictedClasses){
+                    getVersionCounter(entityClass).incrementAndGet();
+                }
+            }
+        });
+        return newEvictedClasses;
+    }
+
+    private static AtomicLong getVersionCounter(Class<?> entityClass){
+        return ENTITY_VERSIONS.computeIfAbsent(entityClass, clazz -> new AtomicLong());
+    }
+
+    /**
+     * 缓存key
+     */
+    private static final class CacheKey {
+        private final Class<?> entityClass;
+        private final long version;
+        private final String signature;
+        private final Object joinValue;
+        private final int hash;
+
+        CacheKey(Class<?> entityClass, long version, String signature, Object joinValue){
+            this.entityClass = entityClass;
+            this.version = version;
+            this.signature = signature;
+            this.joinValue = joinValue;
+            this.hash = Objects.hash(entityClass, version, signature, joinValue);
+        }
+
+        @Override
+        public int hashCode(){
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj){
+            if(this == obj){
+                return true;
+            }
+            if(!(obj instanceof CacheKey)){
+                return false;
+            }
+            CacheKey other = (CacheKey)obj;
+            return hash == other.hash && version == other.version && entityClass == other.entityClass
+                    && signature.equals(other.signature) && Objects.equals(joinValue, other.joinValue);
+        }
+    }
+
+}
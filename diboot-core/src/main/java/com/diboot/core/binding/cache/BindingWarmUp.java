@@ -0,0 +1,252 @@
+package com.diboot.core.binding.cache;
+
+import com.diboot.core.binding.RelationsBinder;
+import com.diboot.core.binding.annotation.BindDict;
+import com.diboot.core.binding.annotation.BindEntity;
+import com.diboot.core.binding.annotation.BindEntityList;
+import com.diboot.core.binding.annotation.BindField;
+import com.diboot.core.binding.annotation.BindFieldList;
+import com.diboot.core.binding.parser.ParserCache;
+import com.diboot.core.binding.query.BindQuery;
+import com.diboot.core.binding.query.BindQueryGroup;
+import com.diboot.core.exception.InvalidUsageException;
+import com.diboot.core.util.V;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.core.type.ClassMetadata;
+import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.util.ClassUtils;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 关联绑定缓存的启动预热：初始化Entity缓存，并行扫描VO/DTO包预先解析绑定注解、条件执行计划及BindQuery关联
+ * <p>
+ * 缓存均以并发Map发布完整构建后的对象，预热完成后首次请求无需再解析。无效的绑定条件抛出InvalidUsageException，其他解析异常仅记录日志
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/20
+ * Copyright © diboot.com
+ */
+@Slf4j
+public class BindingWarmUp {
+
+    /**
+     * VO绑定注解类型
+     */
+    private static final Set<Class<? extends Annotation>> BIND_ANNOTATION_TYPES = new HashSet<>(Arrays.asList(
+            BindField.class, BindFieldList.class, BindEntity.class, BindEntityList.class, BindDict.class
+    ));
+
+    /**
+     * 执行预热
+     * @param basePackages 扫描VO/DTO的包
+     * @param parallelism 并行线程数
+     * @return 预热结果
+     */
+    public static Result warmUp(Collection<String> basePackages, int parallelism){
+        long startTime = System.nanoTime();
+        // Entity缓存，单次扫描，完成后发布
+        BindingCacheManager.initEntityInfoCache();
+        List<Class<?>> entityClasses = BindingCacheManager.getCachedEntityClasses();
+        ClassLoader classLoader = ClassUtils.getDefaultClassLoader();
+        List<String> classNames = scanClassNames(basePackages, classLoader);
+
+        AtomicInteger voCount = new AtomicInteger(0), dtoCount = new AtomicInteger(0);
+        List<Callable<Void>> tasks = new ArrayList<>(entityClasses.size() + classNames.size());
+        for(Class<?> entityClass : entityClasses){
+            tasks.add(() -> {
+                warmUpBeanClass(entityClass);
+                BindingCacheManager.getPropInfoByClass(entityClass);
+                return null;
+            });
+        }
+        for(String className : classNames){
+            tasks.add(() -> {
+                warmUpClass(className, classLoader, voCount, dtoCount);
+                return null;
+            });
+        }
+        runTasks(tasks, parallelism);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        Result result = new Result(classNames.size(), voCount.get(), dtoCount.get(), entityClasses.size(), elapsedMillis);
+        log.info("关联绑定缓存预热完成: 扫描类 {} 个, VO {} 个, DTO {} 个, Entity {} 个, 耗时 {}ms",
+                result.getClassCount(), result.getVoCount(), result.getDtoCount(), result.getEntityCount(), result.getElapsedMillis());
+        return result;
+    }
+
+    /**
+     * 扫描包下的类名
+     * @param basePackages
+     * @param classLoader
+     * @return
+     */
+    private static List<String> scanClassNames(Collection<String> basePackages, ClassLoader classLoader){
+        List<String> classNames = new ArrayList<>();
+        if(V.isEmpty(basePackages)){
+            return classNames;
+        }
+        ResourcePatternResolver resolver = new PathMatchingResourcePatternResolver(classLoader);
+        MetadataReaderFactory metadataReaderFactory = new CachingMetadataReaderFactory(resolver);
+        Set<String> uniqueClassNames = new HashSet<>();
+        for(String basePackage : basePackages){
+            if(V.isEmpty(basePackage)){
+                continue;
+            }
+            String pattern = ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX + ClassUtils.convertClassNameToResourcePath(basePackage.trim()) + "/**/*.class";
+            try{
+                for(Resource resource : resolver.getResources(pattern)){
+                    ClassMetadata metadata = metadataReaderFactory.getMetadataReader(resource).getClassMetadata();
+                    if(metadata.isInterface() || metadata.isAnnotation()){
+                        continue;
+                    }
+                    if(uniqueClassNames.add(metadata.getClassName())){
+                        classNames.add(metadata.getClassName());
+                    }
+                }
+            }
+            catch (Exception e){
+                log.warn("扫描包 {} 异常: {}", basePackage, e.getMessage());
+            }
+        }
+        return classNames;
+    }
+
+    /**
+     * 预热单个类：有绑定注解的VO解析注解及合并查询规划，有BindQuery的DTO解析关联
+     * @param className
+     * @param classLoader
+     * @param voCount
+     * @param dtoCount
+     */
+    private static void warmUpClass(String className, ClassLoader classLoader, AtomicInteger voCount, AtomicInteger dtoCount){
+        Class<?> clazz;
+        try{
+            clazz = Class.forName(className, false, classLoader);
+        }
+        catch (Throwable e){
+            log.debug("预热跳过无法加载的类: {}", className);
+            return;
+        }
+        boolean hasBindAnnotation = false, hasBindQuery = false;
+        // 不经缓存遍历属性，避免非VO/DTO类进入缓存
+        for(Class<?> beanClass = clazz; beanClass != null && beanClass != Object.class; beanClass = beanClass.getSuperclass()){
+            for(Field field : beanClass.getDeclaredFields()){
+                for(Annotation annotation : field.getDeclaredAnnotations()){
+                    Class<? extends Annotation> annotationType = annotation.annotationType();
+                    if(BIND_ANNOTATION_TYPES.contains(annotationType)){
+                        hasBindAnnotation = true;
+                    }
+                    else if(annotationType == BindQuery.class || annotationType == BindQueryGroup.class){
+                        hasBindQuery = true;
+                    }
+                }
+            }
+        }
+        if(hasBindAnnotation){
+            RelationsBinder.prepare(clazz);
+            warmUpBeanClass(clazz);
+            voCount.incrementAndGet();
+        }
+        if(hasBindQuery){
+            ParserCache.getBindQueryAnnos(clazz);
+            warmUpBeanClass(clazz);
+            dtoCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * 预热bean类的属性及访问器缓存
+     * @param beanClass
+     */
+    private static void warmUpBeanClass(Class<?> beanClass){
+        BindingCacheManager.getFieldsMap(beanClass);
+        BindingCacheManager.getBeanAccessor(beanClass);
+    }
+
+    /**
+     * 并行执行预热任务，无效绑定条件抛出异常，其他异常记录日志
+     * @param tasks
+     * @param parallelism
+     */
+    private static void runTasks(List<Callable<Void>> tasks, int parallelism){
+        if(tasks.isEmpty()){
+            return;
+        }
+        AtomicInteger threadIndex = new AtomicInteger(1);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, tasks.size())), runnable -> {
+            Thread thread = new Thread(runnable, "diboot-warm-up-" + threadIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try{
+            List<Future<Void>> futures = new ArrayList<>(tasks.size());
+            for(Callable<Void> task : tasks){
+                futures.add(executor.submit(task));
+            }
+            for(Future<Void> future : futures){
+                try{
+                    future.get();
+                }
+                catch (ExecutionException e){
+                    if(e.getCause() instanceof InvalidUsageException){
+                        throw (InvalidUsageException)e.getCause();
+                    }
+                    log.warn("关联绑定缓存预热异常: {}", e.getCause() != null? e.getCause().getMessage() : e.getMessage());
+                }
+                catch (InterruptedException e){
+                    Thread.currentThread().interrupt();
+                    log.warn("关联绑定缓存预热被中断");
+                    return;
+                }
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 预热结果
+     */
+    @Getter
+    public static class Result {
+        /**
+         * 扫描的类数
+         */
+        private final int classCount;
+        /**
+         * 有绑定注解的VO类数
+         */
+        private final int voCount;
+        /**
+         * 有BindQuery注解的DTO类数
+         */
+        private final int dtoCount;
+        /**
+         * Entity类数
+         */
+        private final int entityCount;
+        /**
+         * 预热耗时（毫秒）
+         */
+        private final long elapsedMillis;
+
+        Result(int classCount, int voCount, int dtoCount, int entityCount, long elapsedMillis){
+            this.classCount = classCount;
+            this.voCount = voCount;
+            this.dtoCount = dtoCount;
+            this.entityCount = entityCount;
+            this.elapsedMillis = elapsedMillis;
+        }
+    }
+
+}
@@ -0,0 +1,166 @@
+package com.diboot.core.binding.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntSupplier;
+
+/**
+ * 有界且带过期时间的本地缓存（关联绑定结果、跨模块绑定结果、分页总数等共用）
+ * <p>
+ * 基于ConcurrentHashMap，读写均无全局锁；条目数超出上限时由单个线程清理过期条目，仍超出时按最近访问顺序淘汰至上限的90%（近似LRU）
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/10
+ * Copyright © diboot.com
+ */
+public class BoundedTtlCache<K, V> {
+
+    private final ConcurrentHashMap<K, Entry<V>> cache = new ConcurrentHashMap<>(256);
+    /**
+     * 最大条目数
+     */
+    private final IntSupplier maxSizeSupplier;
+    /**
+     * 访问序号，用于近似LRU淘汰
+     */
+    private final AtomicLong accessTick = new AtomicLong();
+    private final ReentrantLock trimLock = new ReentrantLock();
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * 构造方法
+     * @param maxSizeSupplier 最大条目数（延迟读取配置）
+     */
+    public BoundedTtlCache(IntSupplier maxSizeSupplier){
+        this.maxSizeSupplier = maxSizeSupplier;
+    }
+
+    /**
+     * 获取缓存值，未命中或已过期返回null
+     * @param key
+     * @return
+     */
+    public V get(K key){
+        Entry<V> entry = cache.get(key);
+        if(entry != null && entry.isExpired()){
+            cache.remove(key, entry);
+            entry = null;
+        }
+        if(entry == null){
+            missCount.increment();
+            return null;
+        }
+        entry.lastAccess = accessTick.incrementAndGet();
+        hitCount.increment();
+        return entry.value;
+    }
+
+    /**
+     * 写入缓存
+     * @param key
+     * @param value
+     * @param ttlMillis 过期时间（毫秒）
+     */
+    public void put(K key, V value, long ttlMillis){
+        cache.put(key, new Entry<>(value, System.currentTimeMillis() + ttlMillis, accessTick.incrementAndGet()));
+        if(cache.size() > maxSizeSupplier.getAsInt()){
+            trim();
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clear(){
+        cache.clear();
+    }
+
+    /**
+     * 当前缓存条目数
+     * @return
+     */
+    public int size(){
+        return cache.size();
+    }
+
+    public long getHitCount(){
+        return hitCount.sum();
+    }
+
+    public long getMissCount(){
+        return missCount.sum();
+    }
+
+    public long getEvictionCount(){
+        return evictionCount.sum();
+    }
+
+    /**
+     * 清理过期条目，仍超出上限时淘汰最久未访问的条目；已有线程在清理时直接返回
+     */
+    private void trim(){
+        if(!trimLock.tryLock()){
+            return;
+        }
+        try{
+            int maxSize = maxSizeSupplier.getAsInt();
+            if(cache.size() <= maxSize){
+                return;
+            }
+            List<Map.Entry<K, Entry<V>>> entries = new ArrayList<>(cache.size());
+            for(Map.Entry<K, Entry<V>> mapEntry : cache.entrySet()){
+                if(mapEntry.getValue().isExpired()){
+                    if(cache.remove(mapEntry.getKey(), mapEntry.getValue())){
+                        evictionCount.increment();
+                    }
+                }
+                else{
+                    entries.add(mapEntry);
+                }
+            }
+            int removeCount = cache.size() - maxSize * 9 / 10;
+            if(removeCount <= 0){
+                return;
+            }
+            entries.sort((e1, e2) -> Long.compare(e1.getValue().lastAccess, e2.getValue().lastAccess));
+            for(int i=0; i<entries.size() && removeCount > 0; i++){
+                Map.Entry<K, Entry<V>> mapEntry = entries.get(i);
+                if(cache.remove(mapEntry.getKey(), mapEntry.getValue())){
+                    evictionCount.increment();
+                    removeCount--;
+                }
+            }
+        }
+        finally {
+            trimLock.unlock();
+        }
+    }
+
+    /**
+     * 缓存条目
+     */
+    private static final class Entry<V> {
+        private final V value;
+        private final long expireAt;
+        private volatile long lastAccess;
+
+        Entry(V value, long expireAt, long lastAccess){
+            this.value = value;
+            this.expireAt = expireAt;
+            this.lastAccess = lastAccess;
+        }
+
+        boolean isExpired(){
+            return System.currentTimeMillis() > expireAt;
+        }
+    }
+
+}
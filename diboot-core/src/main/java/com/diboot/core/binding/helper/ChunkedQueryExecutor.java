@@ -0,0 +1,199 @@
+package com.diboot.core.binding.helper;
+
+import com.baomidou.mybatisplus.annotation.DbType;
+import com.diboot.core.binding.binder.parallel.BindingTaskExecutor;
+import com.diboot.core.config.BaseConfig;
+import com.diboot.core.exception.BusinessException;
+import com.diboot.core.util.ContextHelper;
+import com.diboot.core.util.V;
+import com.diboot.core.vo.Status;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigInteger;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.Supplier;
+
+/**
+ * 关联绑定IN条件的分批查询执行器
+ * <p>
+ * IN条件值超出分批大小时（如Oracle的1000个、SQL Server的2100个参数限制），拆分为多个查询（多列均超出时按各列分批值组合）经关联绑定线程池并行执行后按顺序合并结果；
+ * PostgreSQL下整数值使用 = ANY(数组参数) 替代IN列表，单个参数无需拆分
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/09
+ * Copyright © diboot.com
+ */
+@Slf4j
+public class ChunkedQueryExecutor {
+
+    /**
+     * 拆分值数量超出分批大小的各列，无需拆分时返回空Map
+     * <p>
+     * 可使用数组参数的列不拆分
+     * @param col2ValuesMap 列名-IN条件值
+     * @return 需拆分的列名-分批值列表
+     */
+    public static Map<String, List<List>> partition(Map<String, List> col2ValuesMap){
+        Map<String, List<List>> col2ChunksMap = new LinkedHashMap<>();
+        int maxSize = BaseConfig.getBindingInChunkSize();
+        for(Map.Entry<String, List> entry : col2ValuesMap.entrySet()){
+            List values = entry.getValue();
+            if(values != null && values.size() > maxSize && !isArrayParamApplicable(values)){
+                col2ChunksMap.put(entry.getKey(), partition(values));
+            }
+        }
+        return col2ChunksMap;
+    }
+
+    /**
+     * 按分批大小拆分值列表
+     * @param values
+     * @return
+     */
+    public static List<List> partition(List values){
+        int chunkSize = Math.max(BaseConfig.getBindingInChunkSize(), 1);
+        List<List> chunks = new ArrayList<>(values.size() / chunkSize + 1);
+        for(int i=0; i<values.size(); i += chunkSize){
+            chunks.add(values.subList(i, Math.min(i + chunkSize, values.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * 组合各拆分列的分批值构建各批次的列名-IN条件值，未拆分的列保持完整值
+     * <p>
+     * 多列均需拆分时按各列分批值的笛卡尔积组合，以保证每个IN条件均不超出分批大小且各批次结果互不重叠；
+     * 同一列首批值在各批次中为同一实例，可据此判断是否为该列首批
+     * @param col2ValuesMap 列名-IN条件值
+     * @param col2ChunksMap 需拆分的列名-分批值列表
+     * @return
+     */
+    public static List<Map<String, List>> combine(Map<String, List> col2ValuesMap, Map<String, List<List>> col2ChunksMap){
+        List<Map<String, List>> batches = new ArrayList<>();
+        batches.add(new LinkedHashMap<>(col2ValuesMap));
+        for(Map.Entry<String, List<List>> entry : col2ChunksMap.entrySet()){
+            List<Map<String, List>> combined = new ArrayList<>(batches.size() * entry.getValue().size());
+            for(Map<String, List> batch : batches){
+                for(List chunk : entry.getValue()){
+                    Map<String, List> chunkCol2ValuesMap = new LinkedHashMap<>(batch);
+                    chunkCol2ValuesMap.put(entry.getKey(), chunk);
+                    combined.add(chunkCol2ValuesMap);
+                }
+            }
+            batches = combined;
+        }
+        if(col2ChunksMap.size() > 1){
+            log.warn("关联查询的多个IN条件列 {} 值数量均超出分批大小，按组合拆分为 {} 批执行", col2ChunksMap.keySet(), batches.size());
+        }
+        return batches;
+    }
+
+    /**
+     * 执行各批次查询（首批在当前线程执行，其余提交至关联绑定线程池，同时在途的批次数不超过并行数），并按批次顺序合并结果
+     * <p>
+     * 提交至线程池的批次由BindingTaskExecutor传递请求上下文；等待时若批次尚未开始则由当前线程直接执行，避免绑定线程等待自身所在线程池
+     * @param tasks
+     * @param <R>
+     * @return
+     */
+    public static <R> List<R> execute(List<Supplier<List<R>>> tasks){
+        int parallelism = BaseConfig.getBindingInParallelism();
+        BindingTaskExecutor executor = (tasks.size() > 1 && parallelism > 1)? ContextHelper.getBean(BindingTaskExecutor.class) : null;
+        List<R> resultList = new ArrayList<>();
+        if(executor == null){
+            for(Supplier<List<R>> task : tasks){
+                addAll(resultList, task.get());
+            }
+            return resultList;
+        }
+        List<FutureTask<List<R>>> futureTasks = new ArrayList<>(tasks.size() - 1);
+        for(int i=1; i<tasks.size(); i++){
+            futureTasks.add(new FutureTask<>(tasks.get(i)::get));
+        }
+        int inFlight = Math.min(parallelism - 1, futureTasks.size());
+        try{
+            for(int i=0; i<inFlight; i++){
+                executor.execute(futureTasks.get(i));
+            }
+            addAll(resultList, tasks.get(0).get());
+            for(int i=0; i<futureTasks.size(); i++){
+                FutureTask<List<R>> futureTask = futureTasks.get(i);
+                // 已被线程池执行时为空操作
+                futureTask.run();
+                addAll(resultList, futureTask.get());
+                if(i + inFlight < futureTasks.size()){
+                    executor.execute(futureTasks.get(i + inFlight));
+                }
+            }
+        }
+        catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new BusinessException(Status.FAIL_OPERATION, "关联数据分批查询被中断", e);
+        }
+        catch (ExecutionException e){
+            if(e.getCause() instanceof RuntimeException){
+                throw (RuntimeException)e.getCause();
+            }
+            throw new BusinessException(Status.FAIL_OPERATION, "关联数据分批查询异常", e.getCause());
+        }
+        finally {
+            for(FutureTask<List<R>> futureTask : futureTasks){
+                futureTask.cancel(true);
+            }
+        }
+        return resultList;
+    }
+
+    /**
+     * 是否可用数组参数替代IN列表：PostgreSQL且值均为整数
+     * @param values
+     * @return
+     */
+    public static boolean isArrayParamApplicable(Collection values){
+        if(V.isEmpty(values) || !BaseConfig.isBindingInArrayParam()
+                || !DbType.POSTGRE_SQL.getDb().equals(ContextHelper.getDatabaseType())){
+            return false;
+        }
+        for(Object value : values){
+            if(!(value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof BigInteger)){
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 构建数组参数条件，如: id = ANY(CAST(? AS BIGINT[]))
+     * @param column 列名
+     * @param placeholder 参数占位符
+     * @return
+     */
+    public static String buildArrayParamCondition(String column, String placeholder){
+        return column + " = ANY(CAST(" + placeholder + " AS BIGINT[]))";
+    }
+
+    /**
+     * 转换为数组参数值，如: {1,2,3}
+     * @param values
+     * @return
+     */
+    public static String toArrayParamValue(Collection values){
+        StringBuilder sb = new StringBuilder(values.size() * 8).append("{");
+        for(Object value : values){
+            if(sb.length() > 1){
+                sb.append(",");
+            }
+            sb.append(value);
+        }
+        return sb.append("}").toString();
+    }
+
+    private static <R> void addAll(List<R> resultList, List<R> chunkResult){
+        if(chunkResult != null){
+            resultList.addAll(chunkResult);
+        }
+    }
+
+}
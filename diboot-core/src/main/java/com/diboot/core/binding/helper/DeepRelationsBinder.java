@@ -15,20 +15,29 @@
  */
 package com.diboot.core.binding.helper;
 
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
 import com.diboot.core.binding.RelationsBinder;
+import com.diboot.core.binding.parser.BindAnnotationGroup;
 import com.diboot.core.binding.parser.FieldAnnotation;
+import com.diboot.core.binding.parser.ParserCache;
+import com.diboot.core.config.BaseConfig;
 import com.diboot.core.util.BeanUtils;
 import com.diboot.core.util.V;
+import lombok.extern.slf4j.Slf4j;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
 /**
  * 关联深度绑定
+ * <p>
+ * 按层广度优先绑定：同一层的全部对象按类型合并为一批绑定（每层每个关联一次查询），
+ * 按Entity类及主键识别各对象的上级链路以避免循环引用（各层绑定的是新的对象实例，无法按identity识别），并受最大层数及对象总数上限约束
  * @author Jerry@dibo.ltd
  * @version v2.1.2
  * @date 2020/08/26
  */
+@Slf4j
 public class DeepRelationsBinder {
 
     /**
@@ -42,27 +51,136 @@ public class DeepRelationsBinder {
         if(V.isEmpty(voList)){
             return;
         }
-        // 收集待深度绑定的对象集合, 绑定第二层
+        int maxDepth = BaseConfig.getDeepBindMaxDepth();
+        int maxRows = BaseConfig.getDeepBindMaxRows();
+        // 各对象（identity）自顶层至自身的Entity类+主键链路，用于识别循环引用
+        Map<Object, Set<Object>> currentPathMap = new IdentityHashMap<>();
+        for(VO vo : voList){
+            currentPathMap.put(vo, Collections.singleton(buildEntityKey(vo)));
+        }
+        int rowCount = voList.size();
+        // 收集待深度绑定的对象集合, 从第二层开始逐层绑定
+        Map<Class<?>, List<Object>> levelObjectsMap = new LinkedHashMap<>();
+        Map<Object, Set<Object>> levelPathMap = new IdentityHashMap<>();
+        collectDeepBindObjects(voList, deepBindEntityAnnoList, deepBindEntitiesAnnoList, currentPathMap, levelObjectsMap, levelPathMap);
+        for(int depth = 1; depth <= maxDepth && !levelObjectsMap.isEmpty(); depth++){
+            for(List<Object> objects : levelObjectsMap.values()){
+                rowCount += objects.size();
+            }
+            if(rowCount > maxRows){
+                log.warn("深度绑定对象数 {} 超出上限 {}，第 {} 层及以下不再绑定", rowCount, maxRows, depth + 1);
+                return;
+            }
+            Map<Class<?>, List<Object>> nextLevelObjectsMap = new LinkedHashMap<>();
+            Map<Object, Set<Object>> nextLevelPathMap = new IdentityHashMap<>();
+            for(Map.Entry<Class<?>, List<Object>> entry : levelObjectsMap.entrySet()){
+                RelationsBinder.bind(entry.getValue(), false);
+                if(depth < maxDepth){
+                    BindAnnotationGroup bindAnnotationGroup = ParserCache.getBindAnnotationGroup(entry.getKey());
+                    collectDeepBindObjects(entry.getValue(), bindAnnotationGroup.getDeepBindEntityAnnotations(),
+                            bindAnnotationGroup.getDeepBindEntityListAnnotations(), levelPathMap, nextLevelObjectsMap, nextLevelPathMap);
+                }
+            }
+            levelObjectsMap = nextLevelObjectsMap;
+            levelPathMap = nextLevelPathMap;
+        }
+        if(!levelObjectsMap.isEmpty()){
+            log.debug("深度绑定已达最大层数 {}，不再继续绑定", maxDepth);
+        }
+    }
+
+    /**
+     * 收集下一层待绑定的对象，按类型分组
+     * @param objects 当前层对象
+     * @param deepBindEntityAnnoList
+     * @param deepBindEntitiesAnnoList
+     * @param pathMap 当前层对象的上级链路
+     * @param class2ObjectsMap 类型-下一层待绑定对象
+     * @param nextPathMap 下一层对象的上级链路
+     */
+    private static void collectDeepBindObjects(List<?> objects, List<FieldAnnotation> deepBindEntityAnnoList, List<FieldAnnotation> deepBindEntitiesAnnoList,
+                                               Map<Object, Set<Object>> pathMap, Map<Class<?>, List<Object>> class2ObjectsMap, Map<Object, Set<Object>> nextPathMap){
         if(V.notEmpty(deepBindEntityAnnoList)){
             for(FieldAnnotation anno : deepBindEntityAnnoList){
                 String entityFieldName = anno.getFieldName();
-                List entityList = BeanUtils.collectToList(voList, entityFieldName);
-                RelationsBinder.bind(entityList, false);
+                for(Object obj : objects){
+                    addDeepBindObject(BeanUtils.getProperty(obj, entityFieldName), pathMap.get(obj), class2ObjectsMap, nextPathMap);
+                }
             }
         }
         if(V.notEmpty(deepBindEntitiesAnnoList)){
             for(FieldAnnotation anno : deepBindEntitiesAnnoList){
                 String entityFieldName = anno.getFieldName();
-                List allEntityList = new ArrayList();
-                for(VO vo : voList){
-                    List entityList = (List) BeanUtils.getProperty(vo, entityFieldName);
+                for(Object obj : objects){
+                    List entityList = (List) BeanUtils.getProperty(obj, entityFieldName);
                     if(V.notEmpty(entityList)){
-                        allEntityList.addAll(entityList);
+                        for(Object entity : entityList){
+                            addDeepBindObject(entity, pathMap.get(obj), class2ObjectsMap, nextPathMap);
+                        }
                     }
                 }
-                RelationsBinder.bind(allEntityList, false);
             }
         }
     }
 
+    /**
+     * 添加下一层待绑定对象：已在上级链路中出现（循环引用）或已添加的对象忽略
+     * @param entity
+     * @param parentPath 上级对象的链路
+     * @param class2ObjectsMap
+     * @param nextPathMap
+     */
+    private static void addDeepBindObject(Object entity, Set<Object> parentPath, Map<Class<?>, List<Object>> class2ObjectsMap, Map<Object, Set<Object>> nextPathMap){
+        if(entity == null || nextPathMap.containsKey(entity)){
+            return;
+        }
+        Object entityKey = buildEntityKey(entity);
+        if(parentPath != null && parentPath.contains(entityKey)){
+            log.debug("深度绑定检测到循环引用，忽略: {}", entityKey);
+            return;
+        }
+        Set<Object> path = parentPath != null? new HashSet<>(parentPath) : new HashSet<>();
+        path.add(entityKey);
+        nextPathMap.put(entity, path);
+        class2ObjectsMap.computeIfAbsent(entity.getClass(), k -> new ArrayList<>()).add(entity);
+    }
+
+    /**
+     * 构建对象的Entity类+主键标识，非Entity或无主键值时为对象自身（按identity比较）
+     * @param obj
+     * @return
+     */
+    private static Object buildEntityKey(Object obj){
+        TableInfo tableInfo = TableInfoHelper.getTableInfo(obj.getClass());
+        if(tableInfo == null || tableInfo.getKeyProperty() == null){
+            return new IdentityKey(obj);
+        }
+        Object id = BeanUtils.getProperty(obj, tableInfo.getKeyProperty());
+        if(id == null){
+            return new IdentityKey(obj);
+        }
+        return tableInfo.getEntityType().getName() + ":" + id;
+    }
+
+    /**
+     * 按identity比较的对象标识
+     */
+    private static final class IdentityKey {
+        private final Object obj;
+
+        IdentityKey(Object obj){
+            this.obj = obj;
+        }
+
+        @Override
+        public boolean equals(Object other){
+            return other instanceof IdentityKey && ((IdentityKey)other).obj == obj;
+        }
+
+        @Override
+        public int hashCode(){
+            return System.identityHashCode(obj);
+        }
+    }
+
 }
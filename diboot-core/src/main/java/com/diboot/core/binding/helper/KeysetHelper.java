@@ -0,0 +1,420 @@
+package com.diboot.core.binding.helper;
+
+import com.baomidou.mybatisplus.core.conditions.AbstractWrapper;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.metadata.OrderItem;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.diboot.core.exception.InvalidUsageException;
+import com.diboot.core.util.ContextHelper;
+import com.diboot.core.util.S;
+import com.diboot.core.util.V;
+import com.diboot.core.vo.Pagination;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * 游标（keyset）分页辅助类
+ * <p>
+ * 游标编码上一页末行的排序列值及主键（主键作为唯一性兜底排序列），下一页转换为
+ * c1 >= ? AND ((c1 > ?) OR (c1 = ? AND c2 > ?) ...) 条件（降序时为<），配合相同的ORDER BY及LIMIT，
+ * 无需OFFSET跳过前序行，深分页与首页开销一致。排序列值为null时按所在数据源的null排序位置（JDBC元数据，按数据源缓存）附加IS NULL/IS NOT NULL条件；
+ * 毫秒精度的Date值按所在毫秒区间比较，以兼容数据库中更高精度的时间列。
+ * 游标中的排序摘要仅用于识别排序变化，并非防篡改签名，游标值均作为SQL参数绑定
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/20
+ * Copyright © diboot.com
+ */
+@Slf4j
+public class KeysetHelper {
+
+    private static final String TOKEN_SEPARATOR = ".";
+    private static final String NULL_TOKEN = "Z:";
+
+    /**
+     * null值排序位置：视为最小值、视为最大值、始终在前、始终在后
+     */
+    private static final int NULLS_LOW = 0, NULLS_HIGH = 1, NULLS_AT_START = 2, NULLS_AT_END = 3;
+    /**
+     * 各数据源的null值排序位置，首次使用时由JDBC元数据获取
+     */
+    private static final Map<DataSource, Integer> NULL_ORDERING_CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * 构建游标分页的排序：追加主键作为兜底排序列，主键之后的排序列无意义，忽略
+     * @param pagination
+     * @param idColumn 主键列
+     * @return
+     */
+    public static List<OrderItem> buildOrderItems(Pagination pagination, String idColumn){
+        if(V.isEmpty(idColumn)){
+            throw new InvalidUsageException("游标分页需指定主键列");
+        }
+        List<OrderItem> orderItems = new ArrayList<>();
+        List<OrderItem> paginationOrders = pagination.getOrderItems();
+        if(paginationOrders != null){
+            for(OrderItem orderItem : paginationOrders){
+                orderItems.add(orderItem);
+                if(idColumn.equalsIgnoreCase(orderItem.getColumn())){
+                    return orderItems;
+                }
+            }
+        }
+        // 兜底主键与末个排序列方向一致，无排序时默认降序
+        boolean asc = !orderItems.isEmpty() && orderItems.get(orderItems.size()-1).isAsc();
+        orderItems.add(asc? OrderItem.asc(idColumn) : OrderItem.desc(idColumn));
+        return orderItems;
+    }
+
+    /**
+     * 转换为游标分页的IPage，并附加游标定位条件至queryWrapper
+     * @param pagination
+     * @param queryWrapper
+     * @param orderItems 排序
+     * @param entityClass 主实体类，用于确定所在数据源的null值排序位置
+     * @return
+     */
+    public static <T> Page<T> toPage(Pagination pagination, Wrapper<?> queryWrapper, List<OrderItem> orderItems, Class<?> entityClass){
+        if(V.notEmpty(pagination.getCursor())){
+            if(!(queryWrapper instanceof AbstractWrapper)){
+                throw new InvalidUsageException("游标分页不支持的查询条件类型: " + queryWrapper.getClass().getName());
+            }
+            List<Object> values = decodeCursor(pagination.getCursor(), orderItems);
+            appendSeekCondition((AbstractWrapper<?, ?, ?>)queryWrapper, orderItems, values, getNullOrdering(entityClass));
+        }
+        Page<T> page = new Page<>(1, pagination.getPageSize(), false);
+        page.addOrder(orderItems);
+        return page;
+    }
+
+    /**
+     * 根据当前页结果更新下一页游标，结果不足一页时无下一页
+     * @param pagination
+     * @param orderItems 排序
+     * @param records 当前页结果
+     * @param columnValueGetter 获取结果行中指定列的值
+     */
+    public static <R> void updateNextCursor(Pagination pagination, List<OrderItem> orderItems, List<R> records, BiFunction<R, String, Object> columnValueGetter){
+        if(records == null || records.size() < pagination.getPageSize()){
+            pagination.setNextCursor(null);
+            return;
+        }
+        R lastRecord = records.get(records.size()-1);
+        List<Object> values = new ArrayList<>(orderItems.size());
+        for(OrderItem orderItem : orderItems){
+            values.add(columnValueGetter.apply(lastRecord, orderItem.getColumn()));
+        }
+        pagination.setNextCursor(encodeCursor(orderItems, values));
+    }
+
+    /**
+     * 附加定位条件：c1 >= ? AND ((c1 > ?) OR (c1 = ? AND c2 > ?) ...)，首列范围条件便于使用索引。
+     * 末列为主键不为null，其余列按null排序位置补充IS NULL/IS NOT NULL条件
+     * @param queryWrapper
+     * @param orderItems
+     * @param values
+     * @param nullOrdering null值排序位置
+     */
+    private static void appendSeekCondition(AbstractWrapper<?, ?, ?> queryWrapper, List<OrderItem> orderItems, List<Object> values, int nullOrdering){
+        List<Object> params = new ArrayList<>();
+        StringBuilder sb = new StringBuilder();
+        if(orderItems.size() > 1){
+            String bound = buildBound(params, orderItems.get(0), values.get(0), nullOrdering);
+            if(bound != null){
+                sb.append(bound).append(" AND ");
+            }
+        }
+        sb.append("(");
+        boolean first = true;
+        for(int i=0; i<orderItems.size(); i++){
+            String after = buildAfter(params, orderItems.get(i), values.get(i), i < orderItems.size()-1, nullOrdering);
+            // null值之后无非null值，无需该分支
+            if(after == null){
+                continue;
+            }
+            if(!first){
+                sb.append(" OR ");
+            }
+            first = false;
+            sb.append("(");
+            for(int j=0; j<i; j++){
+                sb.append(buildEquals(params, orderItems.get(j).getColumn(), values.get(j))).append(" AND ");
+            }
+            sb.append(after).append(")");
+        }
+        sb.append(")");
+        queryWrapper.apply(sb.toString(), params.toArray());
+    }
+
+    /**
+     * 首列范围条件（含等于），无需限定时返回null
+     */
+    private static String buildBound(List<Object> params, OrderItem orderItem, Object value, int nullOrdering){
+        String column = orderItem.getColumn();
+        boolean nullsFirst = isNullsFirst(orderItem, nullOrdering);
+        if(value == null){
+            return nullsFirst? null : column + " IS NULL";
+        }
+        String bound;
+        if(isMillisDate(value)){
+            bound = column + (orderItem.isAsc()? " >= " : " < ") + appendParam(params, orderItem.isAsc()? value : nextMillis((Date)value));
+        }
+        else{
+            bound = column + (orderItem.isAsc()? " >= " : " <= ") + appendParam(params, value);
+        }
+        return nullsFirst? bound : "(" + bound + " OR " + column + " IS NULL)";
+    }
+
+    /**
+     * 等于条件
+     */
+    private static String buildEquals(List<Object> params, String column, Object value){
+        if(value == null){
+            return column + " IS NULL";
+        }
+        if(isMillisDate(value)){
+            return column + " >= " + appendParam(params, value) + " AND " + column + " < " + appendParam(params, nextMillis((Date)value));
+        }
+        return column + " = " + appendParam(params, value);
+    }
+
+    /**
+     * 排在该值之后的条件，不存在时返回null
+     */
+    private static String buildAfter(List<Object> params, OrderItem orderItem, Object value, boolean nullable, int nullOrdering){
+        String column = orderItem.getColumn();
+        boolean nullsFirst = isNullsFirst(orderItem, nullOrdering);
+        if(value == null){
+            return nullsFirst? column + " IS NOT NULL" : null;
+        }
+        String after;
+        if(isMillisDate(value)){
+            after = column + (orderItem.isAsc()? " >= " : " < ") + appendParam(params, orderItem.isAsc()? nextMillis((Date)value) : value);
+        }
+        else{
+            after = column + (orderItem.isAsc()? " > " : " < ") + appendParam(params, value);
+        }
+        return (nullsFirst || !nullable)? after : "(" + after + " OR " + column + " IS NULL)";
+    }
+
+    /**
+     * 该排序下null值是否排在非null值之前
+     */
+    private static boolean isNullsFirst(OrderItem orderItem, int nullOrdering){
+        switch (nullOrdering){
+            case NULLS_HIGH:
+                return !orderItem.isAsc();
+            case NULLS_AT_START:
+                return true;
+            case NULLS_AT_END:
+                return false;
+            default:
+                return orderItem.isAsc();
+        }
+    }
+
+    /**
+     * 获取实体所在数据源的null值排序位置，无法获取时按视为最小值处理（MySQL等）
+     * @param entityClass
+     * @return
+     */
+    private static int getNullOrdering(Class<?> entityClass){
+        DataSource dataSource = getDataSource(entityClass);
+        if(dataSource == null){
+            return NULLS_LOW;
+        }
+        Integer nullOrdering = NULL_ORDERING_CACHE.get(dataSource);
+        if(nullOrdering != null){
+            return nullOrdering;
+        }
+        Connection connection = null;
+        try{
+            connection = DataSourceUtils.getConnection(dataSource);
+            DatabaseMetaData metaData = connection.getMetaData();
+            if(metaData.nullsAreSortedAtStart()){
+                nullOrdering = NULLS_AT_START;
+            }
+            else if(metaData.nullsAreSortedAtEnd()){
+                nullOrdering = NULLS_AT_END;
+            }
+            else{
+                nullOrdering = metaData.nullsAreSortedHigh()? NULLS_HIGH : NULLS_LOW;
+            }
+        }
+        catch (Exception e){
+            log.warn("获取数据库null值排序位置失败，按null视为最小值处理: {}", e.getMessage());
+            nullOrdering = NULLS_LOW;
+        }
+        finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+        NULL_ORDERING_CACHE.put(dataSource, nullOrdering);
+        return nullOrdering;
+    }
+
+    /**
+     * 获取实体所在MyBatis配置的数据源，无实体表信息时取SqlSessionFactory的数据源
+     * @param entityClass
+     * @return
+     */
+    private static DataSource getDataSource(Class<?> entityClass){
+        TableInfo tableInfo = entityClass != null? TableInfoHelper.getTableInfo(entityClass) : null;
+        Configuration configuration = tableInfo != null? tableInfo.getConfiguration() : null;
+        if(configuration == null){
+            SqlSessionFactory sqlSessionFactory = ContextHelper.getBean(SqlSessionFactory.class);
+            configuration = sqlSessionFactory != null? sqlSessionFactory.getConfiguration() : null;
+        }
+        if(configuration == null || configuration.getEnvironment() == null){
+            return null;
+        }
+        return configuration.getEnvironment().getDataSource();
+    }
+
+    /**
+     * 毫秒精度的Date值（实体Date属性会截断数据库中更高精度的时间），按所在毫秒区间比较
+     */
+    private static boolean isMillisDate(Object value){
+        return value instanceof Date && !(value instanceof Timestamp);
+    }
+
+    private static Date nextMillis(Date value){
+        return new Date(value.getTime() + 1);
+    }
+
+    private static String appendParam(List<Object> params, Object value){
+        params.add(value);
+        return "{" + (params.size()-1) + "}";
+    }
+
+    /**
+     * 编码游标：排序摘要.值1.值2...，各值带类型前缀后Base64编码
+     * @param orderItems
+     * @param values
+     * @return
+     */
+    private static String encodeCursor(List<OrderItem> orderItems, List<Object> values){
+        StringBuilder sb = new StringBuilder(buildOrderDigest(orderItems));
+        for(Object value : values){
+            sb.append(TOKEN_SEPARATOR).append(Base64.getUrlEncoder().withoutPadding().encodeToString(encodeValue(value).getBytes(StandardCharsets.UTF_8)));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 解码游标
+     * @param cursor
+     * @param orderItems
+     * @return
+     */
+    private static List<Object> decodeCursor(String cursor, List<OrderItem> orderItems){
+        String[] tokens = S.split(cursor, TOKEN_SEPARATOR);
+        if(tokens == null || !buildOrderDigest(orderItems).equals(tokens[0])){
+            throw new InvalidUsageException("分页游标与当前排序不匹配，请重新查询第一页");
+        }
+        if(tokens.length != orderItems.size()+1){
+            throw new InvalidUsageException("无效的分页游标: " + cursor);
+        }
+        List<Object> values = new ArrayList<>(orderItems.size());
+        try{
+            for(int i=1; i<tokens.length; i++){
+                values.add(decodeValue(new String(Base64.getUrlDecoder().decode(tokens[i]), StandardCharsets.UTF_8)));
+            }
+        }
+        catch (Exception e){
+            throw new InvalidUsageException("无效的分页游标: " + cursor);
+        }
+        return values;
+    }
+
+    /**
+     * 排序摘要（排序列及方向的hashCode），仅用于识别游标与当前排序不一致，不具备防篡改能力
+     * @param orderItems
+     * @return
+     */
+    private static String buildOrderDigest(List<OrderItem> orderItems){
+        StringBuilder sb = new StringBuilder();
+        for(OrderItem orderItem : orderItems){
+            sb.append(orderItem.getColumn()).append(orderItem.isAsc()? ":A," : ":D,");
+        }
+        return Integer.toHexString(sb.toString().hashCode());
+    }
+
+    private static String encodeValue(Object value){
+        if(value == null){
+            return NULL_TOKEN;
+        }
+        else if(value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte){
+            return "L:" + value;
+        }
+        else if(value instanceof Number){
+            return "N:" + new BigDecimal(value.toString()).toPlainString();
+        }
+        else if(value instanceof Timestamp){
+            Timestamp timestamp = (Timestamp)value;
+            return "P:" + timestamp.getTime() + ":" + timestamp.getNanos();
+        }
+        else if(value instanceof Date){
+            return "D:" + ((Date)value).getTime();
+        }
+        else if(value instanceof LocalDateTime){
+            return "T:" + value;
+        }
+        else if(value instanceof LocalDate){
+            return "A:" + value;
+        }
+        else if(value instanceof Boolean){
+            return "B:" + value;
+        }
+        return "S:" + value;
+    }
+
+    private static Object decodeValue(String token){
+        if(NULL_TOKEN.equals(token)){
+            return null;
+        }
+        String value = token.substring(2);
+        switch (token.charAt(0)){
+            case 'L':
+                return Long.valueOf(value);
+            case 'N':
+                return new BigDecimal(value);
+            case 'P':
+                Timestamp timestamp = new Timestamp(Long.parseLong(S.substringBefore(value, ":")));
+                timestamp.setNanos(Integer.parseInt(S.substringAfter(value, ":")));
+                return timestamp;
+            case 'D':
+                return new Date(Long.parseLong(value));
+            case 'T':
+                return LocalDateTime.parse(value);
+            case 'A':
+                return LocalDate.parse(value);
+            case 'B':
+                return Boolean.valueOf(value);
+            case 'S':
+                return value;
+            default:
+                throw new IllegalArgumentException(token);
+        }
+    }
+
+}
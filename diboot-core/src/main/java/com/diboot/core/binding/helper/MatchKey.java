@@ -0,0 +1,188 @@
+package com.diboot.core.binding.helper;
+
+import com.diboot.core.config.Cons;
+import com.diboot.core.util.S;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * 关联绑定的匹配Key（支持多列组合），替代逐行拼接的逗号分隔字符串key
+ * <p>
+ * 各列值先归一化（整数类型及整数形式的字符串统一为Long，其他非字符串类型转为String），
+ * 以兼容VO与数据库返回值类型不一致的情况；单列时直接使用归一化后的值作为key，无需额外包装对象
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/08
+ * Copyright © diboot.com
+ */
+public final class MatchKey {
+    /**
+     * 字符串可转换为long的最大长度
+     */
+    private static final int MAX_LONG_LENGTH = 19;
+
+    /**
+     * 归一化后的列值
+     */
+    private final Object[] values;
+    /**
+     * 预计算的hash
+     */
+    private int hash;
+    /**
+     * hash是否需重新计算（仅用于复用的探测key）
+     */
+    private boolean hashDirty;
+
+    private MatchKey(Object[] values){
+        this.values = values;
+        this.hash = Arrays.hashCode(values);
+    }
+
+    /**
+     * 构建匹配key，单列时返回归一化值本身
+     * @param values
+     * @return
+     */
+    public static Object of(Object... values){
+        if(values.length == 1){
+            return normalize(values[0]);
+        }
+        Object[] normalized = new Object[values.length];
+        for(int i=0; i<values.length; i++){
+            normalized[i] = normalize(values[i]);
+        }
+        return new MatchKey(normalized);
+    }
+
+    /**
+     * 创建可复用的探测key，用于循环中的Map查找，避免逐行创建key对象
+     * @param size 列数
+     * @return
+     */
+    public static MatchKey probe(int size){
+        MatchKey probe = new MatchKey(new Object[size]);
+        probe.hashDirty = true;
+        return probe;
+    }
+
+    /**
+     * 设置探测key第index列的值
+     * @param index
+     * @param value
+     * @return
+     */
+    public MatchKey set(int index, Object value){
+        values[index] = normalize(value);
+        hashDirty = true;
+        return this;
+    }
+
+    /**
+     * 获取用于Map查找的key：单列返回值本身，多列返回当前对象
+     * @return
+     */
+    public Object lookupKey(){
+        return values.length == 1? values[0] : this;
+    }
+
+    /**
+     * 归一化单个值
+     * @param value
+     * @return
+     */
+    public static Object normalize(Object value){
+        if(value == null || value instanceof Long){
+            return value;
+        }
+        if(value instanceof Integer || value instanceof Short || value instanceof Byte){
+            return ((Number)value).longValue();
+        }
+        if(value instanceof String){
+            return normalizeString((String)value);
+        }
+        if(value instanceof BigInteger){
+            BigInteger bigInteger = (BigInteger)value;
+            return bigInteger.bitLength() < Long.SIZE? (Object)bigInteger.longValue() : bigInteger.toString();
+        }
+        if(value instanceof BigDecimal){
+            BigDecimal bigDecimal = (BigDecimal)value;
+            if(bigDecimal.scale() <= 0 && bigDecimal.toBigInteger().bitLength() < Long.SIZE){
+                return bigDecimal.longValue();
+            }
+        }
+        return S.valueOf(value);
+    }
+
+    /**
+     * 整数形式（无前导0）的字符串转换为Long，其余保持不变
+     * @param value
+     * @return
+     */
+    private static Object normalizeString(String value){
+        int length = value.length();
+        if(length == 0 || length > MAX_LONG_LENGTH + 1){
+            return value;
+        }
+        int start = value.charAt(0) == '-'? 1 : 0;
+        if(start == length || length - start > MAX_LONG_LENGTH){
+            return value;
+        }
+        // 前导0不转换，以保持"001"与1不等
+        if(value.charAt(start) == '0' && (length - start > 1 || start == 1)){
+            return value;
+        }
+        for(int i=start; i<length; i++){
+            char c = value.charAt(i);
+            if(c < '0' || c > '9'){
+                return value;
+            }
+        }
+        try{
+            return Long.parseLong(value);
+        }
+        catch (NumberFormatException e){
+            return value;
+        }
+    }
+
+    /**
+     * 复制为不可变key（用于作为Map的key存储）
+     * @return
+     */
+    public Object copy(){
+        if(values.length == 1){
+            return values[0];
+        }
+        return new MatchKey(values.clone());
+    }
+
+    @Override
+    public int hashCode(){
+        if(hashDirty){
+            hash = Arrays.hashCode(values);
+            hashDirty = false;
+        }
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj){
+        if(this == obj){
+            return true;
+        }
+        if(!(obj instanceof MatchKey)){
+            return false;
+        }
+        MatchKey other = (MatchKey)obj;
+        return hashCode() == other.hashCode() && Arrays.equals(values, other.values);
+    }
+
+    @Override
+    public String toString(){
+        return S.join(values, Cons.SEPARATOR_COMMA);
+    }
+
+}
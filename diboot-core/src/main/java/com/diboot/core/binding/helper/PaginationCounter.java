@@ -0,0 +1,324 @@
+package com.diboot.core.binding.helper;
+
+import com.baomidou.mybatisplus.core.conditions.AbstractWrapper;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.conditions.segments.MergeSegments;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.diboot.core.binding.binder.parallel.BindingTaskExecutor;
+import com.diboot.core.binding.cache.BindingCacheManager;
+import com.diboot.core.binding.cache.BoundedTtlCache;
+import com.diboot.core.binding.query.CountStrategy;
+import com.diboot.core.binding.query.dynamic.AnnoJoiner;
+import com.diboot.core.binding.query.dynamic.DynamicJoinQueryWrapper;
+import com.diboot.core.binding.query.dynamic.ExtQueryWrapper;
+import com.diboot.core.config.BaseConfig;
+import com.diboot.core.data.access.CheckpointType;
+import com.diboot.core.data.access.DataAccessAnnoCache;
+import com.diboot.core.data.access.DataAccessInterface;
+import com.diboot.core.exception.BusinessException;
+import com.diboot.core.util.ContextHelper;
+import com.diboot.core.util.S;
+import com.diboot.core.util.V;
+import com.diboot.core.vo.Pagination;
+import com.diboot.core.vo.Status;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 分页查询的count策略执行器
+ * <p>
+ * SKIP: 多查询1条判断是否有下一页，不执行count；CACHE: 按归一化的查询条件（不含排序）及数据权限范围短时缓存总数；
+ * PARALLEL: count提交至关联绑定线程池（传递请求上下文）与分页查询并行执行，启用数据权限时按DEFAULT执行。
+ * 非SKIP策略下结果不足一页时直接推算总数，无需count
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/20
+ * Copyright © diboot.com
+ */
+@Slf4j
+public class PaginationCounter {
+
+    /**
+     * count缓存的最大条目数
+     */
+    private static final int MAX_CACHE_SIZE = 1024;
+
+    /**
+     * count总数缓存
+     */
+    private static final BoundedTtlCache<String, Long> COUNT_CACHE = new BoundedTtlCache<>(() -> MAX_CACHE_SIZE);
+
+    /**
+     * 获取count策略：服务端为Pagination指定的优先，其次为DTO类注解指定的。
+     * 启用数据权限时PARALLEL按DEFAULT执行（数据权限实现可能依赖未传递至线程池的登录上下文）
+     * @param pagination
+     * @param queryWrapper
+     * @return
+     */
+    public static CountStrategy getCountStrategy(Pagination pagination, Wrapper<?> queryWrapper){
+        CountStrategy countStrategy = pagination.getCountStrategy();
+        if(countStrategy == null && queryWrapper instanceof ExtQueryWrapper){
+            countStrategy = ((ExtQueryWrapper<?, ?>)queryWrapper).getCountStrategy();
+        }
+        if(countStrategy == null){
+            return CountStrategy.DEFAULT;
+        }
+        if(countStrategy == CountStrategy.PARALLEL && ContextHelper.getBean(DataAccessInterface.class) != null){
+            return CountStrategy.DEFAULT;
+        }
+        return countStrategy;
+    }
+
+    /**
+     * 按count策略执行分页查询，并更新pagination的总数或是否有下一页
+     * @param pagination 分页
+     * @param page 转换后的IPage
+     * @param countStrategy count策略
+     * @param cacheKey count缓存key，为null时不缓存
+     * @param pageQuery 分页查询（不含count）
+     * @param countQuery count查询
+     * @param <T>
+     * @return
+     */
+    public static <T> List<T> query(Pagination pagination, Page<T> page, CountStrategy countStrategy, String cacheKey,
+                                    Function<Page<T>, List<T>> pageQuery, Supplier<Long> countQuery){
+        if(countStrategy == CountStrategy.SKIP){
+            return queryWithLookAhead(pagination, page, pageQuery);
+        }
+        pagination.setHasNext(null);
+        // 前端已传递总数，无需count
+        if(!page.searchCount()){
+            return pageQuery.apply(page);
+        }
+        page.setSearchCount(false);
+        boolean cacheable = countStrategy == CountStrategy.CACHE && cacheKey != null && BaseConfig.getPaginationCountCacheTtl() > 0;
+        if(cacheable){
+            Long total = COUNT_CACHE.get(cacheKey);
+            if(total != null){
+                pagination.setTotalCount(total);
+                return pageQuery.apply(page);
+            }
+        }
+        List<T> records;
+        long total;
+        Future<Long> future = countStrategy == CountStrategy.PARALLEL? submitCount(countQuery) : null;
+        if(future != null){
+            try{
+                records = pageQuery.apply(page);
+                total = future.get();
+            }
+            catch (InterruptedException e){
+                Thread.currentThread().interrupt();
+                throw new BusinessException(Status.FAIL_OPERATION, "分页count查询被中断", e);
+            }
+            catch (ExecutionException e){
+                if(e.getCause() instanceof RuntimeException){
+                    throw (RuntimeException)e.getCause();
+                }
+                throw new BusinessException(Status.FAIL_OPERATION, "分页count查询异常", e.getCause());
+            }
+            finally {
+                future.cancel(true);
+            }
+        }
+        else{
+            records = pageQuery.apply(page);
+            total = deduceTotal(pagination, records);
+            if(total < 0){
+                total = countQuery.get();
+            }
+        }
+        if(cacheable){
+            COUNT_CACHE.put(cacheKey, total, BaseConfig.getPaginationCountCacheTtl() * 1000L);
+        }
+        pagination.setTotalCount(total);
+        return records;
+    }
+
+    /**
+     * 构建count缓存key：主实体类、DTO类、select列、where/group by/having条件（不含排序）、按占位名排序的参数值，
+     * 启用数据权限时附加当前用户在主实体及关联实体所含检查点类型上可访问id的摘要（count SQL由数据权限拦截器追加条件，不同用户总数不同）
+     * @param entityClass
+     * @param queryWrapper
+     * @return 不支持的查询条件类型返回null
+     */
+    public static String buildCacheKey(Class<?> entityClass, Wrapper<?> queryWrapper){
+        if(!(queryWrapper instanceof AbstractWrapper)){
+            return null;
+        }
+        AbstractWrapper<?, ?, ?> wrapper = (AbstractWrapper<?, ?, ?>)queryWrapper;
+        StringBuilder sb = new StringBuilder(256).append(entityClass.getName());
+        if(wrapper instanceof DynamicJoinQueryWrapper){
+            sb.append("|").append(((DynamicJoinQueryWrapper<?, ?>)wrapper).getDtoClass().getName());
+        }
+        sb.append("|").append(wrapper.getSqlSelect());
+        MergeSegments segments = wrapper.getExpression();
+        if(segments != null){
+            sb.append("|").append(segments.getNormal().getSqlSegment())
+                    .append("|").append(segments.getGroupBy().getSqlSegment())
+                    .append("|").append(segments.getHaving().getSqlSegment());
+        }
+        Map<String, Object> params = new TreeMap<>(wrapper.getParamNameValuePairs());
+        for(Map.Entry<String, Object> entry : params.entrySet()){
+            sb.append("|").append(entry.getKey()).append("=").append(entry.getValue());
+        }
+        DataAccessInterface dataAccess = ContextHelper.getBean(DataAccessInterface.class);
+        if(dataAccess != null){
+            for(CheckpointType type : getCheckpointTypes(entityClass, wrapper)){
+                sb.append("|").append(type.name()).append("=").append(digest(dataAccess.getAccessibleIds(type)));
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 转换为仅count的IPage（每页0条时分页插件count后不再执行分页查询）
+     * @param page
+     * @param <T>
+     * @return
+     */
+    public static <T> Page<T> toCountPage(Page<T> page){
+        Page<T> countPage = new Page<>(1, 0);
+        countPage.setOptimizeCountSql(page.optimizeCountSql());
+        countPage.setOptimizeJoinOfCountSql(page.optimizeJoinOfCountSql());
+        countPage.setCountId(page.countId());
+        return countPage;
+    }
+
+    /**
+     * 清空count缓存
+     */
+    public static void clearCache(){
+        COUNT_CACHE.clear();
+    }
+
+    /**
+     * 获取主实体及动态关联实体（含中间表）上存在检查点的类型
+     * @param entityClass
+     * @param wrapper
+     * @return
+     */
+    private static Set<CheckpointType> getCheckpointTypes(Class<?> entityClass, AbstractWrapper<?, ?, ?> wrapper){
+        Set<Class<?>> entityClasses = new LinkedHashSet<>();
+        entityClasses.add(entityClass);
+        if(wrapper instanceof DynamicJoinQueryWrapper){
+            List<AnnoJoiner> annoJoiners = ((DynamicJoinQueryWrapper<?, ?>)wrapper).getAnnoJoiners();
+            if(annoJoiners != null){
+                for(AnnoJoiner joiner : annoJoiners){
+                    addEntityClass(entityClasses, joiner.getJoin());
+                    addEntityClass(entityClasses, joiner.getMiddleTable());
+                }
+            }
+        }
+        Set<CheckpointType> types = EnumSet.noneOf(CheckpointType.class);
+        for(Class<?> clazz : entityClasses){
+            if(!DataAccessAnnoCache.hasDataAccessCheckpoint(clazz)){
+                continue;
+            }
+            for(CheckpointType type : CheckpointType.values()){
+                if(V.notEmpty(DataAccessAnnoCache.getDataPermissionColumn(clazz, type))){
+                    types.add(type);
+                }
+            }
+        }
+        return types;
+    }
+
+    private static void addEntityClass(Set<Class<?>> entityClasses, String table){
+        if(V.notEmpty(table)){
+            Class<?> entityClass = BindingCacheManager.getEntityClassByTable(S.removeEsc(table));
+            if(entityClass != null){
+                entityClasses.add(entityClass);
+            }
+        }
+    }
+
+    /**
+     * 可访问id列表的摘要（SHA-256），避免缓存key随id数量膨胀
+     * @param ids
+     * @return
+     */
+    private static String digest(List<?> ids){
+        if(ids == null){
+            return "null";
+        }
+        try{
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = messageDigest.digest(ids.toString().getBytes(StandardCharsets.UTF_8));
+            return ids.size() + ":" + Base64.getEncoder().withoutPadding().encodeToString(bytes);
+        }
+        catch (NoSuchAlgorithmException e){
+            throw new BusinessException(Status.FAIL_OPERATION, "构建count缓存key异常", e);
+        }
+    }
+
+    /**
+     * 多查询1条记录判断是否有下一页
+     * @param pagination
+     * @param page
+     * @param pageQuery
+     * @return
+     */
+    private static <T> List<T> queryWithLookAhead(Pagination pagination, Page<T> page, Function<Page<T>, List<T>> pageQuery){
+        int pageSize = pagination.getPageSize();
+        long offset = page.offset();
+        Page<T> lookAheadPage = new Page<T>(page.getCurrent(), pageSize + 1L, false){
+            private static final long serialVersionUID = -2383567011640412047L;
+            @Override
+            public long offset(){
+                return offset;
+            }
+        };
+        lookAheadPage.addOrder(page.orders());
+        List<T> records = pageQuery.apply(lookAheadPage);
+        boolean hasNext = records != null && records.size() > pageSize;
+        pagination.setHasNext(hasNext);
+        if(hasNext){
+            return new ArrayList<>(records.subList(0, pageSize));
+        }
+        return records;
+    }
+
+    /**
+     * 结果不足一页时推算总数
+     * @param pagination
+     * @param records
+     * @return 无法推算时返回-1
+     */
+    private static long deduceTotal(Pagination pagination, List<?> records){
+        int size = records == null? 0 : records.size();
+        if(size < pagination.getPageSize() && (size > 0 || pagination.getPageIndex() <= 1)){
+            return (long)(Math.max(pagination.getPageIndex(), 1) - 1) * pagination.getPageSize() + size;
+        }
+        return -1;
+    }
+
+    /**
+     * 提交count查询至关联绑定线程池（传递请求上下文），线程池不可用或拒绝时返回null，由调用线程执行
+     * @param countQuery
+     * @return
+     */
+    private static Future<Long> submitCount(Supplier<Long> countQuery){
+        BindingTaskExecutor executor = ContextHelper.getBean(BindingTaskExecutor.class);
+        if(executor == null){
+            return null;
+        }
+        try{
+            return executor.submit(countQuery::get);
+        }
+        catch (RejectedExecutionException e){
+            log.debug("关联绑定线程池已满，count查询由调用线程执行");
+            return null;
+        }
+    }
+
+}
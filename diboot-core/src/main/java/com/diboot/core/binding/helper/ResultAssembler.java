@@ -15,8 +15,8 @@
  */
 package com.diboot.core.binding.helper;
 
-import com.diboot.core.config.Cons;
 import com.diboot.core.util.BeanUtils;
+import com.diboot.core.util.DistinctCollector;
 import com.diboot.core.util.S;
 import com.diboot.core.util.V;
 import lombok.extern.slf4j.Slf4j;
@@ -37,56 +37,31 @@ public class ResultAssembler {
      * @param setterFieldName
      * @param fromList
      * @param getterFields
-     * @param valueMatchMap
+     * @param valueMatchMap 匹配key（参见{@link MatchKey}）-值的map
      * @param <E>
      */
     public static <E> void bindPropValue(String setterFieldName, List<E> fromList, String[] getterFields, Map valueMatchMap, String splitBy){
         if(V.isEmpty(fromList) || V.isEmpty(valueMatchMap)){
             return;
         }
-        StringBuilder sb = new StringBuilder();
+        MatchKey probe = MatchKey.probe(getterFields.length);
         try{
             for(E object : fromList){
-                sb.setLength(0);
                 for(int i=0; i<getterFields.length; i++){
-                    String fieldValue = BeanUtils.getStringProperty(object, getterFields[i]);
-                    if(i > 0){
-                        sb.append(Cons.SEPARATOR_COMMA);
-                    }
-                    sb.append(fieldValue);
+                    probe.set(i, BeanUtils.getProperty(object, getterFields[i]));
                 }
                 // 查找匹配Key
-                String matchKey = sb.toString();
+                Object matchKey = probe.lookupKey();
                 if(valueMatchMap.containsKey(matchKey)){
                     // 赋值
                     BeanUtils.setProperty(object, setterFieldName, valueMatchMap.get(matchKey));
                 }
-                else if(V.notEmpty(splitBy) && getterFields.length == 1 && matchKey.contains(splitBy)){
-                    String[] keys = matchKey.split(splitBy);
-                    List matchedValues = new ArrayList(keys.length);
-                    for(String key : keys){
-                        Object value = valueMatchMap.get(key);
-                        if(value != null){
-                            if(value instanceof Collection){
-                                Collection valueList = (Collection)value;
-                                for(Object obj : valueList){
-                                    if(!matchedValues.contains(obj)){
-                                        matchedValues.add(obj);
-                                    }
-                                }
-                            }
-                            else{
-                                if(!matchedValues.contains(value)){
-                                    matchedValues.add(value);
-                                }
-                            }
-                        }
-                    }
+                else if(V.notEmpty(splitBy) && getterFields.length == 1 && isSplittable(matchKey, splitBy)){
+                    List matchedValues = collectSplitMatchedValues((String)matchKey, splitBy, valueMatchMap);
                     // 赋值
                     BeanUtils.setProperty(object, setterFieldName, matchedValues);
                 }
             }
-            sb.setLength(0);
         }
         catch (Exception e){
             log.warn("设置属性值异常, setterFieldName="+setterFieldName, e);
@@ -98,41 +73,27 @@ public class ResultAssembler {
      * @param setterFieldName
      * @param fromList
      * @param trunkObjColMapping
-     * @param valueMatchMap
+     * @param valueMatchMap 匹配key（参见{@link MatchKey}）-值的map
      * @param <E>
      */
     public static <E> void bindEntityPropValue(String setterFieldName, List<E> fromList, Map<String, String> trunkObjColMapping, Map valueMatchMap, Map<String, String> col2FieldMapping){
         if(V.isEmpty(fromList) || V.isEmpty(valueMatchMap)){
             return;
         }
-        StringBuilder sb = new StringBuilder();
+        String[] getterFields = toTrunkObjFields(trunkObjColMapping, col2FieldMapping);
+        MatchKey probe = MatchKey.probe(getterFields.length);
         try{
             for(E object : fromList){
-                boolean appendComma = false;
-                sb.setLength(0);
-                for(Map.Entry<String, String> entry :trunkObjColMapping.entrySet()){
-                    //转换为字段名
-                    String getterField = col2FieldMapping.get(entry.getKey());
-                    if(getterField == null){
-                        getterField = S.toLowerCaseCamel(entry.getKey());
-                    }
-                    String fieldValue = BeanUtils.getStringProperty(object, getterField);
-                    if(appendComma){
-                        sb.append(Cons.SEPARATOR_COMMA);
-                    }
-                    sb.append(fieldValue);
-                    if(appendComma == false){
-                        appendComma = true;
-                    }
+                for(int i=0; i<getterFields.length; i++){
+                    probe.set(i, BeanUtils.getProperty(object, getterFields[i]));
                 }
                 // 查找匹配Key
-                String matchKey = sb.toString();
+                Object matchKey = probe.lookupKey();
                 if(valueMatchMap.containsKey(matchKey)){
                     // 赋值
                     BeanUtils.setProperty(object, setterFieldName, valueMatchMap.get(matchKey));
                 }
             }
-            sb.setLength(0);
         }
         catch (Exception e){
             log.warn("设置属性值异常, setterFieldName="+setterFieldName, e);
@@ -144,52 +105,25 @@ public class ResultAssembler {
      * 从对象集合提取某个属性值到list中
      * @param fromList
      * @param getterFields
-     * @param valueMatchMap
+     * @param valueMatchMap 匹配key（参见{@link MatchKey}）-值的map
      * @param <E>
      */
-    public static <E> void bindFieldListPropValue(List<E> fromList, String[] getterFields, Map<String, List> valueMatchMap,
+    public static <E> void bindFieldListPropValue(List<E> fromList, String[] getterFields, Map<Object, List> valueMatchMap,
                                                   List<String> annoObjSetterPropNameList, List<String> refGetterFieldNameList, String splitBy){
         if(V.isEmpty(fromList) || V.isEmpty(valueMatchMap)){
             return;
         }
-        StringBuilder sb = new StringBuilder();
+        MatchKey probe = MatchKey.probe(getterFields.length);
         try{
             for(E object : fromList){
-                sb.setLength(0);
                 for(int i=0; i<getterFields.length; i++){
-                    String val = BeanUtils.getStringProperty(object, getterFields[i]);
-                    if(i>0){
-                        sb.append(Cons.SEPARATOR_COMMA);
-                    }
-                    sb.append(val);
+                    probe.set(i, BeanUtils.getProperty(object, getterFields[i]));
                 }
                 // 查找匹配Key
-                String matchKey = sb.toString();
+                Object matchKey = probe.lookupKey();
                 List entityList = valueMatchMap.get(matchKey);
-                if(entityList == null && V.notEmpty(splitBy) && matchKey.contains(splitBy)){
-                    String[] keys = matchKey.split(splitBy);
-                    List matchedValues = new ArrayList(keys.length);
-                    for(String key : keys){
-                        Object value = valueMatchMap.get(key);
-                        if(value != null){
-                            if(value instanceof Collection){
-                                Collection valueList = (Collection)value;
-                                for(Object obj : valueList){
-                                    if(!matchedValues.contains(obj)){
-                                        matchedValues.add(obj);
-                                    }
-                                }
-                            }
-                            else{
-                                if(!matchedValues.contains(value)){
-                                    matchedValues.add(value);
-                                }
-                            }
-                        }
-                    }
-                    if(matchedValues != null){
-                        entityList = matchedValues;
-                    }
+                if(entityList == null && V.notEmpty(splitBy) && isSplittable(matchKey, splitBy)){
+                    entityList = collectSplitMatchedValues((String)matchKey, splitBy, valueMatchMap);
                 }
                 if(entityList != null){
                     // 赋值
@@ -199,7 +133,6 @@ public class ResultAssembler {
                     }
                 }
             }
-            sb.setLength(0);
         }
         catch (Exception e){
             log.warn("设置属性值异常", e);
@@ -212,33 +145,23 @@ public class ResultAssembler {
      * @param trunkObjColMapping
      * @param branchObjColMapping
      * @param <E>
-     * @return
+     * @return 匹配key（参见{@link MatchKey}）-值的map
      */
-    public static <E> Map<String, Object> convertToOneToOneResult(List<Map<String, E>> resultSetMapList, Map<String, String> trunkObjColMapping, Map<String, String> branchObjColMapping) {
+    public static <E> Map<Object, Object> convertToOneToOneResult(List<Map<String, E>> resultSetMapList, Map<String, String> trunkObjColMapping, Map<String, String> branchObjColMapping) {
         if(V.isEmpty(resultSetMapList)){
             return Collections.emptyMap();
         }
         // 获取valueName
-        String valueName = branchObjColMapping.entrySet().iterator().next().getKey();
+        ResultColumn valueColumn = new ResultColumn(branchObjColMapping.entrySet().iterator().next().getKey());
+        ResultColumn[] keyColumns = toResultColumns(trunkObjColMapping.values());
         // 合并list为map
-        Map<String, Object> resultMap = new HashMap<>(resultSetMapList.size());
-        StringBuilder sb = new StringBuilder();
+        Map<Object, Object> resultMap = new HashMap<>(resultSetMapList.size());
+        MatchKey probe = MatchKey.probe(keyColumns.length);
         for(Map<String, E> row : resultSetMapList){
-            boolean appendComma = false;
-            sb.setLength(0);
-            for(Map.Entry<String, String> entry : trunkObjColMapping.entrySet()){
-                Object keyObj = getValueIgnoreKeyCase(row, entry.getValue());
-                if(appendComma){
-                    sb.append(Cons.SEPARATOR_COMMA);
-                }
-                sb.append(S.valueOf(keyObj));
-                if(appendComma == false){
-                    appendComma = true;
-                }
+            for(int i=0; i<keyColumns.length; i++){
+                probe.set(i, keyColumns[i].getValue(row));
             }
-            String matchKeys = sb.toString();
-            Object valueObj = row.containsKey(valueName)? row.get(valueName) : row.get(valueName.toUpperCase());
-            resultMap.put(matchKeys, valueObj);
+            resultMap.put(probe.copy(), valueColumn.getValue(row));
         }
         return resultMap;
     }
@@ -249,46 +172,119 @@ public class ResultAssembler {
      * @param trunkObjColMapping
      * @param branchObjColMapping
      * @param <E>
-     * @return
+     * @return 匹配key（参见{@link MatchKey}）-值列表的map
      */
-    public static <E> Map<String, List> convertToOneToManyResult(List<Map<String, E>> resultSetMapList, Map<String, String> trunkObjColMapping, Map<String, String> branchObjColMapping){
+    public static <E> Map<Object, List> convertToOneToManyResult(List<Map<String, E>> resultSetMapList, Map<String, String> trunkObjColMapping, Map<String, String> branchObjColMapping){
         if(V.isEmpty(resultSetMapList)){
             return Collections.emptyMap();
         }
         // 获取valueName
-        String valueName = branchObjColMapping.entrySet().iterator().next().getKey();
-        valueName = S.removeEsc(valueName);
+        ResultColumn valueColumn = new ResultColumn(branchObjColMapping.entrySet().iterator().next().getKey());
+        ResultColumn[] keyColumns = toResultColumns(trunkObjColMapping.values());
         // 合并list为map
-        Map<String, List> resultMap = new HashMap<>();
-        StringBuilder sb = new StringBuilder();
+        Map<Object, List> resultMap = new HashMap<>();
+        MatchKey probe = MatchKey.probe(keyColumns.length);
         for(Map<String, E> row : resultSetMapList){
-            boolean appendComma = false;
-            sb.setLength(0);
-            for(Map.Entry<String, String> entry : trunkObjColMapping.entrySet()){
-                Object keyObj = getValueIgnoreKeyCase(row, entry.getValue());
-                if(appendComma){
-                    sb.append(Cons.SEPARATOR_COMMA);
-                }
-                sb.append(S.valueOf(keyObj));
-                if(appendComma == false){
-                    appendComma = true;
-                }
-            }
-            String matchKeys = sb.toString();
-            Object valueObj = row.containsKey(valueName)? row.get(valueName) : row.get(valueName.toUpperCase());
+            Object valueObj = valueColumn.getValue(row);
             if(valueObj != null){
-                List valueList = resultMap.get(matchKeys);
+                for(int i=0; i<keyColumns.length; i++){
+                    probe.set(i, keyColumns[i].getValue(row));
+                }
+                List valueList = resultMap.get(probe.lookupKey());
                 if(valueList == null){
                     valueList = new ArrayList();
-                    resultMap.put(matchKeys, valueList);
+                    resultMap.put(probe.copy(), valueList);
                 }
                 valueList.add(valueObj);
             }
         }
-        sb.setLength(0);
         return resultMap;
     }
 
+    /**
+     * 构建匹配key-结果行的索引（每次查询构建一次）
+     * @param mapList 查询结果
+     * @param keyColumns 匹配列
+     * @return
+     */
+    public static Map<Object, Map<String, Object>> buildMatchKey2ResultMap(List<Map<String, Object>> mapList, List<String> keyColumns){
+        ResultColumn[] columns = toResultColumns(keyColumns);
+        Map<Object, Map<String, Object>> key2TargetMap = new HashMap<>(mapList.size());
+        MatchKey probe = MatchKey.probe(columns.length);
+        for(Map<String, Object> map : mapList){
+            for(int i=0; i<columns.length; i++){
+                probe.set(i, columns[i].getValue(map));
+            }
+            key2TargetMap.put(probe.copy(), map);
+        }
+        return key2TargetMap;
+    }
+
+    /**
+     * 转换列名为结果列
+     * @param columns
+     * @return
+     */
+    public static ResultColumn[] toResultColumns(Collection<String> columns){
+        ResultColumn[] resultColumns = new ResultColumn[columns.size()];
+        int i = 0;
+        for(String column : columns){
+            resultColumns[i++] = new ResultColumn(column);
+        }
+        return resultColumns;
+    }
+
+    /**
+     * 中间表映射的主对象列转换为字段名
+     * @param trunkObjColMapping
+     * @param col2FieldMapping
+     * @return
+     */
+    public static String[] toTrunkObjFields(Map<String, String> trunkObjColMapping, Map<String, String> col2FieldMapping){
+        String[] getterFields = new String[trunkObjColMapping.size()];
+        int i = 0;
+        for(String column : trunkObjColMapping.keySet()){
+            String getterField = col2FieldMapping != null? col2FieldMapping.get(column) : null;
+            getterFields[i++] = getterField != null? getterField : S.toLowerCaseCamel(column);
+        }
+        return getterFields;
+    }
+
+    /**
+     * 是否为需拆分的多值key
+     * @param matchKey
+     * @param splitBy
+     * @return
+     */
+    private static boolean isSplittable(Object matchKey, String splitBy){
+        return matchKey instanceof String && ((String)matchKey).contains(splitBy);
+    }
+
+    /**
+     * 拆分多值key并收集匹配结果
+     * @param matchKey
+     * @param splitBy
+     * @param valueMatchMap
+     * @return
+     */
+    private static List collectSplitMatchedValues(String matchKey, String splitBy, Map valueMatchMap){
+        String[] keys = matchKey.split(splitBy);
+        DistinctCollector matchedValues = new DistinctCollector(keys.length);
+        for(String key : keys){
+            Object value = valueMatchMap.get(MatchKey.normalize(key));
+            if(value != null){
+                if(value instanceof Collection){
+                    for(Object obj : (Collection)value){
+                        matchedValues.add(obj);
+                    }
+                }
+                else{
+                    matchedValues.add(value);
+                }
+            }
+        }
+        return matchedValues.toList();
+    }
 
     /**
      * 从map中取值，如直接取为null尝试转换大写后再取，以支持ORACLE等大写命名数据库
@@ -317,23 +313,7 @@ public class ResultAssembler {
      * @return
      */
     public static List unpackValueList(List valueList, String splitBy) {
-        List newValueList = new ArrayList();
-        valueList.forEach( value -> {
-            if(value != null){
-                String valueStr = S.valueOf(value);
-                if(valueStr.contains(splitBy)){
-                    for(String oneVal :valueStr.split(splitBy)){
-                        if(!newValueList.contains(oneVal)){
-                            newValueList.add(oneVal);
-                        }
-                    }
-                }
-                else if(!newValueList.contains(valueStr)){
-                    newValueList.add(valueStr);
-                }
-            }
-        });
-        return newValueList;
+        return DistinctCollector.unpack(valueList, splitBy);
     }
 
 }
@@ -0,0 +1,49 @@
+package com.diboot.core.binding.helper;
+
+import com.diboot.core.util.S;
+
+import java.util.Map;
+
+/**
+ * 查询结果Map中的列
+ * <p>
+ * 预先计算原始列名及其大写形式（兼容ORACLE等大写命名数据库），避免逐行removeEsc/toUpperCase
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/08
+ * Copyright © diboot.com
+ */
+public final class ResultColumn {
+    /**
+     * 列名（已移除转义符）
+     */
+    private final String key;
+    /**
+     * 大写列名
+     */
+    private final String upperKey;
+
+    public ResultColumn(String column){
+        this.key = S.removeEsc(column);
+        String upper = this.key != null? this.key.toUpperCase() : null;
+        this.upperKey = (upper != null && !upper.equals(this.key))? upper : null;
+    }
+
+    /**
+     * 从结果Map中取值
+     * @param row
+     * @return
+     */
+    public Object getValue(Map<String, ?> row){
+        Object value = row.get(key);
+        if(value == null && upperKey != null){
+            value = row.get(upperKey);
+        }
+        return value;
+    }
+
+    public String getKey(){
+        return key;
+    }
+
+}
@@ -18,21 +18,22 @@ package com.diboot.core.binding.helper;
 import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
-import com.baomidou.mybatisplus.core.metadata.TableFieldInfo;
-import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.baomidou.mybatisplus.core.metadata.OrderItem;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.diboot.core.binding.cache.BindingCacheManager;
 import com.diboot.core.binding.parser.EntityInfoCache;
+import com.diboot.core.binding.parser.ParserCache;
+import com.diboot.core.binding.parser.PropInfo;
+import com.diboot.core.binding.query.CountStrategy;
 import com.diboot.core.config.Cons;
 import com.diboot.core.service.BaseService;
+import com.diboot.core.util.BeanUtils;
 import com.diboot.core.util.ContextHelper;
 import com.diboot.core.util.S;
 import com.diboot.core.util.V;
 import com.diboot.core.vo.Pagination;
 
-import java.lang.reflect.Field;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -92,14 +93,11 @@ public class ServiceAdaptor {
             return (List<E>)baseService.getEntityList(queryWrapper, pagination);
         }
         else{
+            if(pagination != null && pagination.isKeyset()){
+                return queryListByKeyset(iService, queryWrapper, pagination, entityClass);
+            }
             if(pagination != null){
-                IPage<E> page = convertToIPage(pagination, entityClass);
-                page = iService.page(page, queryWrapper);
-                // 如果重新执行了count进行查询，则更新pagination中的总数
-                if(page.searchCount()){
-                    pagination.setTotalCount(page.getTotal());
-                }
-                return page.getRecords();
+                return queryPage(iService, queryWrapper, convertToIPage(pagination, entityClass), pagination, entityClass);
             }
             else{
                 return iService.list(queryWrapper);
@@ -117,6 +115,64 @@ public class ServiceAdaptor {
         if(pagination == null){
             return null;
         }
+        formatDefaultOrderBy(pagination, entityClass);
+        return pagination.toPage();
+    }
+
+    /**
+     * 按count策略查询一页的实体列表
+     * @param iService
+     * @param queryWrapper
+     * @param page 转换后的IPage
+     * @param pagination 分页，查询后更新总数
+     * @param entityClass
+     * @param <E>
+     * @return
+     */
+    public static <E> List<E> queryPage(IService iService, Wrapper queryWrapper, Page<E> page, Pagination pagination, Class entityClass){
+        CountStrategy countStrategy = PaginationCounter.getCountStrategy(pagination, queryWrapper);
+        if(countStrategy == CountStrategy.DEFAULT){
+            IPage<E> resultPage = iService.page(page, queryWrapper);
+            // 如果重新执行了count进行查询，则更新pagination中的总数
+            if(resultPage.searchCount()){
+                pagination.setTotalCount(resultPage.getTotal());
+            }
+            return resultPage.getRecords();
+        }
+        String cacheKey = countStrategy == CountStrategy.CACHE? PaginationCounter.buildCacheKey(entityClass, queryWrapper) : null;
+        return PaginationCounter.query(pagination, page, countStrategy, cacheKey,
+                p -> ((IPage<E>)iService.page(p, queryWrapper)).getRecords(),
+                () -> iService.page(PaginationCounter.toCountPage(page), queryWrapper).getTotal());
+    }
+
+    /**
+     * 游标（keyset）分页查询一页的实体列表，不执行count统计
+     * @param iService
+     * @param queryWrapper 查询条件，将附加游标定位条件
+     * @param pagination 分页，查询后更新nextCursor
+     * @param entityClass
+     * @param <E>
+     * @return
+     */
+    public static <E> List<E> queryListByKeyset(IService iService, Wrapper queryWrapper, Pagination pagination, Class entityClass){
+        formatDefaultOrderBy(pagination, entityClass);
+        PropInfo propInfo = BindingCacheManager.getPropInfoByClass(entityClass);
+        List<OrderItem> orderItems = KeysetHelper.buildOrderItems(pagination, propInfo.getIdColumn());
+        IPage<E> page = KeysetHelper.toPage(pagination, queryWrapper, orderItems, entityClass);
+        List<E> records = iService.page(page, queryWrapper).getRecords();
+        KeysetHelper.updateNextCursor(pagination, orderItems, records, (entity, column) -> {
+            String fieldName = propInfo.getColumnToFieldMap().get(column);
+            return BeanUtils.getProperty(entity, fieldName != null? fieldName : S.toLowerCaseCamel(column));
+        });
+        return records;
+    }
+
+    /**
+     * 格式化默认排序
+     * @param pagination
+     * @param entityClass
+     */
+    private static void formatDefaultOrderBy(Pagination pagination, Class entityClass){
         // 如果是默认id排序
         if(pagination.isDefaultOrderBy()){
             // 优化排序
@@ -131,7 +187,6 @@ public class ServiceAdaptor {
                 }
             }
         }
-        return pagination.toPage();
     }
 
     /**
@@ -143,26 +198,12 @@ public class ServiceAdaptor {
         if(!(queryWrapper instanceof QueryWrapper) || queryWrapper.getSqlSelect() != null){
             return queryWrapper;
         }
-        List<TableFieldInfo> allColumns = TableInfoHelper.getTableInfo(entityClass).getFieldList();
-        if(V.isEmpty(allColumns)){
-            return queryWrapper;
-        }
-        List<String> columns = new ArrayList<>();
-        String pk = ContextHelper.getIdColumnName(entityClass);
-        if(V.notEmpty(pk)){
-            columns.add(pk);
-        }
-        Map<String, Field> fieldsMap = BindingCacheManager.getFieldsMap(voClass);
-        for(TableFieldInfo col : allColumns){
-            if(fieldsMap.containsKey(col.getField().getName()) && V.notEmpty(col.getColumn()) && !col.isLogicDelete()){
-                columns.add(col.getSqlSelect());
-            }
-        }
+        Map<String, String> columns = ParserCache.getProjectionColumns(entityClass, voClass);
         // select全部列，不特殊处理
-        if(allColumns.size() <= columns.size()){
+        if(V.isEmpty(columns)){
             return queryWrapper;
         }
-        return ((QueryWrapper)queryWrapper).select(S.toStringArray(columns));
+        return ((QueryWrapper)queryWrapper).select(columns.values().toArray(new String[0]));
     }
 
 }
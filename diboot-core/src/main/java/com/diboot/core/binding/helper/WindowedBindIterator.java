@@ -0,0 +1,54 @@
+package com.diboot.core.binding.helper;
+
+import com.diboot.core.binding.RelationsBinder;
+import com.diboot.core.util.BeanUtils;
+
+import java.util.*;
+
+/**
+ * 分窗口绑定的迭代器：每次从数据来源读取一个窗口的数据，转换为VO并批量绑定后逐个返回，
+ * 同一时刻仅持有一个窗口的数据及绑定中间结果；窗口立即绑定，不受批量绑定作用域延迟
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/18
+ * Copyright © diboot.com
+ */
+public class WindowedBindIterator<E, VO> implements Iterator<VO> {
+
+    private final Iterator<E> sourceIterator;
+    private final Class<VO> voClass;
+    private final int windowSize;
+    /**
+     * 当前窗口
+     */
+    private Iterator<VO> windowIterator = Collections.emptyIterator();
+
+    public WindowedBindIterator(Iterator<E> sourceIterator, Class<VO> voClass, int windowSize){
+        this.sourceIterator = sourceIterator;
+        this.voClass = voClass;
+        this.windowSize = Math.max(windowSize, 1);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while(!windowIterator.hasNext() && sourceIterator.hasNext()){
+            List<E> window = new ArrayList<>(windowSize);
+            while(window.size() < windowSize && sourceIterator.hasNext()){
+                window.add(sourceIterator.next());
+            }
+            List<VO> voList = BeanUtils.convertList(window, voClass);
+            RelationsBinder.bindInWindows(voList, windowSize);
+            windowIterator = voList.iterator();
+        }
+        return windowIterator.hasNext();
+    }
+
+    @Override
+    public VO next() {
+        if(!hasNext()){
+            throw new NoSuchElementException();
+        }
+        return windowIterator.next();
+    }
+
+}
@@ -0,0 +1,84 @@
+package com.diboot.core.binding.metrics;
+
+import com.diboot.core.config.BaseConfig;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 关联绑定指标的发布入口：管理已注册的监听器，diboot.core.binding-metrics=true 时同时发布至内置的内存统计
+ * <p>
+ * 无监听器且未启用内存统计时不采集指标
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/20
+ * Copyright © diboot.com
+ */
+@Slf4j
+public class BindingMetrics {
+
+    private static final List<BindingMetricsListener> LISTENERS = new CopyOnWriteArrayList<>();
+    private static final InMemoryBindingMetricsListener DEFAULT_LISTENER = new InMemoryBindingMetricsListener();
+
+    /**
+     * 注册监听器（重复注册忽略）
+     * @param listener
+     */
+    public static void addListener(BindingMetricsListener listener){
+        if(listener != null && listener != DEFAULT_LISTENER && !LISTENERS.contains(listener)){
+            LISTENERS.add(listener);
+        }
+    }
+
+    /**
+     * 移除监听器
+     * @param listener
+     */
+    public static void removeListener(BindingMetricsListener listener){
+        LISTENERS.remove(listener);
+    }
+
+    /**
+     * 内置的内存统计（diboot.core.binding-metrics=true 时生效）
+     * @return
+     */
+    public static InMemoryBindingMetricsListener getDefaultListener(){
+        return DEFAULT_LISTENER;
+    }
+
+    /**
+     * 是否需要采集指标
+     * @return
+     */
+    public static boolean isEnabled(){
+        return BaseConfig.isBindingMetrics() || !LISTENERS.isEmpty();
+    }
+
+    /**
+     * 采集指标时创建记录器，否则返回null
+     * @return
+     */
+    public static BindingMetricsRecorder newRecorder(){
+        return isEnabled()? new BindingMetricsRecorder() : null;
+    }
+
+    /**
+     * 发布指标，监听器异常不影响绑定
+     * @param event
+     */
+    public static void publish(BindingMetricsEvent event){
+        if(BaseConfig.isBindingMetrics()){
+            DEFAULT_LISTENER.onBinding(event);
+        }
+        for(BindingMetricsListener listener : LISTENERS){
+            try{
+                listener.onBinding(event);
+            }
+            catch (Exception e){
+                log.warn("关联绑定指标监听器 {} 执行异常: {}", listener.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+    }
+
+}
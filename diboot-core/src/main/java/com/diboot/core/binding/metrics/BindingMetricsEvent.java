@@ -0,0 +1,84 @@
+package com.diboot.core.binding.metrics;
+
+import lombok.Getter;
+
+/**
+ * 一次关联绑定的指标：某VO类的某个绑定注解（组）执行一次绑定的查询次数、行数、关联值数及各阶段耗时
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/20
+ * Copyright © diboot.com
+ */
+@Getter
+public class BindingMetricsEvent {
+
+    /**
+     * 注解宿主VO类
+     */
+    private final Class<?> voClass;
+    /**
+     * 绑定注解类型，如 BindField
+     */
+    private final String annotationType;
+    /**
+     * 绑定的字段名，同组多个字段以,拼接
+     */
+    private final String fieldNames;
+    /**
+     * Binder类型，如 FieldBinder
+     */
+    private final String binderType;
+    /**
+     * 执行的查询次数（含远程请求，不含缓存命中）
+     */
+    private final long queryCount;
+    /**
+     * 查询返回的行数
+     */
+    private final long rowCount;
+    /**
+     * 从VO列表中收集的关联值（去重后）个数
+     */
+    private final long joinKeyCount;
+    /**
+     * 查询耗时（纳秒），分批并行查询时为各批耗时之和
+     */
+    private final long queryNanos;
+    /**
+     * 绑定总耗时（纳秒）
+     */
+    private final long totalNanos;
+    /**
+     * 绑定任务在线程池中的等待耗时（纳秒），同步执行时为0
+     */
+    private final long waitNanos;
+
+    public BindingMetricsEvent(Class<?> voClass, String annotationType, String fieldNames, String binderType,
+                               long queryCount, long rowCount, long joinKeyCount, long queryNanos, long totalNanos, long waitNanos){
+        this.voClass = voClass;
+        this.annotationType = annotationType;
+        this.fieldNames = fieldNames;
+        this.binderType = binderType;
+        this.queryCount = queryCount;
+        this.rowCount = rowCount;
+        this.joinKeyCount = joinKeyCount;
+        this.queryNanos = queryNanos;
+        this.totalNanos = totalNanos;
+        this.waitNanos = waitNanos;
+    }
+
+    /**
+     * 结果组装耗时（纳秒）：总耗时扣除查询耗时
+     * @return
+     */
+    public long getAssemblyNanos(){
+        return Math.max(totalNanos - queryNanos, 0L);
+    }
+
+    @Override
+    public String toString(){
+        return voClass.getSimpleName() + "@" + annotationType + "(" + fieldNames + ") " + binderType
+                + ": queries=" + queryCount + ", rows=" + rowCount + ", joinKeys=" + joinKeyCount
+                + ", query=" + queryNanos / 1000 + "us, assembly=" + getAssemblyNanos() / 1000 + "us, wait=" + waitNanos / 1000 + "us";
+    }
+}
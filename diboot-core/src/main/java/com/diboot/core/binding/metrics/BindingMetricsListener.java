@@ -0,0 +1,21 @@
+package com.diboot.core.binding.metrics;
+
+/**
+ * 关联绑定指标监听器SPI：每个绑定注解（组）完成绑定后回调，可实现本接口对接监控系统
+ * <p>
+ * 注册方式：声明为Spring bean，或调用 {@link BindingMetrics#addListener(BindingMetricsListener)}。
+ * 回调在绑定线程中同步执行，实现需线程安全且避免耗时操作
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/20
+ * Copyright © diboot.com
+ */
+public interface BindingMetricsListener {
+
+    /**
+     * 绑定完成
+     * @param event 本次绑定的指标
+     */
+    void onBinding(BindingMetricsEvent event);
+
+}
@@ -0,0 +1,65 @@
+package com.diboot.core.binding.metrics;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 单个Binder的指标记录器：累计查询次数、行数、关联值数及查询耗时（分批查询在多个线程中执行，需线程安全）
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/20
+ * Copyright © diboot.com
+ */
+public class BindingMetricsRecorder {
+
+    private final LongAdder queryCount = new LongAdder();
+    private final LongAdder rowCount = new LongAdder();
+    private final LongAdder joinKeyCount = new LongAdder();
+    private final LongAdder queryNanos = new LongAdder();
+
+    /**
+     * 执行查询并记录次数、行数及耗时
+     * @param query 查询
+     * @param <R> 查询结果（List/Map）
+     * @return
+     */
+    public <R> R recordQuery(Supplier<R> query){
+        long startTime = System.nanoTime();
+        R result = query.get();
+        queryNanos.add(System.nanoTime() - startTime);
+        queryCount.increment();
+        if(result instanceof Collection){
+            rowCount.add(((Collection<?>) result).size());
+        }
+        else if(result instanceof Map){
+            rowCount.add(((Map<?, ?>) result).size());
+        }
+        return result;
+    }
+
+    /**
+     * 记录收集的关联值个数
+     * @param count
+     */
+    public void addJoinKeys(int count){
+        joinKeyCount.add(count);
+    }
+
+    /**
+     * 构建指标事件
+     * @param voClass 注解宿主VO类
+     * @param annotationType 绑定注解类型
+     * @param fieldNames 绑定的字段名
+     * @param binderType Binder类型
+     * @param totalNanos 绑定总耗时
+     * @param waitNanos 线程池等待耗时
+     * @return
+     */
+    public BindingMetricsEvent toEvent(Class<?> voClass, String annotationType, String fieldNames, String binderType, long totalNanos, long waitNanos){
+        return new BindingMetricsEvent(voClass, annotationType, fieldNames, binderType, queryCount.sum(), rowCount.sum(),
+                joinKeyCount.sum(), queryNanos.sum(), totalNanos, waitNanos);
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.diboot.core.binding.metrics;
+
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * VO类绑定注解的累计指标快照
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/20
+ * Copyright © diboot.com
+ */
+@Getter
+public class BindingMetricsSnapshot {
+
+    private final Class<?> voClass;
+    private final String annotationType;
+    private final String fieldNames;
+    /**
+     * 绑定次数
+     */
+    private final long bindCount;
+    private final long queryCount;
+    private final long rowCount;
+    private final long joinKeyCount;
+    private final long queryNanos;
+    private final long assemblyNanos;
+    private final long waitNanos;
+    /**
+     * 单次绑定的最大总耗时（纳秒）
+     */
+    private final long maxTotalNanos;
+
+    BindingMetricsSnapshot(Class<?> voClass, String annotationType, String fieldNames, long bindCount, long queryCount, long rowCount,
+                           long joinKeyCount, long queryNanos, long assemblyNanos, long waitNanos, long maxTotalNanos){
+        this.voClass = voClass;
+        this.annotationType = annotationType;
+        this.fieldNames = fieldNames;
+        this.bindCount = bindCount;
+        this.queryCount = queryCount;
+        this.rowCount = rowCount;
+        this.joinKeyCount = joinKeyCount;
+        this.queryNanos = queryNanos;
+        this.assemblyNanos = assemblyNanos;
+        this.waitNanos = waitNanos;
+        this.maxTotalNanos = maxTotalNanos;
+    }
+
+    public double getQueryMillis(){
+        return queryNanos / 1000000.0;
+    }
+
+    public double getAssemblyMillis(){
+        return assemblyNanos / 1000000.0;
+    }
+
+    public double getWaitMillis(){
+        return waitNanos / 1000000.0;
+    }
+
+    public long getMaxTotalMillis(){
+        return TimeUnit.NANOSECONDS.toMillis(maxTotalNanos);
+    }
+
+    @Override
+    public String toString(){
+        return voClass.getSimpleName() + "@" + annotationType + "(" + fieldNames + "): binds=" + bindCount + ", queries=" + queryCount
+                + ", rows=" + rowCount + ", joinKeys=" + joinKeyCount + ", query=" + String.format("%.2f", getQueryMillis())
+                + "ms, assembly=" + String.format("%.2f", getAssemblyMillis()) + "ms, wait=" + String.format("%.2f", getWaitMillis())
+                + "ms, maxTotal=" + getMaxTotalMillis() + "ms";
+    }
+}
@@ -0,0 +1,105 @@
+package com.diboot.core.binding.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 内置的内存指标统计：按 VO类+绑定注解 累计各项指标，提供快照查询（可用于测试断言或运维排查）
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/20
+ * Copyright © diboot.com
+ */
+public class InMemoryBindingMetricsListener implements BindingMetricsListener {
+
+    /**
+     * VO类+绑定注解-累计指标
+     */
+    private final Map<String, Stats> key2StatsMap = new ConcurrentHashMap<>();
+
+    @Override
+    public void onBinding(BindingMetricsEvent event) {
+        String key = event.getVoClass().getName() + "#" + event.getAnnotationType() + "(" + event.getFieldNames() + ")";
+        key2StatsMap.computeIfAbsent(key, k -> new Stats(event)).record(event);
+    }
+
+    /**
+     * 获取各VO类绑定注解的指标快照
+     * @return
+     */
+    public List<BindingMetricsSnapshot> snapshot(){
+        List<BindingMetricsSnapshot> snapshots = new ArrayList<>(key2StatsMap.size());
+        for(Stats stats : key2StatsMap.values()){
+            snapshots.add(stats.toSnapshot());
+        }
+        return snapshots;
+    }
+
+    /**
+     * 获取VO类指定字段所在绑定注解的指标快照，无记录返回null
+     * @param voClass VO类
+     * @param fieldName 绑定的字段名
+     * @return
+     */
+    public BindingMetricsSnapshot snapshot(Class<?> voClass, String fieldName){
+        for(Stats stats : key2StatsMap.values()){
+            if(stats.voClass == voClass && stats.fieldNames.contains(fieldName)){
+                return stats.toSnapshot();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 清空统计
+     */
+    public void reset(){
+        key2StatsMap.clear();
+    }
+
+    /**
+     * 累计指标
+     */
+    private static final class Stats {
+        private final Class<?> voClass;
+        private final String annotationType;
+        private final List<String> fieldNames = new ArrayList<>();
+        private final LongAdder bindCount = new LongAdder();
+        private final LongAdder queryCount = new LongAdder();
+        private final LongAdder rowCount = new LongAdder();
+        private final LongAdder joinKeyCount = new LongAdder();
+        private final LongAdder queryNanos = new LongAdder();
+        private final LongAdder assemblyNanos = new LongAdder();
+        private final LongAdder waitNanos = new LongAdder();
+        private final LongAccumulator maxTotalNanos = new LongAccumulator(Long::max, 0L);
+
+        Stats(BindingMetricsEvent event){
+            this.voClass = event.getVoClass();
+            this.annotationType = event.getAnnotationType();
+            for(String fieldName : event.getFieldNames().split(",")){
+                this.fieldNames.add(fieldName);
+            }
+        }
+
+        void record(BindingMetricsEvent event){
+            bindCount.increment();
+            queryCount.add(event.getQueryCount());
+            rowCount.add(event.getRowCount());
+            joinKeyCount.add(event.getJoinKeyCount());
+            queryNanos.add(event.getQueryNanos());
+            assemblyNanos.add(event.getAssemblyNanos());
+            waitNanos.add(event.getWaitNanos());
+            maxTotalNanos.accumulate(event.getTotalNanos());
+        }
+
+        BindingMetricsSnapshot toSnapshot(){
+            return new BindingMetricsSnapshot(voClass, annotationType, String.join(",", fieldNames), bindCount.sum(), queryCount.sum(),
+                    rowCount.sum(), joinKeyCount.sum(), queryNanos.sum(), assemblyNanos.sum(), waitNanos.sum(), maxTotalNanos.get());
+        }
+    }
+
+}
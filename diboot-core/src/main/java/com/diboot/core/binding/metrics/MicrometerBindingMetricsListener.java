@@ -0,0 +1,71 @@
+package com.diboot.core.binding.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 关联绑定指标的Micrometer桥接：将指标写入应用的MeterRegistry（标签: vo, annotation, binder）
+ * <p>
+ * micrometer-core为可选依赖，应用引入Micrometer时由starter自动注册。输出的指标：
+ * diboot.binding.queries, diboot.binding.rows, diboot.binding.join.keys（计数），
+ * diboot.binding.query.time, diboot.binding.assembly.time, diboot.binding.wait.time（计时）
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/20
+ * Copyright © diboot.com
+ */
+public class MicrometerBindingMetricsListener implements BindingMetricsListener {
+
+    private final Supplier<MeterRegistry> meterRegistrySupplier;
+    /**
+     * 指标名+标签-Counter
+     */
+    private final Map<String, Counter> counterCache = new ConcurrentHashMap<>();
+    /**
+     * 指标名+标签-Timer
+     */
+    private final Map<String, Timer> timerCache = new ConcurrentHashMap<>();
+
+    /**
+     * 构造方法
+     * @param meterRegistrySupplier MeterRegistry实例的获取方法（延迟获取，避免初始化顺序依赖）
+     */
+    public MicrometerBindingMetricsListener(Supplier<MeterRegistry> meterRegistrySupplier){
+        this.meterRegistrySupplier = meterRegistrySupplier;
+    }
+
+    @Override
+    public void onBinding(BindingMetricsEvent event) {
+        MeterRegistry meterRegistry = meterRegistrySupplier.get();
+        if(meterRegistry == null){
+            return;
+        }
+        Tags tags = Tags.of("vo", event.getVoClass().getSimpleName(),
+                "annotation", event.getAnnotationType() + "(" + event.getFieldNames() + ")",
+                "binder", event.getBinderType());
+        increment(meterRegistry, "diboot.binding.queries", tags, event.getQueryCount());
+        increment(meterRegistry, "diboot.binding.rows", tags, event.getRowCount());
+        increment(meterRegistry, "diboot.binding.join.keys", tags, event.getJoinKeyCount());
+        record(meterRegistry, "diboot.binding.query.time", tags, event.getQueryNanos());
+        record(meterRegistry, "diboot.binding.assembly.time", tags, event.getAssemblyNanos());
+        record(meterRegistry, "diboot.binding.wait.time", tags, event.getWaitNanos());
+    }
+
+    private void increment(MeterRegistry meterRegistry, String name, Tags tags, long amount){
+        if(amount > 0){
+            counterCache.computeIfAbsent(name + tags, k -> meterRegistry.counter(name, tags)).increment(amount);
+        }
+    }
+
+    private void record(MeterRegistry meterRegistry, String name, Tags tags, long nanos){
+        timerCache.computeIfAbsent(name + tags, k -> meterRegistry.timer(name, tags)).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+}
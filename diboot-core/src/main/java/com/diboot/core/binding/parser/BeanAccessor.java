@@ -0,0 +1,208 @@
+package com.diboot.core.binding.parser;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Bean属性访问器缓存
+ * <p>
+ * 按类预编译各属性的getter/setter（优先LambdaMetafactory，不可见时退化为MethodHandle），
+ * 以替代每次调用都新建BeanWrapper的反射开销
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/06
+ * Copyright © diboot.com
+ */
+@Slf4j
+public class BeanAccessor {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    /**
+     * bean类
+     */
+    private final Class<?> beanClass;
+    /**
+     * 属性名-getter
+     */
+    private final Map<String, Function<Object, Object>> getters;
+    /**
+     * 属性名-setter
+     */
+    private final Map<String, BiConsumer<Object, Object>> setters;
+    /**
+     * 属性名-setter参数类型
+     */
+    private final Map<String, Class<?>> setterTypes;
+
+    /**
+     * 初始化
+     * @param beanClass
+     */
+    public BeanAccessor(Class<?> beanClass){
+        this.beanClass = beanClass;
+        this.getters = new HashMap<>();
+        this.setters = new HashMap<>();
+        this.setterTypes = new HashMap<>();
+        // 与BeanWrapper一致，基于Spring缓存的内省结果解析属性（支持链式setter）
+        PropertyDescriptor[] descriptors = org.springframework.beans.BeanUtils.getPropertyDescriptors(beanClass);
+        for(PropertyDescriptor pd : descriptors){
+            Method readMethod = pd.getReadMethod();
+            if(readMethod != null && readMethod.getParameterCount() == 0 && !"class".equals(pd.getName())){
+                try{
+                    getters.put(pd.getName(), compileGetter(readMethod));
+                }
+                catch (Throwable e){
+                    log.debug("无法预编译getter: {}.{}, {}", beanClass.getName(), pd.getName(), e.getMessage());
+                }
+            }
+            Method writeMethod = pd.getWriteMethod();
+            if(writeMethod != null && writeMethod.getParameterCount() == 1){
+                try{
+                    setters.put(pd.getName(), compileSetter(writeMethod));
+                    setterTypes.put(pd.getName(), writeMethod.getParameterTypes()[0]);
+                }
+                catch (Throwable e){
+                    log.debug("无法预编译setter: {}.{}, {}", beanClass.getName(), pd.getName(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    public Class<?> getBeanClass(){
+        return beanClass;
+    }
+
+    /**
+     * 获取属性的getter，不存在返回null
+     * @param propName
+     * @return
+     */
+    public Function<Object, Object> getGetter(String propName){
+        return getters.get(propName);
+    }
+
+    /**
+     * 获取属性的setter，不存在返回null
+     * @param propName
+     * @return
+     */
+    public BiConsumer<Object, Object> getSetter(String propName){
+        return setters.get(propName);
+    }
+
+    /**
+     * 获取setter参数类型
+     * @param propName
+     * @return
+     */
+    public Class<?> getSetterType(String propName){
+        return setterTypes.get(propName);
+    }
+
+    /**
+     * 值是否可直接赋给该属性（无需类型转换）
+     * @param propName
+     * @param value
+     * @return
+     */
+    public boolean isAssignable(String propName, Object value){
+        Class<?> type = setterTypes.get(propName);
+        if(type == null){
+            return false;
+        }
+        if(value == null){
+            return !type.isPrimitive();
+        }
+        return ClassUtils.isAssignableValue(type, value);
+    }
+
+    /**
+     * 编译getter
+     * @param readMethod
+     * @return
+     * @throws Throwable
+     */
+    @SuppressWarnings("unchecked")
+    private Function<Object, Object> compileGetter(Method readMethod) throws Throwable {
+        if(isLambdaCompatible(readMethod)){
+            MethodHandle handle = LOOKUP.unreflect(readMethod);
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, "apply",
+                    MethodType.methodType(Function.class),
+                    MethodType.methodType(Object.class, Object.class),
+                    handle, handle.type().wrap());
+            return (Function<Object, Object>) site.getTarget().invokeExact();
+        }
+        ReflectionUtils.makeAccessible(readMethod);
+        MethodHandle handle = LOOKUP.unreflect(readMethod).asType(MethodType.methodType(Object.class, Object.class));
+        return bean -> {
+            try{
+                return handle.invokeExact(bean);
+            }
+            catch (RuntimeException | Error e){
+                throw e;
+            }
+            catch (Throwable e){
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+
+    /**
+     * 编译setter（兼容返回this的链式setter）
+     * @param writeMethod
+     * @return
+     * @throws Throwable
+     */
+    @SuppressWarnings("unchecked")
+    private BiConsumer<Object, Object> compileSetter(Method writeMethod) throws Throwable {
+        if(isLambdaCompatible(writeMethod)){
+            MethodHandle handle = LOOKUP.unreflect(writeMethod);
+            Class<?> paramType = ClassUtils.resolvePrimitiveIfNecessary(writeMethod.getParameterTypes()[0]);
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, "accept",
+                    MethodType.methodType(BiConsumer.class),
+                    MethodType.methodType(void.class, Object.class, Object.class),
+                    handle, MethodType.methodType(void.class, writeMethod.getDeclaringClass(), paramType));
+            return (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+        }
+        ReflectionUtils.makeAccessible(writeMethod);
+        MethodHandle handle = LOOKUP.unreflect(writeMethod).asType(MethodType.methodType(void.class, Object.class, Object.class));
+        return (bean, value) -> {
+            try{
+                handle.invokeExact(bean, value);
+            }
+            catch (RuntimeException | Error e){
+                throw e;
+            }
+            catch (Throwable e){
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+
+    /**
+     * 是否可生成Lambda：方法及声明类需为public，且类对当前ClassLoader可见（如devtools重启ClassLoader加载的类则不可见）
+     * @param method
+     * @return
+     */
+    private boolean isLambdaCompatible(Method method){
+        Class<?> declaringClass = method.getDeclaringClass();
+        return Modifier.isPublic(method.getModifiers()) && Modifier.isPublic(declaringClass.getModifiers())
+                && ClassUtils.isVisible(declaringClass, BeanAccessor.class.getClassLoader());
+    }
+
+}
@@ -16,6 +16,7 @@
 package com.diboot.core.binding.parser;
 
 import com.diboot.core.binding.binder.BaseBinder;
+import com.diboot.core.exception.InvalidUsageException;
 import com.diboot.core.util.S;
 import com.diboot.core.util.V;
 import lombok.extern.slf4j.Slf4j;
@@ -36,37 +37,49 @@ import java.util.List;
 public class ConditionManager extends BaseConditionManager{
 
     /**
-     * 附加条件到binder
+     * 附加条件到binder（条件预编译为执行计划并缓存，重复绑定时直接应用）
      * @param condition
      * @param binder
      * @throws Exception
      */
     public static <T> void parseConditions(String condition, BaseBinder<T> binder) {
+        ParserCache.getConditionPlan(condition).apply(binder);
+    }
+
+    /**
+     * 编译条件为执行计划，无法解析时抛出异常
+     * @param condition
+     * @return
+     */
+    public static ConditionPlan compile(String condition) {
         List<Expression> expressionList = getExpressionList(condition);
         if(V.isEmpty(expressionList)){
-            log.warn("无法解析注解条件: {} ", condition);
-            return;
+            throw new InvalidUsageException("无法解析注解条件: " + condition);
         }
+        List<ConditionPlan.ConditionStep> steps = new ArrayList<>(expressionList.size() + 1);
+        MiddleTable middleTable = null;
         // 解析中间表关联
         String tableName = extractMiddleTableName(expressionList);
-        if(tableName != null){
-            List<Expression> additionalExpress = parseMiddleTable(binder, expressionList, tableName);
+        if(tableName != null && expressionList.size() > 1){
+            List<Expression> additionalExpress = new ArrayList<>();
+            middleTable = compileMiddleTable(expressionList, tableName, additionalExpress, steps);
             if(V.notEmpty(additionalExpress)){
-                parseDirectRelation(binder, additionalExpress);
+                compileDirectRelation(additionalExpress, steps);
             }
         }
         else{
-            parseDirectRelation(binder, expressionList);
+            // 单一条件不是中间表条件
+            compileDirectRelation(expressionList, steps);
         }
+        return new ConditionPlan(condition, middleTable, steps);
     }
 
     /**
-     * 解析直接关联
-     * @param binder
+     * 编译直接关联
      * @param expressionList
-     * @param <T>
+     * @param steps
      */
-    private static <T> void parseDirectRelation(BaseBinder<T> binder, List<Expression> expressionList) {
+    private static void compileDirectRelation(List<Expression> expressionList, List<ConditionPlan.ConditionStep> steps) {
         // 解析直接关联
         for(Expression operator : expressionList){
             if(operator instanceof EqualsTo){
@@ -76,94 +89,102 @@ public class ConditionManager extends BaseConditionManager{
                     String entityColumn = removeLeftAlias(express.getRightExpression().toString());
                     // xx=this.yy，翻转
                     if(isCurrentObjColumn(express.getRightExpression().toString()) && !isCurrentObjColumn(express.getLeftExpression().toString())){
-                        binder.joinOn(entityColumn, annoColumn);
+                        steps.add(binder -> binder.joinOn(entityColumn, annoColumn));
                     }
                     else{
-                        binder.joinOn(annoColumn, entityColumn);
+                        steps.add(binder -> binder.joinOn(annoColumn, entityColumn));
                     }
                 }
                 else{
-                    binder.andEQ(annoColumn, express.getRightExpression().toString());
+                    String value = express.getRightExpression().toString();
+                    steps.add(binder -> binder.andEQ(annoColumn, value));
                 }
             }
             else if(operator instanceof NotEqualsTo){
                 NotEqualsTo express = (NotEqualsTo)operator;
                 String annoColumn = removeLeftAlias(express.getLeftExpression().toString());
+                String value = express.getRightExpression().toString();
                 if(express.getRightExpression() instanceof Column){
-                    binder.andApply(annoColumn + " != " + express.getRightExpression().toString());
+                    String applySql = annoColumn + " != " + value;
+                    steps.add(binder -> binder.andApply(applySql));
                 }
                 else{
-                    binder.andNE(annoColumn, express.getRightExpression().toString());
+                    steps.add(binder -> binder.andNE(annoColumn, value));
                 }
             }
             else if(operator instanceof GreaterThan){
                 GreaterThan express = (GreaterThan)operator;
                 String annoColumn = removeLeftAlias(express.getLeftExpression().toString());
+                String value = express.getRightExpression().toString();
                 if(express.getRightExpression() instanceof Column){
-                    binder.andApply(annoColumn + " > "+ express.getRightExpression().toString());
+                    String applySql = annoColumn + " > "+ value;
+                    steps.add(binder -> binder.andApply(applySql));
                 }
                 else{
-                    binder.andGT(annoColumn, express.getRightExpression().toString());
+                    steps.add(binder -> binder.andGT(annoColumn, value));
                 }
             }
             else if(operator instanceof GreaterThanEquals){
                 GreaterThanEquals express = (GreaterThanEquals)operator;
                 String annoColumn = removeLeftAlias(express.getLeftExpression().toString());
+                String value = express.getRightExpression().toString();
                 if(express.getRightExpression() instanceof Column){
-                    binder.andApply(annoColumn + " >= "+ express.getRightExpression().toString());
+                    String applySql = annoColumn + " >= "+ value;
+                    steps.add(binder -> binder.andApply(applySql));
                 }
                 else{
-                    binder.andGE(annoColumn, express.getRightExpression().toString());
+                    steps.add(binder -> binder.andGE(annoColumn, value));
                 }
             }
             else if(operator instanceof MinorThan){
                 MinorThan express = (MinorThan)operator;
                 String annoColumn = removeLeftAlias(express.getLeftExpression().toString());
+                String value = express.getRightExpression().toString();
                 if(express.getRightExpression() instanceof Column){
-                    binder.andApply(annoColumn + " < "+ express.getRightExpression().toString());
+                    String applySql = annoColumn + " < "+ value;
+                    steps.add(binder -> binder.andApply(applySql));
                 }
                 else{
-                    binder.andLT(annoColumn, express.getRightExpression().toString());
+                    steps.add(binder -> binder.andLT(annoColumn, value));
                 }
             }
             else if(operator instanceof MinorThanEquals){
                 MinorThanEquals express = (MinorThanEquals)operator;
                 String annoColumn = removeLeftAlias(express.getLeftExpression().toString());
+                String value = express.getRightExpression().toString();
                 if(express.getRightExpression() instanceof Column){
-                    binder.andApply(annoColumn + " <= "+ express.getRightExpression().toString());
+                    String applySql = annoColumn + " <= "+ value;
+                    steps.add(binder -> binder.andApply(applySql));
                 }
                 else{
-                    binder.andLE(annoColumn, express.getRightExpression().toString());
+                    steps.add(binder -> binder.andLE(annoColumn, value));
                 }
             }
             else if(operator instanceof IsNullExpression){
                 IsNullExpression express = (IsNullExpression)operator;
                 String annoColumn = removeLeftAlias(express.getLeftExpression().toString());
                 if(express.isNot() == false){
-                    binder.andIsNull(annoColumn);
+                    steps.add(binder -> binder.andIsNull(annoColumn));
                 }
                 else{
-                    binder.andIsNotNull(annoColumn);
+                    steps.add(binder -> binder.andIsNotNull(annoColumn));
                 }
             }
             else if(operator instanceof InExpression){
                 InExpression express = (InExpression)operator;
                 String annoColumn = removeLeftAlias(express.getLeftExpression().toString());
-                if(express.isNot() == false){
-                    binder.andApply(annoColumn + " IN " + express.getRightItemsList().toString());
-                }
-                else{
-                    binder.andApply(annoColumn + " NOT IN " + express.getRightItemsList().toString());
-                }
+                String applySql = annoColumn + (express.isNot() == false? " IN " : " NOT IN ") + express.getRightItemsList().toString();
+                steps.add(binder -> binder.andApply(applySql));
             }
             else if(operator instanceof Between){
                 Between express = (Between)operator;
                 String annoColumn = removeLeftAlias(express.getLeftExpression().toString());
+                String begin = express.getBetweenExpressionStart().toString(), end = express.getBetweenExpressionEnd().toString();
                 if(express.isNot() == false){
-                    binder.andBetween(annoColumn, express.getBetweenExpressionStart().toString(), express.getBetweenExpressionEnd().toString());
+                    steps.add(binder -> binder.andBetween(annoColumn, begin, end));
                 }
                 else{
-                    binder.andNotBetween(annoColumn, express.getBetweenExpressionStart().toString(), express.getBetweenExpressionEnd().toString());
+                    steps.add(binder -> binder.andNotBetween(annoColumn, begin, end));
                 }
             }
             else if(operator instanceof LikeExpression){
@@ -171,10 +192,10 @@ public class ConditionManager extends BaseConditionManager{
                 String annoColumn = removeLeftAlias(express.getLeftExpression().toString());
                 String value = express.getRightExpression().toString();
                 if(express.isNot() == false){
-                    binder.andLike(annoColumn, value);
+                    steps.add(binder -> binder.andLike(annoColumn, value));
                 }
                 else{
-                    binder.andNotLike(annoColumn, value);
+                    steps.add(binder -> binder.andNotLike(annoColumn, value));
                 }
             }
             else{
@@ -184,17 +205,14 @@ public class ConditionManager extends BaseConditionManager{
     }
 
     /**
-     * 解析中间表
+     * 编译中间表
      * @param expressionList
+     * @param tableName 中间表
+     * @param additionalExpressions 非中间表的附加条件表达式
+     * @param steps
      * @return
      */
-    private static <T> List<Expression> parseMiddleTable(BaseBinder<T> binder, List<Expression> expressionList, String tableName) {
-        // 单一条件不是中间表条件
-        if(expressionList.size() <= 1){
-            return expressionList;
-        }
-        // 非中间表的附加条件表达式
-        List<Expression> additionalExpressions = new ArrayList<>();
+    private static MiddleTable compileMiddleTable(List<Expression> expressionList, String tableName, List<Expression> additionalExpressions, List<ConditionPlan.ConditionStep> steps) {
         // 提取到表
         MiddleTable middleTable = new MiddleTable(tableName);
         // VO与Entity的关联字段
@@ -223,7 +241,7 @@ public class ConditionManager extends BaseConditionManager{
                             referencedEntityPrimaryKey = leftHandColumn;
                             middleTable.connectBranchObj(middleTableCol, leftHandColumn);
                         }
-                        binder.joinOn(annoObjectForeignKey, referencedEntityPrimaryKey);
+                        addJoinOnStep(steps, annoObjectForeignKey, referencedEntityPrimaryKey);
                     }
                     // 如果左侧为中间表字段，如: Department.orgId=id  (entity=Organization)
                     else if(leftColumn.startsWith(tableName+".")){
@@ -240,7 +258,7 @@ public class ConditionManager extends BaseConditionManager{
                             referencedEntityPrimaryKey = rightHandColumn;
                             middleTable.connectBranchObj(middleTableCol, rightHandColumn);
                         }
-                        binder.joinOn(annoObjectForeignKey, referencedEntityPrimaryKey);
+                        addJoinOnStep(steps, annoObjectForeignKey, referencedEntityPrimaryKey);
                     }
                     // this.xxx=yy
                     else{
@@ -307,8 +325,20 @@ public class ConditionManager extends BaseConditionManager{
                 }
             }
         }
-        binder.withMiddleTable(middleTable);
-        return additionalExpressions;
+        steps.add(binder -> binder.withMiddleTable(middleTable));
+        return middleTable;
+    }
+
+    /**
+     * 添加关联列步骤（两侧列均已识别时）
+     * @param steps
+     * @param annoObjectForeignKey
+     * @param referencedEntityPrimaryKey
+     */
+    private static void addJoinOnStep(List<ConditionPlan.ConditionStep> steps, String annoObjectForeignKey, String referencedEntityPrimaryKey){
+        if(annoObjectForeignKey != null && referencedEntityPrimaryKey != null){
+            steps.add(binder -> binder.joinOn(annoObjectForeignKey, referencedEntityPrimaryKey));
+        }
     }
 
     /**
@@ -0,0 +1,72 @@
+package com.diboot.core.binding.parser;
+
+import com.diboot.core.binding.binder.BaseBinder;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 预编译的绑定条件执行计划：条件字符串解析一次后固化为中间表定义及条件步骤，绑定时直接应用到Binder，无需再遍历表达式
+ * <p>
+ * 计划创建后不再修改，可被多个Binder并发复用（中间表定义为只读共享）
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/20
+ * Copyright © diboot.com
+ */
+public class ConditionPlan {
+
+    /**
+     * 原始条件
+     */
+    private final String condition;
+    /**
+     * 中间表，无中间表关联时为null
+     */
+    private final MiddleTable middleTable;
+    /**
+     * 条件步骤（按原条件顺序：中间表关联列、设置中间表、直接关联及附加条件）
+     */
+    private final List<ConditionStep> steps;
+
+    ConditionPlan(String condition, MiddleTable middleTable, List<ConditionStep> steps){
+        this.condition = condition;
+        this.middleTable = middleTable;
+        this.steps = Collections.unmodifiableList(steps);
+    }
+
+    /**
+     * 应用到Binder
+     * @param binder
+     */
+    public <T> void apply(BaseBinder<T> binder){
+        for(ConditionStep step : steps){
+            step.apply(binder);
+        }
+    }
+
+    public String getCondition(){
+        return condition;
+    }
+
+    public MiddleTable getMiddleTable(){
+        return middleTable;
+    }
+
+    /**
+     * 条件步骤数
+     * @return
+     */
+    public int getStepCount(){
+        return steps.size();
+    }
+
+    /**
+     * 条件步骤：预先计算好列名及值的一次Binder调用
+     */
+    @FunctionalInterface
+    interface ConditionStep {
+        void apply(BaseBinder<?> binder);
+    }
+
+}
@@ -0,0 +1,159 @@
+package com.diboot.core.binding.parser;
+
+import com.diboot.core.binding.cache.BindingCacheManager;
+import com.diboot.core.data.encrypt.IEncryptStrategy;
+import com.diboot.core.util.BeanUtils;
+import com.diboot.core.util.S;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * 查询结果行（列名-值Map）到Entity的转换器
+ * <p>
+ * 按Entity类缓存，各列的目标属性、setter、类型及布尔列的is前缀处理在首次出现时解析并缓存（不同行因null值省略的列可能不同），
+ * 逐行转换时仅按列名查找映射并赋值，无需再做列名转换及字段查找
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/20
+ * Copyright © diboot.com
+ */
+@Slf4j
+public class EntityMaterializer<E> {
+
+    private final Class<E> entityClass;
+    private final Constructor<E> constructor;
+    private final BeanAccessor accessor;
+    private final Map<String, Field> fieldsMap;
+    /**
+     * 列名-映射
+     */
+    private final Map<String, ColumnMapping> columnMappings = new ConcurrentHashMap<>();
+    /**
+     * 保护字段名-加密器，首次解密时初始化
+     */
+    private volatile List<Map.Entry<String, IEncryptStrategy>> fieldEncryptors;
+
+    public EntityMaterializer(Class<E> entityClass){
+        this.entityClass = entityClass;
+        Constructor<E> defaultConstructor = null;
+        try{
+            defaultConstructor = entityClass.getDeclaredConstructor();
+            defaultConstructor.setAccessible(true);
+        }
+        catch (NoSuchMethodException e){
+            log.warn("{} 无默认构造方法，无法转换查询结果", entityClass.getName());
+        }
+        this.constructor = defaultConstructor;
+        this.accessor = BindingCacheManager.getBeanAccessor(entityClass);
+        this.fieldsMap = BindingCacheManager.getFieldsMap(entityClass);
+    }
+
+    /**
+     * 转换查询结果行为Entity
+     * @param colValueMap 列名-值
+     * @param decrypt 是否解密保护字段
+     * @return
+     * @throws Exception
+     */
+    public E materialize(Map<String, Object> colValueMap, boolean decrypt) throws Exception {
+        if(constructor == null){
+            throw new InstantiationException(entityClass.getName());
+        }
+        E entityInst = constructor.newInstance();
+        for(Map.Entry<String, Object> entry : colValueMap.entrySet()){
+            ColumnMapping mapping = columnMappings.get(entry.getKey());
+            if(mapping == null){
+                mapping = columnMappings.computeIfAbsent(entry.getKey(), this::buildColumnMapping);
+            }
+            Object value = entry.getValue();
+            // 布尔值时优先匹配无is前缀的boolean属性
+            if(value instanceof Boolean && mapping.booleanMapping != null){
+                mapping = mapping.booleanMapping;
+            }
+            mapping.apply(entityInst, value);
+        }
+        if(decrypt){
+            for(Map.Entry<String, IEncryptStrategy> entry : getFieldEncryptors()){
+                String value = BeanUtils.getStringProperty(entityInst, entry.getKey());
+                BeanUtils.setProperty(entityInst, entry.getKey(), value == null ? null : entry.getValue().decrypt(value));
+            }
+        }
+        return entityInst;
+    }
+
+    /**
+     * 解析列映射：列名转属性名，is_前缀的列在无同名属性时映射至去掉前缀的属性
+     * @param column
+     * @return
+     */
+    private ColumnMapping buildColumnMapping(String column){
+        String fieldName = S.toLowerCaseCamel(column);
+        ColumnMapping mapping = new ColumnMapping(fieldName);
+        if(S.startsWithIgnoreCase(column, "is_") && mapping.field == null){
+            String tempFieldName = S.toLowerCaseCamel(S.substringAfter(column, "_"));
+            if(fieldsMap.containsKey(tempFieldName)){
+                mapping.booleanMapping = new ColumnMapping(tempFieldName);
+            }
+        }
+        return mapping;
+    }
+
+    private List<Map.Entry<String, IEncryptStrategy>> getFieldEncryptors(){
+        if(fieldEncryptors == null){
+            fieldEncryptors = new ArrayList<>(ParserCache.getFieldEncryptorMap(entityClass).entrySet());
+        }
+        return fieldEncryptors;
+    }
+
+    /**
+     * 列到属性的映射
+     */
+    private class ColumnMapping {
+        private final String fieldName;
+        /**
+         * 属性定义，不存在时忽略该列
+         */
+        private final Field field;
+        private final Class<?> fieldType;
+        private final BiConsumer<Object, Object> setter;
+        /**
+         * 值为布尔类型时的映射
+         */
+        private ColumnMapping booleanMapping;
+
+        ColumnMapping(String fieldName){
+            this.fieldName = fieldName;
+            this.field = fieldsMap.get(fieldName);
+            this.fieldType = field != null ? field.getType() : null;
+            this.setter = accessor.getSetter(fieldName);
+        }
+
+        void apply(Object entityInst, Object value){
+            if(field == null){
+                return;
+            }
+            try{
+                if(value != null && value.getClass() != fieldType){
+                    value = BeanUtils.convertValueToFieldType(value, field);
+                }
+                if(setter != null && accessor.isAssignable(fieldName, value)){
+                    setter.accept(entityInst, value);
+                }
+                else{
+                    BeanUtils.setProperty(entityInst, fieldName, value);
+                }
+            }
+            catch (Exception e){
+                log.warn("复制属性{}.{}异常: {}", entityClass.getSimpleName(), fieldName, e.getMessage());
+            }
+        }
+    }
+
+}
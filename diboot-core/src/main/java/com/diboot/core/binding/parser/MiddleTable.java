@@ -19,10 +19,16 @@ import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.diboot.core.binding.binder.BaseBinder;
 import com.diboot.core.binding.cache.BindingCacheManager;
+import com.diboot.core.binding.helper.ChunkedQueryExecutor;
+import com.diboot.core.binding.helper.MatchKey;
 import com.diboot.core.binding.helper.ResultAssembler;
+import com.diboot.core.binding.helper.ResultColumn;
+import com.diboot.core.binding.query.dynamic.MiddleTableJoinWrapper;
 import com.diboot.core.config.BaseConfig;
 import com.diboot.core.config.Cons;
 import com.diboot.core.exception.InvalidUsageException;
+import com.diboot.core.mapper.DynamicQueryMapper;
+import com.diboot.core.util.ContextHelper;
 import com.diboot.core.util.S;
 import com.diboot.core.util.SqlExecutor;
 import com.diboot.core.util.V;
@@ -31,6 +37,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -122,63 +129,183 @@ public class MiddleTable {
      * @param trunkObjCol2ValuesMap
      * @return
      */
-    public Map<String, Object> executeOneToOneQuery(Map<String, List> trunkObjCol2ValuesMap){
+    public Map<Object, Object> executeOneToOneQuery(Map<String, List> trunkObjCol2ValuesMap){
         if(V.isEmpty(trunkObjCol2ValuesMap)){
             log.warn("不合理的中间表查询：无过滤条件！");
             return Collections.emptyMap();
         }
         //id //org_id
-        EntityInfoCache linkage = BindingCacheManager.getEntityInfoByTable(table);
-        // 有定义mapper，首选mapper
-        if(linkage != null){
-            List<Map<String, Object>> resultSetMapList = queryByMapper(linkage, trunkObjCol2ValuesMap);
-            return ResultAssembler.convertToOneToOneResult(resultSetMapList, trunkObjColMapping, branchObjColMapping);
+        List<Map<String, Object>> resultSetMapList = executeQuery(trunkObjCol2ValuesMap);
+        return ResultAssembler.convertToOneToOneResult(resultSetMapList, trunkObjColMapping, branchObjColMapping);
+    }
+
+    /**
+     * 执行1-N关联查询，得到关联映射Map
+     * @param trunkObjCol2ValuesMap
+     * @return
+     */
+    public Map<Object, List> executeOneToManyQuery(Map<String, List> trunkObjCol2ValuesMap){
+        if(V.isEmpty(trunkObjCol2ValuesMap)){
+            throw new InvalidUsageException("不合理的中间表查询：无过滤条件！");
+        }
+        //user_id //role_id
+        List<Map<String, Object>> resultSetMapList = executeQuery(trunkObjCol2ValuesMap);
+        return ResultAssembler.convertToOneToManyResult(resultSetMapList, trunkObjColMapping, branchObjColMapping);
+    }
+
+    /**
+     * 执行中间表与关联Entity表的单次JOIN查询，得到主对象关联值-关联Entity结果行的Map（替代中间表查询+关联表IN查询）
+     * @param trunkObjCol2ValuesMap 中间表列-主对象关联值
+     * @param entityQueryWrapper 关联Entity的查询条件（含select列及排序）
+     * @param entityClass 关联Entity类
+     * @return 匹配key（参见{@link com.diboot.core.binding.helper.MatchKey}）-关联Entity结果行（已移除中间表列）
+     */
+    public Map<Object, List<Map<String, Object>>> executeOneToManyJoinQuery(Map<String, List> trunkObjCol2ValuesMap, QueryWrapper entityQueryWrapper, Class<?> entityClass){
+        if(V.isEmpty(trunkObjCol2ValuesMap)){
+            throw new InvalidUsageException("不合理的中间表查询：无过滤条件！");
+        }
+        String entityTable = ParserCache.getEntityTableName(entityClass);
+        Map<String, List<List>> col2ChunksMap = ChunkedQueryExecutor.partition(trunkObjCol2ValuesMap);
+        List<Map<String, Object>> resultSetMapList;
+        if(col2ChunksMap.isEmpty()){
+            resultSetMapList = executeJoinQuery(entityQueryWrapper, entityTable, trunkObjCol2ValuesMap);
         }
         else{
-            // 提取中间表查询SQL: SELECT id, org_id FROM department WHERE id IN(?)
-            List paramValueList = new ArrayList();
-            String sql = toSQL(trunkObjCol2ValuesMap, paramValueList);
-            // 执行查询并合并结果
-            try {
-                List<Map<String, Object>> resultSetMapList = SqlExecutor.executeQuery(sql, paramValueList);
-                return ResultAssembler.convertToOneToOneResult(resultSetMapList, trunkObjColMapping, branchObjColMapping);
+            List<Map<String, List>> batches = ChunkedQueryExecutor.combine(trunkObjCol2ValuesMap, col2ChunksMap);
+            List<Supplier<List<Map<String, Object>>>> tasks = new ArrayList<>(batches.size());
+            for(Map<String, List> chunkCol2ValuesMap : batches){
+                QueryWrapper chunkQueryWrapper = (QueryWrapper)entityQueryWrapper.clone();
+                tasks.add(() -> executeJoinQuery(chunkQueryWrapper, entityTable, chunkCol2ValuesMap));
             }
-            catch (Exception e) {
-                log.error("中间表查询异常", e);
-                return Collections.emptyMap();
+            resultSetMapList = ChunkedQueryExecutor.execute(tasks);
+        }
+        if(V.isEmpty(resultSetMapList)){
+            return Collections.emptyMap();
+        }
+        // 按主对象关联值分组，并移除结果中的中间表列
+        ResultColumn[] keyColumns = ResultAssembler.toResultColumns(toColumnAliases(trunkObjColMapping.values()));
+        ResultColumn[] middleColumns = ResultAssembler.toResultColumns(toColumnAliases(Arrays.asList(getSelectColumns())));
+        Map<Object, List<Map<String, Object>>> resultMap = new HashMap<>();
+        MatchKey probe = MatchKey.probe(keyColumns.length);
+        for(Map<String, Object> row : resultSetMapList){
+            for(int i=0; i<keyColumns.length; i++){
+                probe.set(i, keyColumns[i].getValue(row));
             }
+            List<Map<String, Object>> rows = resultMap.get(probe.lookupKey());
+            if(rows == null){
+                rows = new ArrayList<>();
+                resultMap.put(probe.copy(), rows);
+            }
+            for(ResultColumn middleColumn : middleColumns){
+                row.remove(middleColumn.getKey());
+                row.remove(middleColumn.getKey().toUpperCase());
+            }
+            rows.add(row);
         }
+        return resultMap;
     }
 
     /**
-     * 执行1-N关联查询，得到关联映射Map
+     * 执行单次中间表JOIN查询
+     * @param entityQueryWrapper
+     * @param entityTable
      * @param trunkObjCol2ValuesMap
      * @return
      */
-    public Map<String, List> executeOneToManyQuery(Map<String, List> trunkObjCol2ValuesMap){
-        if(V.isEmpty(trunkObjCol2ValuesMap)){
-            throw new InvalidUsageException("不合理的中间表查询：无过滤条件！");
+    private List<Map<String, Object>> executeJoinQuery(QueryWrapper entityQueryWrapper, String entityTable, Map<String, List> trunkObjCol2ValuesMap){
+        Map.Entry<String, String> branchObjCol = branchObjColMapping.entrySet().iterator().next();
+        MiddleTableJoinWrapper middleWrapper = new MiddleTableJoinWrapper(table, entityTable, branchObjCol.getValue(), S.removeEsc(branchObjCol.getKey()));
+        // select中间表关联列，别名避免与Entity列重名
+        String[] selectColumns = getSelectColumns();
+        String[] aliasColumns = new String[selectColumns.length];
+        for(int i=0; i<selectColumns.length; i++){
+            aliasColumns[i] = selectColumns[i] + " AS " + MiddleTableJoinWrapper.toColumnAlias(S.removeEsc(selectColumns[i]));
         }
-        //user_id //role_id
+        middleWrapper.select(aliasColumns);
+        for(Map.Entry<String, List> entry : trunkObjCol2ValuesMap.entrySet()){
+            String column = entry.getKey();
+            if(column != null && V.notEmpty(entry.getValue())){
+                if(ChunkedQueryExecutor.isArrayParamApplicable(entry.getValue())){
+                    middleWrapper.apply(ChunkedQueryExecutor.buildArrayParamCondition(column, "{0}"), ChunkedQueryExecutor.toArrayParamValue(entry.getValue()));
+                }
+                else{
+                    middleWrapper.in(column, entry.getValue());
+                }
+            }
+        }
+        // 添加附加条件及删除标记
+        boolean appendDeleteFlag = true;
+        if(additionalConditions != null){
+            for(String condition : additionalConditions){
+                middleWrapper.apply(condition);
+                if(S.containsIgnoreCase(condition, Cons.COLUMN_IS_DELETED)){
+                    appendDeleteFlag = false;
+                }
+            }
+        }
+        if(appendDeleteFlag){
+            String deletedCol = ParserCache.getDeletedColumn(table);
+            if(deletedCol != null){
+                middleWrapper.apply(deletedCol + " = " + BaseConfig.getActiveFlagValue());
+            }
+        }
+        DynamicQueryMapper dynamicQueryMapper = ContextHelper.getBean(DynamicQueryMapper.class);
+        return dynamicQueryMapper.queryForMiddleTableJoin(entityQueryWrapper, middleWrapper);
+    }
+
+    /**
+     * 转换为中间表列的结果别名
+     * @param columns
+     * @return
+     */
+    private static List<String> toColumnAliases(Collection<String> columns){
+        List<String> aliases = new ArrayList<>(columns.size());
+        for(String column : columns){
+            aliases.add(MiddleTableJoinWrapper.toColumnAlias(S.removeEsc(column)));
+        }
+        return aliases;
+    }
+
+    /**
+     * 执行中间表查询，IN条件值超出分批大小时拆分为多个查询并行执行后合并结果
+     * @param trunkObjCol2ValuesMap
+     * @return
+     */
+    private List<Map<String, Object>> executeQuery(Map<String, List> trunkObjCol2ValuesMap){
         EntityInfoCache linkage = BindingCacheManager.getEntityInfoByTable(table);
+        Map<String, List<List>> col2ChunksMap = ChunkedQueryExecutor.partition(trunkObjCol2ValuesMap);
+        if(col2ChunksMap.isEmpty()){
+            return executeQuery(linkage, trunkObjCol2ValuesMap);
+        }
+        List<Map<String, List>> batches = ChunkedQueryExecutor.combine(trunkObjCol2ValuesMap, col2ChunksMap);
+        List<Supplier<List<Map<String, Object>>>> tasks = new ArrayList<>(batches.size());
+        for(Map<String, List> chunkCol2ValuesMap : batches){
+            tasks.add(() -> executeQuery(linkage, chunkCol2ValuesMap));
+        }
+        return ChunkedQueryExecutor.execute(tasks);
+    }
+
+    /**
+     * 执行单次中间表查询
+     * @param linkage
+     * @param trunkObjCol2ValuesMap
+     * @return
+     */
+    private List<Map<String, Object>> executeQuery(EntityInfoCache linkage, Map<String, List> trunkObjCol2ValuesMap){
         // 有定义mapper，首选mapper
         if(linkage != null){
-            List<Map<String, Object>> resultSetMapList = queryByMapper(linkage, trunkObjCol2ValuesMap);
-            return ResultAssembler.convertToOneToManyResult(resultSetMapList, trunkObjColMapping, branchObjColMapping);
+            return queryByMapper(linkage, trunkObjCol2ValuesMap);
         }
-        else{
-            // 提取中间表查询SQL: SELECT user_id, role_id FROM user_role WHERE user_id IN(?)
-            List paramValueList = new ArrayList();
-            String sql = toSQL(trunkObjCol2ValuesMap, paramValueList);
-            // 执行查询并合并结果
-            try {
-                List<Map<String, Object>> resultSetMapList = SqlExecutor.executeQuery(sql, paramValueList);
-                return ResultAssembler.convertToOneToManyResult(resultSetMapList, trunkObjColMapping, branchObjColMapping);
-            }
-            catch (Exception e) {
-                log.error("中间表查询异常", e);
-                return Collections.emptyMap();
-            }
+        // 提取中间表查询SQL: SELECT user_id, role_id FROM user_role WHERE user_id IN(?)
+        List paramValueList = new ArrayList();
+        String sql = toSQL(trunkObjCol2ValuesMap, paramValueList);
+        // 执行查询
+        try {
+            return SqlExecutor.executeQuery(sql, paramValueList);
+        }
+        catch (Exception e) {
+            log.error("中间表查询异常", e);
+            return Collections.emptyList();
         }
     }
 
@@ -196,7 +323,12 @@ public class MiddleTable {
         for(Map.Entry<String, List> entry : trunkObjCol2ValuesMap.entrySet()){
             String column = entry.getKey();
             if(column != null && V.notEmpty(entry.getValue())){
-                queryWrapper.in(column, entry.getValue());
+                if(ChunkedQueryExecutor.isArrayParamApplicable(entry.getValue())){
+                    queryWrapper.apply(ChunkedQueryExecutor.buildArrayParamCondition(column, "{0}"), ChunkedQueryExecutor.toArrayParamValue(entry.getValue()));
+                }
+                else{
+                    queryWrapper.in(column, entry.getValue());
+                }
             }
         }
         if(additionalConditions != null){
@@ -228,9 +360,15 @@ public class MiddleTable {
                 String column = entry.getKey();
                 if(column != null && V.notEmpty(entry.getValue())){
                     List values = (List)entry.getValue().stream().distinct().collect(Collectors.toList());
-                    String params = S.repeat("?", ",", values.size());
-                    WHERE(column + " IN (" + params + ")");
-                    paramValueList.addAll(values);
+                    if(ChunkedQueryExecutor.isArrayParamApplicable(values)){
+                        WHERE(ChunkedQueryExecutor.buildArrayParamCondition(column, "?"));
+                        paramValueList.add(ChunkedQueryExecutor.toArrayParamValue(values));
+                    }
+                    else{
+                        String params = S.repeat("?", ",", values.size());
+                        WHERE(column + " IN (" + params + ")");
+                        paramValueList.addAll(values);
+                    }
                 }
             }
             // 添加删除标记
@@ -17,6 +17,13 @@ package com.diboot.core.binding.parser;
 
 import com.baomidou.mybatisplus.annotation.TableName;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.metadata.TableFieldInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfo;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.diboot.core.binding.annotation.BindEntity;
+import com.diboot.core.binding.annotation.BindEntityList;
+import com.diboot.core.binding.annotation.BindField;
+import com.diboot.core.binding.annotation.BindFieldList;
 import com.diboot.core.binding.cache.BindingCacheManager;
 import com.diboot.core.binding.query.BindQuery;
 import com.diboot.core.binding.query.BindQueryGroup;
@@ -70,6 +77,18 @@ public class ParserCache {
      * 脱敏策略对象缓存
      */
     private static final Map<String, IMaskStrategy> MASK_STRATEGY_MAP = new ConcurrentHashMap<>();
+    /**
+     * Entity类-VO类-投影select列缓存
+     */
+    private static final Map<Class<?>, Map<Class<?>, Map<String, String>>> PROJECTION_COLUMNS_CACHE_MAP = new ConcurrentHashMap<>();
+    /**
+     * 绑定条件-预编译执行计划缓存
+     */
+    private static final Map<String, ConditionPlan> CONDITION_PLAN_CACHE_MAP = new ConcurrentHashMap<>();
+    /**
+     * Entity类-查询结果转换器缓存
+     */
+    private static final Map<Class<?>, EntityMaterializer<?>> ENTITY_MATERIALIZER_CACHE_MAP = new ConcurrentHashMap<>();
 
     /**
      * 获取指定class对应的Bind相关注解
@@ -100,6 +119,16 @@ public class ParserCache {
                                 setterObjClazz = (Class<?>)pt.getActualTypeArguments()[0];
                             }
                         }
+                        // 预编译绑定条件，无效条件在解析VO时即抛出异常
+                        String condition = getBindCondition(annotation);
+                        if(condition != null){
+                            try{
+                                getConditionPlan(condition);
+                            }
+                            catch (InvalidUsageException e){
+                                throw new InvalidUsageException(voClass.getSimpleName() + "." + field.getName() + " 的绑定条件无效: " + e.getMessage());
+                            }
+                        }
                         group.addBindAnnotation(field.getName(), setterObjClazz, annotation);
                     }
                 }
@@ -110,6 +139,44 @@ public class ParserCache {
         return group;
     }
 
+    /**
+     * 获取绑定条件的预编译执行计划（首次使用时编译并缓存），条件无法解析时抛出异常
+     * @param condition
+     * @return
+     */
+    public static ConditionPlan getConditionPlan(String condition){
+        if(condition == null){
+            throw new InvalidUsageException("无法解析注解条件: null");
+        }
+        ConditionPlan plan = CONDITION_PLAN_CACHE_MAP.get(condition);
+        if(plan == null){
+            plan = ConditionManager.compile(condition);
+            CONDITION_PLAN_CACHE_MAP.put(condition, plan);
+        }
+        return plan;
+    }
+
+    /**
+     * 获取关联绑定注解的条件，非关联绑定注解返回null
+     * @param annotation
+     * @return
+     */
+    private static String getBindCondition(Annotation annotation){
+        if(annotation instanceof BindField){
+            return ((BindField) annotation).condition();
+        }
+        else if(annotation instanceof BindFieldList){
+            return ((BindFieldList) annotation).condition();
+        }
+        else if(annotation instanceof BindEntity){
+            return ((BindEntity) annotation).condition();
+        }
+        else if(annotation instanceof BindEntityList){
+            return ((BindEntityList) annotation).condition();
+        }
+        return null;
+    }
+
     /**
      * 是否有is_deleted列
      * @return
@@ -191,11 +258,15 @@ public class ParserCache {
      * @return
      */
     public static List<AnnoJoiner> getBindQueryAnnos(Class<?> dtoClass){
-        String dtoClassName = dtoClass.getName();
-        if(dtoClassBindQueryCacheMap.containsKey(dtoClassName)){
-            return dtoClassBindQueryCacheMap.get(dtoClassName);
-        }
-        // 初始化
+        return dtoClassBindQueryCacheMap.computeIfAbsent(dtoClass.getName(), className -> buildBindQueryAnnos(dtoClass));
+    }
+
+    /**
+     * 解析dto类中定义的BindQuery注解
+     * @param dtoClass
+     * @return
+     */
+    private static List<AnnoJoiner> buildBindQueryAnnos(Class<?> dtoClass){
         List<AnnoJoiner> annos = new ArrayList<>();
         AtomicInteger index = new AtomicInteger(1);
         Map<String, String> joinOn2Alias = new HashMap<>();
@@ -230,7 +301,6 @@ public class ParserCache {
                 buildAnnoJoiner.accept(field, bindQuery);
             }
         }
-        dtoClassBindQueryCacheMap.put(dtoClassName, annos);
         return annos;
     }
 
@@ -259,6 +329,20 @@ public class ParserCache {
         return Collections.emptyList();
     }
 
+    /**
+     * 获取Entity类的查询结果转换器
+     * @param entityClass
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> EntityMaterializer<E> getEntityMaterializer(Class<E> entityClass){
+        EntityMaterializer<?> materializer = ENTITY_MATERIALIZER_CACHE_MAP.get(entityClass);
+        if(materializer == null){
+            materializer = ENTITY_MATERIALIZER_CACHE_MAP.computeIfAbsent(entityClass, EntityMaterializer::new);
+        }
+        return (EntityMaterializer<E>) materializer;
+    }
+
     /**
      * 获取加密器对象
      *
@@ -323,4 +407,47 @@ public class ParserCache {
             return Objects.requireNonNull(maskStrategy);
         });
     }
+
+    /**
+     * 获取Entity转换为VO所需的最小select列（主键 + VO同名属性对应的列），按 (Entity类, VO类) 缓存
+     * @param entityClass
+     * @param voClass
+     * @return 列名-select片段，需select全部列（或无表信息）时返回空Map
+     */
+    public static Map<String, String> getProjectionColumns(Class<?> entityClass, Class<?> voClass){
+        return PROJECTION_COLUMNS_CACHE_MAP.computeIfAbsent(entityClass, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(voClass, k -> buildProjectionColumns(entityClass, voClass));
+    }
+
+    /**
+     * 解析投影select列
+     * @param entityClass
+     * @param voClass
+     * @return
+     */
+    private static Map<String, String> buildProjectionColumns(Class<?> entityClass, Class<?> voClass){
+        TableInfo tableInfo = TableInfoHelper.getTableInfo(entityClass);
+        if(tableInfo == null || V.isEmpty(tableInfo.getFieldList())){
+            return Collections.emptyMap();
+        }
+        List<TableFieldInfo> allColumns = tableInfo.getFieldList();
+        Map<String, String> columns = new LinkedHashMap<>();
+        String pk = ContextHelper.getIdColumnName(entityClass);
+        if(V.notEmpty(pk)){
+            columns.put(pk, pk);
+        }
+        Map<String, Field> fieldsMap = BindingCacheManager.getFieldsMap(voClass);
+        for(TableFieldInfo col : allColumns){
+            if(fieldsMap.containsKey(col.getField().getName()) && V.notEmpty(col.getColumn()) && !col.isLogicDelete()){
+                columns.put(col.getColumn(), col.getSqlSelect());
+            }
+        }
+        // select全部列，不特殊处理
+        if(allColumns.size() <= columns.size()){
+            return Collections.emptyMap();
+        }
+        log.debug("{} 转换为 {} 仅需select列: {}", entityClass.getSimpleName(), voClass.getSimpleName(), columns.keySet());
+        return Collections.unmodifiableMap(columns);
+    }
+
 }
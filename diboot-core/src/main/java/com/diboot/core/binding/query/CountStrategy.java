@@ -0,0 +1,27 @@
+package com.diboot.core.binding.query;
+
+/**
+ * 分页查询的count策略
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/20
+ * Copyright © diboot.com
+ */
+public enum CountStrategy {
+    /**
+     * 每次分页查询均执行count（动态关联查询使用去除排序及非过滤join的count语句）
+     */
+    DEFAULT,
+    /**
+     * 跳过count，多查询1条记录判断是否有下一页
+     */
+    SKIP,
+    /**
+     * 缓存相同查询条件的count总数（短时有效）
+     */
+    CACHE,
+    /**
+     * count与分页查询并行执行（count在独立线程及连接中执行，不参与当前事务）
+     */
+    PARALLEL
+}
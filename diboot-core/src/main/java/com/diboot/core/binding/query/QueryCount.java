@@ -0,0 +1,24 @@
+package com.diboot.core.binding.query;
+
+import java.lang.annotation.*;
+
+/**
+ * 指定DTO分页查询的count策略，Pagination中指定的策略优先
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/20
+ * Copyright © diboot.com
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+@Documented
+public @interface QueryCount {
+
+    /**
+     * count策略
+     * @return
+     */
+    CountStrategy strategy() default CountStrategy.DEFAULT;
+
+}
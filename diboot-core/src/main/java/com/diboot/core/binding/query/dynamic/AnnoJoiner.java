@@ -101,6 +101,11 @@ public class AnnoJoiner implements Serializable {
      */
     private String middleTableOnSegment;
 
+    /**
+     * 是否为对一关联：无中间表且按关联表主键关联，不会使主表记录重复
+     */
+    private boolean toOne;
+
     /**
      * 解析
      */
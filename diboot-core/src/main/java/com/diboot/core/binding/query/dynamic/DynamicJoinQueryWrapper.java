@@ -19,9 +19,11 @@ import com.diboot.core.binding.JoinsBinder;
 import com.diboot.core.binding.parser.ParserCache;
 import com.diboot.core.vo.Pagination;
 import lombok.Getter;
+import lombok.Setter;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 /**
  * 动态查询wrapper
@@ -44,6 +46,11 @@ public class DynamicJoinQueryWrapper<DTO,E> extends ExtQueryWrapper<DTO,E> {
      * 字段
      */
     private Collection<String> fields;
+    /**
+     * 改写为EXISTS半连接的关联别名，为null时不改写
+     */
+    @Getter @Setter
+    private Set<String> semiJoinAliases;
 
     /**
      * dto字段和值
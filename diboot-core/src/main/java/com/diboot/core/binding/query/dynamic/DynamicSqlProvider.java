@@ -17,19 +17,25 @@ package com.diboot.core.binding.query.dynamic;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.segments.MergeSegments;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.diboot.core.binding.QueryBuilder;
+import com.diboot.core.binding.cache.BindingCacheManager;
 import com.diboot.core.binding.parser.ParserCache;
 import com.diboot.core.config.BaseConfig;
 import com.diboot.core.config.Cons;
 import com.diboot.core.util.S;
 import com.diboot.core.util.V;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.jdbc.SQL;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 动态SQL构建Provider
@@ -40,6 +46,15 @@ import java.util.Set;
 @Slf4j
 public class DynamicSqlProvider {
 
+    /**
+     * where条件在SQL模板中的占位标记
+     */
+    private static final String WHERE_PLACEHOLDER = "__DYNAMIC_WHERE__";
+    /**
+     * SQL模板缓存
+     */
+    private static final Map<String, SqlTemplate> SQL_TEMPLATE_CACHE = new ConcurrentHashMap<>();
+
     /**
      * 构建动态SQL
      * @param ew
@@ -67,16 +82,162 @@ public class DynamicSqlProvider {
      */
     private <DTO> String buildDynamicSql(Page<?> page, QueryWrapper<DTO> ew){
         DynamicJoinQueryWrapper wrapper = (DynamicJoinQueryWrapper)ew;
-        return new SQL() {{
-            if(V.isEmpty(ew.getSqlSelect())){
-                SELECT_DISTINCT("self.*");
+        List<AnnoJoiner> annoJoinerList = getJoinedAnnoJoiners(wrapper);
+        // 无对多关联时主表记录不会重复，无需DISTINCT；指定select列时投影结果可能重复，保留DISTINCT
+        boolean distinct = wrapper.getSemiJoinAliases() == null || V.notEmpty(ew.getSqlSelect()) || hasToManyJoin(annoJoinerList);
+        String normalSql = null, orderBySql = null;
+        boolean appendDeleted = false;
+        MergeSegments segments = ew.getExpression();
+        if(segments != null){
+            normalSql = segments.getNormal().getSqlSegment();
+            if(V.notEmpty(normalSql)){
+                // 动态为主表添加is_deleted=0
+                String isDeletedCol = ParserCache.getDeletedColumn(wrapper.getEntityTable());
+                appendDeleted = isDeletedCol != null && QueryBuilder.checkHasColumn(segments.getNormal(), "self."+ isDeletedCol) == false;
+                if(segments.getOrderBy() != null){
+                    orderBySql = segments.getOrderBy().getSqlSegment();
+                }
+            }
+        }
+        boolean hasWhere = V.notEmpty(normalSql);
+        // 同一DTO类、参与查询的关联、select列及排序下SQL结构不变（条件值均为参数占位符），缓存模板仅拼接where条件
+        int cacheSize = BaseConfig.getDynamicSqlCacheSize();
+        String templateKey = null;
+        SqlTemplate template = null;
+        if(cacheSize > 0){
+            templateKey = buildTemplateKey(wrapper, annoJoinerList, distinct, ew.getSqlSelect(), hasWhere, appendDeleted, orderBySql);
+            template = SQL_TEMPLATE_CACHE.get(templateKey);
+        }
+        if(template == null){
+            template = buildSqlTemplate(wrapper, annoJoinerList, distinct, ew.getSqlSelect(), hasWhere, appendDeleted, orderBySql, null);
+            if(templateKey != null && SQL_TEMPLATE_CACHE.size() < cacheSize){
+                SQL_TEMPLATE_CACHE.put(templateKey, template);
+            }
+        }
+        return template.apply(hasWhere? formatNormalSql(normalSql) : null);
+    }
+
+    /**
+     * 构建动态关联查询的count SQL：不含排序，去除仅关联至多一条记录且未用于过滤的LEFT JOIN；
+     * 有对多关联时count去重的主键，无需将DISTINCT查询整体作为子查询count；指定select列时以DISTINCT列表查询作为子查询count
+     * @param ew
+     * @return
+     */
+    public <DTO> String buildSqlForCount(QueryWrapper<DTO> ew){
+        DynamicJoinQueryWrapper wrapper = (DynamicJoinQueryWrapper)ew;
+        String normalSql = null;
+        boolean appendDeleted = false;
+        MergeSegments segments = ew.getExpression();
+        if(segments != null){
+            normalSql = segments.getNormal().getSqlSegment();
+            if(V.notEmpty(normalSql)){
+                String isDeletedCol = ParserCache.getDeletedColumn(wrapper.getEntityTable());
+                appendDeleted = isDeletedCol != null && QueryBuilder.checkHasColumn(segments.getNormal(), "self."+ isDeletedCol) == false;
+            }
+        }
+        boolean hasWhere = V.notEmpty(normalSql);
+        List<AnnoJoiner> joinedAnnoJoiners = getJoinedAnnoJoiners(wrapper);
+        List<AnnoJoiner> annoJoinerList = new ArrayList<>();
+        for(AnnoJoiner joiner : joinedAnnoJoiners){
+            if(joiner.isToOne() && joiner.getAlias() != null && (!hasWhere || !normalSql.contains(joiner.getAlias() + "."))){
+                continue;
+            }
+            annoJoinerList.add(joiner);
+        }
+        boolean distinct = hasToManyJoin(annoJoinerList);
+        String idColumn = wrapper.getMainEntityClass() != null? BindingCacheManager.getPropInfoByClass(wrapper.getMainEntityClass()).getIdColumn() : null;
+        // 指定select列（列表查询保留DISTINCT）或对多关联无主键时，以DISTINCT列表查询作为子查询count（select列可能引用对一关联，保留全部关联）
+        boolean subQuery = V.notEmpty(ew.getSqlSelect()) || (distinct && idColumn == null);
+        if(subQuery){
+            annoJoinerList = joinedAnnoJoiners;
+        }
+        int cacheSize = BaseConfig.getDynamicSqlCacheSize();
+        String templateKey = null;
+        SqlTemplate template = null;
+        if(cacheSize > 0){
+            templateKey = "COUNT|" + buildTemplateKey(wrapper, annoJoinerList, distinct, subQuery? ew.getSqlSelect() : null, hasWhere, appendDeleted, null);
+            template = SQL_TEMPLATE_CACHE.get(templateKey);
+        }
+        if(template == null){
+            if(subQuery){
+                SqlTemplate listTemplate = buildSqlTemplate(wrapper, annoJoinerList, true, ew.getSqlSelect(), hasWhere, appendDeleted, null, null);
+                template = listTemplate.wrap("SELECT COUNT(*) FROM (", ") t");
             }
             else{
-                SELECT_DISTINCT(formatSqlSelect(ew.getSqlSelect()));
+                String countColumn = distinct? "DISTINCT self." + idColumn : "*";
+                template = buildSqlTemplate(wrapper, annoJoinerList, false, null, hasWhere, appendDeleted, null, countColumn);
+            }
+            if(templateKey != null && SQL_TEMPLATE_CACHE.size() < cacheSize){
+                SQL_TEMPLATE_CACHE.put(templateKey, template);
+            }
+        }
+        return template.apply(hasWhere? formatNormalSql(normalSql) : null);
+    }
+
+    /**
+     * 获取需join的关联（已改写为EXISTS半连接的关联无需join）
+     * @param wrapper
+     * @return
+     */
+    private List<AnnoJoiner> getJoinedAnnoJoiners(DynamicJoinQueryWrapper wrapper){
+        List<AnnoJoiner> annoJoinerList = wrapper.getAnnoJoiners();
+        Set<String> semiJoinAliases = wrapper.getSemiJoinAliases();
+        if(semiJoinAliases == null){
+            return annoJoinerList;
+        }
+        List<AnnoJoiner> joinedList = new ArrayList<>(annoJoinerList.size());
+        for(AnnoJoiner joiner : annoJoinerList){
+            if(joiner.getAlias() != null && semiJoinAliases.contains(joiner.getAlias())){
+                continue;
+            }
+            joinedList.add(joiner);
+        }
+        return joinedList;
+    }
+
+    /**
+     * 是否有对多关联（join后主表记录可能重复）
+     * @param annoJoinerList
+     * @return
+     */
+    private boolean hasToManyJoin(List<AnnoJoiner> annoJoinerList){
+        if(annoJoinerList != null){
+            for(AnnoJoiner joiner : annoJoinerList){
+                if(V.notEmpty(joiner.getJoin()) && V.notEmpty(joiner.getOnSegment()) && joiner.isToOne() == false){
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 构建SQL模板：select、from及join部分固定，where条件以占位标记预留
+     * @param wrapper
+     * @param annoJoinerList
+     * @param distinct
+     * @param sqlSelect
+     * @param hasWhere
+     * @param appendDeleted
+     * @param orderBySql
+     * @param countColumn count的列，不为null时构建count语句
+     * @return
+     */
+    private SqlTemplate buildSqlTemplate(DynamicJoinQueryWrapper wrapper, List<AnnoJoiner> annoJoinerList, boolean distinct, String sqlSelect,
+                                         boolean hasWhere, boolean appendDeleted, String orderBySql, String countColumn){
+        String sql = new SQL() {{
+            String selectColumns = V.isEmpty(sqlSelect)? "self.*" : formatSqlSelect(sqlSelect);
+            if(countColumn != null){
+                SELECT("COUNT(" + countColumn + ")");
+            }
+            else if(distinct){
+                SELECT_DISTINCT(selectColumns);
+            }
+            else{
+                SELECT(selectColumns);
             }
             FROM(wrapper.getEntityTable()+" self");
             //提取字段，根据查询条件中涉及的表，动态join
-            List<AnnoJoiner> annoJoinerList = wrapper.getAnnoJoiners();
             if(V.notEmpty(annoJoinerList)){
                 Set<String> tempSet = new HashSet<>();
                 StringBuilder sb = new StringBuilder();
@@ -84,11 +245,8 @@ public class DynamicSqlProvider {
                     if(V.notEmpty(joiner.getJoin()) && V.notEmpty(joiner.getOnSegment())){
                         if(joiner.getMiddleTable() != null){
                             sb.setLength(0);
-                            sb.append(joiner.getMiddleTable()).append(" ").append(joiner.getMiddleTableAlias()).append(" ON ").append(joiner.getMiddleTableOnSegment());
-                            String deletedCol = ParserCache.getDeletedColumn(joiner.getMiddleTable());
-                            if(deletedCol != null && S.containsIgnoreCase(joiner.getMiddleTable(), " "+deletedCol) == false){
-                                sb.append(" AND ").append(joiner.getMiddleTableAlias()).append(".").append(deletedCol).append(" = ").append(BaseConfig.getActiveFlagValue());
-                            }
+                            sb.append(joiner.getMiddleTable()).append(" ").append(joiner.getMiddleTableAlias()).append(" ON ").append(joiner.getMiddleTableOnSegment())
+                                    .append(JoinConditionManager.buildMiddleTableDeletedSegment(joiner));
                             String joinSegment = sb.toString();
                             if(!tempSet.contains(joinSegment)){
                                 LEFT_OUTER_JOIN(joinSegment);
@@ -96,11 +254,8 @@ public class DynamicSqlProvider {
                             }
                         }
                         sb.setLength(0);
-                        sb.append(joiner.getJoin()).append(" ").append(joiner.getAlias()).append(" ON ").append(joiner.getOnSegment());
-                        String deletedCol = ParserCache.getDeletedColumn(joiner.getJoin());
-                        if(deletedCol != null && S.containsIgnoreCase(joiner.getOnSegment(), " "+deletedCol) == false){
-                            sb.append(" AND ").append(joiner.getAlias()).append(".").append(deletedCol).append(" = ").append(BaseConfig.getActiveFlagValue());
-                        }
+                        sb.append(joiner.getJoin()).append(" ").append(joiner.getAlias()).append(" ON ").append(joiner.getOnSegment())
+                                .append(JoinConditionManager.buildJoinDeletedSegment(joiner));
                         String joinSegment = sb.toString();
                         if(!tempSet.contains(joinSegment)){
                             LEFT_OUTER_JOIN(joinSegment);
@@ -110,28 +265,80 @@ public class DynamicSqlProvider {
                 }
                 tempSet = null;
             }
-            MergeSegments segments = ew.getExpression();
-            if(segments != null){
-                String normalSql = segments.getNormal().getSqlSegment();
-                if(V.notEmpty(normalSql)){
-                    WHERE(formatNormalSql(normalSql));
-                    // 动态为主表添加is_deleted=0
-                    String isDeletedCol = ParserCache.getDeletedColumn(wrapper.getEntityTable());
-                    String isDeletedSection = "self."+ isDeletedCol;
-                    if(isDeletedCol != null && QueryBuilder.checkHasColumn(segments.getNormal(), isDeletedSection) == false){
-                        WHERE(isDeletedSection+ " = " +BaseConfig.getActiveFlagValue());
-                    }
-                    if(segments.getOrderBy() != null){
-                        String orderBySql = segments.getOrderBy().getSqlSegment();
-                        int beginIndex = S.indexOfIgnoreCase(orderBySql,"ORDER BY ");
-                        if(beginIndex >= 0){
-                            orderBySql = S.substring(orderBySql, beginIndex+"ORDER BY ".length());
-                            ORDER_BY(orderBySql);
-                        }
+            if(hasWhere){
+                WHERE(WHERE_PLACEHOLDER);
+                if(appendDeleted){
+                    WHERE("self."+ ParserCache.getDeletedColumn(wrapper.getEntityTable())+ " = " +BaseConfig.getActiveFlagValue());
+                }
+                if(orderBySql != null){
+                    int beginIndex = S.indexOfIgnoreCase(orderBySql,"ORDER BY ");
+                    if(beginIndex >= 0){
+                        ORDER_BY(S.substring(orderBySql, beginIndex+"ORDER BY ".length()));
                     }
                 }
             }
         }}.toString();
+        int index = hasWhere? sql.indexOf(WHERE_PLACEHOLDER) : -1;
+        if(index < 0){
+            return new SqlTemplate(sql, null);
+        }
+        return new SqlTemplate(sql.substring(0, index), sql.substring(index + WHERE_PLACEHOLDER.length()));
+    }
+
+    /**
+     * 构建SQL模板缓存key：DTO类、主表、参与join的关联（别名、关联表及关联条件）、是否去重、select列、where结构及排序
+     * @return
+     */
+    private String buildTemplateKey(DynamicJoinQueryWrapper wrapper, List<AnnoJoiner> annoJoinerList, boolean distinct, String sqlSelect,
+                                    boolean hasWhere, boolean appendDeleted, String orderBySql){
+        StringBuilder sb = new StringBuilder(128);
+        sb.append(wrapper.getDtoClass().getName()).append("|").append(wrapper.getEntityTable()).append("|");
+        if(V.notEmpty(annoJoinerList)){
+            for(AnnoJoiner joiner : annoJoinerList){
+                sb.append(joiner.getAlias()).append(":").append(joiner.getJoin()).append(":").append(joiner.getCondition()).append(";");
+            }
+        }
+        sb.append("|").append(distinct).append("|").append(sqlSelect)
+                .append("|").append(hasWhere? (appendDeleted? 2 : 1) : 0).append("|").append(orderBySql);
+        return sb.toString();
+    }
+
+    /**
+     * 构建中间表关联查询SQL：关联Entity表 JOIN 按中间表条件过滤的中间表子查询
+     * @param ew 关联Entity的查询条件
+     * @param mw 中间表查询条件
+     * @return
+     */
+    public String buildSqlForMiddleTableJoin(@Param(Constants.WRAPPER) QueryWrapper ew, @Param(MiddleTableJoinWrapper.PARAM_ALIAS) MiddleTableJoinWrapper mw){
+        return new SQL() {{
+            if(V.isEmpty(ew.getSqlSelect())){
+                SELECT("self.*");
+            }
+            else{
+                SELECT(formatSqlSelect(ew.getSqlSelect()));
+            }
+            SELECT("mt.*");
+            FROM(mw.getEntityTable()+" self");
+            INNER_JOIN("(SELECT " + mw.getSqlSelect() + " FROM " + mw.getMiddleTable() + " " + mw.getCustomSqlSegment() + ") mt ON self."
+                    + mw.getEntityJoinColumn() + " = mt." + mw.getMiddleJoinColumnAlias());
+            MergeSegments segments = ew.getExpression();
+            String normalSql = segments != null? segments.getNormal().getSqlSegment() : null;
+            if(V.notEmpty(normalSql)){
+                WHERE(formatNormalSql(normalSql));
+            }
+            // 关联Entity表添加is_deleted=0
+            String isDeletedCol = ParserCache.getDeletedColumn(mw.getEntityTable());
+            if(isDeletedCol != null && (segments == null || QueryBuilder.checkHasColumn(segments.getNormal(), isDeletedCol) == false)){
+                WHERE("self." + isDeletedCol + " = " + BaseConfig.getActiveFlagValue());
+            }
+            if(segments != null && segments.getOrderBy() != null){
+                String orderBySql = segments.getOrderBy().getSqlSegment();
+                int beginIndex = S.indexOfIgnoreCase(orderBySql,"ORDER BY ");
+                if(beginIndex >= 0){
+                    ORDER_BY(S.substring(orderBySql, beginIndex+"ORDER BY ".length()));
+                }
+            }
+        }}.toString();
     }
 
     /**
@@ -164,4 +371,34 @@ public class DynamicSqlProvider {
         return normalSql;
     }
 
+    /**
+     * 预构建的SQL模板：前缀（select、from、join及where开头）+ where条件 + 后缀（其余where条件及排序）
+     */
+    private static class SqlTemplate {
+        private final String prefix;
+        private final String suffix;
+
+        SqlTemplate(String prefix, String suffix){
+            this.prefix = prefix;
+            this.suffix = suffix;
+        }
+
+        /**
+         * 包装为外层SQL，如count子查询
+         */
+        SqlTemplate wrap(String outerPrefix, String outerSuffix){
+            if(suffix == null){
+                return new SqlTemplate(outerPrefix + prefix + outerSuffix, null);
+            }
+            return new SqlTemplate(outerPrefix + prefix, suffix + outerSuffix);
+        }
+
+        String apply(String whereSql){
+            if(suffix == null){
+                return prefix;
+            }
+            return prefix + whereSql + suffix;
+        }
+    }
+
 }
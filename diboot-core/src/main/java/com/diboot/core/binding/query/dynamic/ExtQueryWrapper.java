@@ -19,6 +19,7 @@ import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.diboot.core.binding.helper.ServiceAdaptor;
 import com.diboot.core.binding.parser.ParserCache;
+import com.diboot.core.binding.query.CountStrategy;
 import com.diboot.core.exception.InvalidUsageException;
 import com.diboot.core.util.ContextHelper;
 import com.diboot.core.vo.Pagination;
@@ -39,6 +40,11 @@ public class ExtQueryWrapper<DTO,E> extends QueryWrapper<DTO> {
      */
     @Getter @Setter
     private Class<E> mainEntityClass;
+    /**
+     * 分页count策略（DTO类的@QueryCount注解指定）
+     */
+    @Getter @Setter
+    private CountStrategy countStrategy;
 
     /**
      * 获取entity表名
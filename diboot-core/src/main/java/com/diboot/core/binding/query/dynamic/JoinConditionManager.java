@@ -15,7 +15,11 @@
  */
 package com.diboot.core.binding.query.dynamic;
 
+import com.diboot.core.binding.cache.BindingCacheManager;
 import com.diboot.core.binding.parser.BaseConditionManager;
+import com.diboot.core.binding.parser.EntityInfoCache;
+import com.diboot.core.binding.parser.ParserCache;
+import com.diboot.core.config.BaseConfig;
 import com.diboot.core.exception.InvalidUsageException;
 import com.diboot.core.util.S;
 import com.diboot.core.util.V;
@@ -83,6 +87,9 @@ public class JoinConditionManager extends BaseConditionManager {
                 }
                 if(operator instanceof EqualsTo){
                     currentSegments.add(left + " = " + right);
+                    if(joiner.getMiddleTable() == null && isPrimaryKeyJoin(joiner, left, right)){
+                        joiner.setToOne(true);
+                    }
                 }
                 else if(operator instanceof NotEqualsTo){
                     currentSegments.add(left + " != " + right);
@@ -172,6 +179,74 @@ public class JoinConditionManager extends BaseConditionManager {
         }
     }
 
+    /**
+     * 是否为关联表主键与当前表列的等值关联
+     * @param joiner
+     * @param left
+     * @param right
+     * @return
+     */
+    private static boolean isPrimaryKeyJoin(AnnoJoiner joiner, String left, String right){
+        EntityInfoCache entityInfoCache = BindingCacheManager.getEntityInfoByTable(joiner.getJoin());
+        String idColumn = entityInfoCache != null? entityInfoCache.getIdColumn() : null;
+        if(idColumn == null){
+            return false;
+        }
+        String primaryKey = joiner.getAlias() + "." + idColumn;
+        return (left.equals(primaryKey) && right.startsWith("self.")) || (right.equals(primaryKey) && left.startsWith("self."));
+    }
+
+    /**
+     * 构建关联表的逻辑删除条件，如 " AND r1.is_deleted = 0"，无需添加时返回空字符串
+     * @param joiner
+     * @return
+     */
+    public static String buildJoinDeletedSegment(AnnoJoiner joiner){
+        String deletedCol = ParserCache.getDeletedColumn(joiner.getJoin());
+        if(deletedCol != null && S.containsIgnoreCase(joiner.getOnSegment(), " "+deletedCol) == false){
+            return " AND " + joiner.getAlias() + "." + deletedCol + " = " + BaseConfig.getActiveFlagValue();
+        }
+        return "";
+    }
+
+    /**
+     * 构建中间表的逻辑删除条件，无需添加时返回空字符串
+     * @param joiner
+     * @return
+     */
+    public static String buildMiddleTableDeletedSegment(AnnoJoiner joiner){
+        String deletedCol = ParserCache.getDeletedColumn(joiner.getMiddleTable());
+        if(deletedCol != null && S.containsIgnoreCase(joiner.getMiddleTable(), " "+deletedCol) == false){
+            return " AND " + joiner.getMiddleTableAlias() + "." + deletedCol + " = " + BaseConfig.getActiveFlagValue();
+        }
+        return "";
+    }
+
+    /**
+     * 构建半连接EXISTS条件：将仅用于过滤的关联（及中间表）与过滤条件放入相关子查询，
+     * 与LEFT JOIN后过滤的结果一致且不产生重复的主表记录
+     * @param joiner
+     * @param predicate 关联表列的过滤条件
+     * @return
+     */
+    public static String buildExistsSegment(AnnoJoiner joiner, String predicate){
+        StringBuilder sb = new StringBuilder("EXISTS (SELECT 1 FROM ");
+        if(joiner.getMiddleTable() != null){
+            sb.append(joiner.getMiddleTable()).append(" ").append(joiner.getMiddleTableAlias())
+                    .append(" INNER JOIN ").append(joiner.getJoin()).append(" ").append(joiner.getAlias())
+                    .append(" ON ").append(joiner.getOnSegment()).append(buildJoinDeletedSegment(joiner))
+                    .append(" WHERE ");
+            if(V.notEmpty(joiner.getMiddleTableOnSegment())){
+                sb.append(joiner.getMiddleTableOnSegment()).append(buildMiddleTableDeletedSegment(joiner)).append(" AND ");
+            }
+        }
+        else{
+            sb.append(joiner.getJoin()).append(" ").append(joiner.getAlias())
+                    .append(" WHERE ").append(joiner.getOnSegment()).append(buildJoinDeletedSegment(joiner)).append(" AND ");
+        }
+        return sb.append(predicate).append(")").toString();
+    }
+
     /**
      * 格式化左侧
      * @return
@@ -0,0 +1,66 @@
+package com.diboot.core.binding.query.dynamic;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import lombok.Getter;
+
+/**
+ * 中间表关联查询wrapper：承载中间表的过滤条件（以mt子查询形式JOIN关联Entity表）
+ * <pre>
+ * SELECT self.*, mt.* FROM role self
+ * INNER JOIN (SELECT user_id AS mt_user_id, role_id AS mt_role_id FROM user_role WHERE user_id IN (?) AND is_deleted = 0) mt
+ * ON self.id = mt.mt_role_id
+ * WHERE self.is_deleted = 0
+ * </pre>
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/19
+ * Copyright © diboot.com
+ */
+@Getter
+public class MiddleTableJoinWrapper extends QueryWrapper {
+    private static final long serialVersionUID = -6893458829712064175L;
+
+    /**
+     * Mapper参数名（中间表条件参数引用前缀）
+     */
+    public static final String PARAM_ALIAS = "mw";
+    /**
+     * 中间表结果列别名前缀
+     */
+    public static final String COLUMN_ALIAS_PREFIX = "mt_";
+
+    /**
+     * 中间表
+     */
+    private final String middleTable;
+    /**
+     * 关联Entity表
+     */
+    private final String entityTable;
+    /**
+     * 关联Entity表的连接列
+     */
+    private final String entityJoinColumn;
+    /**
+     * 中间表连接列的别名
+     */
+    private final String middleJoinColumnAlias;
+
+    public MiddleTableJoinWrapper(String middleTable, String entityTable, String entityJoinColumn, String middleJoinColumn){
+        this.middleTable = middleTable;
+        this.entityTable = entityTable;
+        this.entityJoinColumn = entityJoinColumn;
+        this.middleJoinColumnAlias = toColumnAlias(middleJoinColumn);
+        setParamAlias(PARAM_ALIAS);
+    }
+
+    /**
+     * 中间表列在结果中的别名
+     * @param middleTableColumn
+     * @return
+     */
+    public static String toColumnAlias(String middleTableColumn){
+        return COLUMN_ALIAS_PREFIX + middleTableColumn;
+    }
+
+}
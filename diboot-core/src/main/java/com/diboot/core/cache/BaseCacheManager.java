@@ -4,6 +4,10 @@ import org.springframework.cache.Cache;
 import org.springframework.cache.concurrent.ConcurrentMapCache;
 import org.springframework.cache.support.SimpleCacheManager;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * 缓存manager父类
  * @author JerryMa
@@ -35,6 +39,25 @@ public abstract class BaseCacheManager extends SimpleCacheManager {
         cache.put(objKey, obj);
     }
 
+    /**
+     * 获取缓存的全部对象
+     * @param cacheName
+     * @param tClass
+     * @param <T>
+     * @return
+     */
+    public <T> List<T> getCacheObjects(String cacheName, Class<T> tClass){
+        ConcurrentMapCache cache = (ConcurrentMapCache)getCache(cacheName);
+        if(cache == null){
+            return Collections.emptyList();
+        }
+        List<T> objects = new ArrayList<>(cache.getNativeCache().size());
+        for(Object obj : cache.getNativeCache().values()){
+            objects.add(tClass.cast(obj));
+        }
+        return objects;
+    }
+
     /**
      * 尚未初始化的
      * @param cacheName
@@ -121,6 +121,318 @@ public class BaseConfig {
 		return batchSize;
 	}
 
+	private static Integer bindingInChunkSize = null;
+	/***
+	 * 获取关联绑定IN条件的每批次值数量（需小于数据库IN列表/参数个数限制，如Oracle为1000）
+	 * @return
+	 */
+	public static int getBindingInChunkSize() {
+		if(bindingInChunkSize == null){
+			bindingInChunkSize = PropertiesUtils.getInteger("diboot.core.binding-in-chunk-size");
+			if(bindingInChunkSize == null){
+				bindingInChunkSize = 1000;
+			}
+		}
+		return bindingInChunkSize;
+	}
+
+	private static Integer bindingInParallelism = null;
+	/***
+	 * 获取关联绑定IN条件分批查询的并行数，小于等于1时串行执行
+	 * @return
+	 */
+	public static int getBindingInParallelism() {
+		if(bindingInParallelism == null){
+			bindingInParallelism = PropertiesUtils.getInteger("diboot.core.binding-in-parallelism");
+			if(bindingInParallelism == null){
+				bindingInParallelism = 4;
+			}
+		}
+		return bindingInParallelism;
+	}
+
+	private static Boolean bindingInArrayParam = null;
+	/***
+	 * 关联绑定是否使用数组参数替代IN列表（仅PostgreSQL整数值时生效），默认true
+	 * @return
+	 */
+	public static boolean isBindingInArrayParam() {
+		if(bindingInArrayParam == null){
+			bindingInArrayParam = !"false".equalsIgnoreCase(getProperty("diboot.core.binding-in-array-param"));
+		}
+		return bindingInArrayParam;
+	}
+
+	private static Boolean bindingCache = null;
+	/***
+	 * 是否启用关联绑定结果的跨请求缓存，默认false（未启用时@BindCacheable及@BindField(cache=true)不生效）
+	 * @return
+	 */
+	public static boolean isBindingCache() {
+		if(bindingCache == null){
+			bindingCache = PropertiesUtils.getBoolean("diboot.core.binding-cache");
+		}
+		return bindingCache;
+	}
+
+	private static Integer bindingCacheMaxSize = null;
+	/***
+	 * 获取关联绑定结果缓存的最大条目数，超出时淘汰最久未访问的条目
+	 * @return
+	 */
+	public static int getBindingCacheMaxSize() {
+		if(bindingCacheMaxSize == null){
+			bindingCacheMaxSize = PropertiesUtils.getInteger("diboot.core.binding-cache-max-size");
+			if(bindingCacheMaxSize == null){
+				bindingCacheMaxSize = 10000;
+			}
+		}
+		return bindingCacheMaxSize;
+	}
+
+	private static Integer bindingCacheTtl = null;
+	/***
+	 * 获取关联绑定结果缓存的过期时间（秒）
+	 * @return
+	 */
+	public static int getBindingCacheTtl() {
+		if(bindingCacheTtl == null){
+			bindingCacheTtl = PropertiesUtils.getInteger("diboot.core.binding-cache-ttl");
+			if(bindingCacheTtl == null){
+				bindingCacheTtl = 300;
+			}
+		}
+		return bindingCacheTtl;
+	}
+
+	private static Integer deepBindMaxDepth = null;
+	/***
+	 * 获取深度绑定的最大层数（不含顶层），默认1（与原有的单层深度绑定一致），需多层时显式配置
+	 * @return
+	 */
+	public static int getDeepBindMaxDepth() {
+		if(deepBindMaxDepth == null){
+			deepBindMaxDepth = PropertiesUtils.getInteger("diboot.core.deep-bind-max-depth");
+			if(deepBindMaxDepth == null){
+				deepBindMaxDepth = 1;
+			}
+		}
+		return deepBindMaxDepth;
+	}
+
+	private static Integer deepBindMaxRows = null;
+	/***
+	 * 获取深度绑定的对象总数上限，超出时不再继续向下绑定，默认100000
+	 * @return
+	 */
+	public static int getDeepBindMaxRows() {
+		if(deepBindMaxRows == null){
+			deepBindMaxRows = PropertiesUtils.getInteger("diboot.core.deep-bind-max-rows");
+			if(deepBindMaxRows == null){
+				deepBindMaxRows = 100000;
+			}
+		}
+		return deepBindMaxRows;
+	}
+
+	private static Integer bindingWindowSize = null;
+	/***
+	 * 获取关联绑定的分窗口大小，VO数超出时按窗口逐批绑定并释放中间结果，小于等于0时不分窗口，默认0
+	 * @return
+	 */
+	public static int getBindingWindowSize() {
+		if(bindingWindowSize == null){
+			bindingWindowSize = PropertiesUtils.getInteger("diboot.core.binding-window-size");
+			if(bindingWindowSize == null){
+				bindingWindowSize = 0;
+			}
+		}
+		return bindingWindowSize;
+	}
+
+	private static Boolean bindingMiddleTableJoin = null;
+	/***
+	 * 通过中间表的EntityList绑定是否合并为中间表与关联表的单次JOIN查询，默认false
+	 * @return
+	 */
+	public static boolean isBindingMiddleTableJoin() {
+		if(bindingMiddleTableJoin == null){
+			bindingMiddleTableJoin = PropertiesUtils.getBoolean("diboot.core.binding-middle-table-join");
+		}
+		return bindingMiddleTableJoin;
+	}
+
+	private static Boolean remoteBindingBatch = null;
+	/***
+	 * 跨模块绑定是否按模块合并为一次批量请求（需远程模块提供批量绑定接口），默认false
+	 * @return
+	 */
+	public static boolean isRemoteBindingBatch() {
+		if(remoteBindingBatch == null){
+			remoteBindingBatch = PropertiesUtils.getBoolean("diboot.core.remote-binding-batch");
+		}
+		return remoteBindingBatch;
+	}
+
+	private static Integer remoteBindingCacheTtl = null;
+	/***
+	 * 跨模块绑定结果在调用方的缓存过期时间（秒），小于等于0时不缓存，默认0
+	 * @return
+	 */
+	public static int getRemoteBindingCacheTtl() {
+		if(remoteBindingCacheTtl == null){
+			remoteBindingCacheTtl = PropertiesUtils.getInteger("diboot.core.remote-binding-cache-ttl");
+			if(remoteBindingCacheTtl == null){
+				remoteBindingCacheTtl = 0;
+			}
+		}
+		return remoteBindingCacheTtl;
+	}
+
+	private static Integer remoteBindingTimeout = null;
+	/***
+	 * 跨模块绑定的单次请求超时时间（毫秒），可通过 diboot.core.remote-binding-module-timeout.模块名 按模块指定，小于等于0时不限时，默认0
+	 * @return
+	 */
+	public static int getRemoteBindingTimeout() {
+		if(remoteBindingTimeout == null){
+			remoteBindingTimeout = PropertiesUtils.getInteger("diboot.core.remote-binding-timeout");
+			if(remoteBindingTimeout == null){
+				remoteBindingTimeout = 0;
+			}
+		}
+		return remoteBindingTimeout;
+	}
+
+	private static Integer remoteBindingCircuitFailureThreshold = null;
+	/***
+	 * 跨模块绑定熔断的连续失败次数阈值，小于等于0时不熔断，默认5
+	 * @return
+	 */
+	public static int getRemoteBindingCircuitFailureThreshold() {
+		if(remoteBindingCircuitFailureThreshold == null){
+			remoteBindingCircuitFailureThreshold = PropertiesUtils.getInteger("diboot.core.remote-binding-circuit-failure-threshold");
+			if(remoteBindingCircuitFailureThreshold == null){
+				remoteBindingCircuitFailureThreshold = 5;
+			}
+		}
+		return remoteBindingCircuitFailureThreshold;
+	}
+
+	private static Integer remoteBindingCircuitOpenDuration = null;
+	/***
+	 * 跨模块绑定熔断后的等待时间（毫秒），之后放行一次探测请求，默认30000
+	 * @return
+	 */
+	public static int getRemoteBindingCircuitOpenDuration() {
+		if(remoteBindingCircuitOpenDuration == null){
+			remoteBindingCircuitOpenDuration = PropertiesUtils.getInteger("diboot.core.remote-binding-circuit-open-duration");
+			if(remoteBindingCircuitOpenDuration == null){
+				remoteBindingCircuitOpenDuration = 30000;
+			}
+		}
+		return remoteBindingCircuitOpenDuration;
+	}
+
+	private static String remoteBindingFallback = null;
+	/***
+	 * 跨模块绑定失败（超时、异常或熔断）时的降级方式: fail-抛出异常（远程调用异常原样抛出）, null-绑定字段留空，默认fail
+	 * @return
+	 */
+	public static String getRemoteBindingFallback() {
+		if(remoteBindingFallback == null){
+			remoteBindingFallback = PropertiesUtils.get("diboot.core.remote-binding-fallback");
+			if(remoteBindingFallback == null){
+				remoteBindingFallback = "fail";
+			}
+		}
+		return remoteBindingFallback;
+	}
+
+	private static Integer remoteBindingMaxConcurrency = null;
+	/***
+	 * 跨模块绑定每个模块的最大并发请求数（模块独立的线程池），默认8
+	 * @return
+	 */
+	public static int getRemoteBindingMaxConcurrency() {
+		if(remoteBindingMaxConcurrency == null){
+			remoteBindingMaxConcurrency = PropertiesUtils.getInteger("diboot.core.remote-binding-max-concurrency");
+			if(remoteBindingMaxConcurrency == null){
+				remoteBindingMaxConcurrency = 8;
+			}
+		}
+		return remoteBindingMaxConcurrency;
+	}
+
+	private static Integer remoteBindingQueueCapacity = null;
+	/***
+	 * 跨模块绑定每个模块等待执行的请求数上限，超出时请求被拒绝，默认100
+	 * @return
+	 */
+	public static int getRemoteBindingQueueCapacity() {
+		if(remoteBindingQueueCapacity == null){
+			remoteBindingQueueCapacity = PropertiesUtils.getInteger("diboot.core.remote-binding-queue-capacity");
+			if(remoteBindingQueueCapacity == null){
+				remoteBindingQueueCapacity = 100;
+			}
+		}
+		return remoteBindingQueueCapacity;
+	}
+
+	private static Boolean bindingMetrics = null;
+	/***
+	 * 是否启用内置的关联绑定指标统计（各VO注解的查询次数、行数、关联值数及耗时），默认false
+	 * @return
+	 */
+	public static boolean isBindingMetrics() {
+		if(bindingMetrics == null){
+			bindingMetrics = PropertiesUtils.getBoolean("diboot.core.binding-metrics");
+		}
+		return bindingMetrics;
+	}
+
+	private static Integer dynamicSqlCacheSize = null;
+	/***
+	 * 获取动态关联查询SQL模板的缓存数上限，小于等于0时不缓存，默认1024
+	 * @return
+	 */
+	public static int getDynamicSqlCacheSize() {
+		if(dynamicSqlCacheSize == null){
+			dynamicSqlCacheSize = PropertiesUtils.getInteger("diboot.core.dynamic-sql-cache-size");
+			if(dynamicSqlCacheSize == null){
+				dynamicSqlCacheSize = 1024;
+			}
+		}
+		return dynamicSqlCacheSize;
+	}
+
+	private static Boolean dynamicQuerySemiJoin = null;
+	/***
+	 * 动态关联查询是否将仅用于过滤的对多关联改写为EXISTS半连接（无对多join时不再DISTINCT），默认false
+	 * @return
+	 */
+	public static boolean isDynamicQuerySemiJoin() {
+		if(dynamicQuerySemiJoin == null){
+			dynamicQuerySemiJoin = PropertiesUtils.getBoolean("diboot.core.dynamic-query-semi-join");
+		}
+		return dynamicQuerySemiJoin;
+	}
+
+	private static Integer paginationCountCacheTtl = null;
+	/***
+	 * 获取分页count策略为CACHE时count总数的缓存时间（秒），小于等于0时不缓存，默认30
+	 * @return
+	 */
+	public static int getPaginationCountCacheTtl() {
+		if(paginationCountCacheTtl == null){
+			paginationCountCacheTtl = PropertiesUtils.getInteger("diboot.core.pagination-count-cache-ttl");
+			if(paginationCountCacheTtl == null){
+				paginationCountCacheTtl = 30;
+			}
+		}
+		return paginationCountCacheTtl;
+	}
+
 	private static String ACTIVE_FLAG_VALUE = null;
 	/**
 	 * 获取有效记录的标记值，如 0
@@ -0,0 +1,254 @@
+package com.diboot.core.data.copy;
+
+import com.diboot.core.binding.cache.BindingCacheManager;
+import com.diboot.core.binding.parser.BeanAccessor;
+import com.diboot.core.util.BeanUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.FatalBeanException;
+import org.springframework.core.ResolvableType;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 预编译的属性拷贝器，按 (源类, 目标类) 缓存
+ * <p>
+ * 首次使用时解析同名可赋值属性对（判定规则同Spring BeanUtils.copyProperties）、@Accept非同名属性映射及目标类构造方法，
+ * 之后每次拷贝直接调用预编译的getter/setter，避免逐次的内省、泛型类型解析及注解扫描
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/15
+ * Copyright © diboot.com
+ */
+@Slf4j
+public class BeanPropertyCopier {
+
+    /**
+     * 源类-目标类-拷贝器
+     */
+    private static final Map<Class<?>, Map<Class<?>, BeanPropertyCopier>> COPIER_CACHE_MAP = new ConcurrentHashMap<>();
+
+    private final Class<?> targetClass;
+    /**
+     * 同名属性拷贝
+     */
+    private final List<PropertyPair> propertyPairs;
+    /**
+     * Accept注解属性拷贝
+     */
+    private final List<AcceptPair> acceptPairs;
+    /**
+     * 目标类无参构造方法（延迟解析）
+     */
+    private volatile Constructor<?> targetConstructor;
+
+    /**
+     * 获取源类到目标类的拷贝器
+     * @param sourceClass
+     * @param targetClass
+     * @return
+     */
+    public static BeanPropertyCopier of(Class<?> sourceClass, Class<?> targetClass){
+        return COPIER_CACHE_MAP.computeIfAbsent(sourceClass, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(targetClass, k -> new BeanPropertyCopier(sourceClass, targetClass));
+    }
+
+    private BeanPropertyCopier(Class<?> sourceClass, Class<?> targetClass){
+        this.targetClass = targetClass;
+        this.propertyPairs = buildPropertyPairs(sourceClass, targetClass);
+        this.acceptPairs = buildAcceptPairs(sourceClass, targetClass);
+    }
+
+    /**
+     * 创建目标类实例
+     * @param <T>
+     * @return
+     * @throws Exception
+     */
+    public <T> T newInstance() throws Exception {
+        Constructor<?> constructor = targetConstructor;
+        if(constructor == null){
+            constructor = ReflectionUtils.accessibleConstructor(targetClass);
+            targetConstructor = constructor;
+        }
+        return (T)constructor.newInstance();
+    }
+
+    /**
+     * 拷贝同名属性及Accept注解属性
+     * @param source
+     * @param target
+     */
+    public void copy(Object source, Object target){
+        for(PropertyPair pair : propertyPairs){
+            pair.copy(source, target);
+        }
+        copyAcceptProperties(source, target);
+    }
+
+    /**
+     * 拷贝Accept注解标识的非同名属性
+     * @param source
+     * @param target
+     */
+    public void copyAcceptProperties(Object source, Object target){
+        for(AcceptPair pair : acceptPairs){
+            pair.copy(source, target);
+        }
+    }
+
+    /**
+     * 解析可拷贝的同名属性对
+     * @param sourceClass
+     * @param targetClass
+     * @return
+     */
+    private static List<PropertyPair> buildPropertyPairs(Class<?> sourceClass, Class<?> targetClass){
+        BeanAccessor sourceAccessor = BindingCacheManager.getBeanAccessor(sourceClass);
+        BeanAccessor targetAccessor = BindingCacheManager.getBeanAccessor(targetClass);
+        List<PropertyPair> pairs = new ArrayList<>();
+        for(PropertyDescriptor targetPd : org.springframework.beans.BeanUtils.getPropertyDescriptors(targetClass)){
+            Method writeMethod = targetPd.getWriteMethod();
+            if(writeMethod == null){
+                continue;
+            }
+            PropertyDescriptor sourcePd = org.springframework.beans.BeanUtils.getPropertyDescriptor(sourceClass, targetPd.getName());
+            if(sourcePd == null || sourcePd.getReadMethod() == null){
+                continue;
+            }
+            Method readMethod = sourcePd.getReadMethod();
+            if(!isAssignable(readMethod, writeMethod)){
+                continue;
+            }
+            Function<Object, Object> getter = sourceAccessor.getGetter(targetPd.getName());
+            if(getter == null){
+                getter = reflectiveGetter(readMethod);
+            }
+            BiConsumer<Object, Object> setter = targetAccessor.getSetter(targetPd.getName());
+            if(setter == null){
+                setter = reflectiveSetter(writeMethod);
+            }
+            pairs.add(new PropertyPair(targetPd.getName(), getter, setter));
+        }
+        return pairs.isEmpty()? Collections.emptyList() : pairs;
+    }
+
+    /**
+     * 解析Accept注解属性映射（源对象需有对应属性）
+     * @param sourceClass
+     * @param targetClass
+     * @return
+     */
+    private static List<AcceptPair> buildAcceptPairs(Class<?> sourceClass, Class<?> targetClass){
+        List<Field> annoFieldList = BeanUtils.extractFields(targetClass, Accept.class);
+        if(annoFieldList == null || annoFieldList.isEmpty()){
+            return Collections.emptyList();
+        }
+        BeanAccessor sourceAccessor = BindingCacheManager.getBeanAccessor(sourceClass);
+        List<AcceptPair> pairs = new ArrayList<>(annoFieldList.size());
+        for(Field fld : annoFieldList){
+            Accept accept = fld.getAnnotation(Accept.class);
+            if(BeanUtils.extractField(sourceClass, accept.name()) == null){
+                continue;
+            }
+            Function<Object, Object> sourceGetter = sourceAccessor.getGetter(accept.name());
+            if(sourceGetter == null){
+                log.debug("{} 的属性 {} 无getter，@Accept将忽略", sourceClass.getName(), accept.name());
+                continue;
+            }
+            pairs.add(new AcceptPair(fld.getName(), sourceGetter, accept.override()));
+        }
+        return pairs.isEmpty()? Collections.emptyList() : pairs;
+    }
+
+    /**
+     * 属性类型是否可赋值（与Spring BeanUtils.copyProperties一致，支持泛型判定）
+     * @param readMethod
+     * @param writeMethod
+     * @return
+     */
+    private static boolean isAssignable(Method readMethod, Method writeMethod){
+        ResolvableType sourceResolvableType = ResolvableType.forMethodReturnType(readMethod);
+        ResolvableType targetResolvableType = ResolvableType.forMethodParameter(writeMethod, 0);
+        if(sourceResolvableType.hasUnresolvableGenerics() || targetResolvableType.hasUnresolvableGenerics()){
+            return ClassUtils.isAssignable(writeMethod.getParameterTypes()[0], readMethod.getReturnType());
+        }
+        return targetResolvableType.isAssignableFrom(sourceResolvableType);
+    }
+
+    private static Function<Object, Object> reflectiveGetter(Method readMethod){
+        ReflectionUtils.makeAccessible(readMethod);
+        return bean -> ReflectionUtils.invokeMethod(readMethod, bean);
+    }
+
+    private static BiConsumer<Object, Object> reflectiveSetter(Method writeMethod){
+        ReflectionUtils.makeAccessible(writeMethod);
+        return (bean, value) -> ReflectionUtils.invokeMethod(writeMethod, bean, value);
+    }
+
+    /**
+     * 同名属性对
+     */
+    private static final class PropertyPair {
+        private final String propName;
+        private final Function<Object, Object> getter;
+        private final BiConsumer<Object, Object> setter;
+
+        PropertyPair(String propName, Function<Object, Object> getter, BiConsumer<Object, Object> setter){
+            this.propName = propName;
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        void copy(Object source, Object target){
+            try{
+                setter.accept(target, getter.apply(source));
+            }
+            catch (Throwable e){
+                throw new FatalBeanException("Could not copy property '" + propName + "' from source to target", e);
+            }
+        }
+    }
+
+    /**
+     * Accept注解属性对
+     */
+    private static final class AcceptPair {
+        private final String targetField;
+        private final Function<Object, Object> sourceGetter;
+        private final boolean override;
+
+        AcceptPair(String targetField, Function<Object, Object> sourceGetter, boolean override){
+            this.targetField = targetField;
+            this.sourceGetter = sourceGetter;
+            this.override = override;
+        }
+
+        void copy(Object source, Object target){
+            if(!override){
+                Object targetValue = BeanUtils.getProperty(target, targetField);
+                if(targetValue != null){
+                    log.debug("目标对象{}已有值{}，copyAcceptProperties将忽略.", target.getClass().getName(), targetValue);
+                    return;
+                }
+            }
+            Object sourceValue = sourceGetter.apply(source);
+            if(sourceValue != null){
+                // 类型不一致时由setProperty做类型转换
+                BeanUtils.setProperty(target, targetField, sourceValue);
+            }
+        }
+    }
+
+}
@@ -20,6 +20,7 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.core.toolkit.Constants;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.diboot.core.binding.query.dynamic.DynamicSqlProvider;
+import com.diboot.core.binding.query.dynamic.MiddleTableJoinWrapper;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.SelectProvider;
@@ -50,4 +51,20 @@ public interface DynamicQueryMapper {
     @SelectProvider(type= DynamicSqlProvider.class, method="buildSqlForListWithPage")
     IPage<Map<String, Object>> queryForListWithPage(Page<?> page, @Param(Constants.WRAPPER) QueryWrapper ew);
 
-}
\ No newline at end of file
+    /**
+     * 动态SQL查询count
+     * @return
+     */
+    @SelectProvider(type= DynamicSqlProvider.class, method="buildSqlForCount")
+    Long countForList(@Param(Constants.WRAPPER) QueryWrapper ew);
+
+    /**
+     * 中间表关联查询：关联Entity列及中间表关联列（mt_前缀别名）
+     * @param ew 关联Entity的查询条件
+     * @param mw 中间表查询条件
+     * @return
+     */
+    @SelectProvider(type= DynamicSqlProvider.class, method="buildSqlForMiddleTableJoin")
+    List<Map<String, Object>> queryForMiddleTableJoin(@Param(Constants.WRAPPER) QueryWrapper ew, @Param(MiddleTableJoinWrapper.PARAM_ALIAS) MiddleTableJoinWrapper mw);
+
+}
@@ -34,6 +34,8 @@ import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.baomidou.mybatisplus.extension.toolkit.ChainWrappers;
 import com.diboot.core.binding.Binder;
 import com.diboot.core.binding.cache.BindingCacheManager;
+import com.diboot.core.binding.cache.BindingCacheEvictInterceptor;
+import com.diboot.core.binding.cache.BindingResultCache;
 import com.diboot.core.binding.helper.ServiceAdaptor;
 import com.diboot.core.binding.parser.EntityInfoCache;
 import com.diboot.core.binding.query.dynamic.DynamicJoinQueryWrapper;
@@ -126,7 +128,9 @@ public class BaseServiceImpl<M extends BaseCrudMapper<T>, T> extends ServiceImpl
 	@Override
 	public boolean save(T entity) {
 		beforeCreateEntity(entity);
-		return super.save(entity);
+		boolean success = super.save(entity);
+		evictBindingCache();
+		return success;
 	}
 
 	/**
@@ -192,7 +196,9 @@ public class BaseServiceImpl<M extends BaseCrudMapper<T>, T> extends ServiceImpl
 	public boolean saveBatch(Collection<T> entityList, int batchSize){
 		// 批量插入
 		beforeCreateEntities(entityList);
-		return super.saveBatch(entityList, batchSize);
+		boolean success = super.saveBatch(entityList, batchSize);
+		evictBindingCache();
+		return success;
 	}
 
 	/**
@@ -222,6 +228,7 @@ public class BaseServiceImpl<M extends BaseCrudMapper<T>, T> extends ServiceImpl
 	public boolean updateEntity(T entity) {
 		beforeUpdateEntity(entity);
 		boolean success = super.updateById(entity);
+		evictBindingCache();
 		return success;
 	}
 
@@ -229,12 +236,14 @@ public class BaseServiceImpl<M extends BaseCrudMapper<T>, T> extends ServiceImpl
 	public boolean updateEntity(T entity, Wrapper updateWrapper) {
 		beforeUpdateEntity(entity);
 		boolean success = super.update(entity, updateWrapper);
+		evictBindingCache();
 		return success;
 	}
 
 	@Override
 	public boolean updateEntity(Wrapper updateWrapper) {
 		boolean success = super.update(null, updateWrapper);
+		evictBindingCache();
 		return success;
 	}
 
@@ -248,12 +257,14 @@ public class BaseServiceImpl<M extends BaseCrudMapper<T>, T> extends ServiceImpl
 			beforeUpdateEntity(entity);
 		}
 		boolean success = super.updateBatchById(entityList);
+		evictBindingCache();
 		return success;
 	}
 
 	@Override
 	public boolean createOrUpdateEntity(T entity) {
 		boolean success = super.saveOrUpdate(entity);
+		evictBindingCache();
 		return success;
 	}
 
@@ -265,7 +276,9 @@ public class BaseServiceImpl<M extends BaseCrudMapper<T>, T> extends ServiceImpl
 			return false;
 		}
 		// 批量插入
-		return super.saveOrUpdateBatch(entityList, BaseConfig.getBatchSize());
+		boolean success = super.saveOrUpdateBatch(entityList, BaseConfig.getBatchSize());
+		evictBindingCache();
+		return success;
 	}
 
     @Override
@@ -473,20 +486,26 @@ public class BaseServiceImpl<M extends BaseCrudMapper<T>, T> extends ServiceImpl
 
 	@Override
 	public boolean deleteEntity(Serializable id) {
-		return super.removeById(id);
+		boolean success = super.removeById(id);
+		evictBindingCache();
+		return success;
 	}
 
     @Override
     public boolean cancelDeletedById(Serializable id) {
 		EntityInfoCache info = BindingCacheManager.getEntityInfoByClass(super.getEntityClass());
 		String tableName = info.getTableName();
-        return this.getMapper().cancelDeletedById(tableName, id) > 0;
+		boolean success = this.getMapper().cancelDeletedById(tableName, id) > 0;
+		evictBindingCache();
+		return success;
     }
 
     @Override
 	public boolean deleteEntities(Wrapper queryWrapper){
 		// 执行
-		return super.remove(queryWrapper);
+		boolean success = super.remove(queryWrapper);
+		evictBindingCache();
+		return success;
 	}
 
 	@Override
@@ -495,7 +514,9 @@ public class BaseServiceImpl<M extends BaseCrudMapper<T>, T> extends ServiceImpl
 		if(V.isEmpty(entityIds)){
 			return false;
 		}
-		return super.removeByIds(entityIds);
+		boolean success = super.removeByIds(entityIds);
+		evictBindingCache();
+		return success;
 	}
 
 	@Override
@@ -514,15 +535,13 @@ public class BaseServiceImpl<M extends BaseCrudMapper<T>, T> extends ServiceImpl
 		if(queryWrapper instanceof DynamicJoinQueryWrapper){
 			return Binder.joinQueryList((DynamicJoinQueryWrapper)queryWrapper, entityClass, pagination);
 		}
+		// 游标分页
+		if(pagination != null && pagination.isKeyset()){
+			return ServiceAdaptor.queryListByKeyset(this, queryWrapper, pagination, entityClass);
+		}
 		// 否则，调用MP默认实现
 		if(pagination != null){
-			IPage<T> page = convertToIPage(queryWrapper, pagination);
-			page = super.page(page, queryWrapper);
-			// 如果重新执行了count进行查询，则更新pagination中的总数
-			if(page.searchCount()){
-				pagination.setTotalCount(page.getTotal());
-			}
-			return page.getRecords();
+			return ServiceAdaptor.queryPage(this, queryWrapper, convertToIPage(queryWrapper, pagination), pagination, entityClass);
 		}
 		else{
 			List<T> list = super.list(queryWrapper);
@@ -562,14 +581,7 @@ public class BaseServiceImpl<M extends BaseCrudMapper<T>, T> extends ServiceImpl
 		if(V.isEmpty(entityList)){
 			return Collections.emptyList();
 		}
-		List<FT> fldValues = new ArrayList<>(entityList.size());
-		for(T entity : entityList){
-			FT value = (FT)BeanUtils.getProperty(entity, fieldName);
-			if(value != null && !fldValues.contains(value)){
-				fldValues.add(value);
-			}
-		}
-		return fldValues;
+		return DistinctCollector.collect(entityList, fieldName, null);
 	}
 
 	@Override
@@ -778,6 +790,16 @@ public class BaseServiceImpl<M extends BaseCrudMapper<T>, T> extends ServiceImpl
 		return fieldName;
 	}
 
+	/**
+	 * 数据变更后使关联绑定结果缓存失效（注册BindingCacheEvictInterceptor时由其拦截Mapper写入，此处仅兜底未注册的情况）
+	 */
+	private void evictBindingCache(){
+		if(BindingCacheEvictInterceptor.isRegistered()){
+			return;
+		}
+		BindingResultCache.evict(getEntityClass());
+	}
+
 	/***
 	 * 打印警告信息
 	 * @param method
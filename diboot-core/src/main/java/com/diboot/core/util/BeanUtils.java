@@ -17,7 +17,8 @@ package com.diboot.core.util;
 
 import com.baomidou.mybatisplus.annotation.TableField;
 import com.diboot.core.binding.cache.BindingCacheManager;
-import com.diboot.core.data.copy.AcceptAnnoCopier;
+import com.diboot.core.binding.parser.BeanAccessor;
+import com.diboot.core.data.copy.BeanPropertyCopier;
 import com.diboot.core.config.Cons;
 import com.diboot.core.entity.BaseEntity;
 import com.diboot.core.exception.BusinessException;
@@ -43,6 +44,7 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -74,10 +76,8 @@ public class BeanUtils {
      * @param target
      */
     public static Object copyProperties(Object source, Object target){
-        // 链式调用无法使用BeanCopier拷贝，换用BeanUtils
-        org.springframework.beans.BeanUtils.copyProperties(source, target);
-        // 处理Accept注解标识的不同字段名拷贝
-        AcceptAnnoCopier.copyAcceptProperties(source, target);
+        // 同名属性及Accept注解标识的不同字段名拷贝，属性映射按源类及目标类预编译缓存
+        BeanPropertyCopier.of(source.getClass(), target.getClass()).copy(source, target);
         return target;
     }
 
@@ -94,8 +94,9 @@ public class BeanUtils {
         }
         T target = null;
         try{
-            target = clazz.getConstructor().newInstance();
-            copyProperties(source, target);
+            BeanPropertyCopier copier = BeanPropertyCopier.of(source.getClass(), clazz);
+            target = copier.newInstance();
+            copier.copy(source, target);
         }
         catch (Exception e){
             log.warn("对象转换异常, class="+clazz.getName());
@@ -121,9 +122,15 @@ public class BeanUtils {
         // 不同，则转换
         List<T> resultList = new ArrayList<>(sourceList.size());
         try{
+            Class<?> sourceClass = null;
+            BeanPropertyCopier copier = null;
             for(Object source : sourceList){
-                T target = clazz.getConstructor().newInstance();
-                copyProperties(source, target);
+                if(copier == null || source.getClass() != sourceClass){
+                    sourceClass = source.getClass();
+                    copier = BeanPropertyCopier.of(sourceClass, clazz);
+                }
+                T target = copier.newInstance();
+                copier.copy(source, target);
                 resultList.add(target);
             }
         }
@@ -166,6 +173,14 @@ public class BeanUtils {
      */
     public static Object getProperty(Object obj, String field){
         try {
+            // 优先走预编译的getter
+            if(obj != null && !(obj instanceof Map)){
+                Function<Object, Object> getter = BindingCacheManager.getBeanAccessor(obj.getClass()).getGetter(field);
+                if(getter != null){
+                    return getter.apply(obj);
+                }
+            }
+            // 嵌套属性等情况交由BeanWrapper处理
             BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(obj);
             return wrapper.getPropertyValue(field);
         }
@@ -196,6 +211,15 @@ public class BeanUtils {
      * @param value
      */
     public static void setProperty(Object obj, String field, Object value) {
+        // 类型匹配时直接调用预编译的setter，需类型转换的交由BeanWrapper处理
+        if(obj != null && !(obj instanceof Map)){
+            BeanAccessor accessor = BindingCacheManager.getBeanAccessor(obj.getClass());
+            BiConsumer<Object, Object> setter = accessor.getSetter(field);
+            if(setter != null && accessor.isAssignable(field, value)){
+                setter.accept(obj, value);
+                return;
+            }
+        }
         BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(obj);
         wrapper.setPropertyValue(field, value);
     }
@@ -405,41 +429,20 @@ public class BeanUtils {
      * @return
      */
     public static <T> List<T> buildTree(List<T> allNodes, Object rootNodeId, String parentIdFieldName, String childrenFieldName){
-        if(V.isEmpty(allNodes)){
-            return null;
-        }
-        // 提取所有的top level对象
-        List<T> topLevelModels = new ArrayList();
-        for(T node : allNodes){
-            Object parentId = getProperty(node, parentIdFieldName);
-            if(parentId == null || V.fuzzyEqual(parentId, rootNodeId)){
-                topLevelModels.add(node);
-            }
-            Object nodeId = getProperty(node, Cons.FieldName.id.name());
-            if(V.equals(nodeId, parentId)){
-                throw new BusinessException(Status.WARN_PERFORMANCE_ISSUE, "parentId关联自身，请检查！" + node.getClass().getSimpleName()+":"+nodeId);
-            }
-        }
-        if(V.isEmpty(topLevelModels)){
-            return topLevelModels;
-        }
-        // 遍历第一级节点，并挂载 children 子节点
-        for(T node : allNodes) {
-            Object nodeId = getProperty(node, Cons.FieldName.id.name());
-            List<T> children = buildTreeChildren(nodeId, allNodes, parentIdFieldName, childrenFieldName);
-            setProperty(node, childrenFieldName, children);
-        }
-        return topLevelModels;
+        return new TreeBuilder<T>().rootId(rootNodeId)
+                .parentIdField(parentIdFieldName).childrenField(childrenFieldName)
+                .build(allNodes);
     }
 
     /**
-     * 递归构建树节点的子节点
+     * 递归构建树节点的子节点（每层遍历全部节点，节点较多时请使用 {@link TreeBuilder}）
      * @param parentId
      * @param nodeList
      * @param parentIdFieldName 父节点属性名
      * @param childrenFieldName 子节点集合属性名
      * @return
      */
+    @Deprecated
     public static <T> List<T> buildTreeChildren(Object parentId, List<T> nodeList, String parentIdFieldName, String childrenFieldName) {
         List<T> children = null;
         for(T node : nodeList) {
@@ -563,19 +566,13 @@ public class BeanUtils {
         if(V.isEmpty(objectList)){
             return Collections.emptyList();
         }
-        List fieldValueList = new ArrayList();
         try{
-            for(E object : objectList){
-                Object fieldValue = getProperty(object, getterPropName);
-                if(fieldValue != null && !fieldValueList.contains(fieldValue)){
-                    fieldValueList.add(fieldValue);
-                }
-            }
+            return DistinctCollector.collect(objectList, getterPropName, null);
         }
         catch (Exception e){
             log.warn("提取属性值异常, getterPropName="+getterPropName, e);
         }
-        return fieldValueList;
+        return new ArrayList();
     }
 
     /***
@@ -590,22 +587,35 @@ public class BeanUtils {
         if(V.isEmpty(objectList)){
             return Collections.emptyList();
         }
-        List fieldValueList = new ArrayList();
         try{
-            for(E object : objectList){
-                Object fieldValue = getProperty(object, getterPropName);
-                if(fieldValue == null){
-                    hasNullFlags[0] = true;
-                }
-                else if(!fieldValueList.contains(fieldValue)){
-                    fieldValueList.add(fieldValue);
-                }
-            }
+            return DistinctCollector.collect(objectList, getterPropName, hasNullFlags);
+        }
+        catch (Exception e){
+            log.warn("提取属性值异常, getterPropName="+getterPropName, e);
+        }
+        return new ArrayList();
+    }
+
+    /***
+     * 从list对象列表中提取指定属性值到新的List，属性值为多值字符串时按splitBy拆分后提取
+     * @param objectList
+     * @param getterPropName
+     * @param splitBy 拆分符
+     * @param hasNullFlags 是否有null值标记参数
+     * @param <E>
+     * @return
+     */
+    public static <E> List collectToList(List<E> objectList, String getterPropName, String splitBy, boolean[] hasNullFlags){
+        if(V.isEmpty(objectList)){
+            return Collections.emptyList();
+        }
+        try{
+            return DistinctCollector.collect(objectList, getterPropName, splitBy, hasNullFlags);
         }
         catch (Exception e){
             log.warn("提取属性值异常, getterPropName="+getterPropName, e);
         }
-        return fieldValueList;
+        return new ArrayList();
     }
 
     /**
@@ -668,8 +678,9 @@ public class BeanUtils {
     public static <T> T cloneBean(T ent){
         // 克隆对象
         try{
-            T cloneObj = (T)org.springframework.beans.BeanUtils.instantiateClass(ent.getClass());
-            copyProperties(ent ,cloneObj);
+            BeanPropertyCopier copier = BeanPropertyCopier.of(ent.getClass(), ent.getClass());
+            T cloneObj = copier.newInstance();
+            copier.copy(ent, cloneObj);
             return cloneObj;
         }
         catch (Exception e){
@@ -0,0 +1,265 @@
+package com.diboot.core.util;
+
+import com.diboot.core.binding.cache.BindingCacheManager;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * 去重收集器：按插入顺序收集非null值并基于hash去重（替代 List.contains 的O(n²)去重）
+ * <p>
+ * 值均为Long或均为Integer（如ID列）时，以long开放寻址表判重，避免HashSet为每个值创建的节点对象；
+ * 出现其他类型的值时自动切换为HashSet判重，判重语义与 List.contains 一致（equals）。
+ * 另支持拆分多值字符串（如splitBy拆分的 "1,2,3"）后收集
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/20
+ * Copyright © diboot.com
+ */
+public class DistinctCollector {
+
+    private final List<Object> values;
+    private final int expectedSize;
+    /**
+     * long值判重表（值均为同一整数类型时使用）
+     */
+    private LongHashSet longSet;
+    /**
+     * long判重表对应的值类型：Long/Integer
+     */
+    private Class<?> longType;
+    /**
+     * 通用判重表
+     */
+    private Set<Object> objectSet;
+    private boolean hasNull = false;
+
+    public DistinctCollector(){
+        this(16);
+    }
+
+    /**
+     * 构造方法
+     * @param expectedSize 预计值个数
+     */
+    public DistinctCollector(int expectedSize){
+        this.expectedSize = Math.max(expectedSize, 4);
+        this.values = new ArrayList<>(this.expectedSize);
+    }
+
+    /**
+     * 从对象列表中提取指定属性的去重值
+     * @param objectList 对象列表
+     * @param fieldName 属性名
+     * @param hasNullFlags 有null值时设置 hasNullFlags[0]=true，可为null
+     * @return
+     */
+    public static <E> List collect(List<E> objectList, String fieldName, boolean[] hasNullFlags){
+        return collect(objectList, fieldName, null, hasNullFlags);
+    }
+
+    /**
+     * 从对象列表中提取指定属性的去重值，属性值为多值字符串时按splitBy拆分后收集
+     * @param objectList 对象列表
+     * @param fieldName 属性名
+     * @param splitBy 拆分符，为空时不拆分
+     * @param hasNullFlags 有null值时设置 hasNullFlags[0]=true，可为null
+     * @return
+     */
+    public static <E> List collect(List<E> objectList, String fieldName, String splitBy, boolean[] hasNullFlags){
+        if(V.isEmpty(objectList)){
+            return Collections.emptyList();
+        }
+        DistinctCollector collector = new DistinctCollector(objectList.size());
+        Class<?> getterClass = null;
+        Function<Object, Object> getter = null;
+        for(E object : objectList){
+            if(object == null){
+                continue;
+            }
+            // 预编译getter按对象类解析，类型变化时重新解析
+            if(object.getClass() != getterClass && !(object instanceof Map)){
+                getterClass = object.getClass();
+                getter = BindingCacheManager.getBeanAccessor(getterClass).getGetter(fieldName);
+            }
+            Object value = (getter != null && !(object instanceof Map))? getter.apply(object) : BeanUtils.getProperty(object, fieldName);
+            if(V.notEmpty(splitBy)){
+                collector.addSplit(value, splitBy);
+            }
+            else{
+                collector.add(value);
+            }
+        }
+        if(hasNullFlags != null && collector.hasNull()){
+            hasNullFlags[0] = true;
+        }
+        return collector.toList();
+    }
+
+    /**
+     * 值列表去重（保持顺序，忽略null）
+     * @param valueList
+     * @return
+     */
+    public static List distinct(Collection valueList){
+        if(V.isEmpty(valueList)){
+            return new ArrayList();
+        }
+        DistinctCollector collector = new DistinctCollector(valueList.size());
+        for(Object value : valueList){
+            collector.add(value);
+        }
+        return collector.toList();
+    }
+
+    /**
+     * 拆解多值字符串并去重（保持顺序，忽略null）
+     * @param valueList
+     * @param splitBy
+     * @return
+     */
+    public static List unpack(Collection valueList, String splitBy){
+        if(V.isEmpty(valueList)){
+            return new ArrayList();
+        }
+        DistinctCollector collector = new DistinctCollector(valueList.size());
+        for(Object value : valueList){
+            collector.addSplit(value, splitBy);
+        }
+        return collector.toList();
+    }
+
+    /**
+     * 添加值，null值仅记录标记
+     * @param value
+     * @return 是否为新值
+     */
+    public boolean add(Object value){
+        if(value == null){
+            hasNull = true;
+            return false;
+        }
+        if(objectSet == null){
+            Class<?> valueClass = value.getClass();
+            if(longType == null && values.isEmpty() && (valueClass == Long.class || valueClass == Integer.class)){
+                longType = valueClass;
+                longSet = new LongHashSet(expectedSize);
+            }
+            if(longType == valueClass){
+                if(longSet.add(((Number)value).longValue())){
+                    values.add(value);
+                    return true;
+                }
+                return false;
+            }
+            // 出现其他类型，切换为通用判重
+            objectSet = new HashSet<>(values);
+            longSet = null;
+            longType = null;
+        }
+        if(objectSet.add(value)){
+            values.add(value);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 添加值，多值字符串按splitBy拆分后添加各值
+     * @param value
+     * @param splitBy
+     */
+    public void addSplit(Object value, String splitBy){
+        if(value == null){
+            hasNull = true;
+            return;
+        }
+        String valueStr = S.valueOf(value);
+        if(valueStr.contains(splitBy)){
+            for(String oneVal : valueStr.split(splitBy)){
+                add(oneVal);
+            }
+        }
+        else{
+            add(valueStr);
+        }
+    }
+
+    /**
+     * 是否有null值
+     * @return
+     */
+    public boolean hasNull(){
+        return hasNull;
+    }
+
+    public int size(){
+        return values.size();
+    }
+
+    /**
+     * 去重后的值列表（按首次出现的顺序）
+     * @return
+     */
+    public List toList(){
+        return values;
+    }
+
+    /**
+     * long值开放寻址hash表
+     */
+    private static final class LongHashSet {
+        private long[] keys;
+        private boolean[] used;
+        private int size;
+        private int mask;
+
+        LongHashSet(int expectedSize){
+            int capacity = Integer.highestOneBit(Math.max(expectedSize * 2, 16) - 1) << 1;
+            this.keys = new long[capacity];
+            this.used = new boolean[capacity];
+            this.mask = capacity - 1;
+        }
+
+        boolean add(long key){
+            int index = hash(key) & mask;
+            while(used[index]){
+                if(keys[index] == key){
+                    return false;
+                }
+                index = (index + 1) & mask;
+            }
+            used[index] = true;
+            keys[index] = key;
+            if(++size * 2 > keys.length){
+                rehash();
+            }
+            return true;
+        }
+
+        private void rehash(){
+            long[] oldKeys = keys;
+            boolean[] oldUsed = used;
+            int capacity = oldKeys.length << 1;
+            keys = new long[capacity];
+            used = new boolean[capacity];
+            mask = capacity - 1;
+            for(int i = 0; i < oldKeys.length; i++){
+                if(oldUsed[i]){
+                    int index = hash(oldKeys[i]) & mask;
+                    while(used[index]){
+                        index = (index + 1) & mask;
+                    }
+                    used[index] = true;
+                    keys[index] = oldKeys[i];
+                }
+            }
+        }
+
+        private static int hash(long key){
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int)(h ^ (h >>> 32));
+        }
+    }
+
+}
@@ -163,6 +163,21 @@ public class JSON {
         }
     }
 
+    /***
+     * 将已解析的JSON结构（如Map）转换为java对象，无需再次序列化为字符串
+     * @param fromValue
+     * @param clazz
+     * @return
+     */
+    public static <T> T convertValue(Object fromValue, Class<T> clazz) {
+        try {
+            return getObjectMapper().convertValue(fromValue, clazz);
+        } catch (Exception e) {
+            log.error("Json转Java异常", e);
+            return null;
+        }
+    }
+
     /***
      * 将JSON字符串转换为java对象
      * @param jsonStr
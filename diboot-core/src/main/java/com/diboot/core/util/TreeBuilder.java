@@ -0,0 +1,193 @@
+package com.diboot.core.util;
+
+import com.diboot.core.binding.helper.MatchKey;
+import com.diboot.core.config.Cons;
+import com.diboot.core.exception.BusinessException;
+import com.diboot.core.vo.Status;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+
+/**
+ * 树形结构构建器：一次遍历按id及parentId建立索引，线性时间挂载子节点
+ * <p>
+ * 支持指定根节点ID、子节点排序，并识别孤儿节点（上级节点不存在）及循环引用节点（不可从根节点到达），二者均不挂载到树中
+ * <pre>
+ * List&lt;OrgVO&gt; tree = new TreeBuilder&lt;OrgVO&gt;().rootId(0L).sortBy(Comparator.comparing(OrgVO::getSortId)).build(orgList);
+ * </pre>
+ * @author JerryMa
+ * @version v2.4.0
+ * @date 2021/12/14
+ * Copyright © diboot.com
+ */
+@Slf4j
+public class TreeBuilder<T> {
+
+    private Object rootId = 0;
+    private String idFieldName = Cons.FieldName.id.name();
+    private String parentIdFieldName = Cons.FieldName.parentId.name();
+    private String childrenFieldName = Cons.FieldName.children.name();
+    private Comparator<? super T> comparator;
+    /**
+     * 孤儿节点：上级节点不存在
+     */
+    private List<T> orphanNodes = Collections.emptyList();
+    /**
+     * 循环引用节点：上级链路成环，无法从根节点到达
+     */
+    private List<T> cycleNodes = Collections.emptyList();
+
+    /**
+     * 根节点ID，parentId为null或等于该值的节点为顶层节点，默认0
+     * @param rootId
+     * @return
+     */
+    public TreeBuilder<T> rootId(Object rootId){
+        this.rootId = rootId;
+        return this;
+    }
+
+    public TreeBuilder<T> idField(String idFieldName){
+        this.idFieldName = idFieldName;
+        return this;
+    }
+
+    public TreeBuilder<T> parentIdField(String parentIdFieldName){
+        this.parentIdFieldName = parentIdFieldName;
+        return this;
+    }
+
+    public TreeBuilder<T> childrenField(String childrenFieldName){
+        this.childrenFieldName = childrenFieldName;
+        return this;
+    }
+
+    /**
+     * 顶层节点及各级子节点的排序
+     * @param comparator
+     * @return
+     */
+    public TreeBuilder<T> sortBy(Comparator<? super T> comparator){
+        this.comparator = comparator;
+        return this;
+    }
+
+    /**
+     * 构建树，返回顶层节点列表（叶子节点的children为null）
+     * @param allNodes 所有节点
+     * @return
+     */
+    public List<T> build(List<T> allNodes){
+        orphanNodes = Collections.emptyList();
+        cycleNodes = Collections.emptyList();
+        if(V.isEmpty(allNodes)){
+            return null;
+        }
+        Object rootKey = MatchKey.normalize(rootId);
+        Set<Object> nodeIds = new HashSet<>(allNodes.size() * 4 / 3 + 1);
+        Object[] parentKeys = new Object[allNodes.size()];
+        for(int i = 0; i < allNodes.size(); i++){
+            T node = allNodes.get(i);
+            Object nodeId = MatchKey.normalize(BeanUtils.getProperty(node, idFieldName));
+            Object parentKey = MatchKey.normalize(BeanUtils.getProperty(node, parentIdFieldName));
+            if(nodeId != null && nodeId.equals(parentKey)){
+                throw new BusinessException(Status.WARN_PERFORMANCE_ISSUE, "parentId关联自身，请检查！" + node.getClass().getSimpleName()+":"+nodeId);
+            }
+            nodeIds.add(nodeId);
+            parentKeys[i] = parentKey;
+        }
+        // 按上级ID分组
+        List<T> topLevelNodes = new ArrayList<>();
+        List<T> orphans = null;
+        Map<Object, List<T>> parentId2ChildrenMap = new HashMap<>(allNodes.size() * 4 / 3 + 1);
+        for(int i = 0; i < allNodes.size(); i++){
+            T node = allNodes.get(i);
+            Object parentKey = parentKeys[i];
+            if(parentKey == null || parentKey.equals(rootKey)){
+                topLevelNodes.add(node);
+            }
+            else{
+                parentId2ChildrenMap.computeIfAbsent(parentKey, k -> new ArrayList<>()).add(node);
+                if(!nodeIds.contains(parentKey)){
+                    if(orphans == null){
+                        orphans = new ArrayList<>();
+                    }
+                    orphans.add(node);
+                }
+            }
+        }
+        // 自顶层节点逐层挂载子节点
+        Set<Object> attachedNodes = Collections.newSetFromMap(new IdentityHashMap<>(allNodes.size() * 4 / 3 + 1));
+        attachChildren(topLevelNodes, parentId2ChildrenMap, attachedNodes);
+        if(orphans != null){
+            // 孤儿节点及其下级不在树中，仅标记
+            this.orphanNodes = orphans;
+            attachChildren(orphans, parentId2ChildrenMap, attachedNodes);
+            log.debug("构建树时发现 {} 个上级不存在的节点，已忽略", orphans.size());
+        }
+        if(attachedNodes.size() < allNodes.size()){
+            List<T> cycles = new ArrayList<>(allNodes.size() - attachedNodes.size());
+            for(T node : allNodes){
+                if(!attachedNodes.contains(node)){
+                    cycles.add(node);
+                }
+            }
+            this.cycleNodes = cycles;
+            log.debug("构建树时发现 {} 个循环引用的节点，已忽略", cycles.size());
+        }
+        sort(topLevelNodes);
+        return topLevelNodes;
+    }
+
+    /**
+     * 孤儿节点（上级节点不存在，未挂载到树中）
+     * @return
+     */
+    public List<T> getOrphanNodes(){
+        return orphanNodes;
+    }
+
+    /**
+     * 循环引用节点（未挂载到树中）
+     * @return
+     */
+    public List<T> getCycleNodes(){
+        return cycleNodes;
+    }
+
+    /**
+     * 广度优先挂载子节点
+     * @param startNodes
+     * @param parentId2ChildrenMap
+     * @param attachedNodes
+     */
+    private void attachChildren(List<T> startNodes, Map<Object, List<T>> parentId2ChildrenMap, Set<Object> attachedNodes){
+        Deque<T> queue = new ArrayDeque<>();
+        for(T node : startNodes){
+            if(attachedNodes.add(node)){
+                queue.add(node);
+            }
+        }
+        while(!queue.isEmpty()){
+            T node = queue.poll();
+            List<T> children = parentId2ChildrenMap.get(MatchKey.normalize(BeanUtils.getProperty(node, idFieldName)));
+            // 叶子节点的children保持null
+            if(children != null){
+                sort(children);
+                for(T child : children){
+                    if(attachedNodes.add(child)){
+                        queue.add(child);
+                    }
+                }
+                BeanUtils.setProperty(node, childrenFieldName, children);
+            }
+        }
+    }
+
+    private void sort(List<T> nodes){
+        if(comparator != null && nodes.size() > 1){
+            nodes.sort(comparator);
+        }
+    }
+
+}
@@ -19,12 +19,14 @@ import com.baomidou.mybatisplus.core.metadata.OrderItem;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.diboot.core.binding.cache.BindingCacheManager;
 import com.diboot.core.binding.parser.PropInfo;
+import com.diboot.core.binding.query.CountStrategy;
 import com.diboot.core.config.BaseConfig;
 import com.diboot.core.config.Cons;
 import com.diboot.core.entity.AbstractEntity;
 import com.diboot.core.util.S;
 import com.diboot.core.util.V;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.experimental.Accessors;
@@ -74,6 +76,31 @@ public class Pagination implements Serializable {
 
     private Class<? extends AbstractEntity> entityClass;
 
+    /**
+     * 是否启用游标（keyset）分页：按上一页末行的排序列值及主键定位下一页，不执行OFFSET跳过及count统计
+     */
+    private boolean keyset = false;
+    /**
+     * 游标分页时上一页返回的nextCursor，为空时查询第一页
+     */
+    private String cursor;
+    /**
+     * 游标分页时下一页的游标，无更多数据时为null
+     */
+    private String nextCursor;
+
+    /**
+     * count策略，为空时使用DTO类@QueryCount注解指定的策略或默认策略。
+     * 仅由服务端指定（见useCountStrategy），不接受请求参数绑定
+     */
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    private CountStrategy countStrategy;
+    /**
+     * 是否有下一页，跳过count时据多查询的1条记录判断，否则据总数计算
+     */
+    private Boolean hasNext;
+
     public Pagination() {
     }
 
@@ -88,6 +115,16 @@ public class Pagination implements Serializable {
         setPageIndex(pageIndex);
     }
 
+    /**
+     * 服务端指定count策略（非setter，避免被请求参数绑定）
+     * @param countStrategy
+     * @return
+     */
+    public Pagination useCountStrategy(CountStrategy countStrategy) {
+        this.countStrategy = countStrategy;
+        return this;
+    }
+
     public void setPageSize(int pageSize) {
         if (pageSize > 1000) {
             log.warn("分页pageSize过大，将被调整为默认限值，请检查调用是否合理！pageSize=" + pageSize);
@@ -107,6 +144,17 @@ public class Pagination implements Serializable {
         return (int) Math.ceil((float) totalCount / pageSize);
     }
 
+    /**
+     * 是否有下一页
+     * @return
+     */
+    public Boolean getHasNext() {
+        if (hasNext != null) {
+            return hasNext;
+        }
+        return (long) pageIndex * pageSize < totalCount;
+    }
+
     /**
      * 清空默认排序
      */
@@ -134,39 +182,7 @@ public class Pagination implements Serializable {
      * @return
      */
     public <T> Page<T> toPage() {
-        List<OrderItem> orderItemList = null;
-        // 解析排序
-        if (V.notEmpty(this.orderBy)) {
-            orderItemList = new ArrayList<>();
-            // orderBy=shortName:DESC,age:ASC,birthdate
-            String[] orderByFields = S.split(this.orderBy);
-            for (String field : orderByFields) {
-                V.securityCheck(field);
-                if (field.contains(":")) {
-                    String[] fieldAndOrder = S.split(field, ":");
-                    String fieldName = fieldAndOrder[0];
-                    String columnName = S.toSnakeCase(fieldName);
-                    PropInfo propInfo = getEntityPropInfo();
-                    if(propInfo != null){
-                        // 前参数为字段名
-                        if(propInfo.getFieldToColumnMap().containsKey(fieldName)){
-                            columnName = propInfo.getFieldToColumnMap().get(fieldName);
-                        }
-                        // 前参数为列名
-                        else if(propInfo.getColumnToFieldMap().containsKey(fieldName)){
-                            columnName = fieldName;
-                        }
-                    }
-                    if (Cons.ORDER_DESC.equalsIgnoreCase(fieldAndOrder[1])) {
-                        orderItemList.add(OrderItem.desc(columnName));
-                    } else {
-                        orderItemList.add(OrderItem.asc(columnName));
-                    }
-                } else {
-                    orderItemList.add(OrderItem.asc(S.toSnakeCase(field)));
-                }
-            }
-        }
+        List<OrderItem> orderItemList = getOrderItems();
         Page<T> page = new Page<T>()
                 .setCurrent(getPageIndex())
                 .setSize(getPageSize())
@@ -178,6 +194,48 @@ public class Pagination implements Serializable {
         return page;
     }
 
+    /**
+     * 解析排序为OrderItem列表
+     *
+     * @return 无排序时返回null
+     */
+    @JsonIgnore
+    public List<OrderItem> getOrderItems() {
+        if (V.isEmpty(this.orderBy)) {
+            return null;
+        }
+        List<OrderItem> orderItemList = new ArrayList<>();
+        // orderBy=shortName:DESC,age:ASC,birthdate
+        String[] orderByFields = S.split(this.orderBy);
+        for (String field : orderByFields) {
+            V.securityCheck(field);
+            if (field.contains(":")) {
+                String[] fieldAndOrder = S.split(field, ":");
+                String fieldName = fieldAndOrder[0];
+                String columnName = S.toSnakeCase(fieldName);
+                PropInfo propInfo = getEntityPropInfo();
+                if(propInfo != null){
+                    // 前参数为字段名
+                    if(propInfo.getFieldToColumnMap().containsKey(fieldName)){
+                        columnName = propInfo.getFieldToColumnMap().get(fieldName);
+                    }
+                    // 前参数为列名
+                    else if(propInfo.getColumnToFieldMap().containsKey(fieldName)){
+                        columnName = fieldName;
+                    }
+                }
+                if (Cons.ORDER_DESC.equalsIgnoreCase(fieldAndOrder[1])) {
+                    orderItemList.add(OrderItem.desc(columnName));
+                } else {
+                    orderItemList.add(OrderItem.asc(columnName));
+                }
+            } else {
+                orderItemList.add(OrderItem.asc(S.toSnakeCase(field)));
+            }
+        }
+        return orderItemList;
+    }
+
     /**
      * 当id不是主键的时候，默认使用创建时间排序
      *
@@ -21,6 +21,7 @@ import com.diboot.core.binding.RelationsBinder;
 import com.diboot.core.exception.BusinessException;
 import com.diboot.core.util.BeanUtils;
 import com.diboot.core.util.S;
+import com.diboot.core.util.TreeBuilder;
 import com.diboot.core.util.V;
 import com.diboot.core.vo.Status;
 import com.diboot.iam.cache.IamCacheManager;
@@ -259,14 +260,13 @@ public class IamResourcePermissionServiceImpl extends BaseIamServiceImpl<IamReso
             }
         }
         List<InvalidResourcePermissionVO> result = new ArrayList<>(resultMap.values());
+        // 一次遍历挂载子节点（最外层元素的上级不在结果中，作为孤儿节点同样挂载其下级）
+        new TreeBuilder<InvalidResourcePermissionVO>().build(result);
         List<Long> diffDataIdList = new ArrayList<>();
         for (InvalidResourcePermissionVO value : result) {
-            List<InvalidResourcePermissionVO> childNodeChildren =  BeanUtils.buildTreeChildren(value.getId(), result, Cons.FieldName.parentId.name(), Cons.FieldName.children.name());
-
-            if(childNodeChildren == null) {
-                childNodeChildren = new ArrayList<>();
+            if(value.getChildren() == null) {
+                value.setChildren(new ArrayList<>());
             }
-            BeanUtils.setProperty(value,  Cons.FieldName.children.name(), childNodeChildren);
             diffDataIdList.add(value.getId());
         }
         return new HashMap<String, Object>() {{